@@ -0,0 +1,76 @@
+package com.teatroabc.desempenho;
+
+import com.teatroabc.dominio.modelos.Bilhete;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de bilhetes no armazenamento de texto (bilhetes.txt e o índice de offsets) e no
+ * binário (bilhetes.bin mapeado), sobre os mesmos bilhetes sintéticos: busca por ID, entre
+ * 2000 IDs sorteados, e bilhetes de um cliente, entre 200 CPFs sorteados.
+ *
+ * <pre>
+ *   mvn -Pjmh verify -Djmh.args="ArmazenamentoBilhetesBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArmazenamentoBilhetesBenchmark {
+
+    @Param({"texto", "binario"})
+    public String armazenamento;
+
+    @Param({"100000"})
+    public int bilhetes;
+
+    /** Clientes distintos: cada um fica, em média, com {@code bilhetes / clientes} bilhetes. */
+    @Param({"20000"})
+    public int clientes;
+
+    private RepositoriosDeArquivo repositorios;
+    private final String[] ids = new String[2000];
+    private final String[] cpfs = new String[200];
+    private int proximoId;
+    private int proximoCpf;
+
+    @Setup
+    public void preparar() {
+        DadosSinteticos.gerar(clientes, bilhetes);
+        repositorios = new RepositoriosDeArquivo(armazenamento);
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = DadosSinteticos.idBilhete(aleatorio.nextInt(bilhetes));
+        }
+        for (int i = 0; i < cpfs.length; i++) {
+            cpfs[i] = DadosSinteticos.cpf(aleatorio.nextInt(clientes));
+        }
+    }
+
+    @Benchmark
+    public Optional<Bilhete> buscarPorId() {
+        return repositorios.bilhetes.buscarPorId(ids[proximoId++ % ids.length]);
+    }
+
+    @Benchmark
+    public List<Bilhete> listarPorCpfCliente() {
+        return repositorios.bilhetes.listarPorCpfCliente(cpfs[proximoCpf++ % cpfs.length]);
+    }
+}
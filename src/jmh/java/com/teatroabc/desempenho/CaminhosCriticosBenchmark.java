@@ -0,0 +1,113 @@
+package com.teatroabc.desempenho;
+
+import com.teatroabc.aplicacao.excecoes.ReservaInvalidaException;
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.dominio.validadores.ValidadorCPF;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dos caminhos críticos do balcão sobre os repositórios de arquivo, com
+ * dados/ sintético de 10 mil, 100 mil e 1 milhão de linhas (clientes e bilhetes):
+ * busca de cliente por CPF, planta da sessão, bilhetes de um cliente, venda de uma
+ * reserva (com o fsync do diário) e validação de CPF.
+ *
+ * <pre>
+ *   mvn -Pjmh verify -Djmh.args="CaminhosCriticosBenchmark -p linhas=100000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CaminhosCriticosBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int linhas;
+
+    private RepositoriosDeArquivo repositorios;
+    private Peca peca;
+    private Sessao sessaoConsultada;
+    private Cliente clienteReserva;
+
+    // Venda: cada reserva ocupa os próximos dois assentos livres; esgotada a planta, abre outra sessão.
+    private Sessao sessaoVenda;
+    private Iterator<Assento> livres;
+
+    @Setup
+    public void preparar() {
+        DadosSinteticos.gerar(linhas, linhas);
+        repositorios = new RepositoriosDeArquivo("texto");
+
+        peca = repositorios.pecas.listarTodas().get(0);
+        sessaoConsultada = new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.now().plusDays(1), Turno.NOITE);
+        clienteReserva = repositorios.clientes.buscarPorCpf(DadosSinteticos.cpf(0)).orElseThrow();
+        novaSessaoVenda();
+    }
+
+    private String cpfSorteado() {
+        return DadosSinteticos.cpf(ThreadLocalRandom.current().nextInt(linhas));
+    }
+
+    private void novaSessaoVenda() {
+        sessaoVenda = new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.now().plusDays(2), Turno.TARDE);
+        livres = repositorios.assentosLivres(sessaoVenda).iterator();
+    }
+
+    @Benchmark
+    public Optional<Cliente> buscarClientePorCpf() {
+        return repositorios.clientes.buscarPorCpf(cpfSorteado());
+    }
+
+    @Benchmark
+    public List<Assento> buscarAssentosPorSessao() {
+        return repositorios.assentos.buscarAssentosPorSessao(sessaoConsultada);
+    }
+
+    @Benchmark
+    public List<Bilhete> listarBilhetesPorCpf() {
+        return repositorios.bilhetes.listarPorCpfCliente(cpfSorteado());
+    }
+
+    @Benchmark
+    public Bilhete criarReserva() throws ReservaInvalidaException {
+        if (!livres.hasNext()) {
+            novaSessaoVenda();
+        }
+        Assento primeiro = livres.next();
+        if (!livres.hasNext()) {
+            novaSessaoVenda();
+            primeiro = livres.next();
+        }
+        return repositorios.reservas.criarReserva(sessaoVenda, clienteReserva, List.of(primeiro, livres.next()));
+    }
+
+    @Benchmark
+    public boolean validarCpf() {
+        return ValidadorCPF.isValid(cpfSorteado());
+    }
+}
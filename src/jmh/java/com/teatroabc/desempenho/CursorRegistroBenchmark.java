@@ -0,0 +1,109 @@
+package com.teatroabc.desempenho;
+
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.infraestrutura.persistencia.util.CursorRegistro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura de linhas de bilhetes.txt com {@code String.split} (como antes) e com o
+ * {@link CursorRegistro}, sobre linhas já em memória: o filtro por CPF e a leitura completa
+ * (ID, turno, total e data da compra) de todas as linhas. Para a alocação, rodar com o
+ * profiler de GC:
+ *
+ * <pre>
+ *   mvn -Pjmh verify -Djmh.args="CursorRegistroBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CursorRegistroBenchmark {
+
+    private static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    @Param({"100000"})
+    public int linhas;
+
+    private String[] registros;
+    private String cpfProcurado;
+    private final CursorRegistro cursor = new CursorRegistro('|');
+
+    @Setup
+    public void gerarLinhas() {
+        SplittableRandom aleatorio = new SplittableRandom(16);
+        int clientes = Math.max(1, linhas / 5);
+        LocalDateTime inicio = LocalDateTime.of(2025, 6, 1, 0, 0);
+        registros = new String[linhas];
+        for (int i = 0; i < linhas; i++) {
+            registros[i] = DadosSinteticos.linhaBilhete(i, DadosSinteticos.cpf(aleatorio.nextInt(clientes)),
+                    "peca-" + aleatorio.nextInt(4), "sessao-" + aleatorio.nextInt(12), inicio.plusDays(40),
+                    inicio.plusMinutes(aleatorio.nextInt(60 * 24 * 30)));
+        }
+        cpfProcurado = DadosSinteticos.cpf(clientes / 2);
+    }
+
+    @Benchmark
+    public int filtroCpfSplit() {
+        int encontrados = 0;
+        for (String linha : registros) {
+            String[] partes = linha.split("\\|");
+            if (partes.length > 2 && partes[2].equals(cpfProcurado)) {
+                encontrados++;
+            }
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    public int filtroCpfCursor() {
+        int encontrados = 0;
+        for (String linha : registros) {
+            if (cursor.sobre(linha).quantidadeCampos() > 2 && cursor.campoIgual(2, cpfProcurado)) {
+                encontrados++;
+            }
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    public void leituraCompletaSplit(Blackhole consumidor) {
+        for (String linha : registros) {
+            String[] partes = linha.split("\\|");
+            consumidor.consume(partes[0]);
+            consumidor.consume(Turno.valueOf(partes[8]));
+            consumidor.consume(new BigDecimal(partes[7].replace(",", ".")));
+            consumidor.consume(LocalDateTime.parse(partes[9], FORMATO_DATA_HORA));
+        }
+    }
+
+    @Benchmark
+    public void leituraCompletaCursor(Blackhole consumidor) {
+        for (String linha : registros) {
+            cursor.sobre(linha);
+            consumidor.consume(cursor.texto(0));
+            consumidor.consume(Turno.valueOf(cursor.texto(8)));
+            consumidor.consume(cursor.centavos(7));
+            consumidor.consume(cursor.dataHora(9));
+        }
+    }
+}
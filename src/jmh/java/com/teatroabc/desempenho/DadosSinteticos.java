@@ -0,0 +1,171 @@
+package com.teatroabc.desempenho;
+
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.infraestrutura.persistencia.implementacao.PecaRepositorio;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Gera um diretório dados/ sintético para os benchmarks, no formato lido pelos repositórios
+ * de arquivo. Os CPFs são determinísticos ({@link #cpf(int)}) e têm dígitos verificadores
+ * válidos, para que os benchmarks sorteiem CPFs existentes sem ler o arquivo de volta.
+ *
+ * <p>Os repositórios abrem dados/ relativo ao diretório de trabalho e guardam o diário em
+ * campos estáticos: o arquivo deve ser gerado no {@code @Setup} do trial, antes de qualquer
+ * repositório ser criado, e cada valor de {@code @Param} roda em um fork próprio.</p>
+ */
+public final class DadosSinteticos {
+
+    public static final Path DIRETORIO = Paths.get("dados");
+
+    private static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final String[] PLANOS = {"PADRAO", "GOLD"};
+    private static final String[] TURNOS = {"MANHA", "TARDE", "NOITE"};
+
+    private DadosSinteticos() {}
+
+    /** Sessões sintéticas por peça, às quais os bilhetes são distribuídos. */
+    public static final int SESSOES_POR_PECA = 3;
+
+    /**
+     * Apaga dados/ e grava {@code clientes} clientes e {@code bilhetes} bilhetes, distribuídos
+     * entre os clientes e as sessões das peças do catálogo, comprados no mês corrente.
+     */
+    public static void gerar(int clientes, int bilhetes) {
+        LocalDateTime inicioMes = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0);
+        gerar(clientes, bilhetes, inicioMes, sessao -> inicioMes.plusDays(27 + sessao).withHour(20));
+    }
+
+    /**
+     * Como {@link #gerar(int, int)}, mas com todas as sessões hoje às 20h e os bilhetes
+     * comprados nos 28 dias anteriores: todos passam pela portaria hoje.
+     */
+    public static void gerarComSessoesHoje(int clientes, int bilhetes) {
+        LocalDate hoje = LocalDate.now();
+        gerar(clientes, bilhetes, hoje.minusDays(28).atStartOfDay(), sessao -> hoje.atTime(20, 0));
+    }
+
+    private static void gerar(int clientes, int bilhetes, LocalDateTime inicioCompras,
+                              IntFunction<LocalDateTime> dataDaSessao) {
+        try {
+            limpar();
+            Files.createDirectories(DIRETORIO);
+            Files.createFile(DIRETORIO.resolve("assentos_ocupados.txt"));
+            try (BufferedWriter saida = Files.newBufferedWriter(DIRETORIO.resolve("clientes.txt"), StandardCharsets.UTF_8)) {
+                for (int i = 0; i < clientes; i++) {
+                    saida.write(linhaCliente(i));
+                    saida.newLine();
+                }
+            }
+            List<String> idsPecas = new PecaRepositorio().listarTodas().stream().map(Peca::getId).toList();
+            SplittableRandom aleatorio = new SplittableRandom(42);
+            try (BufferedWriter saida = Files.newBufferedWriter(DIRETORIO.resolve("bilhetes.txt"), StandardCharsets.UTF_8)) {
+                for (int i = 0; i < bilhetes; i++) {
+                    int peca = aleatorio.nextInt(idsPecas.size());
+                    int sessao = aleatorio.nextInt(SESSOES_POR_PECA);
+                    LocalDateTime compra = inicioCompras.plusMinutes(aleatorio.nextInt(24 * 60 * 27));
+                    saida.write(linhaBilhete(i, cpf(aleatorio.nextInt(clientes)), idsPecas.get(peca),
+                            idSessao(peca, sessao), dataDaSessao.apply(sessao), compra));
+                    saida.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gerar dados sintéticos em " + DIRETORIO.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Remove dados/ e tudo o que os repositórios criaram nele.
+     */
+    public static void limpar() throws IOException {
+        if (!Files.exists(DIRETORIO)) {
+            return;
+        }
+        try (Stream<Path> caminhos = Files.walk(DIRETORIO)) {
+            for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(caminho);
+            }
+        }
+    }
+
+    /**
+     * CPF válido (11 dígitos) do i-ésimo cliente sintético.
+     */
+    public static String cpf(int i) {
+        int[] digitos = new int[11];
+        long base = 100_000_000L + i;
+        for (int d = 8; d >= 0; d--) {
+            digitos[d] = (int) (base % 10);
+            base /= 10;
+        }
+        digitos[9] = digitoVerificador(digitos, 9);
+        digitos[10] = digitoVerificador(digitos, 10);
+        StringBuilder cpf = new StringBuilder(11);
+        for (int digito : digitos) {
+            cpf.append(digito);
+        }
+        return cpf.toString();
+    }
+
+    private static int digitoVerificador(int[] digitos, int quantidade) {
+        int soma = 0;
+        for (int d = 0; d < quantidade; d++) {
+            soma += digitos[d] * (quantidade + 1 - d);
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    static String linhaCliente(int i) {
+        return cpf(i) + "|CLIENTE " + i + "|01/01/1990|(11) 90000-0000|cliente" + i + "@teatroabc.com|"
+                + PLANOS[i % PLANOS.length];
+    }
+
+    /**
+     * ID do i-ésimo bilhete sintético.
+     */
+    public static String idBilhete(int i) {
+        return String.format("bilhete-%08d", i);
+    }
+
+    /**
+     * Código de barras (formato antigo, de 12 dígitos) do i-ésimo bilhete sintético.
+     */
+    public static String codigoBarras(int i) {
+        return String.format("%012d", 700_000_000_000L + i);
+    }
+
+    /**
+     * ID da n-ésima sessão sintética da peça de posição {@code peca} no catálogo.
+     */
+    public static String idSessao(int peca, int n) {
+        return "sessao-" + peca + "-" + n;
+    }
+
+    /**
+     * Linha de bilhetes.txt do i-ésimo bilhete sintético, no formato gravado pelo repositório de texto.
+     */
+    public static String linhaBilhete(int i, String cpf, String idPeca, String idSessao, LocalDateTime dataSessao,
+                                      LocalDateTime compra) {
+        int fileira = 1 + i % 4;
+        int numero = 1 + i % 10;
+        return idBilhete(i) + "|" + codigoBarras(i) + "|" + cpf + "|" + idPeca + "|"
+                + "B" + fileira + "-" + numero + ",B" + fileira + "-" + (numero + 1) + "|100.00|5.00|95.00|"
+                + TURNOS[i % TURNOS.length] + "|" + compra.format(FORMATO_DATA_HORA) + "|"
+                + idSessao + "|" + dataSessao.format(FORMATO_DATA_HORA);
+    }
+}
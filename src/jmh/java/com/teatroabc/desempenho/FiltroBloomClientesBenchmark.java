@@ -0,0 +1,94 @@
+package com.teatroabc.desempenho;
+
+import com.teatroabc.infraestrutura.persistencia.implementacao.ClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.ClienteRepositorioComFiltroBloom;
+import com.teatroabc.infraestrutura.persistencia.util.FiltroBloomCpfs;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primeira consulta de um CPF não cadastrado, como no início de um cadastro, sobre um
+ * clientes.txt grande: pelo repositório de arquivo (que carrega o índice inteiro), pelo
+ * {@link ClienteRepositorioComFiltroBloom} sem clientes.bloom (o filtro é construído) e com
+ * clientes.bloom já gravado. Cada invocação monta os repositórios do zero.
+ *
+ * <pre>
+ *   mvn -Pjmh verify -Djmh.args="FiltroBloomClientesBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FiltroBloomClientesBenchmark {
+
+    @Param({"1000000"})
+    public int clientes;
+
+    private Path caminhoFiltro;
+    private String cpfNovo;
+
+    @Setup(Level.Trial)
+    public void gerarDados() {
+        DadosSinteticos.gerar(clientes, 0);
+        caminhoFiltro = GerenciadorArquivos.caminhoArquivo(FiltroBloomCpfs.ARQUIVO_FILTRO);
+        cpfNovo = DadosSinteticos.cpf(clientes + 1);
+    }
+
+    /**
+     * Garante clientes.bloom gravado antes de cada consulta que o usa.
+     */
+    @State(Scope.Benchmark)
+    public static class FiltroGravado {
+        @Setup(Level.Iteration)
+        public void gravarFiltro(FiltroBloomClientesBenchmark dados) {
+            if (!Files.exists(dados.caminhoFiltro)) {
+                new ClienteRepositorioComFiltroBloom(new ClienteRepositorio(), dados.caminhoFiltro).aquecer();
+            }
+        }
+    }
+
+    /**
+     * Apaga clientes.bloom antes de cada consulta, para que o filtro seja construído.
+     */
+    @State(Scope.Benchmark)
+    public static class SemFiltroGravado {
+        @Setup(Level.Iteration)
+        public void apagarFiltro(FiltroBloomClientesBenchmark dados) throws IOException {
+            Files.deleteIfExists(dados.caminhoFiltro);
+        }
+    }
+
+    @Benchmark
+    public boolean primeiraConsultaSemFiltro() {
+        return new ClienteRepositorio().existe(cpfNovo);
+    }
+
+    @Benchmark
+    public boolean primeiraConsultaConstruindoFiltro(SemFiltroGravado semFiltro) {
+        return new ClienteRepositorioComFiltroBloom(new ClienteRepositorio(), caminhoFiltro).existe(cpfNovo);
+    }
+
+    @Benchmark
+    public boolean primeiraConsultaComFiltroGravado(FiltroGravado filtroGravado) {
+        return new ClienteRepositorioComFiltroBloom(new ClienteRepositorio(), caminhoFiltro).existe(cpfNovo);
+    }
+}
@@ -0,0 +1,61 @@
+package com.teatroabc.desempenho;
+
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorioBinario;
+import com.teatroabc.infraestrutura.persistencia.implementacao.MigradorBilhetesBinario;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migração única de bilhetes.txt para bilhetes.bin ({@link MigradorBilhetesBinario}), medida
+ * de ponta a ponta: cada invocação apaga o arquivo binário e o gera de novo.
+ *
+ * <pre>
+ *   mvn -Pjmh verify -Djmh.args="MigracaoBilhetesBinarioBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MigracaoBilhetesBinarioBenchmark {
+
+    @Param({"100000"})
+    public int bilhetes;
+
+    private Path destino;
+
+    @Setup(Level.Trial)
+    public void gerarDados() {
+        DadosSinteticos.gerar(bilhetes / 5, bilhetes);
+        destino = GerenciadorArquivos.caminhoArquivo(BilheteRepositorioBinario.ARQUIVO_BILHETES_BINARIO);
+    }
+
+    @Setup(Level.Iteration)
+    public void apagarBinario() throws IOException {
+        Files.deleteIfExists(destino);
+    }
+
+    @Benchmark
+    public int migrar() throws IOException {
+        return MigradorBilhetesBinario.migrarSeNecessario(destino, IndicePlantaAssentos.padrao());
+    }
+}
@@ -0,0 +1,136 @@
+package com.teatroabc.desempenho;
+
+import com.teatroabc.aplicacao.servicos.EntradaServico;
+import com.teatroabc.dominio.enums.StatusEntrada;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.ClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.EntradaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.PecaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Leitores da portaria sobre o armazenamento em texto: 4 portas ({@code @Threads}) leem, cada
+ * uma em ordem própria, todos os 20.000 bilhetes de hoje de uma leva mais 10% de códigos
+ * desconhecidos. Cada bilhete é liberado por uma porta e recusado como já utilizado nas
+ * outras três. Cada iteração usa uma leva nova de bilhetes, para que toda iteração tenha as
+ * mesmas liberações; ao fim dela, confere-se que cada bilhete entrou exatamente uma vez.
+ * O resultado é o tempo médio por leitura em cada porta.
+ *
+ * <pre>
+ *   mvn -Pjmh verify -Djmh.args="PortariaBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Threads(PortariaBenchmark.PORTAS)
+@Fork(1)
+public class PortariaBenchmark {
+
+    static final int PORTAS = 4;
+    static final int BILHETES_POR_LEVA = 20_000;
+    static final int DESCONHECIDOS_POR_LEVA = BILHETES_POR_LEVA / 10;
+    static final int LEITURAS_POR_PORTA = BILHETES_POR_LEVA + DESCONHECIDOS_POR_LEVA;
+    // Levas geradas: cobre as iterações de aquecimento e de medição anotadas, com folga.
+    private static final int LEVAS = 10;
+
+    private EntradaServico portaria;
+    private int leva = -1;
+    private final LongAdder liberadas = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void gerarDados() {
+        DadosSinteticos.gerarComSessoesHoje(BILHETES_POR_LEVA / 5, LEVAS * BILHETES_POR_LEVA);
+        ClienteRepositorio clientes = new ClienteRepositorio();
+        RegistroOcupacaoAssentos registroOcupacao = new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false);
+        BilheteRepositorio bilhetes = new BilheteRepositorio(clientes, new PecaRepositorio(), registroOcupacao);
+        EntradaRepositorio entradas = new EntradaRepositorio(GerenciadorArquivos.bloqueiosEntreProcessos());
+        clientes.aquecer();
+        bilhetes.aquecer();
+        entradas.aquecer();
+        portaria = new EntradaServico(bilhetes, entradas);
+    }
+
+    @Setup(Level.Iteration)
+    public void proximaLeva() {
+        leva++;
+        if (leva >= LEVAS) {
+            throw new IllegalStateException("Mais iterações do que as " + LEVAS + " levas de bilhetes geradas.");
+        }
+        liberadas.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void conferirLiberacoes() {
+        if (liberadas.sum() != BILHETES_POR_LEVA) {
+            throw new IllegalStateException(liberadas.sum() + " entradas liberadas para " + BILHETES_POR_LEVA + " bilhetes.");
+        }
+    }
+
+    /**
+     * Os códigos lidos por uma porta na leva atual, em ordem própria.
+     */
+    @State(Scope.Thread)
+    public static class Porta {
+        private static final AtomicInteger NUMERACAO = new AtomicInteger();
+
+        String nome;
+        List<String> codigos;
+
+        @Setup(Level.Iteration)
+        public void embaralhar(PortariaBenchmark benchmark) {
+            if (nome == null) {
+                nome = "Porta " + NUMERACAO.incrementAndGet();
+            }
+            int primeiro = benchmark.leva * BILHETES_POR_LEVA;
+            codigos = new ArrayList<>(LEITURAS_POR_PORTA);
+            for (int i = 0; i < BILHETES_POR_LEVA; i++) {
+                codigos.add(DadosSinteticos.codigoBarras(primeiro + i));
+            }
+            int primeiroDesconhecido = LEVAS * BILHETES_POR_LEVA + benchmark.leva * DESCONHECIDOS_POR_LEVA;
+            for (int i = 0; i < DESCONHECIDOS_POR_LEVA; i++) {
+                codigos.add(DadosSinteticos.codigoBarras(primeiroDesconhecido + i));
+            }
+            Collections.shuffle(codigos, new Random(nome.hashCode() * 31L + benchmark.leva));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LEITURAS_POR_PORTA)
+    public int lerTodosOsCodigos(Porta porta) {
+        int liberadasNestaPorta = 0;
+        for (String codigo : porta.codigos) {
+            if (portaria.validarEntrada(codigo, porta.nome).getStatus() == StatusEntrada.LIBERADA) {
+                liberadasNestaPorta++;
+            }
+        }
+        liberadas.add(liberadasNestaPorta);
+        return liberadasNestaPorta;
+    }
+}
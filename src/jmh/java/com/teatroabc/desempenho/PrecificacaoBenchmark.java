@@ -0,0 +1,84 @@
+package com.teatroabc.desempenho;
+
+import com.teatroabc.dominio.enums.CategoriaAssento;
+import com.teatroabc.dominio.fidelidade.PlanoFidelidade;
+import com.teatroabc.dominio.fidelidade.PlanoFidelidadeFactory;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Centavos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preço de uma reserva de 4 assentos com desconto GOLD: soma, desconto, validação de
+ * subtotal - desconto = total e a gravação dos três valores na linha de bilhetes.txt.
+ * {@code precificarBigDecimal} refaz o caminho anterior (BigDecimal e {@code %.2f});
+ * {@code precificarCentavos} é o de {@code ReservaServico} e {@code BilheteRepositorio}.
+ * A alocação por reserva aparece com {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrecificacaoBenchmark {
+
+    private List<Assento> assentos;
+    private PlanoFidelidade plano;
+    private final StringBuilder linha = new StringBuilder(128);
+
+    @Setup
+    public void montarReserva() {
+        assentos = List.of(
+                new Assento("A1-1", 1, 1, CategoriaAssento.PLATEIA_A, CategoriaAssento.PLATEIA_A.getPrecoBase()),
+                new Assento("B1-2", 1, 2, CategoriaAssento.PLATEIA_B, CategoriaAssento.PLATEIA_B.getPrecoBase()),
+                new Assento("C1-3", 1, 3, CategoriaAssento.CAMAROTE, CategoriaAssento.CAMAROTE.getPrecoBase()),
+                new Assento("F1-4", 1, 4, CategoriaAssento.FRISA, CategoriaAssento.FRISA.getPrecoBase()));
+        plano = PlanoFidelidadeFactory.criar("GOLD");
+    }
+
+    @Benchmark
+    public String precificarBigDecimal() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (Assento assento : assentos) {
+            subtotal = subtotal.add(assento.getCategoria().getPrecoBase());
+        }
+        BigDecimal desconto = subtotal.multiply(plano.getFatorDesconto()).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal total = subtotal.subtract(desconto);
+        if (subtotal.subtract(desconto).compareTo(total) != 0) {
+            throw new IllegalStateException("Valores inconsistentes.");
+        }
+        return String.format(Locale.US, "%.2f|%.2f|%.2f", subtotal, desconto, total);
+    }
+
+    @Benchmark
+    public StringBuilder precificarCentavos() {
+        long subtotal = 0L;
+        for (Assento assento : assentos) {
+            subtotal = Centavos.somar(subtotal, assento.getPrecoCentavos());
+        }
+        long desconto = Centavos.percentual(subtotal, plano.getDescontoEmPontosBase());
+        long total = subtotal - desconto;
+        if (subtotal - desconto != total) {
+            throw new IllegalStateException("Valores inconsistentes.");
+        }
+        linha.setLength(0);
+        Centavos.anexar(linha, subtotal).append('|');
+        Centavos.anexar(linha, desconto).append('|');
+        return Centavos.anexar(linha, total);
+    }
+}
@@ -0,0 +1,80 @@
+package com.teatroabc.desempenho;
+
+import com.teatroabc.aplicacao.servicos.ReservaServico;
+import com.teatroabc.dominio.enums.StatusAssento;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.implementacao.AssentoRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorioBinario;
+import com.teatroabc.infraestrutura.persistencia.implementacao.ClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.MigradorBilhetesBinario;
+import com.teatroabc.infraestrutura.persistencia.implementacao.PecaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IBilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.Aquecivel;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Os repositórios de arquivo montados como em {@code TeatroABCApplication}, sobre o dados/
+ * do diretório de trabalho, sem simulação de ocupação e já aquecidos. O armazenamento de
+ * bilhetes é o de texto ou o binário (migrado de bilhetes.txt na primeira abertura).
+ */
+public final class RepositoriosDeArquivo {
+
+    public final RegistroOcupacaoAssentos registroOcupacao;
+    public final PecaRepositorio pecas;
+    public final ClienteRepositorio clientes;
+    public final AssentoRepositorio assentos;
+    public final IBilheteRepositorio bilhetes;
+    public final ReservaServico reservas;
+
+    /**
+     * @param armazenamentoBilhetes "texto" ou "binario", como {@code -Dteatroabc.armazenamento.bilhetes}.
+     */
+    public RepositoriosDeArquivo(String armazenamentoBilhetes) {
+        registroOcupacao = new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false);
+        pecas = new PecaRepositorio();
+        clientes = new ClienteRepositorio();
+        assentos = new AssentoRepositorio(registroOcupacao, GerenciadorArquivos.bloqueiosEntreProcessos());
+        if ("binario".equalsIgnoreCase(armazenamentoBilhetes)) {
+            try {
+                Path caminho = GerenciadorArquivos.caminhoArquivo(BilheteRepositorioBinario.ARQUIVO_BILHETES_BINARIO);
+                MigradorBilhetesBinario.migrarSeNecessario(caminho, registroOcupacao.getIndicePlanta());
+                bilhetes = new BilheteRepositorioBinario(clientes, pecas, registroOcupacao, caminho);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao abrir o armazenamento binário de bilhetes.", e);
+            }
+        } else {
+            bilhetes = new BilheteRepositorio(clientes, pecas, registroOcupacao);
+        }
+        reservas = new ReservaServico(bilhetes, assentos);
+        clientes.aquecer();
+        registroOcupacao.aquecer();
+        if (bilhetes instanceof Aquecivel aquecivel) {
+            aquecivel.aquecer();
+        }
+    }
+
+    /**
+     * Assentos livres da sessão, um por código: Plateia A e Plateia B compartilham o prefixo "P".
+     */
+    public List<Assento> assentosLivres(Sessao sessao) {
+        Map<String, Assento> porCodigo = new LinkedHashMap<>();
+        for (Assento assento : assentos.buscarAssentosPorSessao(sessao)) {
+            if (assento.getStatus() == StatusAssento.DISPONIVEL) {
+                porCodigo.putIfAbsent(assento.getCodigo(), assento);
+            }
+        }
+        return new ArrayList<>(porCodigo.values());
+    }
+}
@@ -0,0 +1,113 @@
+package com.teatroabc.desempenho;
+
+import com.teatroabc.aplicacao.dto.PedidoReservaDTO;
+import com.teatroabc.aplicacao.dto.PedidoReservaDTO.ItemPedido;
+import com.teatroabc.aplicacao.excecoes.ReservaInvalidaException;
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorio;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pedido de grupo: {@code bilhetesPorPedido} bilhetes de 4 assentos, divididos entre duas
+ * sessões, vendidos por {@code criarReserva} um a um ou de uma vez por {@code criarReservas}
+ * (uma única gravação durável), nos armazenamentos de texto e binário. Cada invocação usa
+ * duas sessões novas, com todos os assentos livres.
+ *
+ * <pre>
+ *   mvn -Pjmh verify -Djmh.args="ReservaEmLoteBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 30)
+@Fork(1)
+public class ReservaEmLoteBenchmark {
+
+    private static final int ASSENTOS_POR_BILHETE = 4;
+    private static final int SESSOES_POR_PEDIDO = 2;
+
+    @Param({"texto", "binario"})
+    public String armazenamento;
+
+    @Param({"2", "10", "30"})
+    public int bilhetesPorPedido;
+
+    private RepositoriosDeArquivo repositorios;
+    private Peca peca;
+    private Cliente cliente;
+    private List<String> codigosLivres;
+    private PedidoReservaDTO pedido;
+
+    @Setup(Level.Trial)
+    public void gerarDados() {
+        DadosSinteticos.gerar(2_000, 20_000);
+        repositorios = new RepositoriosDeArquivo(armazenamento);
+        peca = repositorios.pecas.listarTodas().get(0);
+        cliente = repositorios.clientes.buscarPorCpf(DadosSinteticos.cpf(0)).orElseThrow();
+        codigosLivres = repositorios.assentosLivres(novaSessao()).stream().map(Assento::getCodigo).toList();
+        int assentosPorSessao = bilhetesPorPedido / SESSOES_POR_PEDIDO * ASSENTOS_POR_BILHETE;
+        if (codigosLivres.size() < assentosPorSessao) {
+            throw new IllegalStateException("A planta tem " + codigosLivres.size() + " assentos; o pedido precisa de "
+                    + assentosPorSessao + " por sessão.");
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void montarPedido() {
+        List<ItemPedido> itens = new ArrayList<>(bilhetesPorPedido);
+        for (int s = 0; s < SESSOES_POR_PEDIDO; s++) {
+            Sessao sessao = novaSessao();
+            int bilhetesNaSessao = bilhetesPorPedido / SESSOES_POR_PEDIDO;
+            for (int b = 0; b < bilhetesNaSessao; b++) {
+                List<Assento> assentos = new ArrayList<>(ASSENTOS_POR_BILHETE);
+                for (int a = 0; a < ASSENTOS_POR_BILHETE; a++) {
+                    assentos.add(BilheteRepositorio.reconstruirAssento(codigosLivres.get(b * ASSENTOS_POR_BILHETE + a)));
+                }
+                itens.add(new ItemPedido(sessao, assentos));
+            }
+        }
+        pedido = new PedidoReservaDTO(cliente, itens);
+    }
+
+    private Sessao novaSessao() {
+        return new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDate.now().plusDays(7).atTime(20, 0), Turno.NOITE);
+    }
+
+    @Benchmark
+    public List<Bilhete> reservasSequenciais() throws ReservaInvalidaException {
+        List<Bilhete> bilhetes = new ArrayList<>(pedido.getItens().size());
+        for (ItemPedido item : pedido.getItens()) {
+            bilhetes.add(repositorios.reservas.criarReserva(item.getSessao(), cliente, item.getAssentos()));
+        }
+        return bilhetes;
+    }
+
+    @Benchmark
+    public List<Bilhete> reservaEmLote() throws ReservaInvalidaException {
+        return repositorios.reservas.criarReservas(pedido);
+    }
+}
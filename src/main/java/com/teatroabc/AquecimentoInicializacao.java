@@ -0,0 +1,166 @@
+// Arquivo: com/teatroabc/AquecimentoInicializacao.java
+package com.teatroabc;
+
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Fase de aquecimento da inicialização, usada pelo Composition Root.
+ * <p>
+ * As tarefas de aquecimento (construção dos índices dos repositórios, decodificação dos
+ * cartazes das peças) rodam em paralelo, cada uma em uma thread virtual, enquanto a
+ * janela principal é montada na thread do Swing. Cada fase da inicialização, seja
+ * síncrona ou de aquecimento, tem seu início e sua duração registrados; quando todas
+ * terminam, um relatório é acrescentado a dados/inicializacao.log, para acompanhar
+ * regressões no tempo de partida a frio.
+ */
+public class AquecimentoInicializacao {
+
+    private static final String ARQUIVO_RELATORIO = "inicializacao.log";
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    /** Uma fase medida da inicialização. */
+    private static final class Fase {
+        private final String nome;
+        private final String thread;
+        private final long inicioNanos;
+        private final long duracaoNanos;
+        private final boolean falhou;
+
+        private Fase(String nome, String thread, long inicioNanos, long duracaoNanos, boolean falhou) {
+            this.nome = nome;
+            this.thread = thread;
+            this.inicioNanos = inicioNanos;
+            this.duracaoNanos = duracaoNanos;
+            this.falhou = falhou;
+        }
+    }
+
+    private final LocalDateTime dataHoraInicio = LocalDateTime.now();
+    private final long inicioNanos = System.nanoTime();
+    private final List<Fase> fases = new ArrayList<>();
+    private final List<Future<?>> tarefas = new ArrayList<>();
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("aquecimento-", 0).factory());
+
+    /**
+     * Executa uma etapa na thread chamadora, registrando sua duração.
+     *
+     * @param nome O nome da fase no relatório.
+     * @param etapa A etapa a executar.
+     * @return O resultado da etapa.
+     */
+    public <T> T medir(String nome, Supplier<T> etapa) {
+        long inicio = System.nanoTime();
+        boolean falhou = true;
+        try {
+            T resultado = etapa.get();
+            falhou = false;
+            return resultado;
+        } finally {
+            registrar(nome, inicio, falhou);
+        }
+    }
+
+    /**
+     * Registra um instante da inicialização (fase sem duração), como a janela ficar visível.
+     *
+     * @param nome O nome do marco no relatório.
+     */
+    public void marcar(String nome) {
+        registrar(nome, System.nanoTime(), false);
+    }
+
+    /**
+     * Inicia uma tarefa de aquecimento em uma thread virtual. Uma falha é registrada no
+     * relatório e não interrompe a aplicação: o índice será construído no primeiro uso.
+     *
+     * @param nome O nome da fase no relatório.
+     * @param tarefa A tarefa de aquecimento.
+     */
+    public synchronized void aquecer(String nome, Runnable tarefa) {
+        tarefas.add(executor.submit(() -> {
+            long inicio = System.nanoTime();
+            boolean falhou = true;
+            try {
+                tarefa.run();
+                falhou = false;
+            } catch (RuntimeException e) {
+                System.err.println("AquecimentoInicializacao: Falha no aquecimento '" + nome + "': " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                registrar(nome, inicio, falhou);
+            }
+        }));
+    }
+
+    /**
+     * Aguarda, em uma thread virtual, o término das tarefas de aquecimento e grava o
+     * relatório da inicialização. Retorna imediatamente.
+     */
+    public void concluirEmSegundoPlano() {
+        Thread.ofVirtual().name("aquecimento-relatorio").start(() -> {
+            List<Future<?>> pendentes;
+            synchronized (this) {
+                pendentes = new ArrayList<>(tarefas);
+            }
+            for (Future<?> tarefa : pendentes) {
+                try {
+                    tarefa.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    // A falha já foi registrada pela própria tarefa.
+                }
+            }
+            executor.shutdown();
+            gravarRelatorio();
+        });
+    }
+
+    private synchronized void registrar(String nome, long inicio, boolean falhou) {
+        String thread = Thread.currentThread().isVirtual() ? "virtual" : Thread.currentThread().getName();
+        fases.add(new Fase(nome, thread, inicio - inicioNanos, System.nanoTime() - inicio, falhou));
+    }
+
+    private void gravarRelatorio() {
+        StringBuilder relatorio = new StringBuilder();
+        long totalNanos;
+        synchronized (this) {
+            totalNanos = System.nanoTime() - inicioNanos;
+            relatorio.append("=== Inicialização em ").append(dataHoraInicio.format(DATETIME_FORMATTER)).append(" ===\n");
+            fases.sort(Comparator.comparingLong(fase -> fase.inicioNanos));
+            for (Fase fase : fases) {
+                relatorio.append(String.format(Locale.ROOT, "%-40s início +%6d ms  duração %6d ms  [%s]%s%n",
+                        fase.nome, fase.inicioNanos / 1_000_000, fase.duracaoNanos / 1_000_000,
+                        fase.thread, fase.falhou ? "  FALHOU" : ""));
+            }
+        }
+        relatorio.append(String.format(Locale.ROOT, "%-40s %6d ms%n%n", "Total até o fim do aquecimento", totalNanos / 1_000_000));
+
+        Path caminho = GerenciadorArquivos.caminhoArquivo(ARQUIVO_RELATORIO);
+        try {
+            Files.writeString(caminho, relatorio, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("AquecimentoInicializacao: Erro ao gravar o relatório de inicialização: " + e.getMessage());
+        }
+    }
+}
@@ -6,31 +6,64 @@ import com.teatroabc.infraestrutura.persistencia.interfaces.IClienteRepositorio;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IPecaRepositorio;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IAssentoRepositorio;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IBilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IEntradaRepositorio;
 import com.teatroabc.infraestrutura.persistencia.interfaces.ISessaoRepositorio; 
 
 // --- Adaptadores de Saída (Implementações Concretas dos Repositórios) ---
 import com.teatroabc.infraestrutura.persistencia.implementacao.ClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.ClienteRepositorioComFiltroBloom;
 import com.teatroabc.infraestrutura.persistencia.implementacao.PecaRepositorio;
 import com.teatroabc.infraestrutura.persistencia.implementacao.AssentoRepositorio;
 import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorioBinario;
+import com.teatroabc.infraestrutura.persistencia.implementacao.EntradaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.MigradorBilhetesBinario;
 import com.teatroabc.infraestrutura.persistencia.implementacao.SessaoRepositorio; 
+import com.teatroabc.infraestrutura.persistencia.implementacao.jdbc.EsquemaJdbc;
+import com.teatroabc.infraestrutura.persistencia.implementacao.jdbc.FonteConexoesJdbc;
+import com.teatroabc.infraestrutura.persistencia.implementacao.jdbc.ImportadorDadosJdbc;
+import com.teatroabc.infraestrutura.persistencia.implementacao.jdbc.JdbcAssentoRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.jdbc.JdbcBilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.jdbc.JdbcClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.jdbc.JdbcEntradaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.jdbc.JdbcPecaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.jdbc.JdbcSessaoRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.Aquecivel;
+import com.teatroabc.infraestrutura.persistencia.util.ArquivoEmUsoException;
+import com.teatroabc.infraestrutura.persistencia.util.BloqueiosEntreProcessos;
+import com.teatroabc.infraestrutura.persistencia.util.CompactadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.FiltroBloomCpfs;
+import com.teatroabc.infraestrutura.persistencia.util.MonitorArquivosDados;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorSequencialIds;
 
 // --- Portas de Entrada (Interfaces dos Serviços de Aplicação) ---
 import com.teatroabc.aplicacao.interfaces.IClienteServico;
+import com.teatroabc.aplicacao.interfaces.IEntradaServico;
 import com.teatroabc.aplicacao.interfaces.IPecaServico;
 import com.teatroabc.aplicacao.interfaces.IReservaServico;
 import com.teatroabc.aplicacao.interfaces.ISessaoServico; 
 
 // --- Implementações dos Serviços de Aplicação ---
 import com.teatroabc.aplicacao.servicos.ClienteServico;
+import com.teatroabc.aplicacao.servicos.EntradaServico;
 import com.teatroabc.aplicacao.servicos.PecaServico;
 import com.teatroabc.aplicacao.servicos.ReservaServico;
 import com.teatroabc.aplicacao.servicos.SessaoServico;
 
 // --- Adaptador de Entrada Principal (UI) ---
+import com.teatroabc.infraestrutura.ui_swing.telas.TelaControleEntrada;
 import com.teatroabc.infraestrutura.ui_swing.telas.TelaPrincipal;
+import com.teatroabc.infraestrutura.ui_swing.util.CarregadorImagem;
+import com.teatroabc.dominio.modelos.Peca;
 
 import javax.swing.*;
+import java.awt.GraphicsEnvironment;
+import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * Ponto de entrada principal da aplicação Teatro ABC.
@@ -38,26 +71,135 @@ import javax.swing.*;
  * (repositórios nos serviços, e serviços na UI principal) e iniciar a interface gráfica.
  * Este é o "Composition Root" da aplicação, o único local onde as implementações
  * concretas são acopladas.
+ * Os índices dos repositórios e os cartazes das peças são preparados em paralelo,
+ * enquanto a janela é montada ({@link AquecimentoInicializacao}).
  */
 public class TeatroABCApplication {
 
+    /**
+     * Propriedade de sistema que escolhe o armazenamento de bilhetes:
+     * "texto" (padrão, bilhetes.txt) ou "binario" (bilhetes.bin, mapeado em memória).
+     */
+    public static final String PROPRIEDADE_ARMAZENAMENTO_BILHETES = "teatroabc.armazenamento.bilhetes";
+
+    /**
+     * Propriedade de sistema que liga ("true", padrão) ou desliga ("false", produção)
+     * a ocupação simulada de demonstração das sessões.
+     */
+    public static final String PROPRIEDADE_SIMULACAO_OCUPACAO = "teatroabc.simulacaoOcupacao";
+
+    /**
+     * Propriedade de sistema com o intervalo, em minutos, entre as passadas do compactador
+     * de arquivos de dados. Sem ela (ou com 0), este terminal não compacta: a compactação
+     * deve ser ligada em um único terminal por diretório de dados, por exemplo com
+     * "-Dteatroabc.compactacao.intervaloMinutos=15".
+     */
+    public static final String PROPRIEDADE_INTERVALO_COMPACTACAO = "teatroabc.compactacao.intervaloMinutos";
+
+    /**
+     * Propriedade de sistema que escolhe o armazenamento de todos os repositórios:
+     * "arquivos" (padrão, diretório dados/) ou "jdbc" (banco embarcado, ver {@link #PROPRIEDADE_JDBC_URL}).
+     */
+    public static final String PROPRIEDADE_ARMAZENAMENTO = "teatroabc.armazenamento";
+
+    /**
+     * Propriedade de sistema com a URL JDBC do banco embarcado (padrão: H2 em dados/teatroabc).
+     * O driver do banco precisa estar no classpath.
+     */
+    public static final String PROPRIEDADE_JDBC_URL = "teatroabc.jdbc.url";
+
+    /**
+     * Propriedade de sistema que liga ("true", padrão) ou desliga ("false") o acompanhamento
+     * do diretório de dados, que mantém os caches em dia com as gravações de outros terminais.
+     */
+    public static final String PROPRIEDADE_MONITORAMENTO_ARQUIVOS = "teatroabc.monitoramentoArquivos";
+
+    /**
+     * Propriedade de sistema que transforma o terminal em leitor de bilhetes da portaria:
+     * com o nome da porta (por exemplo, "-Dteatroabc.portaria=Porta 1"), a aplicação abre a
+     * tela de controle de entrada no lugar da bilheteria.
+     */
+    public static final String PROPRIEDADE_PORTARIA = "teatroabc.portaria";
+
+    /**
+     * Propriedade de sistema com o nó deste terminal nos IDs e códigos de barras gerados
+     * (0 a 1023). Sem ela, ou se o nó já estiver reservado por outro terminal, o terminal
+     * reserva o primeiro nó livre no arquivo de bloqueios do diretório de dados.
+     */
+    public static final String PROPRIEDADE_NO_GERADOR_IDS = "teatroabc.no";
+
     public static void main(String[] args) {
+        AquecimentoInicializacao aquecimento = new AquecimentoInicializacao();
+
         // Configuração inicial da UI (LookAndFeel)
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (Exception e) {
-            System.err.println("Falha ao configurar o LookAndFeel do sistema: " + e.getMessage());
-            e.printStackTrace();
-        }
+        aquecimento.medir("Look and feel", () -> {
+            try {
+                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+            } catch (Exception e) {
+                System.err.println("Falha ao configurar o LookAndFeel do sistema: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return null;
+        });
 
         // --- Montagem da Arquitetura e Injeção de Dependência REFATORADA ---
 
+        configurarGeradorIds();
+
         // 1. Criação dos Adaptadores de Saída (Repositórios Concretos)
-        IClienteRepositorio clienteRepositorio = new ClienteRepositorio();
-        IAssentoRepositorio assentoRepositorio = new AssentoRepositorio();
-        IPecaRepositorio pecaRepositorio = new PecaRepositorio();
-        ISessaoRepositorio sessaoRepositorio = new SessaoRepositorio(pecaRepositorio);
-        IBilheteRepositorio bilheteRepositorio = new BilheteRepositorio(clienteRepositorio, pecaRepositorio);
+        boolean simulacaoOcupacao = Boolean.parseBoolean(System.getProperty(PROPRIEDADE_SIMULACAO_OCUPACAO, "true"));
+        FonteConexoesJdbc bancoJdbc = "jdbc".equalsIgnoreCase(System.getProperty(PROPRIEDADE_ARMAZENAMENTO, "arquivos"))
+                ? aquecimento.medir("Banco embarcado", TeatroABCApplication::abrirBancoJdbc)
+                : null;
+
+        final IClienteRepositorio clienteRepositorio;
+        final IAssentoRepositorio assentoRepositorio;
+        final IPecaRepositorio pecaRepositorio;
+        final ISessaoRepositorio sessaoRepositorio;
+        final IBilheteRepositorio bilheteRepositorio;
+        final IEntradaRepositorio entradaRepositorio;
+        if (bancoJdbc != null) {
+            pecaRepositorio = new JdbcPecaRepositorio(bancoJdbc);
+            clienteRepositorio = new JdbcClienteRepositorio(bancoJdbc);
+            sessaoRepositorio = new JdbcSessaoRepositorio(bancoJdbc, pecaRepositorio);
+            assentoRepositorio = new JdbcAssentoRepositorio(bancoJdbc, simulacaoOcupacao);
+            bilheteRepositorio = new JdbcBilheteRepositorio(bancoJdbc, clienteRepositorio, pecaRepositorio);
+            entradaRepositorio = new JdbcEntradaRepositorio(bancoJdbc);
+        } else {
+            // O registro de ocupação é compartilhado: o repositório de bilhetes o atualiza a cada
+            // venda e o de assentos o consulta para montar a planta de cada sessão.
+            RegistroOcupacaoAssentos registroOcupacao = aquecimento.medir("Registro de ocupação",
+                    () -> new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), simulacaoOcupacao));
+            ClienteRepositorio clientesEmArquivo = aquecimento.medir("Repositório de clientes", ClienteRepositorio::new);
+            // O cadastro consulta o CPF pelo filtro de Bloom; só os CPFs que talvez existam chegam ao índice.
+            ClienteRepositorioComFiltroBloom clientesComFiltro = new ClienteRepositorioComFiltroBloom(
+                    clientesEmArquivo, GerenciadorArquivos.caminhoArquivo(FiltroBloomCpfs.ARQUIVO_FILTRO));
+            Runtime.getRuntime().addShutdownHook(new Thread(clientesComFiltro::persistirFiltro, "filtro-cpfs-encerramento"));
+            clienteRepositorio = clientesComFiltro;
+            assentoRepositorio = new AssentoRepositorio(registroOcupacao, GerenciadorArquivos.bloqueiosEntreProcessos());
+            pecaRepositorio = aquecimento.medir("Repositório de peças", PecaRepositorio::new);
+            sessaoRepositorio = aquecimento.medir("Catálogo de sessões", () -> new SessaoRepositorio(pecaRepositorio));
+            bilheteRepositorio = aquecimento.medir("Repositório de bilhetes",
+                    () -> criarRepositorioBilhetes(clientesEmArquivo, pecaRepositorio, registroOcupacao));
+            EntradaRepositorio entradasEmArquivo = new EntradaRepositorio(GerenciadorArquivos.bloqueiosEntreProcessos());
+            entradaRepositorio = entradasEmArquivo;
+            iniciarCompactador();
+            iniciarMonitorArquivos(clientesEmArquivo, clientesComFiltro, registroOcupacao, bilheteRepositorio,
+                    entradasEmArquivo);
+
+            // 1.1. Aquecimento: os índices são preparados em threads virtuais, enquanto a janela
+            // é montada, para que a primeira consulta no balcão não pague a varredura.
+            aquecimento.aquecer("Índice de clientes", clientesEmArquivo::aquecer);
+            aquecimento.aquecer("Filtro de CPFs", clientesComFiltro::aquecer);
+            aquecimento.aquecer("Ocupação de assentos", registroOcupacao::aquecer);
+            if (bilheteRepositorio instanceof Aquecivel bilhetesAqueciveis) {
+                aquecimento.aquecer("Índice de bilhetes", bilhetesAqueciveis::aquecer);
+            }
+            aquecimento.aquecer("Entradas da portaria", entradasEmArquivo::aquecer);
+        }
+        for (Peca peca : pecaRepositorio.listarTodas()) {
+            aquecimento.aquecer("Cartaz: " + peca.getTitulo(), () -> CarregadorImagem.carregar(peca.getCaminhoImagem()));
+        }
 
         // 2. Criação dos Serviços de Aplicação (Núcleo do Hexágono)
         IClienteServico clienteServico = new ClienteServico(clienteRepositorio);
@@ -66,23 +208,188 @@ public class TeatroABCApplication {
         IReservaServico reservaServico = new ReservaServico(bilheteRepositorio, assentoRepositorio);
         // SessaoServico agora depende de AssentoRepositorio
         ISessaoServico sessaoServico = new SessaoServico(sessaoRepositorio, assentoRepositorio);
+        IEntradaServico entradaServico = new EntradaServico(bilheteRepositorio, entradaRepositorio);
+        String porta = System.getProperty(PROPRIEDADE_PORTARIA, "").trim();
 
         // 3. Criação e Início do Adaptador de Entrada Principal (UI Swing)
         SwingUtilities.invokeLater(() -> {
-            TelaPrincipal telaPrincipal = new TelaPrincipal(
-                clienteServico, 
-                pecaServico, 
-                reservaServico,
-                sessaoServico
-            );
-
-            JFrame frame = new JFrame("Teatro ABC - Sistema de Bilheteria");
+            JPanel telaInicial;
+            String tituloJanela;
+            if (porta.isEmpty()) {
+                telaInicial = aquecimento.medir("Tela principal", () -> new TelaPrincipal(
+                    clienteServico, 
+                    pecaServico, 
+                    reservaServico,
+                    sessaoServico
+                ));
+                tituloJanela = "Teatro ABC - Sistema de Bilheteria";
+            } else {
+                // Terminal da portaria: só lê bilhetes.
+                telaInicial = aquecimento.medir("Tela da portaria", () -> new TelaControleEntrada(entradaServico, porta));
+                tituloJanela = "Teatro ABC - Portaria (" + porta + ")";
+            }
+
+            JFrame frame = new JFrame(tituloJanela);
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
             frame.setSize(1400, 900);
             frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
             frame.setLocationRelativeTo(null);            
-            frame.setContentPane(telaPrincipal);
+            frame.setContentPane(telaInicial);
             frame.setVisible(true);
+            aquecimento.marcar("Janela visível");
+            aquecimento.concluirEmSegundoPlano();
         });
     }
+
+    /**
+     * Abre o banco embarcado da propriedade {@link #PROPRIEDADE_JDBC_URL}, cria o esquema e,
+     * se o banco estiver vazio, importa os dados do diretório dados/.
+     * Se o banco não puder ser aberto (por exemplo, sem o driver no classpath), a aplicação
+     * volta aos arquivos.
+     *
+     * @return O pool de conexões do banco, ou null para usar os arquivos.
+     */
+    private static FonteConexoesJdbc abrirBancoJdbc() {
+        String url = System.getProperty(PROPRIEDADE_JDBC_URL, "jdbc:h2:./dados/teatroabc");
+        FonteConexoesJdbc fonte = new FonteConexoesJdbc(url, "sa", "", 4);
+        try {
+            EsquemaJdbc.criar(fonte);
+            if (ImportadorDadosJdbc.bancoVazio(fonte)) {
+                IPecaRepositorio pecasEmArquivo = new PecaRepositorio();
+                ImportadorDadosJdbc.importar(fonte, pecasEmArquivo, new SessaoRepositorio(pecasEmArquivo));
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(fonte::close, "banco-embarcado-encerramento"));
+            return fonte;
+        } catch (Exception e) {
+            System.err.println("Falha ao abrir o banco embarcado (" + url + "); usando os arquivos de dados: " + e.getMessage());
+            e.printStackTrace();
+            fonte.close();
+            return null;
+        }
+    }
+
+    /**
+     * Define o nó do gerador de IDs conforme a propriedade {@link #PROPRIEDADE_NO_GERADOR_IDS}
+     * ou, sem ela, reservando o primeiro nó livre entre os terminais que compartilham o
+     * diretório de dados. Um nó configurado que já esteja reservado por outro terminal (ou
+     * inválido) não é usado: dois terminais no mesmo nó gerariam os mesmos IDs e códigos de
+     * barras, então o terminal reserva um nó livre, como sem a propriedade. Sem o arquivo de
+     * bloqueios, o nó sorteado pelo gerador é mantido.
+     */
+    private static void configurarGeradorIds() {
+        BloqueiosEntreProcessos bloqueios = GerenciadorArquivos.bloqueiosEntreProcessos();
+        String configurado = System.getProperty(PROPRIEDADE_NO_GERADOR_IDS);
+        try {
+            if (configurado != null) {
+                try {
+                    int no = Integer.parseInt(configurado.trim());
+                    if (no < 0 || no >= GeradorSequencialIds.QUANTIDADE_NOS) {
+                        throw new IllegalArgumentException("o nó deve estar entre 0 e " + (GeradorSequencialIds.QUANTIDADE_NOS - 1));
+                    }
+                    // Reserva também o nó configurado, para que os terminais sem a propriedade o evitem.
+                    if (bloqueios == null || bloqueios.reservarNo(no)) {
+                        GeradorIdUtil.definirNo(no);
+                        return;
+                    }
+                    System.err.println("O nó " + no + " do gerador de IDs já está em uso por outro terminal; reservando um nó livre.");
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Nó do gerador de IDs inválido (" + configurado + "); reservando um nó livre: " + e.getMessage());
+                }
+            }
+            if (bloqueios != null) {
+                for (int no = 0; no < GeradorSequencialIds.QUANTIDADE_NOS; no++) {
+                    if (bloqueios.reservarNo(no)) {
+                        GeradorIdUtil.definirNo(no);
+                        return;
+                    }
+                }
+            }
+            System.err.println("Nó do gerador de IDs não reservado; usando o nó sorteado " + GeradorIdUtil.getNo() + ".");
+        } catch (Exception e) {
+            System.err.println("Falha ao reservar o nó do gerador de IDs; usando o nó sorteado " + GeradorIdUtil.getNo() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inicia o compactador dos arquivos de dados em segundo plano, se a propriedade
+     * {@link #PROPRIEDADE_INTERVALO_COMPACTACAO} o ligar neste terminal.
+     */
+    private static void iniciarCompactador() {
+        long intervaloMinutos;
+        try {
+            intervaloMinutos = Long.parseLong(System.getProperty(PROPRIEDADE_INTERVALO_COMPACTACAO, "0"));
+        } catch (NumberFormatException e) {
+            System.err.println("Intervalo de compactação inválido; compactação desligada neste terminal.");
+            intervaloMinutos = 0;
+        }
+        if (intervaloMinutos > 0) {
+            new CompactadorArquivos(Duration.ofMinutes(intervaloMinutos),
+                    CompactadorArquivos.LIMITE_PADRAO_LOG_OCUPACAO_BYTES).iniciar();
+        }
+    }
+
+    /**
+     * Inicia o acompanhamento do diretório de dados, conforme a propriedade
+     * {@link #PROPRIEDADE_MONITORAMENTO_ARQUIVOS}: cada cache em memória passa a ler só as
+     * linhas que outros terminais acrescentarem ao seu arquivo. Se o sistema de arquivos não
+     * oferecer o monitoramento, os caches continuam se atualizando nas consultas.
+     */
+    private static void iniciarMonitorArquivos(ClienteRepositorio clienteRepositorio,
+                                               ClienteRepositorioComFiltroBloom filtroClientes,
+                                               RegistroOcupacaoAssentos registroOcupacao,
+                                               IBilheteRepositorio bilheteRepositorio,
+                                               EntradaRepositorio entradaRepositorio) {
+        if (!Boolean.parseBoolean(System.getProperty(PROPRIEDADE_MONITORAMENTO_ARQUIVOS, "true"))) {
+            return;
+        }
+        MonitorArquivosDados monitor = new MonitorArquivosDados(GerenciadorArquivos.diretorioDados());
+        monitor.registrar(GerenciadorArquivos.ARQUIVO_CLIENTES, clienteRepositorio::sincronizarComArquivo);
+        monitor.registrar(GerenciadorArquivos.ARQUIVO_CLIENTES, filtroClientes::sincronizarComArquivo);
+        monitor.registrar(GerenciadorArquivos.ARQUIVO_ASSENTOS_OCUPADOS, registroOcupacao::sincronizarComLog);
+        // Qualquer alteração do snapshot é uma compactação: a ocupação é relida por inteiro.
+        monitor.registrar(GerenciadorArquivos.ARQUIVO_SNAPSHOT_ASSENTOS_OCUPADOS,
+                substituido -> registroOcupacao.sincronizarComLog(true));
+        monitor.registrar(GerenciadorArquivos.ARQUIVO_ENTRADAS, entradaRepositorio::sincronizarComArquivo);
+        if (bilheteRepositorio instanceof BilheteRepositorio bilhetesEmTexto) {
+            monitor.registrar(GerenciadorArquivos.ARQUIVO_BILHETES, bilhetesEmTexto::sincronizarComArquivo);
+        }
+        try {
+            monitor.iniciar();
+        } catch (Exception e) {
+            System.err.println("Monitoramento do diretório de dados indisponível; os caches serão atualizados nas consultas: "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Cria o repositório de bilhetes conforme a propriedade {@link #PROPRIEDADE_ARMAZENAMENTO_BILHETES}.
+     * No formato binário, bilhetes.txt é migrado uma única vez, na primeira inicialização.
+     * Se o arquivo binário não puder ser aberto, a aplicação volta ao formato texto; se ele
+     * já estiver aberto por outro terminal, a aplicação não inicia, pois voltar ao texto
+     * dividiria as vendas entre os dois arquivos.
+     */
+    private static IBilheteRepositorio criarRepositorioBilhetes(IClienteRepositorio clienteRepositorio,
+                                                                IPecaRepositorio pecaRepositorio,
+                                                                RegistroOcupacaoAssentos registroOcupacao) {
+        String armazenamento = System.getProperty(PROPRIEDADE_ARMAZENAMENTO_BILHETES, "texto");
+        if ("binario".equalsIgnoreCase(armazenamento)) {
+            try {
+                Path caminho = GerenciadorArquivos.caminhoArquivo(BilheteRepositorioBinario.ARQUIVO_BILHETES_BINARIO);
+                MigradorBilhetesBinario.migrarSeNecessario(caminho, registroOcupacao.getIndicePlanta());
+                return new BilheteRepositorioBinario(clienteRepositorio, pecaRepositorio, registroOcupacao, caminho);
+            } catch (ArquivoEmUsoException e) {
+                String mensagem = "O armazenamento binário de bilhetes já está aberto por outro terminal neste diretório de dados.";
+                System.err.println(mensagem + " " + e.getMessage());
+                if (!GraphicsEnvironment.isHeadless()) {
+                    JOptionPane.showMessageDialog(null, mensagem, "Falha na Inicialização", JOptionPane.ERROR_MESSAGE);
+                }
+                System.exit(1);
+                throw new IllegalStateException(mensagem, e); // Não alcançado: System.exit não retorna.
+            } catch (Exception e) {
+                System.err.println("Falha ao abrir o armazenamento binário de bilhetes; usando bilhetes.txt: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return new BilheteRepositorio(clienteRepositorio, pecaRepositorio, registroOcupacao);
+    }
 }
@@ -0,0 +1,40 @@
+package com.teatroabc.aplicacao.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) com os critérios de uma consulta de bilhetes para relatórios:
+ * cliente, peça e período da compra. Critérios não informados (nulos) não restringem a
+ * consulta. Esta classe é imutável.
+ */
+public class ConsultaBilhetesDTO {
+    private final String cpfCliente;
+    private final String idPeca;
+    private final LocalDateTime compradoDesde;
+    private final LocalDateTime compradoAntesDe;
+
+    /**
+     * Construtor para ConsultaBilhetesDTO.
+     *
+     * @param cpfCliente O CPF do cliente (será normalizado), ou null para qualquer cliente.
+     * @param idPeca O ID da peça, ou null para qualquer peça.
+     * @param compradoDesde O início do período da compra (inclusivo), ou null para sem limite inferior.
+     * @param compradoAntesDe O fim do período da compra (exclusivo), ou null para sem limite superior.
+     * @throws IllegalArgumentException Se o início do período não for anterior ao fim.
+     */
+    public ConsultaBilhetesDTO(String cpfCliente, String idPeca, LocalDateTime compradoDesde, LocalDateTime compradoAntesDe) {
+        if (compradoDesde != null && compradoAntesDe != null && !compradoDesde.isBefore(compradoAntesDe)) {
+            throw new IllegalArgumentException("O início do período deve ser anterior ao fim.");
+        }
+        this.cpfCliente = cpfCliente;
+        this.idPeca = idPeca;
+        this.compradoDesde = compradoDesde;
+        this.compradoAntesDe = compradoAntesDe;
+    }
+
+    // --- Getters para acesso aos dados ---
+    public String getCpfCliente() { return cpfCliente; }
+    public String getIdPeca() { return idPeca; }
+    public LocalDateTime getCompradoDesde() { return compradoDesde; }
+    public LocalDateTime getCompradoAntesDe() { return compradoAntesDe; }
+}
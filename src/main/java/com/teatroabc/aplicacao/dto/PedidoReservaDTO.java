@@ -0,0 +1,85 @@
+package com.teatroabc.aplicacao.dto;
+
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.dominio.modelos.Sessao;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) com um pedido de reserva em grupo (escolas, agências de
+ * turismo): um único cliente responsável e vários itens, cada um com uma sessão e os
+ * assentos escolhidos nela. Cada item resulta em um bilhete.
+ * Esta classe é imutável.
+ */
+public class PedidoReservaDTO {
+    private final Cliente cliente;
+    private final List<ItemPedido> itens;
+    private final String tokenRetencao;
+
+    /**
+     * Construtor para PedidoReservaDTO.
+     *
+     * @param cliente O cliente responsável pelo pedido.
+     * @param itens Os itens do pedido (ao menos um).
+     * @throws IllegalArgumentException Se o cliente for nulo ou não houver itens.
+     */
+    public PedidoReservaDTO(Cliente cliente, List<ItemPedido> itens) {
+        this(cliente, itens, null);
+    }
+
+    /**
+     * Construtor para um pedido cujos assentos foram retidos antes com
+     * {@link com.teatroabc.aplicacao.interfaces.IReservaServico#reterAssentos}.
+     *
+     * @param cliente O cliente responsável pelo pedido.
+     * @param itens Os itens do pedido (ao menos um).
+     * @param tokenRetencao O token da retenção dos assentos (null se não houver retenção).
+     * @throws IllegalArgumentException Se o cliente for nulo ou não houver itens.
+     */
+    public PedidoReservaDTO(Cliente cliente, List<ItemPedido> itens, String tokenRetencao) {
+        if (cliente == null) {
+            throw new IllegalArgumentException("Cliente do pedido não pode ser nulo.");
+        }
+        if (itens == null || itens.isEmpty()) {
+            throw new IllegalArgumentException("O pedido deve ter ao menos um item.");
+        }
+        this.cliente = cliente;
+        this.itens = Collections.unmodifiableList(new ArrayList<>(itens));
+        this.tokenRetencao = tokenRetencao;
+    }
+
+    // --- Getters para acesso aos dados ---
+    public Cliente getCliente() { return cliente; }
+    public List<ItemPedido> getItens() { return itens; }
+    public String getTokenRetencao() { return tokenRetencao; }
+
+    /**
+     * Um item do pedido: os assentos escolhidos em uma sessão, que formam um bilhete.
+     * Um pedido pode ter vários itens da mesma sessão (por exemplo, um bilhete por turma).
+     */
+    public static final class ItemPedido {
+        private final Sessao sessao;
+        private final List<Assento> assentos;
+
+        /**
+         * @param sessao A sessão do item.
+         * @param assentos Os assentos escolhidos na sessão (ao menos um).
+         * @throws IllegalArgumentException Se a sessão for nula ou não houver assentos.
+         */
+        public ItemPedido(Sessao sessao, List<Assento> assentos) {
+            if (sessao == null) {
+                throw new IllegalArgumentException("Sessão do item não pode ser nula.");
+            }
+            if (assentos == null || assentos.isEmpty()) {
+                throw new IllegalArgumentException("O item deve ter ao menos um assento.");
+            }
+            this.sessao = sessao;
+            this.assentos = Collections.unmodifiableList(new ArrayList<>(assentos));
+        }
+
+        public Sessao getSessao() { return sessao; }
+        public List<Assento> getAssentos() { return assentos; }
+    }
+}
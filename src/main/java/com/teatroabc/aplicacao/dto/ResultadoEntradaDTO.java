@@ -0,0 +1,44 @@
+package com.teatroabc.aplicacao.dto;
+
+import com.teatroabc.dominio.enums.StatusEntrada;
+import com.teatroabc.dominio.modelos.Bilhete;
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) com o resultado da leitura de um bilhete na entrada do teatro.
+ * Esta classe é imutável.
+ */
+public class ResultadoEntradaDTO {
+    private final StatusEntrada status;
+    private final Bilhete bilhete;            // null quando o código não corresponde a nenhum bilhete
+    private final LocalDateTime momentoEntrada; // a entrada registrada agora ou a anterior (JA_UTILIZADO)
+
+    /**
+     * Construtor para ResultadoEntradaDTO.
+     *
+     * @param status O resultado da leitura.
+     * @param bilhete O bilhete lido (nulo se não encontrado).
+     * @param momentoEntrada O momento da entrada registrada agora ou, se o bilhete já tinha
+     *                       sido utilizado, o da entrada anterior (nulo nos demais casos).
+     */
+    public ResultadoEntradaDTO(StatusEntrada status, Bilhete bilhete, LocalDateTime momentoEntrada) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status da entrada não pode ser nulo.");
+        }
+        this.status = status;
+        this.bilhete = bilhete;
+        this.momentoEntrada = momentoEntrada;
+    }
+
+    // --- Getters para acesso aos dados ---
+    public StatusEntrada getStatus() { return status; }
+    public Bilhete getBilhete() { return bilhete; }
+    public LocalDateTime getMomentoEntrada() { return momentoEntrada; }
+
+    /**
+     * @return true se a pessoa pode entrar.
+     */
+    public boolean isLiberada() {
+        return status == StatusEntrada.LIBERADA;
+    }
+}
@@ -0,0 +1,32 @@
+package com.teatroabc.aplicacao.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) com uma retenção temporária de assentos: o token que a
+ * identifica nas renovações, na liberação e na compra, e o momento em que ela expira.
+ * Esta classe é imutável.
+ */
+public class RetencaoAssentosDTO {
+    private final String token;
+    private final LocalDateTime expiraEm;
+
+    /**
+     * Construtor para RetencaoAssentosDTO.
+     *
+     * @param token O token da retenção.
+     * @param expiraEm O momento a partir do qual os assentos deixam de estar retidos.
+     * @throws IllegalArgumentException Se algum dos parâmetros for nulo.
+     */
+    public RetencaoAssentosDTO(String token, LocalDateTime expiraEm) {
+        if (token == null || expiraEm == null) {
+            throw new IllegalArgumentException("Token e prazo da retenção não podem ser nulos.");
+        }
+        this.token = token;
+        this.expiraEm = expiraEm;
+    }
+
+    // --- Getters para acesso aos dados ---
+    public String getToken() { return token; }
+    public LocalDateTime getExpiraEm() { return expiraEm; }
+}
@@ -0,0 +1,23 @@
+package com.teatroabc.aplicacao.interfaces;
+
+import com.teatroabc.aplicacao.dto.ResultadoEntradaDTO;
+
+/**
+ * Interface (Porta de Entrada) para o serviço de aplicação que valida os bilhetes lidos
+ * na entrada do teatro (portaria).
+ */
+public interface IEntradaServico {
+
+    /**
+     * Valida o bilhete de um código de barras lido na portaria e, se ele for válido e ainda
+     * não tiver sido utilizado, registra a entrada. A verificação e o registro são atômicos:
+     * duas leituras simultâneas do mesmo bilhete, na mesma porta ou em portas diferentes,
+     * liberam no máximo uma entrada.
+     *
+     * @param codigoBarras O código de barras lido (espaços nas pontas são ignorados).
+     * @param porta A identificação da porta onde o bilhete foi lido (registrada junto com a entrada).
+     * @return O resultado da leitura.
+     * @throws IllegalArgumentException Se o código de barras ou a porta forem nulos ou vazios.
+     */
+    ResultadoEntradaDTO validarEntrada(String codigoBarras, String porta);
+}
@@ -1,5 +1,8 @@
 package com.teatroabc.aplicacao.interfaces;
 
+import com.teatroabc.aplicacao.dto.ConsultaBilhetesDTO;
+import com.teatroabc.aplicacao.dto.PedidoReservaDTO;
+import com.teatroabc.aplicacao.dto.RetencaoAssentosDTO;
 import com.teatroabc.aplicacao.excecoes.ReservaInvalidaException;
 import com.teatroabc.dominio.modelos.Assento;
 import com.teatroabc.dominio.modelos.Bilhete; // MUDANÇA: Usa a nova entidade Sessao
@@ -7,6 +10,7 @@ import com.teatroabc.dominio.modelos.Cliente;
 import com.teatroabc.dominio.modelos.Sessao;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interface (Porta de Entrada) para o serviço de aplicação responsável pela lógica
@@ -35,6 +39,57 @@ public interface IReservaServico {
     Bilhete criarReserva(Sessao sessao, Cliente cliente, List<Assento> assentosSelecionados)
             throws ReservaInvalidaException, IllegalArgumentException;
 
+    /**
+     * Como {@link #criarReserva(Sessao, Cliente, List)}, para assentos retidos antes com
+     * {@link #reterAssentos}: a retenção do token não impede a própria compra e é liberada
+     * quando o bilhete é gravado.
+     *
+     * @param tokenRetencao O token da retenção dos assentos (null se não houver retenção).
+     */
+    Bilhete criarReserva(Sessao sessao, Cliente cliente, List<Assento> assentosSelecionados, String tokenRetencao)
+            throws ReservaInvalidaException, IllegalArgumentException;
+
+    /**
+     * Retém temporariamente os assentos escolhidos enquanto a compra está em andamento,
+     * para que outro terminal não os venda nem os retenha. A retenção substitui a anterior
+     * do mesmo token (a seleção inteira é informada a cada mudança) e renova o prazo; se
+     * não for liberada nem usada na compra, expira sozinha.
+     *
+     * @param sessao A sessão dos assentos.
+     * @param assentosSelecionados Os assentos selecionados até agora (pode ser vazia).
+     * @param tokenRetencao O token de uma retenção anterior, ou null para criar uma nova.
+     * @return A retenção, com o token a usar nas chamadas seguintes e o seu prazo.
+     * @throws ReservaInvalidaException Se algum assento já estiver ocupado ou retido em outro
+     *                                  terminal; a retenção anterior do token é mantida.
+     * @throws IllegalArgumentException Se a sessão for nula.
+     */
+    RetencaoAssentosDTO reterAssentos(Sessao sessao, List<Assento> assentosSelecionados, String tokenRetencao)
+            throws ReservaInvalidaException, IllegalArgumentException;
+
+    /**
+     * Libera os assentos retidos com o token (ao desistir da compra ou voltar à seleção de sessão).
+     *
+     * @param tokenRetencao O token da retenção (null é ignorado).
+     */
+    void liberarRetencao(String tokenRetencao);
+
+    /**
+     * Cria, de uma só vez, os bilhetes de um pedido em grupo, que pode abranger várias
+     * sessões. Os assentos de cada sessão são verificados em uma única passada, e todos os
+     * bilhetes são calculados como em {@link #criarReserva} e gravados juntos: ou o pedido
+     * inteiro é reservado, ou nenhum bilhete é criado. Os assentos retidos com o token do
+     * pedido ({@link PedidoReservaDTO#getTokenRetencao()}) contam como livres, e a retenção
+     * é liberada quando os bilhetes são gravados.
+     *
+     * @param pedido O pedido (cliente, itens de sessão + assentos e, se houver, o token da retenção).
+     * @return Os bilhetes criados e persistidos, um por item, na ordem dos itens.
+     * @throws ReservaInvalidaException Se algum assento estiver indisponível, se o mesmo assento
+     *                                  for pedido duas vezes na mesma sessão ou se a gravação falhar.
+     * @throws IllegalArgumentException Se o pedido for nulo.
+     */
+    List<Bilhete> criarReservas(PedidoReservaDTO pedido)
+            throws ReservaInvalidaException, IllegalArgumentException;
+
     /**
      * Busca todos os bilhetes associados a um CPF de cliente.
      *
@@ -50,4 +105,13 @@ public interface IReservaServico {
      * @return Um {@link Optional} contendo o Bilhete se encontrado, ou um Optional vazio caso contrário.
      */
     Optional<Bilhete> buscarBilhetePorId(String idBilhete);
-}
\ No newline at end of file
+
+    /**
+     * Consulta bilhetes por cliente, peça e/ou período da compra, em stream, para
+     * relatórios sobre históricos grandes. O stream deve ser fechado após o uso.
+     *
+     * @param consulta Os critérios da consulta (null para todos os bilhetes).
+     * @return Um stream dos bilhetes encontrados.
+     */
+    Stream<Bilhete> consultarBilhetes(ConsultaBilhetesDTO consulta);
+}
@@ -3,6 +3,7 @@ package com.teatroabc.aplicacao.interfaces;
 
 import com.teatroabc.dominio.modelos.Assento;
 import com.teatroabc.dominio.modelos.Sessao;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -19,6 +20,25 @@ public interface ISessaoServico {
      */
     List<Sessao> buscarSessoesPorPeca(String idPeca);
 
+    /**
+     * Busca as sessões (de todas as peças) dentro de um período, para telas de programação.
+     *
+     * @param inicio Início do período (inclusive).
+     * @param fim Fim do período (exclusive).
+     * @return As sessões do período, em ordem cronológica.
+     */
+    List<Sessao> buscarSessoesEntre(LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Busca as próximas sessões de uma peça a partir de um instante.
+     *
+     * @param idPeca O ID da peça.
+     * @param aPartirDe O instante inicial (inclusive).
+     * @param quantidade O número máximo de sessões.
+     * @return Até {@code quantidade} sessões, em ordem cronológica.
+     */
+    List<Sessao> buscarProximasSessoesDaPeca(String idPeca, LocalDateTime aPartirDe, int quantidade);
+
     /**
      * Busca a planta de assentos para uma sessão específica, com seus status atualizados.
      *
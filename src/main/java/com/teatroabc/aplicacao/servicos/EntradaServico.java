@@ -0,0 +1,75 @@
+package com.teatroabc.aplicacao.servicos;
+
+import com.teatroabc.aplicacao.dto.ResultadoEntradaDTO;
+import com.teatroabc.aplicacao.interfaces.IEntradaServico;
+import com.teatroabc.dominio.enums.StatusEntrada;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IBilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IEntradaRepositorio;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Implementação do serviço de aplicação que valida os bilhetes na portaria.
+ * O bilhete é localizado pelo índice de códigos de barras do repositório de bilhetes,
+ * e a regra "uma entrada por bilhete" fica a cargo do {@link IEntradaRepositorio}, que
+ * verifica e registra a entrada em uma única operação atômica.
+ */
+public class EntradaServico implements IEntradaServico {
+
+    private final IBilheteRepositorio bilheteRepositorio;
+    private final IEntradaRepositorio entradaRepositorio;
+
+    /**
+     * Construtor para EntradaServico.
+     * @param bilheteRepositorio Implementação da interface para consulta de bilhetes.
+     * @param entradaRepositorio Implementação da interface para o registro de entradas.
+     * @throws IllegalArgumentException se algum dos repositórios for nulo.
+     */
+    public EntradaServico(IBilheteRepositorio bilheteRepositorio, IEntradaRepositorio entradaRepositorio) {
+        if (bilheteRepositorio == null) {
+            throw new IllegalArgumentException("Repositório de bilhetes não pode ser nulo.");
+        }
+        if (entradaRepositorio == null) {
+            throw new IllegalArgumentException("Repositório de entradas não pode ser nulo.");
+        }
+        this.bilheteRepositorio = bilheteRepositorio;
+        this.entradaRepositorio = entradaRepositorio;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResultadoEntradaDTO validarEntrada(String codigoBarras, String porta) {
+        if (codigoBarras == null || codigoBarras.trim().isEmpty()) {
+            throw new IllegalArgumentException("Código de barras não pode ser nulo ou vazio.");
+        }
+        if (porta == null || porta.trim().isEmpty()) {
+            throw new IllegalArgumentException("Porta não pode ser nula ou vazia.");
+        }
+
+        String codigo = codigoBarras.trim();
+        if (!GeradorIdUtil.digitoVerificadorConfere(codigo)) {
+            return new ResultadoEntradaDTO(StatusEntrada.NAO_ENCONTRADO, null, null); // Leitura corrompida.
+        }
+        Optional<Bilhete> bilheteOpt = bilheteRepositorio.buscarPorCodigoBarras(codigo);
+        if (bilheteOpt.isEmpty()) {
+            return new ResultadoEntradaDTO(StatusEntrada.NAO_ENCONTRADO, null, null);
+        }
+        Bilhete bilhete = bilheteOpt.get();
+
+        LocalDateTime agora = LocalDateTime.now();
+        if (!bilhete.getSessao().getDataHora().toLocalDate().equals(LocalDate.from(agora))) {
+            return new ResultadoEntradaDTO(StatusEntrada.OUTRA_DATA, bilhete, null);
+        }
+
+        if (entradaRepositorio.registrarSeAusente(bilhete.getId(), bilhete.getSessao().getId(), agora, porta.trim())) {
+            return new ResultadoEntradaDTO(StatusEntrada.LIBERADA, bilhete, agora);
+        }
+        return new ResultadoEntradaDTO(StatusEntrada.JA_UTILIZADO, bilhete,
+                entradaRepositorio.buscarEntrada(bilhete.getId()).orElse(null));
+    }
+}
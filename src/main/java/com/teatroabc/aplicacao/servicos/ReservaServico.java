@@ -5,19 +5,30 @@ import com.teatroabc.dominio.modelos.Bilhete;
 import com.teatroabc.dominio.modelos.Cliente;
 import com.teatroabc.dominio.modelos.Sessao;
 import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Centavos;
+import com.teatroabc.infraestrutura.persistencia.interfaces.FiltroBilhetes;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IBilheteRepositorio;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IAssentoRepositorio;
+import com.teatroabc.aplicacao.dto.ConsultaBilhetesDTO;
+import com.teatroabc.aplicacao.dto.PedidoReservaDTO;
+import com.teatroabc.aplicacao.dto.RetencaoAssentosDTO;
 import com.teatroabc.aplicacao.excecoes.ReservaInvalidaException;
 import com.teatroabc.aplicacao.interfaces.IReservaServico;
 import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementação do serviço de aplicação para criar e consultar reservas/bilhetes.
@@ -27,6 +38,10 @@ import java.util.stream.Collectors;
  */
 public class ReservaServico implements IReservaServico {
 
+    private static final DateTimeFormatter DATA_HORA_SESSAO = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    // Tempo que os assentos ficam retidos para uma compra em andamento, renovado a cada mudança na seleção.
+    private static final Duration PRAZO_RETENCAO = Duration.ofMinutes(10);
+
     private final IBilheteRepositorio bilheteRepositorio;
     private final IAssentoRepositorio assentoRepositorio;
 
@@ -53,6 +68,15 @@ public class ReservaServico implements IReservaServico {
     @Override
     public Bilhete criarReserva(Sessao sessao, Cliente cliente, List<Assento> assentosSelecionados)
             throws ReservaInvalidaException, IllegalArgumentException {
+        return criarReserva(sessao, cliente, assentosSelecionados, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Bilhete criarReserva(Sessao sessao, Cliente cliente, List<Assento> assentosSelecionados, String tokenRetencao)
+            throws ReservaInvalidaException, IllegalArgumentException {
 
         // 1. Validações de parâmetros de entrada essenciais
         if (sessao == null) throw new IllegalArgumentException("Sessão não pode ser nula para criar reserva.");
@@ -61,38 +85,145 @@ public class ReservaServico implements IReservaServico {
             throw new IllegalArgumentException("A lista de assentos selecionados não pode ser vazia.");
         }
 
-        // 2. Verificar disponibilidade dos assentos (regra de negócio)
+        // 2. Códigos dos assentos selecionados. A disponibilidade é verificada de forma
+        //    atômica junto com a persistência (passo 9), e não mais em um passo separado.
         List<String> codigosAssentosSelecionados = assentosSelecionados.stream()
                 .map(Assento::getCodigo)
                 .collect(Collectors.toList());
-        
-        // REFATORADO: A verificação de disponibilidade agora usa o objeto Sessao.
-        if (!assentoRepositorio.verificarDisponibilidade(sessao, codigosAssentosSelecionados)) {
+
+        // 3 a 8. Calcular os valores e criar a instância da entidade Bilhete
+        Bilhete bilhete = montarBilhete(sessao, cliente, assentosSelecionados, LocalDateTime.now());
+
+        // 9. Verificar a disponibilidade e persistir o bilhete como uma única operação atômica
+        //    por sessão: dois terminais não conseguem vender o mesmo assento.
+        boolean reservado;
+        try {
+            reservado = assentoRepositorio.reservarSeDisponiveis(
+                    sessao, codigosAssentosSelecionados, tokenRetencao, () -> bilheteRepositorio.salvar(bilhete));
+        } catch (Exception e) {
+            throw new ReservaInvalidaException("Falha crítica ao tentar salvar o bilhete: " + e.getMessage(), e);
+        }
+        if (!reservado) {
             throw new ReservaInvalidaException("Um ou mais assentos selecionados não estão mais disponíveis para esta sessão. Por favor, tente novamente.");
         }
+        
+        return bilhete;
+    }
+
+    /**
+     * {@inheritDoc}
+     * O prazo é de 10 minutos a partir desta chamada.
+     */
+    @Override
+    public RetencaoAssentosDTO reterAssentos(Sessao sessao, List<Assento> assentosSelecionados, String tokenRetencao)
+            throws ReservaInvalidaException, IllegalArgumentException {
+        if (sessao == null) throw new IllegalArgumentException("Sessão não pode ser nula para reter assentos.");
+        String token = tokenRetencao != null ? tokenRetencao : GeradorIdUtil.gerarNovoId();
+        List<String> codigos = assentosSelecionados == null ? Collections.emptyList()
+                : assentosSelecionados.stream().map(Assento::getCodigo).collect(Collectors.toList());
+        Instant expiraEm = Instant.now().plus(PRAZO_RETENCAO);
+
+        boolean retido;
+        try {
+            retido = assentoRepositorio.reterSeDisponiveis(sessao, codigos, token, expiraEm);
+        } catch (Exception e) {
+            throw new ReservaInvalidaException("Falha ao reter os assentos selecionados: " + e.getMessage(), e);
+        }
+        if (!retido) {
+            throw new ReservaInvalidaException("Um ou mais assentos selecionados acabaram de ser escolhidos em outro terminal.");
+        }
+        return new RetencaoAssentosDTO(token, LocalDateTime.ofInstant(expiraEm, ZoneId.systemDefault()));
+    }
 
-        // 3. Calcular subtotal dos assentos selecionados
-        BigDecimal subtotal = assentosSelecionados.stream()
-            .map(Assento::getPreco)
-            .reduce(BigDecimal.ZERO, BigDecimal::add)
-            .setScale(2, RoundingMode.HALF_UP);
+    /**
+     * {@inheritDoc}
+     * Uma falha ao liberar é apenas registrada: a retenção deixa de valer no prazo.
+     */
+    @Override
+    public void liberarRetencao(String tokenRetencao) {
+        if (tokenRetencao == null) return;
+        try {
+            assentoRepositorio.liberarRetencao(tokenRetencao);
+        } catch (RuntimeException e) {
+            System.err.println("ReservaServico: Erro ao liberar a retenção " + tokenRetencao + ": " + e.getMessage());
+        }
+    }
 
-        // 4. Obter o fator de desconto do plano de fidelidade do cliente
-        BigDecimal fatorDesconto = cliente.getPlanoFidelidade().getFatorDesconto();
+    /**
+     * {@inheritDoc}
+     * Cada bilhete é calculado com o desconto do plano do cliente, exatamente como em uma
+     * reserva individual; todas as sessões do pedido são bloqueadas e verificadas juntas,
+     * e os bilhetes são gravados com {@link IBilheteRepositorio#salvarTodos(List)}.
+     */
+    @Override
+    public List<Bilhete> criarReservas(PedidoReservaDTO pedido)
+            throws ReservaInvalidaException, IllegalArgumentException {
+        if (pedido == null) throw new IllegalArgumentException("Pedido não pode ser nulo para criar reservas.");
+
+        // 1. Agrupar os assentos por sessão, recusando o mesmo assento pedido duas vezes.
+        Map<Sessao, List<String>> codigosPorSessao = new LinkedHashMap<>();
+        for (PedidoReservaDTO.ItemPedido item : pedido.getItens()) {
+            List<String> codigos = codigosPorSessao.computeIfAbsent(item.getSessao(), s -> new ArrayList<>());
+            for (Assento assento : item.getAssentos()) {
+                if (codigos.contains(assento.getCodigo())) {
+                    throw new ReservaInvalidaException("O assento " + assento.getCodigo()
+                            + " foi pedido mais de uma vez para a mesma sessão.");
+                }
+                codigos.add(assento.getCodigo());
+            }
+        }
+
+        // 2. Calcular e criar todos os bilhetes, com a mesma data e hora de compra.
+        LocalDateTime dataHoraCompra = LocalDateTime.now();
+        List<Bilhete> bilhetes = new ArrayList<>(pedido.getItens().size());
+        for (PedidoReservaDTO.ItemPedido item : pedido.getItens()) {
+            bilhetes.add(montarBilhete(item.getSessao(), pedido.getCliente(), item.getAssentos(), dataHoraCompra));
+        }
+
+        // 3. Verificar todas as sessões e persistir todos os bilhetes como uma única operação atômica.
+        List<Sessao> indisponiveis;
+        try {
+            indisponiveis = assentoRepositorio.reservarTodosSeDisponiveis(
+                    codigosPorSessao, pedido.getTokenRetencao(), () -> bilheteRepositorio.salvarTodos(bilhetes));
+        } catch (Exception e) {
+            throw new ReservaInvalidaException("Falha crítica ao tentar salvar os bilhetes do pedido: " + e.getMessage(), e);
+        }
+        if (!indisponiveis.isEmpty()) {
+            String sessoes = indisponiveis.stream()
+                    .map(sessao -> sessao.getPeca().getTitulo() + " (" + sessao.getDataHora().format(DATA_HORA_SESSAO) + ")")
+                    .collect(Collectors.joining(", "));
+            throw new ReservaInvalidaException("Um ou mais assentos do pedido não estão mais disponíveis nas sessões: "
+                    + sessoes + ". Nenhum bilhete foi criado.");
+        }
+
+        return Collections.unmodifiableList(bilhetes);
+    }
+
+    /**
+     * Calcula os valores de um bilhete (subtotal, desconto do plano do cliente e total)
+     * e cria a instância com novos identificadores.
+     */
+    private Bilhete montarBilhete(Sessao sessao, Cliente cliente, List<Assento> assentosSelecionados,
+                                  LocalDateTime dataHoraCompra) {
+        // 3. Calcular subtotal dos assentos selecionados (em centavos, ver Centavos)
+        long subtotal = 0L;
+        for (Assento assento : assentosSelecionados) {
+            subtotal = Centavos.somar(subtotal, assento.getPrecoCentavos());
+        }
+
+        // 4. Obter o desconto do plano de fidelidade do cliente, em pontos-base
+        int descontoPontosBase = cliente.getPlanoFidelidade().getDescontoEmPontosBase();
         
-        // 5. Calcular o valor do desconto e o valor total final
-        BigDecimal valorDescontoCalculado = subtotal.multiply(fatorDesconto).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal valorTotalFinal = subtotal.subtract(valorDescontoCalculado).setScale(2, RoundingMode.HALF_UP);
+        // 5. Calcular o valor do desconto (arredondado HALF_UP) e o valor total final
+        long valorDescontoCalculado = Centavos.percentual(subtotal, descontoPontosBase);
+        long valorTotalFinal = subtotal - valorDescontoCalculado;
 
         // 6. Gerar identificadores para o novo Bilhete
         String novoIdBilhete = GeradorIdUtil.gerarNovoId();
         String novoCodigoBarras = GeradorIdUtil.gerarNovoCodigoBarras();
 
-        // 7. Obter data e hora da compra
-        LocalDateTime dataHoraCompra = LocalDateTime.now();
-
         // 8. Criar a instância da entidade Bilhete com o construtor que aceita Sessao
-        Bilhete bilhete = new Bilhete(
+        return new Bilhete(
             novoIdBilhete,
             novoCodigoBarras,
             sessao, // Passa o objeto Sessao inteiro
@@ -103,15 +234,6 @@ public class ReservaServico implements IReservaServico {
             valorTotalFinal,
             dataHoraCompra
         );
-
-        // 9. Persistir o bilhete. A implementação do repositório irá lidar com os detalhes.
-        try {
-            bilheteRepositorio.salvar(bilhete);
-        } catch (Exception e) {
-            throw new ReservaInvalidaException("Falha crítica ao tentar salvar o bilhete: " + e.getMessage(), e);
-        }
-        
-        return bilhete;
     }
 
     /**
@@ -126,6 +248,24 @@ public class ReservaServico implements IReservaServico {
         return bilheteRepositorio.listarPorCpfCliente(cpfNormalizado);
     }
 
+    /**
+     * {@inheritDoc}
+     * Os critérios são traduzidos para o {@link FiltroBilhetes} do repositório, que os
+     * aplica antes de montar os bilhetes.
+     */
+    @Override
+    public Stream<Bilhete> consultarBilhetes(ConsultaBilhetesDTO consulta) {
+        if (consulta == null) {
+            return bilheteRepositorio.consultar(FiltroBilhetes.todos());
+        }
+        String cpf = consulta.getCpfCliente() != null ? consulta.getCpfCliente().replaceAll("[^0-9]", "") : null;
+        FiltroBilhetes filtro = FiltroBilhetes.todos()
+                .comCpfCliente(cpf)
+                .comPeca(consulta.getIdPeca())
+                .compradosEntre(consulta.getCompradoDesde(), consulta.getCompradoAntesDe());
+        return bilheteRepositorio.consultar(filtro);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -7,6 +7,7 @@ import com.teatroabc.dominio.modelos.Sessao;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IAssentoRepositorio;
 import com.teatroabc.infraestrutura.persistencia.interfaces.ISessaoRepositorio;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -45,6 +46,28 @@ public class SessaoServico implements ISessaoServico {
         return this.sessaoRepositorio.buscarSessoesPorPeca(idPeca);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Sessao> buscarSessoesEntre(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio == null || fim == null) {
+            return Collections.emptyList();
+        }
+        return this.sessaoRepositorio.buscarSessoesEntre(inicio, fim);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Sessao> buscarProximasSessoesDaPeca(String idPeca, LocalDateTime aPartirDe, int quantidade) {
+        if (idPeca == null || idPeca.trim().isEmpty() || aPartirDe == null) {
+            return Collections.emptyList();
+        }
+        return this.sessaoRepositorio.buscarProximasSessoesDaPeca(idPeca, aPartirDe, quantidade);
+    }
+
     /**
      * {@inheritDoc}
      */
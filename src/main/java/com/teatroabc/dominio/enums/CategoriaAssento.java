@@ -1,5 +1,6 @@
 package com.teatroabc.dominio.enums;
 
+import com.teatroabc.dominio.modelos.Centavos;
 import java.math.BigDecimal;
 
 public enum CategoriaAssento {
@@ -14,10 +15,12 @@ public enum CategoriaAssento {
 
     private final String nome;
     private final BigDecimal precoBase;
+    private final long precoBaseCentavos;
 
     CategoriaAssento(String nome, BigDecimal precoBase) {
         this.nome = nome;
         this.precoBase = precoBase;
+        this.precoBaseCentavos = Centavos.de(precoBase);
     }
 
     public String getNome() {
@@ -28,6 +31,13 @@ public enum CategoriaAssento {
         return precoBase;
     }
 
+    /**
+     * @return O preço base em centavos (ver {@link Centavos}).
+     */
+    public long getPrecoBaseCentavos() {
+        return precoBaseCentavos;
+    }
+
     @Override
     public String toString() {
         return nome;
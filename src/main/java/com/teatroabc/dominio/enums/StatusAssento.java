@@ -7,7 +7,8 @@ package com.teatroabc.dominio.enums;
 public enum StatusAssento {
     DISPONIVEL("Disponível"),
     OCUPADO("Ocupado"),
-    SELECIONADO("Selecionado"); // Usado durante o processo de compra pela UI
+    SELECIONADO("Selecionado"), // Usado durante o processo de compra pela UI
+    RETIDO("Retido"); // Guardado temporariamente para a compra em andamento em outro terminal
 
     private final String descricao;
 
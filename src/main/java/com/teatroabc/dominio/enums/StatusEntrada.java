@@ -0,0 +1,50 @@
+package com.teatroabc.dominio.enums;
+
+/**
+ * Enumeração que define o resultado da leitura de um bilhete na entrada do teatro.
+ * Um bilhete dá direito a uma única entrada: a segunda leitura do mesmo código é recusada.
+ */
+public enum StatusEntrada {
+    /**
+     * O bilhete é válido e a entrada foi registrada agora.
+     */
+    LIBERADA("Entrada liberada"),
+
+    /**
+     * O bilhete já foi utilizado em uma entrada anterior.
+     */
+    JA_UTILIZADO("Bilhete já utilizado"),
+
+    /**
+     * O bilhete é de uma sessão de outro dia.
+     */
+    OUTRA_DATA("Bilhete de outra data"),
+
+    /**
+     * Nenhum bilhete tem o código de barras lido.
+     */
+    NAO_ENCONTRADO("Bilhete não encontrado");
+
+    private final String descricao;
+
+    StatusEntrada(String descricao) {
+        this.descricao = descricao;
+    }
+
+    /**
+     * Retorna a descrição textual amigável do resultado, exibida na portaria.
+     * @return A descrição do resultado.
+     */
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * Retorna a descrição do resultado.
+     * @return A descrição do resultado.
+     */
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
@@ -12,6 +12,7 @@ public class MembroABCGold implements PlanoFidelidade {
     public static final String IDENTIFICADOR = "GOLD";
     private static final String NOME_PLANO = "ABC GOLD";
     private static final BigDecimal FATOR_DESCONTO_GOLD = new BigDecimal("0.05"); // 5%
+    private static final int DESCONTO_GOLD_PONTOS_BASE = 500; // 5%
     private static final String DESCRICAO_BENEFICIOS = "Desconto de 5% em todas as compras e ofertas exclusivas!";
 
     @Override
@@ -29,6 +30,11 @@ public class MembroABCGold implements PlanoFidelidade {
         return FATOR_DESCONTO_GOLD;
     }
 
+    @Override
+    public int getDescontoEmPontosBase() {
+        return DESCONTO_GOLD_PONTOS_BASE;
+    }
+
     @Override
     public String getDescricaoBeneficios() {
         return DESCRICAO_BENEFICIOS;
@@ -1,5 +1,6 @@
 package com.teatroabc.dominio.fidelidade;
 
+import com.teatroabc.dominio.modelos.Centavos;
 import java.math.BigDecimal;
 
 /**
@@ -29,6 +30,15 @@ public interface PlanoFidelidade {
      */
     BigDecimal getFatorDesconto();
 
+    /**
+     * Retorna o fator de desconto em pontos-base (500 = 5%), usado no cálculo em centavos.
+     * Os planos com fator constante devem sobrescrever este método com a constante.
+     * @return O desconto em pontos-base.
+     */
+    default int getDescontoEmPontosBase() {
+        return Centavos.pontosBaseDe(getFatorDesconto());
+    }
+
     /**
      * Retorna uma descrição textual dos benefícios oferecidos por este plano.
      * @return A descrição dos benefícios.
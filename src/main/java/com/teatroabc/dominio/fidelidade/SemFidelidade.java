@@ -27,6 +27,11 @@ public class SemFidelidade implements PlanoFidelidade {
         return BigDecimal.ZERO; // 0% de desconto
     }
 
+    @Override
+    public int getDescontoEmPontosBase() {
+        return 0;
+    }
+
     @Override
     public String getDescricaoBeneficios() {
         return DESCRICAO_BENEFICIOS;
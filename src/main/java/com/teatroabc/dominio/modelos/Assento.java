@@ -3,7 +3,6 @@ package com.teatroabc.dominio.modelos;
 import com.teatroabc.dominio.enums.CategoriaAssento;
 import com.teatroabc.dominio.enums.StatusAssento;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Objects;
 
 public class Assento {
@@ -11,7 +10,7 @@ public class Assento {
     private final int fileira;
     private final int numero;
     private final CategoriaAssento categoria;
-    private final BigDecimal preco; 
+    private final long precoCentavos; // Preço em centavos (ver Centavos)
     private StatusAssento status;
 
     public Assento(
@@ -20,6 +19,18 @@ public class Assento {
                 int numero, 
                 CategoriaAssento categoria, 
                 BigDecimal preco) {
+        this(codigo, fileira, numero, categoria, Centavos.de(preco)); // Armazena com 2 casas decimais
+    }
+
+    /**
+     * Cria o assento com o preço já em centavos, sem passar por BigDecimal.
+     */
+    public Assento(
+                String codigo,
+                int fileira,
+                int numero,
+                CategoriaAssento categoria,
+                long precoCentavos) {
         
         //encapsulamento das validaçoes - caso não seja mais necessario fazer validacao qualquer, basta comentar esta linha
         //apurarInformacoesEssenciais(codigo, categoria, preco); 
@@ -28,7 +39,7 @@ public class Assento {
         this.fileira = fileira;
         this.numero = numero;
         this.categoria = categoria; 
-        this.preco = preco.setScale(2, RoundingMode.HALF_UP); // Armazena com 2 casas decimais
+        this.precoCentavos = precoCentavos;
         this.status = StatusAssento.DISPONIVEL;
     }
 
@@ -80,7 +91,8 @@ public class Assento {
     public int getFileira() { return fileira; }
     public int getNumero() { return numero; }
     public CategoriaAssento getCategoria() { return categoria; }
-    public BigDecimal getPreco() { return preco; } // Retorna o preço armazenado
+    public BigDecimal getPreco() { return Centavos.paraBigDecimal(precoCentavos); } // Para exibição
+    public long getPrecoCentavos() { return precoCentavos; } // Para cálculos e persistência
     public StatusAssento getStatus() { return status; }
     
     /**
@@ -112,7 +124,7 @@ public class Assento {
         return "Assento{" +
                "codigo='" + codigo + '\'' +
                ", categoria=" + categoria.getNome() +
-               ", preco=" + preco.toString() +
+               ", preco=" + Centavos.formatar(precoCentavos) +
                ", status=" + status +
                '}';
     }
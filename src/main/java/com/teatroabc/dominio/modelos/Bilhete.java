@@ -1,7 +1,6 @@
 package com.teatroabc.dominio.modelos;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -15,6 +14,8 @@ import java.util.Objects;
  * A classe é imutável após a criação. Os valores financeiros e identificadores
  * são calculados e gerados pela camada de serviço e passados via construtor.
  * A informação da peça, data e turno agora está encapsulada no objeto {@link Sessao}.
+ * Os valores são guardados em centavos ({@link Centavos}); os getters BigDecimal
+ * existem para a exibição.
  */
 public class Bilhete {
     private final String id;
@@ -22,9 +23,9 @@ public class Bilhete {
     private final Sessao sessao; 
     private final Cliente cliente;
     private final List<Assento> assentos;
-    private final BigDecimal subtotal;
-    private final BigDecimal valorDesconto;
-    private final BigDecimal valorTotal;
+    private final long subtotalCentavos;
+    private final long valorDescontoCentavos;
+    private final long valorTotalCentavos;
     private final LocalDateTime dataHoraCompra;
 
     /**
@@ -45,16 +46,33 @@ public class Bilhete {
     public Bilhete(String id, String codigoBarras, Sessao sessao, Cliente cliente, 
                    List<Assento> assentos, BigDecimal subtotal, BigDecimal valorDesconto, 
                    BigDecimal valorTotal, LocalDateTime dataHoraCompra) {
+        this(id, codigoBarras, sessao, cliente, assentos,
+                Centavos.de(subtotal), Centavos.de(valorDesconto), Centavos.de(valorTotal), dataHoraCompra);
+    }
+
+    /**
+     * Cria o bilhete com os valores já em centavos, como calculados pelo serviço de
+     * reservas e lidos pelos repositórios.
+     *
+     * @param subtotalCentavos O valor bruto total dos assentos, em centavos.
+     * @param valorDescontoCentavos O valor do desconto aplicado, em centavos.
+     * @param valorTotalCentavos O valor final pago, em centavos.
+     * @throws IllegalArgumentException Se subtotal - desconto for diferente do total.
+     */
+    public Bilhete(String id, String codigoBarras, Sessao sessao, Cliente cliente,
+                   List<Assento> assentos, long subtotalCentavos, long valorDescontoCentavos,
+                   long valorTotalCentavos, LocalDateTime dataHoraCompra) {
 
         // A lógica de validação foi encapsulada para maior clareza.
         //apurarInformacoesEssenciais(id, codigoBarras, sessao, cliente, assentos, 
                                      //subtotal, valorDesconto, valorTotal, dataHoraCompra);
 
         // Validação de consistência financeira.
-        if (subtotal.subtract(valorDesconto).compareTo(valorTotal) != 0) {
+        if (subtotalCentavos - valorDescontoCentavos != valorTotalCentavos) {
             throw new IllegalArgumentException(String.format(
-                    "Inconsistência financeira: Subtotal (%.2f) - Desconto (%.2f) != Total (%.2f)",
-                    subtotal, valorDesconto, valorTotal
+                    "Inconsistência financeira: Subtotal (%s) - Desconto (%s) != Total (%s)",
+                    Centavos.formatar(subtotalCentavos), Centavos.formatar(valorDescontoCentavos),
+                    Centavos.formatar(valorTotalCentavos)
             ));
         }
 
@@ -63,9 +81,9 @@ public class Bilhete {
         this.sessao = sessao;
         this.cliente = cliente;
         this.assentos = Collections.unmodifiableList(new ArrayList<>(assentos)); // Cópia defensiva
-        this.subtotal = subtotal.setScale(2, RoundingMode.HALF_UP);
-        this.valorDesconto = valorDesconto.setScale(2, RoundingMode.HALF_UP);
-        this.valorTotal = valorTotal.setScale(2, RoundingMode.HALF_UP);
+        this.subtotalCentavos = subtotalCentavos;
+        this.valorDescontoCentavos = valorDescontoCentavos;
+        this.valorTotalCentavos = valorTotalCentavos;
         this.dataHoraCompra = dataHoraCompra;
     }
     
@@ -102,9 +120,12 @@ public class Bilhete {
     public Sessao getSessao() { return sessao; }
     public Cliente getCliente() { return cliente; }
     public List<Assento> getAssentos() { return assentos; }
-    public BigDecimal getSubtotal() { return subtotal; }
-    public BigDecimal getValorDesconto() { return valorDesconto; }
-    public BigDecimal getValorTotal() { return valorTotal; }
+    public BigDecimal getSubtotal() { return Centavos.paraBigDecimal(subtotalCentavos); }
+    public BigDecimal getValorDesconto() { return Centavos.paraBigDecimal(valorDescontoCentavos); }
+    public BigDecimal getValorTotal() { return Centavos.paraBigDecimal(valorTotalCentavos); }
+    public long getSubtotalCentavos() { return subtotalCentavos; }
+    public long getValorDescontoCentavos() { return valorDescontoCentavos; }
+    public long getValorTotalCentavos() { return valorTotalCentavos; }
     public LocalDateTime getDataHoraCompra() { return dataHoraCompra; }
 
     // --- Métodos Padrão (equals, hashCode, toString) ---
@@ -129,7 +150,7 @@ public class Bilhete {
                 ", sessao=" + (sessao != null ? sessao.getPeca().getTitulo() : "N/A") +
                 ", cliente=" + (cliente != null ? cliente.getNome() : "N/A") +
                 ", nAssentos=" + (assentos != null ? assentos.size() : 0) +
-                ", valorTotal=" + valorTotal +
+                ", valorTotal=" + Centavos.formatar(valorTotalCentavos) +
                 '}';
     }
 }
\ No newline at end of file
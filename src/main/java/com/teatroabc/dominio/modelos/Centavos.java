@@ -0,0 +1,109 @@
+package com.teatroabc.dominio.modelos;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Aritmética monetária sobre valores em centavos ({@code long}), usada no cálculo e na
+ * persistência dos bilhetes sem criar objetos. R$ 76,50 é representado por 7650.
+ * <p>
+ * Os arredondamentos seguem {@link RoundingMode#HALF_UP} (metade se afasta do zero),
+ * exatamente como o cálculo anterior com {@code BigDecimal.setScale(2, HALF_UP)}.
+ * Somas e produtos que excederem o intervalo de {@code long} lançam
+ * {@link ArithmeticException} em vez de transbordar silenciosamente.
+ * <p>
+ * A conversão para {@link BigDecimal} ({@link #paraBigDecimal}) fica reservada às
+ * fronteiras da aplicação: exibição na interface e colunas DECIMAL do banco.
+ */
+public final class Centavos {
+
+    /** Denominador dos percentuais em pontos-base: 10000 pontos-base = 100%. */
+    public static final int PONTOS_BASE_POR_INTEIRO = 10_000;
+
+    private Centavos() {
+    }
+
+    /**
+     * Converte um valor decimal em centavos, arredondando HALF_UP para 2 casas.
+     *
+     * @param valor O valor em reais (não nulo).
+     * @return O valor em centavos.
+     * @throws ArithmeticException Se o valor não couber em um long.
+     */
+    public static long de(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @param centavos O valor em centavos.
+     * @return O mesmo valor como BigDecimal de escala 2 (ex.: 7650 → 76.50).
+     */
+    public static BigDecimal paraBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * Converte um fator (ex.: 0.05 para 5%) em pontos-base (500).
+     *
+     * @param fator O fator decimal, com no máximo 4 casas.
+     * @return O fator em pontos-base.
+     * @throws ArithmeticException Se o fator tiver mais de 4 casas decimais.
+     */
+    public static int pontosBaseDe(BigDecimal fator) {
+        return fator.movePointRight(4).intValueExact();
+    }
+
+    /**
+     * @return A soma, verificando transbordamento.
+     */
+    public static long somar(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Calcula um percentual de um valor, arredondado HALF_UP para o centavo.
+     * Equivale a {@code valor.multiply(fator).setScale(2, HALF_UP)}.
+     *
+     * @param centavos O valor base em centavos.
+     * @param pontosBase O percentual em pontos-base (500 = 5%).
+     * @return O percentual do valor, em centavos.
+     */
+    public static long percentual(long centavos, int pontosBase) {
+        long produto = Math.multiplyExact(centavos, (long) pontosBase);
+        long quociente = produto / PONTOS_BASE_POR_INTEIRO;
+        long resto = produto % PONTOS_BASE_POR_INTEIRO;
+        // HALF_UP: a metade (resto = 5000) arredonda para longe do zero.
+        if (Math.abs(resto) * 2 >= PONTOS_BASE_POR_INTEIRO) {
+            quociente += Long.signum(produto);
+        }
+        return quociente;
+    }
+
+    /**
+     * Acrescenta o valor no formato de persistência ("76.50", "-0.05"), sem criar Strings
+     * intermediárias.
+     *
+     * @param destino Onde o texto é acrescentado.
+     * @param centavos O valor em centavos.
+     * @return O próprio destino.
+     */
+    public static StringBuilder anexar(StringBuilder destino, long centavos) {
+        if (centavos < 0) {
+            destino.append('-');
+        }
+        long absoluto = Math.abs(centavos);
+        long fracao = absoluto % 100;
+        destino.append(absoluto / 100).append('.');
+        if (fracao < 10) {
+            destino.append('0');
+        }
+        return destino.append(fracao);
+    }
+
+    /**
+     * @return O valor no formato de persistência ("76.50").
+     */
+    public static String formatar(long centavos) {
+        return anexar(new StringBuilder(12), centavos).toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.teatroabc.infraestrutura.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Associa cada código de assento de uma planta ({@link TeatroLayoutConfig}) a um
+ * índice inteiro denso, no intervalo [0, getTotalCodigos()).
+ * Os índices permitem representar a ocupação de uma sessão inteira como um
+ * {@link java.util.BitSet} compacto, em vez de um conjunto de Strings.
+ * <p>
+ * Os códigos são gerados na mesma ordem e no mesmo formato usados pelo
+ * AssentoRepositorio ("%c%d-%d": inicial da seção, fileira e número). Seções que
+ * compartilham a mesma inicial produzem códigos iguais; nesses casos o código
+ * recebe um único índice, preservando a semântica da persistência por código.
+ * <p>
+ * Os índices são calculados uma única vez por layout e reaproveitados.
+ */
+public final class IndicePlantaAssentos {
+
+    private static final Map<TeatroLayoutConfig, IndicePlantaAssentos> INDICES_POR_LAYOUT = new ConcurrentHashMap<>();
+
+    private final String[] codigos;
+    private final Map<String, Integer> indicePorCodigo;
+
+    private IndicePlantaAssentos(TeatroLayoutConfig layout) {
+        List<String> codigosOrdenados = new ArrayList<>();
+        Map<String, Integer> indices = new HashMap<>();
+
+        for (SecaoConfig secaoConfig : layout.getSecoes()) {
+            char prefixoCodigo = secaoConfig.getNomeDaSecao().charAt(0);
+            for (int numFileira = 1; numFileira <= secaoConfig.getNumeroDeFileiras(); numFileira++) {
+                for (int numAssento = 1; numAssento <= secaoConfig.getAssentosPorFileira(); numAssento++) {
+                    String codigo = montarCodigo(prefixoCodigo, numFileira, numAssento);
+                    if (!indices.containsKey(codigo)) {
+                        indices.put(codigo, codigosOrdenados.size());
+                        codigosOrdenados.add(codigo);
+                    }
+                }
+            }
+        }
+
+        this.codigos = codigosOrdenados.toArray(new String[0]);
+        this.indicePorCodigo = Collections.unmodifiableMap(indices);
+    }
+
+    /**
+     * Retorna o índice de assentos do layout informado, calculando-o na primeira chamada.
+     * @param layout O layout da planta do teatro.
+     * @return O índice (imutável) correspondente ao layout.
+     */
+    public static IndicePlantaAssentos de(TeatroLayoutConfig layout) {
+        if (layout == null) {
+            throw new IllegalArgumentException("Layout do teatro não pode ser nulo.");
+        }
+        return INDICES_POR_LAYOUT.computeIfAbsent(layout, IndicePlantaAssentos::new);
+    }
+
+    /**
+     * Atalho para o índice do layout padrão definido em {@link ConfiguracaoPlantaTeatro}.
+     * @return O índice do layout padrão.
+     */
+    public static IndicePlantaAssentos padrao() {
+        return de(ConfiguracaoPlantaTeatro.getLayout());
+    }
+
+    /**
+     * Monta o código textual de um assento sem passar por String.format.
+     * Ex: ('P', 3, 7) → "P3-7".
+     */
+    public static String montarCodigo(char prefixo, int fileira, int numero) {
+        return new StringBuilder(8).append(prefixo).append(fileira).append('-').append(numero).toString();
+    }
+
+    /**
+     * @return A quantidade de códigos distintos da planta (tamanho do espaço de índices).
+     */
+    public int getTotalCodigos() {
+        return codigos.length;
+    }
+
+    /**
+     * Retorna o índice denso de um código de assento.
+     * @param codigo O código do assento (ex: "B1-5").
+     * @return O índice do código, ou -1 se o código não pertencer à planta.
+     */
+    public int indiceDe(String codigo) {
+        if (codigo == null) {
+            return -1;
+        }
+        Integer indice = indicePorCodigo.get(codigo);
+        return indice != null ? indice : -1;
+    }
+
+    /**
+     * Retorna o código de assento associado a um índice.
+     * @param indice Um índice no intervalo [0, getTotalCodigos()).
+     * @return O código do assento.
+     */
+    public String codigoEm(int indice) {
+        return codigos[indice];
+    }
+}
@@ -0,0 +1,109 @@
+package com.teatroabc.infraestrutura.config;
+
+import com.teatroabc.dominio.enums.CategoriaAssento;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Modelo imutável de todos os assentos de uma planta ({@link TeatroLayoutConfig}),
+ * pré-calculado uma única vez por layout.
+ * <p>
+ * Guarda, por posição, o código, a fileira, o número, a categoria e o preço (em
+ * centavos) de cada assento, na mesma ordem em que o AssentoRepositorio sempre
+ * os gerou, além do índice de ocupação do código no {@link IndicePlantaAssentos}.
+ * As plantas de cada sessão apenas sobrepõem o status dos assentos a este modelo,
+ * sem copiá-lo nem refazer a formatação dos códigos.
+ */
+public final class ModeloPlantaAssentos {
+
+    private static final Map<TeatroLayoutConfig, ModeloPlantaAssentos> MODELOS_POR_LAYOUT = new ConcurrentHashMap<>();
+
+    private final IndicePlantaAssentos indicePlanta;
+    private final String[] codigos;
+    private final int[] fileiras;
+    private final int[] numeros;
+    private final CategoriaAssento[] categorias;
+    private final long[] precosCentavos;
+    private final int[] indicesOcupacao;
+
+    private ModeloPlantaAssentos(TeatroLayoutConfig layout) {
+        this.indicePlanta = IndicePlantaAssentos.de(layout);
+
+        int total = 0;
+        for (SecaoConfig secaoConfig : layout.getSecoes()) {
+            total += secaoConfig.getNumeroDeFileiras() * secaoConfig.getAssentosPorFileira();
+        }
+        codigos = new String[total];
+        fileiras = new int[total];
+        numeros = new int[total];
+        categorias = new CategoriaAssento[total];
+        precosCentavos = new long[total];
+        indicesOcupacao = new int[total];
+
+        int posicao = 0;
+        for (SecaoConfig secaoConfig : layout.getSecoes()) {
+            char prefixoCodigo = secaoConfig.getNomeDaSecao().charAt(0);
+            CategoriaAssento categoria = secaoConfig.getCategoria();
+            long precoCentavos = categoria.getPrecoBaseCentavos();
+
+            for (int numFileira = 1; numFileira <= secaoConfig.getNumeroDeFileiras(); numFileira++) {
+                for (int numAssento = 1; numAssento <= secaoConfig.getAssentosPorFileira(); numAssento++) {
+                    String codigo = IndicePlantaAssentos.montarCodigo(prefixoCodigo, numFileira, numAssento);
+                    codigos[posicao] = codigo;
+                    fileiras[posicao] = numFileira;
+                    numeros[posicao] = numAssento;
+                    categorias[posicao] = categoria;
+                    precosCentavos[posicao] = precoCentavos;
+                    indicesOcupacao[posicao] = indicePlanta.indiceDe(codigo);
+                    posicao++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retorna o modelo do layout informado, calculando-o na primeira chamada.
+     * @param layout O layout da planta do teatro.
+     * @return O modelo (imutável) correspondente ao layout.
+     */
+    public static ModeloPlantaAssentos de(TeatroLayoutConfig layout) {
+        if (layout == null) {
+            throw new IllegalArgumentException("Layout do teatro não pode ser nulo.");
+        }
+        return MODELOS_POR_LAYOUT.computeIfAbsent(layout, ModeloPlantaAssentos::new);
+    }
+
+    /**
+     * Atalho para o modelo do layout padrão definido em {@link ConfiguracaoPlantaTeatro}.
+     * @return O modelo do layout padrão.
+     */
+    public static ModeloPlantaAssentos padrao() {
+        return de(ConfiguracaoPlantaTeatro.getLayout());
+    }
+
+    /**
+     * @return O índice de códigos usado para a ocupação deste layout.
+     */
+    public IndicePlantaAssentos getIndicePlanta() {
+        return indicePlanta;
+    }
+
+    /**
+     * @return A quantidade de assentos da planta (posições do modelo).
+     */
+    public int getTotalAssentos() {
+        return codigos.length;
+    }
+
+    public String codigoEm(int posicao) { return codigos[posicao]; }
+    public int fileiraEm(int posicao) { return fileiras[posicao]; }
+    public int numeroEm(int posicao) { return numeros[posicao]; }
+    public CategoriaAssento categoriaEm(int posicao) { return categorias[posicao]; }
+    public long precoCentavosEm(int posicao) { return precosCentavos[posicao]; }
+
+    /**
+     * @return O índice do assento da posição no {@link IndicePlantaAssentos} (bit de ocupação).
+     */
+    public int indiceOcupacaoEm(int posicao) { return indicesOcupacao[posicao]; }
+}
@@ -3,28 +3,74 @@ package com.teatroabc.infraestrutura.persistencia.implementacao;
 
 import com.teatroabc.dominio.modelos.Assento;
 import com.teatroabc.dominio.modelos.Sessao;
-import com.teatroabc.dominio.enums.CategoriaAssento;
 import com.teatroabc.dominio.enums.StatusAssento;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IAssentoRepositorio;
-import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.BloqueiosEntreProcessos;
+import com.teatroabc.infraestrutura.persistencia.util.PlantaSessao;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
 import com.teatroabc.infraestrutura.config.ConfiguracaoPlantaTeatro;
-import com.teatroabc.infraestrutura.config.SecaoConfig;
-import com.teatroabc.infraestrutura.config.TeatroLayoutConfig;
+import com.teatroabc.infraestrutura.config.ModeloPlantaAssentos;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Implementação do repositório de assentos que interage com a persistência em arquivos.
  * REFATORADO: A lógica agora é centrada na entidade Sessao. A disponibilidade de
  * assentos é consultada usando o ID da sessão, o que torna o modelo mais consistente.
+ * A ocupação real vem do {@link RegistroOcupacaoAssentos} (um BitSet por sessão),
+ * evitando a varredura completa de assentos_ocupados.txt a cada consulta.
+ * <p>
+ * Quando outros terminais compartilham o diretório de dados, cada reserva também bloqueia
+ * o balde da sessão nos {@link BloqueiosEntreProcessos} e relê o fim do log de ocupação
+ * antes de verificar os assentos, de modo que dois processos não vendem o mesmo assento.
+ * <p>
+ * As retenções temporárias (assentos de uma compra em andamento) ficam no mesmo registro.
+ * Reter segue a ordem de bloqueio de uma venda (sessão local, balde da sessão) e, por
+ * último, a região de retenções, detida só enquanto o log de retenções é lido ou gravado.
  */
 public class AssentoRepositorio implements IAssentoRepositorio {
 
+    private final RegistroOcupacaoAssentos registroOcupacao;
+    // Um bloqueio por balde de sessões, nos mesmos baldes dos BloqueiosEntreProcessos: a quantidade
+    // é fixa, e vendas para sessões de baldes diferentes nunca se bloqueiam.
+    private final ReentrantLock[] bloqueiosPorBalde = novosBloqueiosPorBalde();
+    // Coordenação com outros terminais; null quando apenas este processo vende.
+    private final BloqueiosEntreProcessos bloqueiosEntreProcessos;
+
+    /**
+     * Construtor do AssentoRepositorio para um único processo.
+     * @param registroOcupacao O registro em memória da ocupação por sessão, compartilhado
+     *                         com o repositório de bilhetes que o atualiza a cada venda.
+     */
+    public AssentoRepositorio(RegistroOcupacaoAssentos registroOcupacao) {
+        this(registroOcupacao, null);
+    }
+
+    /**
+     * Construtor do AssentoRepositorio.
+     * @param registroOcupacao O registro em memória da ocupação por sessão, compartilhado
+     *                         com o repositório de bilhetes que o atualiza a cada venda.
+     * @param bloqueiosEntreProcessos Os bloqueios compartilhados com outros terminais, ou null
+     *                                se apenas este processo vende.
+     */
+    public AssentoRepositorio(RegistroOcupacaoAssentos registroOcupacao, BloqueiosEntreProcessos bloqueiosEntreProcessos) {
+        if (registroOcupacao == null) {
+            throw new IllegalArgumentException("Registro de ocupação de assentos não pode ser nulo.");
+        }
+        this.registroOcupacao = registroOcupacao;
+        this.bloqueiosEntreProcessos = bloqueiosEntreProcessos;
+    }
+
     /**
      * {@inheritDoc}
-     * Gera dinamicamente a lista de todos os assentos para uma sessão,
-     * baseando-se na configuração centralizada e marcando como ocupados
-     * aqueles registrados para o ID da sessão específica.
+     * Monta a planta da sessão sobre o {@link ModeloPlantaAssentos} pré-calculado do layout
+     * configurado: apenas o status de cada assento é calculado aqui, marcando como ocupados
+     * aqueles registrados para o ID da sessão específica. Os objetos Assento são criados
+     * sob demanda pela {@link PlantaSessao}.
      */
     @Override
     public List<Assento> buscarAssentosPorSessao(Sessao sessao) {
@@ -32,36 +78,37 @@ public class AssentoRepositorio implements IAssentoRepositorio {
             return Collections.emptyList();
         }
 
-        List<Assento> todosAssentos = new ArrayList<>();
-        // 1. Busca os códigos de assentos já ocupados para esta SESSÃO específica.
-        Set<String> codigosOcupados = GerenciadorArquivos.buscarAssentosOcupados(sessao.getId());
-
-        // 2. Obtém a configuração da planta do teatro.
-        TeatroLayoutConfig layout = ConfiguracaoPlantaTeatro.getLayout();
-
-        // 3. Itera sobre a CONFIGURAÇÃO para gerar a planta de assentos.
-        for (SecaoConfig secaoConfig : layout.getSecoes()) {
-            char prefixoCodigo = secaoConfig.getNomeDaSecao().charAt(0);
-            CategoriaAssento categoria = secaoConfig.getCategoria();
-
-            for (int numFileira = 1; numFileira <= secaoConfig.getNumeroDeFileiras(); numFileira++) {
-                for (int numAssento = 1; numAssento <= secaoConfig.getAssentosPorFileira(); numAssento++) {
-                    
-                    String codigoAssento = String.format("%c%d-%d", prefixoCodigo, numFileira, numAssento);
-                    
-                    Assento assento = new Assento(codigoAssento, numFileira, numAssento, categoria, categoria.getPrecoBase());
-                    
-                    // 4. Define o status do assento: Ocupado se estiver na lista da sessão ou na simulação.
-                    if (codigosOcupados.contains(codigoAssento) || isAssentoOcupadoSimulacao(sessao, codigoAssento)) {
-                        assento.setStatus(StatusAssento.OCUPADO);
-                    }
-                    
-                    todosAssentos.add(assento);
-                }
+        // 1. Obtém o BitSet de assentos já ocupados (vendidos ou simulados) para esta SESSÃO específica,
+        //    e o dos assentos retidos para compras em andamento, inclusive em outros terminais.
+        registroOcupacao.prepararSessao(sessao.getId(), sessao.getTurno());
+        BitSet ocupados = registroOcupacao.obterOcupacao(sessao.getId());
+        try {
+            sincronizarRetencoes();
+        } catch (IOException e) {
+            // A planta ainda é útil sem as retenções mais recentes: a venda as verifica de novo.
+            System.err.println("AssentoRepositorio: Retenções de outros terminais não lidas: " + e.getMessage());
+        }
+        BitSet retidos = registroOcupacao.obterRetidos(sessao.getId());
+
+        // 2. Obtém o modelo (imutável e em cache) da planta configurada.
+        ModeloPlantaAssentos modelo = ModeloPlantaAssentos.de(ConfiguracaoPlantaTeatro.getLayout());
+
+        // 3. Define o status de cada posição: Ocupado se o bit do seu código estiver marcado,
+        //    senão Retido se o assento estiver guardado para uma compra em andamento.
+        byte[] status = new byte[modelo.getTotalAssentos()];
+        byte ocupado = (byte) StatusAssento.OCUPADO.ordinal();
+        byte retido = (byte) StatusAssento.RETIDO.ordinal();
+        byte disponivel = (byte) StatusAssento.DISPONIVEL.ordinal();
+        for (int posicao = 0; posicao < status.length; posicao++) {
+            int indice = modelo.indiceOcupacaoEm(posicao);
+            if (indice < 0) {
+                status[posicao] = disponivel;
+            } else {
+                status[posicao] = ocupados.get(indice) ? ocupado : retidos.get(indice) ? retido : disponivel;
             }
         }
-        
-        return todosAssentos;
+
+        return new PlantaSessao(modelo, status);
     }
 
     /**
@@ -74,33 +121,254 @@ public class AssentoRepositorio implements IAssentoRepositorio {
             return true;
         }
         
-        Set<String> codigosOcupados = GerenciadorArquivos.buscarAssentosOcupados(sessao.getId());
+        return disponiveisPara(sessao, codigosAssentos, null);
+    }
+
+    /**
+     * @return true se nenhum dos assentos está ocupado nem retido por um token diferente do informado.
+     */
+    private boolean disponiveisPara(Sessao sessao, List<String> codigosAssentos, String tokenRetencao) {
+        if (codigosAssentos == null || codigosAssentos.isEmpty()) {
+            return true;
+        }
+        registroOcupacao.prepararSessao(sessao.getId(), sessao.getTurno());
+        return !registroOcupacao.algumOcupado(sessao.getId(), codigosAssentos)
+                && !registroOcupacao.algumRetidoPorOutro(sessao.getId(), codigosAssentos, tokenRetencao);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A verificação, a confirmação e a marcação no registro de ocupação acontecem
+     * sob o bloqueio exclusivo da sessão, eliminando a janela entre "verificar" e
+     * "salvar" em que dois terminais poderiam vender o mesmo assento. Com outros processos,
+     * o bloqueio vale também para eles, e a ocupação é revalidada a partir do fim do log.
+     * Nenhuma retenção nova pode surgir na sessão enquanto o seu balde está bloqueado, de modo
+     * que a região de retenções é detida só durante a leitura do log de retenções.
+     *
+     * @throws UncheckedIOException Se o bloqueio de outro terminal não for liberado a tempo.
+     */
+    @Override
+    @SuppressWarnings("try") // os bloqueios só precisam valer durante o bloco
+    public boolean reservarSeDisponiveis(Sessao sessao, List<String> codigosAssentos, String tokenRetencao,
+                                         Runnable confirmacao) {
+        if (sessao == null) return false;
+        if (confirmacao == null) {
+            throw new IllegalArgumentException("A ação de confirmação da reserva não pode ser nula.");
+        }
 
-        for (String codigo : codigosAssentos) {
-            if (codigosOcupados.contains(codigo) || isAssentoOcupadoSimulacao(sessao, codigo)) {
+        ReentrantLock bloqueio = bloqueioLocalDe(sessao.getId());
+        bloqueio.lock();
+        try (BloqueiosEntreProcessos.Bloqueio entreProcessos = bloquearEntreProcessos(sessao.getId())) {
+            // Vendas e retenções de outros terminais só chegam pelos logs: lê as linhas novas antes de verificar.
+            registroOcupacao.sincronizarComLog(false);
+            sincronizarRetencoes();
+            if (!disponiveisPara(sessao, codigosAssentos, tokenRetencao)) {
                 return false;
             }
+            confirmacao.run();
+            if (codigosAssentos != null) {
+                registroOcupacao.marcarOcupados(sessao.getId(), codigosAssentos);
+            }
+            liberarRetencaoAposVenda(tokenRetencao);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível bloquear a sessão " + sessao.getId() + " entre os terminais.", e);
+        } finally {
+            bloqueio.unlock();
         }
-        
-        return true;
     }
 
     /**
-     * Lógica de simulação para marcar aleatoriamente alguns assentos como ocupados.
-     * Em um sistema real, a ocupação viria apenas da persistência.
+     * {@inheritDoc}
+     * Os bloqueios locais são adquiridos em ordem crescente de balde (um por balde) e, depois de todos eles,
+     * os baldes entre processos em ordem crescente: como toda reserva segue essa mesma
+     * ordem (uma reserva simples é o caso de uma única sessão), nenhuma espera circular é possível.
+     *
+     * @throws UncheckedIOException Se o bloqueio de outro terminal não for liberado a tempo.
      */
-    private boolean isAssentoOcupadoSimulacao(Sessao sessao, String codigoAssento) {
-        // Usa o hash do ID da sessão e do código do assento para gerar um número pseudo-aleatório consistente.
-        int hash = (sessao.getId() + codigoAssento).hashCode();
-        double probabilidade;
-        
-        switch (sessao.getTurno()) {
-            case MANHA: probabilidade = 0.10; break;
-            case TARDE: probabilidade = 0.20; break;
-            case NOITE: probabilidade = 0.30; break;
-            default:    probabilidade = 0.15;
+    @Override
+    public List<Sessao> reservarTodosSeDisponiveis(Map<Sessao, List<String>> codigosPorSessao, String tokenRetencao,
+                                                   Runnable confirmacao) {
+        if (codigosPorSessao == null || codigosPorSessao.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma sessão para a reserva.");
         }
-        
-        return (Math.abs(hash) % 100) < (probabilidade * 100);
+        if (confirmacao == null) {
+            throw new IllegalArgumentException("A ação de confirmação da reserva não pode ser nula.");
+        }
+
+        List<Sessao> sessoes = new ArrayList<>(codigosPorSessao.keySet());
+        sessoes.sort(Comparator.comparing(Sessao::getId));
+        List<ReentrantLock> bloqueiosLocais = new ArrayList<>();
+        List<BloqueiosEntreProcessos.Bloqueio> bloqueiosBaldes = new ArrayList<>();
+        try {
+            for (ReentrantLock bloqueio : bloqueiosLocaisEmOrdem(sessoes)) {
+                bloqueio.lock();
+                bloqueiosLocais.add(bloqueio);
+            }
+            if (bloqueiosEntreProcessos != null) {
+                List<Sessao> porBalde = new ArrayList<>(sessoes);
+                porBalde.sort(Comparator.comparingInt((Sessao sessao) -> bloqueiosEntreProcessos.baldeDe(sessao.getId()))
+                        .thenComparing(Sessao::getId));
+                for (Sessao sessao : porBalde) {
+                    bloqueiosBaldes.add(bloqueiosEntreProcessos.bloquearSessao(sessao.getId()));
+                }
+            }
+            // Vendas e retenções de outros terminais só chegam pelos logs: lê as linhas novas antes de verificar.
+            registroOcupacao.sincronizarComLog(false);
+            sincronizarRetencoes();
+
+            List<Sessao> indisponiveis = new ArrayList<>();
+            for (Sessao sessao : sessoes) {
+                if (!disponiveisPara(sessao, codigosPorSessao.get(sessao), tokenRetencao)) {
+                    indisponiveis.add(sessao);
+                }
+            }
+            if (!indisponiveis.isEmpty()) {
+                return indisponiveis;
+            }
+            confirmacao.run();
+            for (Sessao sessao : sessoes) {
+                List<String> codigos = codigosPorSessao.get(sessao);
+                if (codigos != null) {
+                    registroOcupacao.marcarOcupados(sessao.getId(), codigos);
+                }
+            }
+            liberarRetencaoAposVenda(tokenRetencao);
+            return Collections.emptyList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível bloquear as sessões " + sessoes + " entre os terminais.", e);
+        } finally {
+            for (int i = bloqueiosBaldes.size() - 1; i >= 0; i--) {
+                bloqueiosBaldes.get(i).close();
+            }
+            for (int i = bloqueiosLocais.size() - 1; i >= 0; i--) {
+                bloqueiosLocais.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Sob o bloqueio da sessão (local e entre processos), a ocupação e as retenções são
+     * relidas dos logs e verificadas; a nova retenção é gravada ainda com a região de
+     * retenções bloqueada, para que nenhum outro terminal retenha os mesmos assentos.
+     *
+     * @throws UncheckedIOException Se o bloqueio de outro terminal não for liberado a tempo
+     *                              ou a retenção não puder ser gravada.
+     */
+    @Override
+    @SuppressWarnings("try")
+    public boolean reterSeDisponiveis(Sessao sessao, List<String> codigosAssentos, String tokenRetencao, Instant expiraEm) {
+        if (sessao == null) return false;
+        if (tokenRetencao == null || expiraEm == null) {
+            throw new IllegalArgumentException("Token e prazo da retenção não podem ser nulos.");
+        }
+        List<String> codigos = codigosAssentos != null ? codigosAssentos : Collections.emptyList();
+
+        ReentrantLock bloqueio = bloqueioLocalDe(sessao.getId());
+        bloqueio.lock();
+        try (BloqueiosEntreProcessos.Bloqueio entreProcessos = bloquearEntreProcessos(sessao.getId())) {
+            registroOcupacao.sincronizarComLog(false);
+            try (BloqueiosEntreProcessos.Bloqueio regiao = bloquearRetencoes()) {
+                registroOcupacao.sincronizarRetencoes();
+                if (!disponiveisPara(sessao, codigos, tokenRetencao)) {
+                    return false;
+                }
+                registroOcupacao.reter(sessao.getId(), codigos, tokenRetencao, expiraEm.toEpochMilli());
+                return true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível bloquear a sessão " + sessao.getId() + " entre os terminais.", e);
+        } finally {
+            bloqueio.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException Se o bloqueio de outro terminal não for liberado a tempo
+     *                              ou a liberação não puder ser gravada.
+     */
+    @Override
+    @SuppressWarnings("try")
+    public void liberarRetencao(String tokenRetencao) {
+        if (tokenRetencao == null) return;
+        try (BloqueiosEntreProcessos.Bloqueio regiao = bloquearRetencoes()) {
+            // A retenção pode ter sido criada por outro terminal e ainda não ter sido lida aqui.
+            registroOcupacao.sincronizarRetencoes();
+            registroOcupacao.liberarRetencao(tokenRetencao);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível bloquear as retenções entre os terminais.", e);
+        }
+    }
+
+    /**
+     * Libera a retenção de uma compra já vendida. Uma falha aqui não desfaz a venda: os
+     * assentos já estão ocupados, e a retenção apenas expira no prazo.
+     */
+    private void liberarRetencaoAposVenda(String tokenRetencao) {
+        try {
+            liberarRetencao(tokenRetencao);
+        } catch (UncheckedIOException e) {
+            System.err.println("AssentoRepositorio: Retenção " + tokenRetencao + " não liberada após a venda: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Incorpora as retenções gravadas por outros terminais, com a região de retenções bloqueada.
+     */
+    @SuppressWarnings("try") // o bloqueio só precisa valer durante o bloco
+    private void sincronizarRetencoes() throws IOException {
+        try (BloqueiosEntreProcessos.Bloqueio regiao = bloquearRetencoes()) {
+            registroOcupacao.sincronizarRetencoes();
+        }
+    }
+
+    /**
+     * @return O bloqueio da região de retenções, ou null (ignorado pelo try-with-resources) sem outros processos.
+     */
+    private BloqueiosEntreProcessos.Bloqueio bloquearRetencoes() throws IOException {
+        return bloqueiosEntreProcessos == null ? null : bloqueiosEntreProcessos.bloquearRetencoes();
+    }
+
+    private static ReentrantLock[] novosBloqueiosPorBalde() {
+        ReentrantLock[] bloqueios = new ReentrantLock[BloqueiosEntreProcessos.BALDES_PADRAO];
+        for (int i = 0; i < bloqueios.length; i++) {
+            bloqueios[i] = new ReentrantLock();
+        }
+        return bloqueios;
+    }
+
+    // Mesmo cálculo de BloqueiosEntreProcessos#baldeDe com a quantidade padrão de baldes.
+    private int baldeLocalDe(String idSessao) {
+        return Math.floorMod(idSessao.hashCode(), bloqueiosPorBalde.length);
+    }
+
+    private ReentrantLock bloqueioLocalDe(String idSessao) {
+        return bloqueiosPorBalde[baldeLocalDe(idSessao)];
+    }
+
+    /**
+     * @return Os bloqueios locais dos baldes das sessões, sem repetição e em ordem crescente
+     *         de balde: duas sessões do mesmo balde compartilham o bloqueio.
+     */
+    private List<ReentrantLock> bloqueiosLocaisEmOrdem(List<Sessao> sessoes) {
+        SortedSet<Integer> baldes = new TreeSet<>();
+        for (Sessao sessao : sessoes) {
+            baldes.add(baldeLocalDe(sessao.getId()));
+        }
+        List<ReentrantLock> bloqueios = new ArrayList<>(baldes.size());
+        for (int balde : baldes) {
+            bloqueios.add(bloqueiosPorBalde[balde]);
+        }
+        return bloqueios;
+    }
+
+    /**
+     * @return O bloqueio do balde da sessão, ou null (ignorado pelo try-with-resources) sem outros processos.
+     */
+    private BloqueiosEntreProcessos.Bloqueio bloquearEntreProcessos(String idSessao) throws IOException {
+        return bloqueiosEntreProcessos == null ? null : bloqueiosEntreProcessos.bloquearSessao(idSessao);
     }
 }
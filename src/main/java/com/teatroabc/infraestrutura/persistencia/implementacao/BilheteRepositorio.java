@@ -4,33 +4,80 @@ package com.teatroabc.infraestrutura.persistencia.implementacao;
 import com.teatroabc.dominio.modelos.*;
 import com.teatroabc.dominio.enums.Turno;
 import com.teatroabc.dominio.enums.CategoriaAssento;
+import com.teatroabc.infraestrutura.persistencia.interfaces.FiltroBilhetes;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IBilheteRepositorio;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IClienteRepositorio;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IPecaRepositorio;
 import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.Aquecivel;
+import com.teatroabc.infraestrutura.persistencia.util.CacheLimitado;
+import com.teatroabc.infraestrutura.persistencia.util.CatalogoSegmentosBilhetes;
+import com.teatroabc.infraestrutura.persistencia.util.CursorRegistro;
+import com.teatroabc.infraestrutura.persistencia.util.IndiceBilhetes;
+import com.teatroabc.infraestrutura.persistencia.util.MonitorArquivosDados;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+import com.teatroabc.infraestrutura.persistencia.util.SegmentoBilhetes;
 import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementação (Adaptador Secundário) do repositório de Bilhetes.
  * Responsável por traduzir objetos Bilhete para o formato de persistência
  * em arquivo de texto e vice-versa.
  * REFATORADO: A marcação de assentos ocupados agora usa o ID da Sessão.
+ * As consultas por CPF, por ID e por código de barras usam um {@link IndiceBilhetes} (offsets das linhas
+ * em bilhetes.txt), lendo do disco apenas as linhas dos bilhetes encontrados.
+ * As consultas por filtro percorrem o arquivo em stream e só montam os bilhetes aceitos.
+ * <p>
+ * Os bilhetes de meses encerrados ficam em segmentos selados ({@link SegmentoBilhetes}),
+ * cada um com o seu próprio índice: bilhetes.txt e o índice em memória guardam apenas o
+ * mês em aberto, e o custo de uma busca não cresce com o histórico. As consultas por
+ * período pulam os segmentos cujo intervalo de datas não as atende.
  */
-public class BilheteRepositorio implements IBilheteRepositorio {
+public class BilheteRepositorio implements IBilheteRepositorio, Aquecivel {
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    // Clientes distintos lembrados por uma consulta em stream (o histórico pode ter milhões).
+    private static final int CLIENTES_EM_CACHE_POR_CONSULTA = 1024;
 
     private final IClienteRepositorio clienteRepositorio;
     private final IPecaRepositorio pecaRepositorio;
+    private final RegistroOcupacaoAssentos registroOcupacao;
+    private final IndiceBilhetes indiceBilhetes;
+    private final CatalogoSegmentosBilhetes segmentos;
     
-    public BilheteRepositorio(IClienteRepositorio clienteRepositorio, IPecaRepositorio pecaRepositorio) {
+    public BilheteRepositorio(IClienteRepositorio clienteRepositorio, IPecaRepositorio pecaRepositorio,
+                              RegistroOcupacaoAssentos registroOcupacao) {
         this.clienteRepositorio = clienteRepositorio;
         this.pecaRepositorio = pecaRepositorio;
+        this.registroOcupacao = registroOcupacao;
+        this.indiceBilhetes = new IndiceBilhetes();
+        this.segmentos = new CatalogoSegmentosBilhetes(GerenciadorArquivos.diretorioDados());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Indexa bilhetes.txt (offsets por CPF e por ID) e abre os segmentos selados.
+     */
+    @Override
+    public void aquecer() {
+        indiceBilhetes.atualizar();
+        segmentos.segmentos();
+    }
+
+    /**
+     * Incorpora ao índice os bilhetes acrescentados a bilhetes.txt por outros terminais,
+     * lendo apenas as linhas novas. Chamado pelo {@link MonitorArquivosDados}.
+     *
+     * @param arquivoSubstituido true se o arquivo foi recriado e deve ser reindexado.
+     */
+    public void sincronizarComArquivo(boolean arquivoSubstituido) {
+        indiceBilhetes.atualizar(arquivoSubstituido);
     }
 
     /**
@@ -43,124 +90,311 @@ public class BilheteRepositorio implements IBilheteRepositorio {
             return;
         }
 
+        Sessao sessao = bilhete.getSessao();
+        List<String> codigosAssentos = codigosAssentos(bilhete);
+
+        // A linha do bilhete e a ocupação dos assentos (por ID da Sessão) tornam-se
+        // duráveis juntas, em uma única transação do diário de escrita.
+        GerenciadorArquivos.salvarBilheteComOcupacao(formatarLinha(bilhete), sessao.getId(), codigosAssentos);
+
+        // Mantém o registro em memória coerente com o arquivo, sem precisar relê-lo.
+        registroOcupacao.marcarOcupados(sessao.getId(), codigosAssentos);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Todas as linhas de bilhete e de ocupação vão para uma única transação do diário de escrita.
+     */
+    @Override
+    public void salvarTodos(List<Bilhete> bilhetes) {
+        if (bilhetes == null || bilhetes.isEmpty()) {
+            return;
+        }
+        List<String> linhas = new ArrayList<>(bilhetes.size());
+        List<String> idsSessoes = new ArrayList<>(bilhetes.size());
+        List<List<String>> codigosPorBilhete = new ArrayList<>(bilhetes.size());
+        for (Bilhete bilhete : bilhetes) {
+            linhas.add(formatarLinha(bilhete));
+            idsSessoes.add(bilhete.getSessao().getId());
+            codigosPorBilhete.add(codigosAssentos(bilhete));
+        }
+
+        GerenciadorArquivos.salvarBilhetesComOcupacao(linhas, idsSessoes, codigosPorBilhete);
+
+        for (int i = 0; i < bilhetes.size(); i++) {
+            registroOcupacao.marcarOcupados(idsSessoes.get(i), codigosPorBilhete.get(i));
+        }
+    }
+
+    /**
+     * Os 10 primeiros campos mantêm o formato anterior, para compatibilidade com dados existentes;
+     * o ID e a data/hora da sessão vêm ao final. Os valores são gravados a partir dos centavos
+     * ("76.50"), sem formatação de BigDecimal.
+     */
+    private static String formatarLinha(Bilhete bilhete) {
         Sessao sessao = bilhete.getSessao();
         String assentosStr = bilhete.getAssentos().stream()
                 .map(Assento::getCodigo)
                 .collect(Collectors.joining(","));
+        StringBuilder linhaBilhete = new StringBuilder(160)
+                .append(bilhete.getId()).append('|')
+                .append(bilhete.getCodigoBarras()).append('|')
+                .append(bilhete.getCliente().getCpf()).append('|')
+                .append(sessao.getPeca().getId()).append('|')
+                .append(assentosStr).append('|');
+        Centavos.anexar(linhaBilhete, bilhete.getSubtotalCentavos()).append('|');
+        Centavos.anexar(linhaBilhete, bilhete.getValorDescontoCentavos()).append('|');
+        Centavos.anexar(linhaBilhete, bilhete.getValorTotalCentavos()).append('|');
+        return linhaBilhete
+                .append(sessao.getTurno().name()).append('|')
+                .append(bilhete.getDataHoraCompra().format(DATETIME_FORMATTER)).append('|')
+                .append(sessao.getId()).append('|')
+                .append(sessao.getDataHora().format(DATETIME_FORMATTER))
+                .toString();
+    }
 
-        // O formato da linha do bilhete é mantido para compatibilidade com dados existentes,
-        // mas a lógica para marcar assentos é corrigida.
-        String linha = String.format(Locale.US, "%s|%s|%s|%s|%s|%.2f|%.2f|%.2f|%s|%s",
-                bilhete.getId(),
-                bilhete.getCodigoBarras(),
-                bilhete.getCliente().getCpf(),
-                sessao.getPeca().getId(), 
-                assentosStr,
-                bilhete.getSubtotal(),
-                bilhete.getValorDesconto(),
-                bilhete.getValorTotal(),
-                sessao.getTurno().name(),
-                bilhete.getDataHoraCompra().format(DATETIME_FORMATTER)
-        );
-
-        GerenciadorArquivos.salvarBilhete(linha);
-
-        // CORREÇÃO: Marca os assentos como ocupados usando o ID da Sessão.
-        for (Assento assento : bilhete.getAssentos()) {
-            GerenciadorArquivos.marcarAssentoOcupado(
-                    sessao.getId(),
-                    assento.getCodigo()
-            );
-        }
+    private static List<String> codigosAssentos(Bilhete bilhete) {
+        return bilhete.getAssentos().stream()
+                .map(Assento::getCodigo)
+                .collect(Collectors.toList());
     }
 
+    /**
+     * {@inheritDoc}
+     * Usa o índice secundário por CPF de cada segmento selado e de bilhetes.txt para ler
+     * apenas as linhas do cliente. Cliente e peças são resolvidos uma única vez por chamada,
+     * mesmo que apareçam em vários bilhetes.
+     */
     @Override
     public List<Bilhete> listarPorCpfCliente(String cpf) {
-        List<String> linhas = GerenciadorArquivos.buscarBilhetesPorCpf(cpf);
+        if (cpf == null) return new ArrayList<>();
+        List<String> linhas = linhasDoCpf(cpf);
+        Map<String, Optional<Cliente>> cacheClientes = new HashMap<>();
+        Map<String, Optional<Peca>> cachePecas = new HashMap<>();
+        // Um bilhete pode aparecer em um segmento e em bilhetes.txt durante uma selagem.
+        Set<String> idsVistos = new HashSet<>();
         List<Bilhete> bilhetesDoCliente = new ArrayList<>();
+        LeitorLinhaBilhete leitor = new LeitorLinhaBilhete();
         for (String linha : linhas) {
-            parsearBilhete(linha).ifPresent(bilhetesDoCliente::add);
+            leitor.parsear(linha, cacheClientes, cachePecas)
+                    .filter(bilhete -> idsVistos.add(bilhete.getId()))
+                    .ifPresent(bilhetesDoCliente::add);
         }
         return bilhetesDoCliente;
     }
 
+    /**
+     * @return As linhas dos bilhetes de um cliente: primeiro as dos segmentos selados, do mês
+     *         mais antigo para o mais recente, depois as de bilhetes.txt.
+     */
+    private List<String> linhasDoCpf(String cpf) {
+        List<String> linhas = new ArrayList<>();
+        for (SegmentoBilhetes segmento : segmentos.segmentos()) {
+            linhas.addAll(segmento.linhasDoCpf(cpf));
+        }
+        CursorRegistro campos = new CursorRegistro('|');
+        for (String linha : GerenciadorArquivos.lerBilhetesEm(indiceBilhetes.offsetsDoCpf(cpf))) {
+            // Confere o CPF: se bilhetes.txt acabou de ser substituído, o offset pode ser de outra linha.
+            if (campos.sobre(linha).quantidadeCampos() > 2 && campos.campoIgual(2, cpf)) {
+                linhas.add(linha);
+            }
+        }
+        return linhas;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
     @Override
     public Optional<Bilhete> buscarPorId(String id) {
         if (id == null) return Optional.empty();
-        List<String> linhas = GerenciadorArquivos.lerBilhetes();
-        for (String linha : linhas) {
-            if (linha.startsWith(id + "|")) {
-                return parsearBilhete(linha);
+        return buscarLinha(0, id, indiceBilhetes.offsetDoId(id), segmento -> segmento.linhaDoId(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Bilhete> buscarPorCodigoBarras(String codigoBarras) {
+        if (codigoBarras == null) return Optional.empty();
+        return buscarLinha(1, codigoBarras, indiceBilhetes.offsetDoCodigoBarras(codigoBarras),
+                segmento -> segmento.linhaDoCodigoBarras(codigoBarras));
+    }
+
+    /**
+     * Lê a linha de um bilhete localizado pelo índice de bilhetes.txt (conferindo o campo,
+     * pois o arquivo pode ter acabado de ser substituído) ou, fora do mês em aberto, pelos
+     * segmentos selados, do mais recente para o mais antigo.
+     */
+    private Optional<Bilhete> buscarLinha(int campo, String valor, long offset,
+                                          Function<SegmentoBilhetes, String> buscarNoSegmento) {
+        String linha = null;
+        if (offset >= 0) {
+            List<String> linhas = GerenciadorArquivos.lerBilhetesEm(List.of(offset));
+            CursorRegistro campos = new CursorRegistro('|');
+            if (!linhas.isEmpty() && campos.sobre(linhas.get(0)).quantidadeCampos() > campo && campos.campoIgual(campo, valor)) {
+                linha = linhas.get(0);
             }
         }
-        return Optional.empty();
+        List<SegmentoBilhetes> selados = segmentos.segmentos();
+        for (int i = selados.size() - 1; linha == null && i >= 0; i--) {
+            linha = buscarNoSegmento.apply(selados.get(i));
+        }
+        if (linha == null) {
+            return Optional.empty();
+        }
+        return new LeitorLinhaBilhete().parsear(linha, new HashMap<>(), new HashMap<>());
     }
 
     /**
-     * Traduz uma linha de texto do arquivo de bilhetes para um objeto de domínio Bilhete.
-     * @param linha A string lida do arquivo.
-     * @return Um Optional contendo o Bilhete se o parse for bem-sucedido.
+     * {@inheritDoc}
+     * Os segmentos selados fora do período do filtro são pulados pelo seu rodapé. Com CPF
+     * no filtro, lê apenas as linhas do cliente pelos índices secundários; sem CPF, percorre
+     * os segmentos restantes e bilhetes.txt linha a linha. Em ambos os casos, CPF, peça e
+     * data da compra são comparados nos campos da linha (sem dividi-la) antes de resolver
+     * cliente e peça. O stream é sequencial: o cursor da consulta é reaproveitado de uma
+     * linha para a outra.
      */
-     private Optional<Bilhete> parsearBilhete(String linha) {
-        String[] partes = linha.split("\\|");
-        if (partes.length < 10) {
-             return Optional.empty();
+    @Override
+    public Stream<Bilhete> consultar(FiltroBilhetes filtro) {
+        FiltroBilhetes criterios = filtro != null ? filtro : FiltroBilhetes.todos();
+        String cpf = criterios.getCpfCliente();
+        Stream<String> selados = segmentos.segmentos().stream()
+                .filter(segmento -> segmento.podeTerCompradosEntre(criterios.getCompradoDesde(), criterios.getCompradoAntesDe()))
+                .flatMap(segmento -> cpf != null ? segmento.linhasDoCpf(cpf).stream() : segmento.linhas());
+        Stream<String> linhas = Stream.concat(selados, cpf != null
+                ? GerenciadorArquivos.lerBilhetesEm(indiceBilhetes.offsetsDoCpf(cpf)).stream()
+                : GerenciadorArquivos.linhasBilhetes());
+
+        Map<String, Optional<Cliente>> cacheClientes = new CacheLimitado<>(CLIENTES_EM_CACHE_POR_CONSULTA);
+        Map<String, Optional<Peca>> cachePecas = new HashMap<>();
+        LeitorLinhaBilhete leitor = new LeitorLinhaBilhete();
+        return linhas
+                .filter(linha -> leitor.posicionar(linha) && leitor.aceita(criterios))
+                .map(linha -> leitor.parsearPosicionado(cacheClientes, cachePecas))
+                .flatMap(Optional::stream);
+    }
+
+    /**
+     * Recria um Assento a partir apenas do seu código, como gravado nos bilhetes.
+     * A categoria é deduzida do prefixo do código. Compartilhado com os armazenamentos
+     * binário e JDBC.
+     * @param codigoAssento O código do assento (ex.: "F1-3").
+     * @return O Assento reconstruído.
+     */
+    public static Assento reconstruirAssento(String codigoAssento) {
+        char prefixoCat = codigoAssento.charAt(0);
+        CategoriaAssento cat;
+        if (prefixoCat == 'F') cat = CategoriaAssento.FRISA;
+        else if (prefixoCat == 'B') cat = CategoriaAssento.BALCAO_NOBRE;
+        else if (prefixoCat == 'P') cat = CategoriaAssento.PLATEIA_B; // Suposição
+        else cat = CategoriaAssento.CAMAROTE; // Suposição
+
+        String[] partesCodigo = codigoAssento.substring(1).split("-");
+        int fileira = Integer.parseInt(partesCodigo[0]);
+        int numero = Integer.parseInt(partesCodigo[1]);
+        return new Assento(codigoAssento, fileira, numero, cat, cat.getPrecoBaseCentavos());
+    }
+
+    /**
+     * Traduz linhas do arquivo de bilhetes para objetos de domínio Bilhete. Os campos são
+     * lidos por cursores ({@link CursorRegistro}) reaproveitados de uma linha para a outra,
+     * sem dividir a linha: só os campos do bilhete montado viram Strings.
+     */
+    private final class LeitorLinhaBilhete {
+        private final CursorRegistro campos = new CursorRegistro('|');
+        private final CursorRegistro codigosAssentos = new CursorRegistro(',');
+
+        /**
+         * Posiciona o leitor sobre uma linha.
+         * @return true se a linha tiver ao menos os 10 campos do formato anterior à sessão.
+         */
+        boolean posicionar(String linha) {
+            return campos.sobre(linha).quantidadeCampos() >= 10;
         }
 
-        try {
-            String idBilhete = partes[0];
-            String codigoBarras = partes[1];
-            String cpfCliente = partes[2];
-            String idPeca = partes[3];
-            String[] codigosAssentosStr = partes[4].split(",");
-            BigDecimal subtotal = new BigDecimal(partes[5].replace(",","."));
-            BigDecimal valorDesconto = new BigDecimal(partes[6].replace(",","."));
-            BigDecimal valorTotal = new BigDecimal(partes[7].replace(",","."));
-            Turno turno = Turno.valueOf(partes[8]);
-            LocalDateTime dataHoraCompra = LocalDateTime.parse(partes[9], DATETIME_FORMATTER);
-
-            Optional<Cliente> clienteOpt = clienteRepositorio.buscarPorCpf(cpfCliente);
-            Optional<Peca> pecaOpt = pecaRepositorio.buscarPorId(idPeca);
-
-            if (clienteOpt.isEmpty() || pecaOpt.isEmpty()) {
-                return Optional.empty();
+        /**
+         * Compara CPF, peça e data da compra da linha posicionada com o filtro.
+         */
+        boolean aceita(FiltroBilhetes filtro) {
+            if (filtro.getCpfCliente() != null && !campos.campoIgual(2, filtro.getCpfCliente())) return false;
+            if (filtro.getIdPeca() != null && !campos.campoIgual(3, filtro.getIdPeca())) return false;
+            if (!filtro.restringeDataCompra()) {
+                return true;
             }
-            Cliente cliente = clienteOpt.get();
-            Peca peca = pecaOpt.get();
-            
-            // Recria um objeto Sessao com base nos dados limitados do arquivo de bilhete.
-            Sessao sessao = new Sessao(
-                GeradorIdUtil.gerarNovoId(), // ID temporário para a sessão
-                peca,
-                dataHoraCompra, // Usando a data da compra como fallback para a data da sessão
-                turno
-            );
-
-            List<Assento> assentos = new ArrayList<>();
-            for (String codigoAssento : codigosAssentosStr) {
-                char prefixoCat = codigoAssento.charAt(0);
-                CategoriaAssento cat;
-                if (prefixoCat == 'F') cat = CategoriaAssento.FRISA;
-                else if (prefixoCat == 'B') cat = CategoriaAssento.BALCAO_NOBRE;
-                else if (prefixoCat == 'P') cat = CategoriaAssento.PLATEIA_B; // Suposição
-                else cat = CategoriaAssento.CAMAROTE; // Suposição
-                
-                String[] partesCodigo = codigoAssento.substring(1).split("-");
-                int fileira = Integer.parseInt(partesCodigo[0]);
-                int numero = Integer.parseInt(partesCodigo[1]);
-                assentos.add(new Assento(codigoAssento, fileira, numero, cat, cat.getPrecoBase()));
+            try {
+                return filtro.aceitaDataCompra(campos.dataHora(9));
+            } catch (RuntimeException e) {
+                return false;
             }
+        }
 
-            Bilhete bilhete = new Bilhete(
-                idBilhete, codigoBarras, sessao, cliente, assentos,
-                subtotal, valorDesconto, valorTotal, dataHoraCompra
-            );
-            return Optional.of(bilhete);
+        /**
+         * Traduz uma linha de texto do arquivo de bilhetes para um objeto de domínio Bilhete.
+         * @param linha A string lida do arquivo.
+         * @param cacheClientes Clientes já resolvidos na chamada atual, por CPF.
+         * @param cachePecas Peças já resolvidas na chamada atual, por ID.
+         * @return Um Optional contendo o Bilhete se o parse for bem-sucedido.
+         */
+        Optional<Bilhete> parsear(String linha, Map<String, Optional<Cliente>> cacheClientes,
+                                  Map<String, Optional<Peca>> cachePecas) {
+            if (!posicionar(linha)) {
+                return Optional.empty();
+            }
+            return parsearPosicionado(cacheClientes, cachePecas);
+        }
 
-        } catch (Exception e) {
-            System.err.println("BilheteRepositorio: Erro ao parsear bilhete da linha: " + linha);
-            e.printStackTrace();
-            return Optional.empty();
+        /**
+         * Monta o Bilhete da linha posicionada por {@link #posicionar(String)}.
+         */
+        Optional<Bilhete> parsearPosicionado(Map<String, Optional<Cliente>> cacheClientes,
+                                             Map<String, Optional<Peca>> cachePecas) {
+            try {
+                String idBilhete = campos.texto(0);
+                String codigoBarras = campos.texto(1);
+                String cpfCliente = campos.texto(2);
+                String idPeca = campos.texto(3);
+                long subtotal = campos.centavos(5);
+                long valorDesconto = campos.centavos(6);
+                long valorTotal = campos.centavos(7);
+                Turno turno = Turno.valueOf(campos.texto(8));
+                LocalDateTime dataHoraCompra = campos.dataHora(9);
+
+                Optional<Cliente> clienteOpt = cacheClientes.computeIfAbsent(cpfCliente, clienteRepositorio::buscarPorCpf);
+                Optional<Peca> pecaOpt = cachePecas.computeIfAbsent(idPeca, pecaRepositorio::buscarPorId);
+
+                if (clienteOpt.isEmpty() || pecaOpt.isEmpty()) {
+                    return Optional.empty();
+                }
+                Cliente cliente = clienteOpt.get();
+                Peca peca = pecaOpt.get();
+
+                // Recria a Sessao a partir dos campos gravados com o bilhete. Linhas anteriores a esses
+                // campos não têm a sessão: recebem um ID temporário e a data da compra como data da sessão.
+                Sessao sessao;
+                if (campos.quantidadeCampos() >= 12 && !campos.vazio(10)) {
+                    sessao = new Sessao(campos.texto(10), peca, campos.dataHora(11), turno);
+                } else {
+                    sessao = new Sessao(GeradorIdUtil.gerarNovoId(), peca, dataHoraCompra, turno);
+                }
+
+                codigosAssentos.sobre(campos.getRegistro(), campos.inicio(4), campos.fim(4));
+                List<Assento> assentos = new ArrayList<>(codigosAssentos.quantidadeCampos());
+                for (int i = 0; i < codigosAssentos.quantidadeCampos(); i++) {
+                    assentos.add(reconstruirAssento(codigosAssentos.texto(i)));
+                }
+
+                Bilhete bilhete = new Bilhete(
+                    idBilhete, codigoBarras, sessao, cliente, assentos,
+                    subtotal, valorDesconto, valorTotal, dataHoraCompra
+                );
+                return Optional.of(bilhete);
+
+            } catch (Exception e) {
+                System.err.println("BilheteRepositorio: Erro ao parsear bilhete da linha: " + campos.getRegistro());
+                e.printStackTrace();
+                return Optional.empty();
+            }
         }
     }
 }
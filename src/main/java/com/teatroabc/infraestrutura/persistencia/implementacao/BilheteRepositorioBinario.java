@@ -0,0 +1,308 @@
+// Arquivo: infraestrutura/persistencia/implementacao/BilheteRepositorioBinario.java
+package com.teatroabc.infraestrutura.persistencia.implementacao;
+
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.*;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.interfaces.FiltroBilhetes;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IBilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IPecaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.Aquecivel;
+import com.teatroabc.infraestrutura.persistencia.util.ArquivoBilhetesBinario;
+import com.teatroabc.infraestrutura.persistencia.util.CacheLimitado;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Implementação alternativa (Adaptador Secundário) do repositório de Bilhetes, que
+ * persiste os bilhetes em registros binários de tamanho fixo ({@link ArquivoBilhetesBinario}).
+ * <p>
+ * As buscas por CPF e por ID usam os índices primitivos do arquivo e comparam o campo
+ * diretamente no buffer mapeado; somente os bilhetes encontrados são convertidos em
+ * objetos de domínio; o mesmo vale para as consultas por filtro, que comparam peça e data
+ * da compra no registro antes de montar o bilhete. Valores monetários são gravados em centavos e datas em segundos
+ * desde a época, sem conversão de texto.
+ * <p>
+ * A ocupação dos assentos continua registrada em assentos_ocupados.txt (pelo diário de
+ * escrita), de modo que o {@link AssentoRepositorio} funciona igualmente com os dois formatos.
+ * <p>
+ * O arquivo binário tem um único processo escritor: se outro terminal já o abriu, a
+ * criação do repositório falha com {@link com.teatroabc.infraestrutura.persistencia.util.ArquivoEmUsoException}.
+ */
+public class BilheteRepositorioBinario implements IBilheteRepositorio, Aquecivel {
+
+    public static final String ARQUIVO_BILHETES_BINARIO = "bilhetes.bin";
+    // Clientes distintos lembrados por uma consulta em stream (o histórico pode ter milhões).
+    private static final int CLIENTES_EM_CACHE_POR_CONSULTA = 1024;
+
+    private final IClienteRepositorio clienteRepositorio;
+    private final IPecaRepositorio pecaRepositorio;
+    private final RegistroOcupacaoAssentos registroOcupacao;
+    private final IndicePlantaAssentos indicePlanta;
+    private final ArquivoBilhetesBinario arquivo;
+
+    /**
+     * @param caminho O caminho do arquivo binário (criado se não existir).
+     * @throws com.teatroabc.infraestrutura.persistencia.util.ArquivoEmUsoException Se outro terminal já abriu o arquivo.
+     * @throws IOException Se o arquivo não puder ser aberto.
+     */
+    public BilheteRepositorioBinario(IClienteRepositorio clienteRepositorio, IPecaRepositorio pecaRepositorio,
+                                     RegistroOcupacaoAssentos registroOcupacao, Path caminho) throws IOException {
+        this.clienteRepositorio = clienteRepositorio;
+        this.pecaRepositorio = pecaRepositorio;
+        this.registroOcupacao = registroOcupacao;
+        this.indicePlanta = registroOcupacao.getIndicePlanta();
+        this.arquivo = new ArquivoBilhetesBinario(caminho, indicePlanta.getTotalCodigos());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Os índices do arquivo já são construídos na abertura; aqui apenas as páginas
+     * mapeadas são trazidas para a memória.
+     */
+    @Override
+    public void aquecer() {
+        arquivo.carregarPaginas();
+    }
+
+    /**
+     * {@inheritDoc}
+     * O registro do bilhete é gravado primeiro, mas só passa a contar depois da ocupação dos
+     * assentos: se a gravação falhar, nenhum assento é marcado; se houver uma queda entre a
+     * ocupação e a contabilização, os assentos ficam bloqueados, mas nunca vendidos duas vezes.
+     */
+    @Override
+    public void salvar(Bilhete bilhete) {
+        if (bilhete == null) {
+            System.err.println("BilheteRepositorioBinario: Tentativa de salvar bilhete nulo.");
+            return;
+        }
+
+        salvarTodos(Collections.singletonList(bilhete));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Os registros são gravados no arquivo e forçados ao disco; a ocupação de todos os bilhetes
+     * é então uma única transação do diário e, só depois dela, os registros são contabilizados
+     * de uma só vez ({@link ArquivoBilhetesBinario#acrescentarTodos(List, Runnable)}). Como em
+     * {@link #salvar(Bilhete)}, uma falha na gravação não marca nenhum assento, e uma queda
+     * entre a ocupação e a contabilização deixa os assentos bloqueados, mas nenhum bilhete do
+     * lote gravado pela metade.
+     */
+    @Override
+    public void salvarTodos(List<Bilhete> bilhetes) {
+        if (bilhetes == null || bilhetes.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> codigosPorSessao = new LinkedHashMap<>();
+        List<ArquivoBilhetesBinario.NovoRegistro> registros = new ArrayList<>(bilhetes.size());
+        for (Bilhete bilhete : bilhetes) {
+            List<String> codigos = codigosAssentos(bilhete);
+            registros.add(novoRegistro(bilhete, codigos)); // Valida a planta antes de gravar qualquer coisa.
+            codigosPorSessao.computeIfAbsent(bilhete.getSessao().getId(), id -> new ArrayList<>()).addAll(codigos);
+        }
+
+        try {
+            arquivo.acrescentarTodos(registros, () -> GerenciadorArquivos.marcarAssentosOcupados(codigosPorSessao));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar " + bilhetes.size() + " bilhete(s) no arquivo binário.", e);
+        }
+
+        codigosPorSessao.forEach(registroOcupacao::marcarOcupados);
+    }
+
+    private ArquivoBilhetesBinario.NovoRegistro novoRegistro(Bilhete bilhete, List<String> codigosAssentos) {
+        BitSet mapaAssentos = new BitSet(indicePlanta.getTotalCodigos());
+        for (String codigo : codigosAssentos) {
+            int indice = indicePlanta.indiceDe(codigo);
+            if (indice < 0) {
+                throw new IllegalArgumentException("Assento fora da planta configurada: " + codigo);
+            }
+            mapaAssentos.set(indice);
+        }
+        Sessao sessao = bilhete.getSessao();
+        return new ArquivoBilhetesBinario.NovoRegistro(
+                bilhete.getId(),
+                bilhete.getCodigoBarras(),
+                Long.parseLong(bilhete.getCliente().getCpf()),
+                sessao.getPeca().getId(),
+                sessao.getId(),
+                sessao.getTurno().ordinal(),
+                bilhete.getSubtotalCentavos(),
+                bilhete.getValorDescontoCentavos(),
+                bilhete.getValorTotalCentavos(),
+                bilhete.getDataHoraCompra().toEpochSecond(ZoneOffset.UTC),
+                sessao.getDataHora().toEpochSecond(ZoneOffset.UTC),
+                mapaAssentos);
+    }
+
+    private static List<String> codigosAssentos(Bilhete bilhete) {
+        return bilhete.getAssentos().stream()
+                .map(Assento::getCodigo)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Bilhete> listarPorCpfCliente(String cpf) {
+        List<Bilhete> bilhetesDoCliente = new ArrayList<>();
+        long cpfNumerico = cpfParaLong(cpf);
+        if (cpfNumerico < 0) {
+            return bilhetesDoCliente;
+        }
+        Optional<Cliente> clienteOpt = clienteRepositorio.buscarPorCpf(cpf);
+        if (clienteOpt.isEmpty()) {
+            return bilhetesDoCliente;
+        }
+        Map<String, Optional<Peca>> cachePecas = new HashMap<>();
+        for (int posicao = arquivo.primeiroComCpf(cpfNumerico); posicao >= 0;
+             posicao = arquivo.proximoMesmoCpf(posicao)) {
+            hidratar(posicao, clienteOpt.get(), cachePecas).ifPresent(bilhetesDoCliente::add);
+        }
+        return bilhetesDoCliente;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Bilhete> buscarPorId(String id) {
+        if (id == null) return Optional.empty();
+        return buscarEm(arquivo.buscarId(ArquivoBilhetesBinario.codificar(id)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Bilhete> buscarPorCodigoBarras(String codigoBarras) {
+        if (codigoBarras == null) return Optional.empty();
+        return buscarEm(arquivo.buscarCodigoBarras(ArquivoBilhetesBinario.codificar(codigoBarras)));
+    }
+
+    private Optional<Bilhete> buscarEm(int posicao) {
+        if (posicao < 0) {
+            return Optional.empty();
+        }
+        Optional<Cliente> clienteOpt = clienteRepositorio.buscarPorCpf(cpfParaTexto(arquivo.cpfEm(posicao)));
+        if (clienteOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        return hidratar(posicao, clienteOpt.get(), new HashMap<>());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Com CPF no filtro, percorre apenas a cadeia de registros do cliente; sem CPF, percorre
+     * os registros existentes no início da consulta. Os registros ficam no arquivo mapeado:
+     * o stream não guarda nada além do bilhete corrente e dos caches de cliente e peça.
+     */
+    @Override
+    public Stream<Bilhete> consultar(FiltroBilhetes filtro) {
+        FiltroBilhetes criterios = filtro != null ? filtro : FiltroBilhetes.todos();
+        IntStream posicoes;
+        if (criterios.getCpfCliente() != null) {
+            long cpfNumerico = cpfParaLong(criterios.getCpfCliente());
+            if (cpfNumerico < 0) {
+                return Stream.empty();
+            }
+            posicoes = IntStream.iterate(arquivo.primeiroComCpf(cpfNumerico), p -> p >= 0, arquivo::proximoMesmoCpf);
+        } else {
+            posicoes = IntStream.range(0, arquivo.getQuantidade());
+        }
+
+        long desde = criterios.getCompradoDesde() != null
+                ? criterios.getCompradoDesde().toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+        long antesDe = criterios.getCompradoAntesDe() != null
+                ? criterios.getCompradoAntesDe().toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE;
+        Map<String, Optional<Cliente>> cacheClientes = new CacheLimitado<>(CLIENTES_EM_CACHE_POR_CONSULTA);
+        Map<String, Optional<Peca>> cachePecas = new HashMap<>();
+        return posicoes
+                .filter(posicao -> {
+                    long dataCompra = arquivo.dataCompraEm(posicao);
+                    return dataCompra >= desde && dataCompra < antesDe
+                            && (criterios.getIdPeca() == null || criterios.getIdPeca().equals(arquivo.idPecaEm(posicao)));
+                })
+                .mapToObj(posicao -> cacheClientes
+                        .computeIfAbsent(cpfParaTexto(arquivo.cpfEm(posicao)), clienteRepositorio::buscarPorCpf)
+                        .flatMap(cliente -> hidratar(posicao, cliente, cachePecas)))
+                .flatMap(Optional::stream);
+    }
+
+    /**
+     * Converte o registro de uma posição do arquivo para um objeto de domínio Bilhete.
+     */
+    private Optional<Bilhete> hidratar(int posicao, Cliente cliente, Map<String, Optional<Peca>> cachePecas) {
+        try {
+            Optional<Peca> pecaOpt = cachePecas.computeIfAbsent(arquivo.idPecaEm(posicao), pecaRepositorio::buscarPorId);
+            if (pecaOpt.isEmpty()) {
+                return Optional.empty();
+            }
+
+            // Bilhetes migrados do formato texto não conhecem o ID da sessão.
+            String idSessao = arquivo.idSessaoEm(posicao);
+            Sessao sessao = new Sessao(
+                    idSessao.isEmpty() ? GeradorIdUtil.gerarNovoId() : idSessao,
+                    pecaOpt.get(),
+                    LocalDateTime.ofEpochSecond(arquivo.dataSessaoEm(posicao), 0, ZoneOffset.UTC),
+                    Turno.values()[arquivo.turnoEm(posicao)]
+            );
+
+            BitSet mapaAssentos = arquivo.assentosEm(posicao);
+            List<Assento> assentos = new ArrayList<>(mapaAssentos.cardinality());
+            for (int i = mapaAssentos.nextSetBit(0); i >= 0; i = mapaAssentos.nextSetBit(i + 1)) {
+                assentos.add(BilheteRepositorio.reconstruirAssento(indicePlanta.codigoEm(i)));
+            }
+
+            Bilhete bilhete = new Bilhete(
+                    arquivo.idEm(posicao), arquivo.codigoBarrasEm(posicao), sessao, cliente, assentos,
+                    arquivo.subtotalEm(posicao),
+                    arquivo.descontoEm(posicao),
+                    arquivo.totalEm(posicao),
+                    LocalDateTime.ofEpochSecond(arquivo.dataCompraEm(posicao), 0, ZoneOffset.UTC)
+            );
+            return Optional.of(bilhete);
+        } catch (Exception e) {
+            System.err.println("BilheteRepositorioBinario: Erro ao ler o registro " + posicao);
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return O CPF como número, ou -1 se não for composto apenas por dígitos.
+     */
+    static long cpfParaLong(String cpf) {
+        if (cpf == null || cpf.isEmpty() || cpf.length() > 18) {
+            return -1L;
+        }
+        long valor = 0L;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1L;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+
+    private static String cpfParaTexto(long cpf) {
+        return String.format("%011d", cpf);
+    }
+}
@@ -2,19 +2,51 @@ package com.teatroabc.infraestrutura.persistencia.implementacao;
 
 import com.teatroabc.dominio.modelos.Cliente;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.Aquecivel;
+import com.teatroabc.infraestrutura.persistencia.util.CursorRegistro;
 import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
-import java.time.LocalDate;
+import com.teatroabc.infraestrutura.persistencia.util.MonitorArquivosDados;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 import java.util.Optional; // Importa a classe Optional
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementação (Adaptador Secundário) do repositório de Clientes.
  * Responsável por traduzir objetos Cliente para o formato de persistência
  * em arquivo de texto e vice-versa.
+ * <p>
+ * As consultas por CPF são atendidas por um índice em memória (CPF → Cliente),
+ * carregado uma única vez (no aquecimento ou na primeira consulta). Depois disso, o
+ * índice guarda até que posição de clientes.txt já leu e incorpora somente as linhas
+ * acrescentadas (por este ou por outro terminal), avisado pelo {@link MonitorArquivosDados}
+ * ou, na falta dele, ao perceber nas consultas que o arquivo cresceu. O arquivo só é relido
+ * por completo quando é substituído ou encolhe (compactação), de modo que cada busca
+ * custa O(1), independentemente do número de clientes.
  */
-public class ClienteRepositorio implements IClienteRepositorio {
+public class ClienteRepositorio implements IClienteRepositorio, Aquecivel {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
+    // Índice em memória: CPF normalizado -> Cliente já traduzido da linha do arquivo.
+    // Substituído por inteiro quando o arquivo é relido, para que as consultas nunca vejam um índice pela metade.
+    private volatile Map<String, Cliente> indicePorCpf = new ConcurrentHashMap<>();
+    // Posição de clientes.txt logo após a última linha incorporada ao índice (-1 antes da primeira carga).
+    private volatile long bytesIndexados = -1L;
+    // CRC-32 dos bytes que antecedem bytesIndexados (protegido por this): se mudar, o arquivo foi reescrito.
+    private long crcAntesDosIndexados;
+
+    public ClienteRepositorio() {
+    }
+
+    /**
+     * {@inheritDoc}
+     * Carrega o índice CPF → Cliente, se ele ainda não reflete clientes.txt.
+     */
+    @Override
+    public void aquecer() {
+        garantirIndiceAtualizado();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -29,7 +61,14 @@ public class ClienteRepositorio implements IClienteRepositorio {
                 cliente.getEmail() == null ? "" : cliente.getEmail(),
                 cliente.getPlanoFidelidade().getIdentificadorPlano()
         );
-        GerenciadorArquivos.salvarCliente(linha);
+
+        if (!GerenciadorArquivos.salvarCliente(linha)) {
+            return;
+        }
+        // Lê a linha recém-gravada (e as de outros terminais gravadas antes dela), de modo que,
+        // assim como na busca sequencial original, a primeira linha de um CPF prevalece.
+        sincronizarComArquivo(false);
+        indicePorCpf.putIfAbsent(cliente.getCpf(), cliente);
     }
 
     /**
@@ -38,51 +77,116 @@ public class ClienteRepositorio implements IClienteRepositorio {
      */
     @Override
     public Optional<Cliente> buscarPorCpf(String cpf) {
-        String linha = GerenciadorArquivos.buscarClientePorCpf(cpf);
+        if (cpf == null) {
+            return Optional.empty();
+        }
+        garantirIndiceAtualizado();
+        return Optional.ofNullable(indicePorCpf.get(cpf));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existe(String cpf) {
+        if (cpf == null) {
+            return false;
+        }
+        garantirIndiceAtualizado();
+        return indicePorCpf.containsKey(cpf);
+    }
 
-        if (linha != null) {
-            try {
-                String[] partes = linha.split("\\|");
-                if (partes.length >= 6) {
-                    
-                    // Lógica para traduzir o valor do plano lido do arquivo para um identificador padrão.
-                    String identificadorPlano;
-                    String valorPlanoDoArquivo = partes[5].toUpperCase();
+    /**
+     * Incorpora ao índice as alterações de clientes.txt: apenas as linhas acrescentadas
+     * desde a última leitura, ou o arquivo inteiro se ele foi substituído, encolheu ou não
+     * começa mais como quando foi lido (a compactação o reescreveu e novas linhas já o
+     * fizeram passar do tamanho anterior). Chamado pelo {@link MonitorArquivosDados} e
+     * pelas próprias consultas.
+     *
+     * @param arquivoSubstituido true se o arquivo foi recriado e deve ser relido desde o início.
+     */
+    public synchronized void sincronizarComArquivo(boolean arquivoSubstituido) {
+        long tamanho = GerenciadorArquivos.tamanhoClientes();
+        if (tamanho == bytesIndexados && !arquivoSubstituido) {
+            return;
+        }
+        CursorRegistro cursor = new CursorRegistro('|');
+        if (bytesIndexados < 0 || arquivoSubstituido || tamanho < bytesIndexados
+                || GerenciadorArquivos.crcClientesAntesDe(bytesIndexados, GerenciadorArquivos.JANELA_CONTINUIDADE) != crcAntesDosIndexados) {
+            Map<String, Cliente> novoIndice = new ConcurrentHashMap<>();
+            long lidos = GerenciadorArquivos.varrerClientes(0L, (offset, linha) ->
+                    parsearCliente(linha, cursor).ifPresent(cliente -> novoIndice.putIfAbsent(cliente.getCpf(), cliente)));
+            indicePorCpf = novoIndice;
+            bytesIndexados = lidos;
+        } else if (tamanho > bytesIndexados) {
+            Map<String, Cliente> indice = indicePorCpf;
+            bytesIndexados = GerenciadorArquivos.varrerClientes(bytesIndexados, (offset, linha) ->
+                    parsearCliente(linha, cursor).ifPresent(cliente -> indice.putIfAbsent(cliente.getCpf(), cliente)));
+        }
+        crcAntesDosIndexados = GerenciadorArquivos.crcClientesAntesDe(bytesIndexados, GerenciadorArquivos.JANELA_CONTINUIDADE);
+    }
 
-                    if (valorPlanoDoArquivo.equals("TRUE") || valorPlanoDoArquivo.equals("GOLD")) {
-                        identificadorPlano = "GOLD";
-                    } else {
-                        identificadorPlano = "PADRAO";
-                    }
+    /**
+     * Verifica, com uma única consulta de atributos do arquivo, se o índice ainda
+     * reflete o conteúdo de clientes.txt. Se não refletir, incorpora as alterações.
+     */
+    private void garantirIndiceAtualizado() {
+        long indexados = bytesIndexados;
+        if (indexados < 0 || GerenciadorArquivos.tamanhoClientes() != indexados) {
+            sincronizarComArquivo(false);
+        }
+    }
 
-                    Cliente cliente = new Cliente(
-                            partes[0], // CPF
-                            partes[1], // Nome
-                            LocalDate.parse(partes[2], DATE_FORMATTER), // Data Nascimento
-                            partes[3].isEmpty() ? null : partes[3],  // Telefone
-                            partes[4].isEmpty() ? null : partes[4],  // Email
-                            identificadorPlano // Usa o identificador traduzido
-                    );
+    /**
+     * Traduz uma linha do arquivo de clientes para um objeto de domínio Cliente.
+     * Os campos são lidos por um {@link CursorRegistro}, sem dividir a linha.
+     * @param linha A string lida do arquivo.
+     * @param cursor O cursor reaproveitado entre as linhas da mesma leitura.
+     * @return Um Optional contendo o Cliente se o parse for bem-sucedido.
+     */
+    private Optional<Cliente> parsearCliente(String linha, CursorRegistro cursor) {
+        if (linha == null || linha.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            cursor.sobre(linha);
+            if (cursor.quantidadeCampos() >= 6) {
 
-                    // MUDANÇA: Retorna o cliente "enrolado" em um Optional.
-                    return Optional.of(cliente);
+                // Lógica para traduzir o valor do plano lido do arquivo para um identificador padrão.
+                String identificadorPlano;
+                if (campoIgualIgnorandoCaixa(cursor, 5, "TRUE") || campoIgualIgnorandoCaixa(cursor, 5, "GOLD")) {
+                    identificadorPlano = "GOLD";
+                } else {
+                    identificadorPlano = "PADRAO";
                 }
-            } catch (Exception e) {
-                System.err.println("Erro ao parsear cliente da linha: " + linha);
-                e.printStackTrace();
+
+                Cliente cliente = new Cliente(
+                        cursor.texto(0), // CPF
+                        cursor.texto(1), // Nome
+                        cursor.data(2), // Data Nascimento
+                        cursor.textoOuNulo(3),  // Telefone
+                        cursor.textoOuNulo(4),  // Email
+                        identificadorPlano // Usa o identificador traduzido
+                );
+                return Optional.of(cliente);
             }
+        } catch (Exception e) {
+            System.err.println("Erro ao parsear cliente da linha: " + linha);
+            e.printStackTrace();
         }
-        
-        // Se a linha for nula ou o parse falhar, retorna um Optional vazio.
         return Optional.empty();
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public boolean existe(String cpf) {
-        // A forma mais eficiente de verificar a existência é ver se a busca retorna um valor.
-        return GerenciadorArquivos.buscarClientePorCpf(cpf) != null;
+    private static boolean campoIgualIgnorandoCaixa(CursorRegistro cursor, int campo, String valor) {
+        int inicio = cursor.inicio(campo);
+        if (cursor.fim(campo) - inicio != valor.length()) {
+            return false;
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            if (Character.toUpperCase(cursor.getRegistro().charAt(inicio + i)) != valor.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,223 @@
+package com.teatroabc.infraestrutura.persistencia.implementacao;
+
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.Aquecivel;
+import com.teatroabc.infraestrutura.persistencia.util.FiltroBloomCpfs;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.MonitorArquivosDados;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorador do repositório de clientes em arquivo que responde, por um
+ * {@link FiltroBloomCpfs}, às consultas de CPFs que com certeza não estão cadastrados.
+ * <p>
+ * No cadastro, o caso comum é justamente o CPF novo: {@link #existe(String)} e
+ * {@link #buscarPorCpf(String)} resolvem esse caso sem o índice de clientes (que, na
+ * primeira consulta, exige ler e traduzir todo o clientes.txt). Apenas os CPFs que o
+ * filtro talvez contenha chegam ao repositório decorado, que dá a resposta definitiva.
+ * <p>
+ * O filtro é persistido em clientes.bloom e, ao ser carregado, lê só as linhas de
+ * clientes.txt acrescentadas desde a gravação, assim como o índice de clientes: é
+ * avisado pelo {@link MonitorArquivosDados} ou percebe, nas consultas, que o arquivo
+ * cresceu. Como um CPF fora do filtro é dado como ausente, antes de cada leitura
+ * incremental os bytes que antecedem a posição já lida são conferidos por CRC; se o
+ * arquivo foi reescrito, ou se o filtro passou da capacidade, ele é reconstruído.
+ */
+public class ClienteRepositorioComFiltroBloom implements IClienteRepositorio, Aquecivel {
+
+    /** Taxa de falsos positivos do filtro enquanto ele estiver dentro da capacidade. */
+    public static final double TAXA_FALSOS_POSITIVOS = 0.01;
+
+    private static final long CAPACIDADE_MINIMA = 10_000L;
+    // Tamanho aproximado de uma linha de clientes.txt, para estimar a capacidade na reconstrução.
+    private static final long BYTES_POR_CLIENTE_ESTIMADOS = 48L;
+
+    private final IClienteRepositorio delegado;
+    private final Path caminhoFiltro;
+    // Substituído por inteiro quando o filtro é reconstruído; null antes da primeira carga.
+    private volatile FiltroBloomCpfs filtro;
+    private long bytesGravados = -1L;
+    private final LongAdder respondidasPeloFiltro = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+
+    /**
+     * @param delegado O repositório que dá a resposta definitiva (o de clientes.txt).
+     * @param caminhoFiltro O caminho de clientes.bloom.
+     */
+    public ClienteRepositorioComFiltroBloom(IClienteRepositorio delegado, Path caminhoFiltro) {
+        if (delegado == null || caminhoFiltro == null) {
+            throw new IllegalArgumentException("Repositório decorado e caminho do filtro não podem ser nulos.");
+        }
+        this.delegado = delegado;
+        this.caminhoFiltro = caminhoFiltro;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Carrega (ou reconstrói) o filtro, incorpora as linhas novas de clientes.txt e grava o resultado.
+     */
+    @Override
+    public void aquecer() {
+        sincronizarComArquivo(false);
+        persistirFiltro();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void salvar(Cliente cliente) {
+        delegado.salvar(cliente);
+        sincronizarComArquivo(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Um CPF que o filtro com certeza não contém é respondido sem consultar o repositório decorado.
+     */
+    @Override
+    public Optional<Cliente> buscarPorCpf(String cpf) {
+        if (certamenteAusente(cpf)) {
+            return Optional.empty();
+        }
+        return delegado.buscarPorCpf(cpf);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Um CPF que o filtro com certeza não contém é respondido sem consultar o repositório decorado.
+     */
+    @Override
+    public boolean existe(String cpf) {
+        if (cpf == null) {
+            return false;
+        }
+        if (certamenteAusente(cpf)) {
+            return false;
+        }
+        boolean existe = delegado.existe(cpf);
+        if (!existe && FiltroBloomCpfs.codificar(cpf) != FiltroBloomCpfs.NAO_CODIFICAVEL) {
+            falsosPositivos.increment();
+        }
+        return existe;
+    }
+
+    /**
+     * Incorpora ao filtro as alterações de clientes.txt: apenas as linhas acrescentadas
+     * desde a última leitura, ou o arquivo inteiro se ele foi substituído, encolheu ou não
+     * começa mais como quando foi lido. Chamado pelo {@link MonitorArquivosDados} e pelas
+     * próprias consultas.
+     *
+     * @param arquivoSubstituido true se o arquivo foi recriado e deve ser relido desde o início.
+     */
+    public synchronized void sincronizarComArquivo(boolean arquivoSubstituido) {
+        FiltroBloomCpfs atual = filtro;
+        if (atual == null && !arquivoSubstituido) {
+            atual = FiltroBloomCpfs.carregar(caminhoFiltro);
+            if (atual != null) {
+                bytesGravados = atual.getBytesCobertos();
+            }
+        }
+        long tamanho = GerenciadorArquivos.tamanhoClientes();
+        if (atual == null || arquivoSubstituido || tamanho < atual.getBytesCobertos() || !continuaDoMesmoArquivo(atual)) {
+            reconstruir(tamanho, atual);
+            return;
+        }
+        if (tamanho > atual.getBytesCobertos()) {
+            incorporar(atual, atual.getBytesCobertos());
+            if (atual.saturado()) {
+                reconstruir(tamanho, atual);
+                return;
+            }
+        }
+        filtro = atual;
+    }
+
+    /**
+     * Grava o filtro em clientes.bloom, se ele cobre mais de clientes.txt do que a última gravação.
+     * Chamado no aquecimento e no encerramento da aplicação.
+     */
+    public synchronized void persistirFiltro() {
+        FiltroBloomCpfs atual = filtro;
+        if (atual == null || atual.getBytesCobertos() == bytesGravados) {
+            return;
+        }
+        try {
+            atual.gravar(caminhoFiltro);
+            bytesGravados = atual.getBytesCobertos();
+        } catch (IOException e) {
+            // Sem o arquivo, o filtro é apenas reconstruído na próxima inicialização.
+            System.err.println("ClienteRepositorioComFiltroBloom: Erro ao gravar " + caminhoFiltro + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return Quantas consultas o filtro respondeu sozinho (CPF com certeza não cadastrado).
+     */
+    public long getRespondidasPeloFiltro() {
+        return respondidasPeloFiltro.sum();
+    }
+
+    /**
+     * @return Quantas consultas de {@link #existe(String)} passaram pelo filtro e o repositório
+     *         decorado respondeu que o CPF não existe.
+     */
+    public long getFalsosPositivos() {
+        return falsosPositivos.sum();
+    }
+
+    private boolean certamenteAusente(String cpf) {
+        long codigo = FiltroBloomCpfs.codificar(cpf);
+        if (codigo == FiltroBloomCpfs.NAO_CODIFICAVEL) {
+            return false; // O filtro só conhece CPFs de 11 dígitos: quem responde é o repositório.
+        }
+        FiltroBloomCpfs atual = filtroAtualizado();
+        if (atual.podeConter(codigo)) {
+            return false;
+        }
+        respondidasPeloFiltro.increment();
+        return true;
+    }
+
+    /**
+     * Verifica, com uma única consulta de atributos do arquivo, se o filtro ainda cobre
+     * clientes.txt inteiro. Se não cobrir, incorpora as alterações.
+     */
+    private FiltroBloomCpfs filtroAtualizado() {
+        FiltroBloomCpfs atual = filtro;
+        if (atual == null || GerenciadorArquivos.tamanhoClientes() != atual.getBytesCobertos()) {
+            sincronizarComArquivo(false);
+            atual = filtro;
+        }
+        return atual;
+    }
+
+    private static boolean continuaDoMesmoArquivo(FiltroBloomCpfs atual) {
+        long crc = GerenciadorArquivos.crcClientesAntesDe(atual.getBytesCobertos(), FiltroBloomCpfs.TAMANHO_JANELA);
+        return crc == Integer.toUnsignedLong(atual.getCrcJanela());
+    }
+
+    private void reconstruir(long tamanho, FiltroBloomCpfs anterior) {
+        long estimados = Math.max(tamanho / BYTES_POR_CLIENTE_ESTIMADOS, anterior == null ? 0L : anterior.getQuantidade());
+        // O dobro da quantidade atual: o filtro comporta o crescimento do cadastro antes de precisar ser refeito.
+        FiltroBloomCpfs novo = FiltroBloomCpfs.criar(Math.max(CAPACIDADE_MINIMA, 2 * estimados), TAXA_FALSOS_POSITIVOS);
+        incorporar(novo, 0L);
+        filtro = novo;
+        persistirFiltro();
+    }
+
+    private static void incorporar(FiltroBloomCpfs destino, long desdeOffset) {
+        long lidos = GerenciadorArquivos.varrerClientes(desdeOffset, (offset, linha) -> {
+            int separador = linha.indexOf('|');
+            long cpf = FiltroBloomCpfs.codificar(linha, 0, separador < 0 ? linha.length() : separador);
+            if (cpf != FiltroBloomCpfs.NAO_CODIFICAVEL) {
+                destino.adicionar(cpf);
+            }
+        });
+        destino.cobrirAte(lidos, (int) GerenciadorArquivos.crcClientesAntesDe(lidos, FiltroBloomCpfs.TAMANHO_JANELA));
+    }
+}
@@ -0,0 +1,169 @@
+// Arquivo: infraestrutura/persistencia/implementacao/EntradaRepositorio.java
+package com.teatroabc.infraestrutura.persistencia.implementacao;
+
+import com.teatroabc.infraestrutura.persistencia.interfaces.IEntradaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.Aquecivel;
+import com.teatroabc.infraestrutura.persistencia.util.BloqueiosEntreProcessos;
+import com.teatroabc.infraestrutura.persistencia.util.CursorRegistro;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.MonitorArquivosDados;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementação (Adaptador Secundário) do registro de entradas em arquivo de texto
+ * (entradas.txt, uma linha por entrada, gravada pelo diário de escrita).
+ * <p>
+ * As entradas ficam em memória em um {@link ConcurrentHashMap} (ID do bilhete → momento da
+ * entrada): a leitura de um bilhete já utilizado é respondida sem bloqueio, e a decisão
+ * "primeira entrada" é o {@code putIfAbsent} do mapa, atômico entre as threads do processo.
+ * Com outros terminais no mesmo diretório de dados, o registro acontece com o balde do
+ * bilhete bloqueado ({@link BloqueiosEntreProcessos#bloquearBilhete(String)}) e depois de
+ * ler as entradas que os outros terminais acrescentaram ao arquivo, de modo que duas portas
+ * nunca liberam o mesmo bilhete.
+ * <p>
+ * Assim como o índice de clientes, o mapa guarda até que posição de entradas.txt já leu
+ * e incorpora apenas as linhas novas, avisado pelo {@link MonitorArquivosDados} ou ao
+ * perceber nas consultas que o arquivo cresceu.
+ */
+public class EntradaRepositorio implements IEntradaRepositorio, Aquecivel {
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final BloqueiosEntreProcessos bloqueiosEntreProcessos;
+    // Substituído por inteiro quando o arquivo é relido, para que as consultas nunca vejam um mapa pela metade.
+    private volatile Map<String, LocalDateTime> entradasPorBilhete = new ConcurrentHashMap<>();
+    // Posição de entradas.txt logo após a última linha incorporada (-1 antes da primeira carga).
+    private volatile long bytesLidos = -1L;
+    // CRC-32 dos bytes que antecedem bytesLidos (protegido por this): se mudar, o arquivo foi reescrito.
+    private long crcAntesDosLidos;
+
+    public EntradaRepositorio() {
+        this(null);
+    }
+
+    /**
+     * @param bloqueiosEntreProcessos Os bloqueios compartilhados com outros terminais, ou null
+     *                                se este for o único processo usando o diretório de dados.
+     */
+    public EntradaRepositorio(BloqueiosEntreProcessos bloqueiosEntreProcessos) {
+        this.bloqueiosEntreProcessos = bloqueiosEntreProcessos;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Carrega as entradas já registradas em entradas.txt.
+     */
+    @Override
+    public void aquecer() {
+        garantirAtualizado();
+    }
+
+    /**
+     * {@inheritDoc}
+     * O momento é registrado com precisão de minutos, a mesma das demais datas dos arquivos.
+     */
+    @Override
+    public boolean registrarSeAusente(String idBilhete, String idSessao, LocalDateTime momento, String porta) {
+        if (idBilhete == null || momento == null) {
+            throw new IllegalArgumentException("ID do bilhete e momento da entrada não podem ser nulos.");
+        }
+        garantirAtualizado();
+        if (entradasPorBilhete.containsKey(idBilhete)) {
+            return false; // Já utilizado: respondido sem bloqueio.
+        }
+        LocalDateTime registrado = momento.truncatedTo(ChronoUnit.MINUTES);
+        try (BloqueiosEntreProcessos.Bloqueio entreProcessos = bloquearEntreProcessos(idBilhete)) {
+            if (entreProcessos != null) {
+                // Entradas de outras portas só chegam pelo arquivo: lê as linhas novas antes de decidir.
+                sincronizarComArquivo(false);
+            }
+            Map<String, LocalDateTime> entradas = entradasPorBilhete;
+            if (entradas.putIfAbsent(idBilhete, registrado) != null) {
+                return false;
+            }
+            String linha = idBilhete + "|" + (idSessao == null ? "" : idSessao) + "|"
+                    + registrado.format(DATETIME_FORMATTER) + "|" + (porta == null ? "" : porta);
+            if (!GerenciadorArquivos.salvarEntrada(linha)) {
+                entradas.remove(idBilhete, registrado);
+                throw new IllegalStateException("Não foi possível gravar a entrada do bilhete " + idBilhete + ".");
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível bloquear o bilhete " + idBilhete + " entre os terminais.", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<LocalDateTime> buscarEntrada(String idBilhete) {
+        if (idBilhete == null) {
+            return Optional.empty();
+        }
+        garantirAtualizado();
+        return Optional.ofNullable(entradasPorBilhete.get(idBilhete));
+    }
+
+    /**
+     * Incorpora as entradas acrescentadas a entradas.txt (por este ou por outro terminal)
+     * desde a última leitura, ou relê o arquivo inteiro se ele foi substituído, encolheu ou
+     * não começa mais como quando foi lido.
+     * Chamado pelo {@link MonitorArquivosDados} e pelas próprias consultas.
+     *
+     * @param arquivoSubstituido true se o arquivo foi recriado e deve ser relido desde o início.
+     */
+    public synchronized void sincronizarComArquivo(boolean arquivoSubstituido) {
+        long tamanho = GerenciadorArquivos.tamanhoEntradas();
+        if (tamanho == bytesLidos && !arquivoSubstituido) {
+            return;
+        }
+        CursorRegistro cursor = new CursorRegistro('|');
+        if (bytesLidos < 0 || arquivoSubstituido || tamanho < bytesLidos
+                || GerenciadorArquivos.crcEntradasAntesDe(bytesLidos, GerenciadorArquivos.JANELA_CONTINUIDADE) != crcAntesDosLidos) {
+            Map<String, LocalDateTime> novasEntradas = new ConcurrentHashMap<>();
+            long lidos = GerenciadorArquivos.varrerEntradas(0L, (offset, linha) -> incorporar(linha, cursor, novasEntradas));
+            entradasPorBilhete = novasEntradas;
+            bytesLidos = lidos;
+        } else if (tamanho > bytesLidos) {
+            Map<String, LocalDateTime> entradas = entradasPorBilhete;
+            bytesLidos = GerenciadorArquivos.varrerEntradas(bytesLidos, (offset, linha) -> incorporar(linha, cursor, entradas));
+        }
+        crcAntesDosLidos = GerenciadorArquivos.crcEntradasAntesDe(bytesLidos, GerenciadorArquivos.JANELA_CONTINUIDADE);
+    }
+
+    /**
+     * Verifica, com uma única consulta de atributos do arquivo, se o mapa ainda reflete
+     * entradas.txt. Se não refletir, incorpora as alterações.
+     */
+    private void garantirAtualizado() {
+        long lidos = bytesLidos;
+        if (lidos < 0 || GerenciadorArquivos.tamanhoEntradas() != lidos) {
+            sincronizarComArquivo(false);
+        }
+    }
+
+    private static void incorporar(String linha, CursorRegistro cursor, Map<String, LocalDateTime> entradas) {
+        try {
+            if (cursor.sobre(linha).quantidadeCampos() >= 3 && !cursor.vazio(0)) {
+                // A primeira linha de um bilhete prevalece: é a entrada que foi liberada.
+                entradas.putIfAbsent(cursor.texto(0), cursor.dataHora(2));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao parsear entrada da linha: " + linha);
+        }
+    }
+
+    /**
+     * @return O bloqueio do balde do bilhete, ou null (ignorado pelo try-with-resources) sem outros processos.
+     */
+    private BloqueiosEntreProcessos.Bloqueio bloquearEntreProcessos(String idBilhete) throws IOException {
+        return bloqueiosEntreProcessos == null ? null : bloqueiosEntreProcessos.bloquearBilhete(idBilhete);
+    }
+}
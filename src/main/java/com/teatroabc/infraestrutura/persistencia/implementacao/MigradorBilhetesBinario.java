@@ -0,0 +1,105 @@
+// Arquivo: infraestrutura/persistencia/implementacao/MigradorBilhetesBinario.java
+package com.teatroabc.infraestrutura.persistencia.implementacao;
+
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.util.ArquivoBilhetesBinario;
+import com.teatroabc.infraestrutura.persistencia.util.CursorRegistro;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Migração única de bilhetes.txt para o formato binário usado por {@link BilheteRepositorioBinario}.
+ * <p>
+ * A conversão é feita diretamente dos campos de texto para o registro binário, sem
+ * consultar clientes ou peças. O arquivo de destino é montado em um arquivo temporário
+ * e só então movido para o nome final, de modo que uma migração interrompida nunca deixa
+ * um arquivo binário parcial: ela simplesmente é refeita na próxima inicialização.
+ * <p>
+ * Linhas que o repositório de texto também não consegue ler (formato antigo, com menos
+ * de 10 campos) são ignoradas. Linhas gravadas antes de o formato texto guardar o ID e a
+ * data da sessão ficam com ID de sessão vazio e usam a data da compra como data da sessão.
+ */
+public final class MigradorBilhetesBinario {
+    private MigradorBilhetesBinario() {
+    }
+
+    /**
+     * Cria o arquivo binário a partir dos segmentos selados e de bilhetes.txt, caso ele ainda não exista.
+     *
+     * @param destino O caminho do arquivo binário.
+     * @param indicePlanta O índice da planta usado para codificar os assentos.
+     * @return A quantidade de bilhetes migrados (0 se o arquivo binário já existia).
+     * @throws IOException Se o arquivo binário não puder ser criado.
+     */
+    public static int migrarSeNecessario(Path destino, IndicePlantaAssentos indicePlanta) throws IOException {
+        if (Files.exists(destino)) {
+            return 0;
+        }
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".migracao");
+        Files.deleteIfExists(temporario);
+
+        int migrados = 0;
+        try (ArquivoBilhetesBinario arquivo = new ArquivoBilhetesBinario(temporario, indicePlanta.getTotalCodigos());
+             Stream<String> linhas = GerenciadorArquivos.linhasTodosBilhetes()) {
+            Iterator<String> iterador = linhas.iterator();
+            CursorRegistro campos = new CursorRegistro('|');
+            CursorRegistro codigos = new CursorRegistro(',');
+            while (iterador.hasNext()) {
+                if (migrarLinha(campos.sobre(iterador.next()), codigos, arquivo, indicePlanta)) {
+                    migrados++;
+                }
+            }
+        }
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("MigradorBilhetesBinario: " + migrados + " bilhete(s) migrado(s) para " + destino);
+        return migrados;
+    }
+
+    private static boolean migrarLinha(CursorRegistro campos, CursorRegistro codigos,
+                                       ArquivoBilhetesBinario arquivo, IndicePlantaAssentos indicePlanta) {
+        if (campos.quantidadeCampos() < 10) {
+            return false;
+        }
+        try {
+            long cpf = BilheteRepositorioBinario.cpfParaLong(campos.texto(2));
+            if (cpf < 0) {
+                return false;
+            }
+            BitSet mapaAssentos = new BitSet(indicePlanta.getTotalCodigos());
+            codigos.sobre(campos.getRegistro(), campos.inicio(4), campos.fim(4));
+            for (int i = 0; i < codigos.quantidadeCampos(); i++) {
+                String codigo = codigos.texto(i);
+                int indice = indicePlanta.indiceDe(codigo);
+                if (indice < 0) {
+                    System.err.println("MigradorBilhetesBinario: Assento desconhecido ignorado: " + codigo);
+                    continue;
+                }
+                mapaAssentos.set(indice);
+            }
+            long dataCompra = campos.dataHora(9).toEpochSecond(ZoneOffset.UTC);
+            boolean comSessao = campos.quantidadeCampos() >= 12 && !campos.vazio(10);
+            String idSessao = comSessao ? campos.texto(10) : "";
+            long dataSessao = comSessao ? campos.dataHora(11).toEpochSecond(ZoneOffset.UTC) : dataCompra;
+
+            arquivo.acrescentarEmLote(
+                    campos.texto(0), campos.texto(1), cpf, campos.texto(3), idSessao,
+                    Turno.valueOf(campos.texto(8)).ordinal(),
+                    campos.centavos(5), campos.centavos(6), campos.centavos(7),
+                    dataSessao, dataCompra, mapaAssentos);
+            return true;
+        } catch (Exception e) {
+            System.err.println("MigradorBilhetesBinario: Erro ao migrar a linha: " + campos.getRegistro());
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
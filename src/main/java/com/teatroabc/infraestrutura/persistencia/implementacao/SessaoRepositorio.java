@@ -5,24 +5,30 @@ import com.teatroabc.dominio.modelos.Peca;
 import com.teatroabc.dominio.modelos.Sessao;
 import com.teatroabc.infraestrutura.persistencia.interfaces.IPecaRepositorio;
 import com.teatroabc.infraestrutura.persistencia.interfaces.ISessaoRepositorio;
-import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import com.teatroabc.infraestrutura.persistencia.util.CatalogoSessoes;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 /**
  * Implementação (Adaptador Secundário) do repositório de Sessões.
- * Atualmente, os dados das sessões são hardcoded para fins de demonstração.
+ * As sessões ficam no catálogo persistido em sessoes.txt ({@link CatalogoSessoes}),
+ * com IDs estáveis entre execuções, de modo que a ocupação registrada por ID de sessão
+ * continua válida após reiniciar a aplicação. O catálogo é carregado sob demanda a
+ * partir de um índice mapeado em memória (por ID e por data/hora).
+ * Na primeira execução, o catálogo é criado com as sessões de demonstração.
  * Esta classe depende do IPecaRepositorio para obter os objetos Peca necessários
  * para construir as Sessões.
  */
 public class SessaoRepositorio implements ISessaoRepositorio {
 
     private final IPecaRepositorio pecaRepositorio;
-    private static final List<Sessao> sessoesDB = new ArrayList<>();
+    private final CatalogoSessoes catalogo;
 
     /**
      * Construtor do SessaoRepositorio.
@@ -30,19 +36,16 @@ public class SessaoRepositorio implements ISessaoRepositorio {
      */
     public SessaoRepositorio(IPecaRepositorio pecaRepositorio) {
         this.pecaRepositorio = pecaRepositorio;
-        // O método que carrega os dados é chamado aqui para garantir que a lista seja preenchida na criação.
-        carregarSessoesHardcoded();
+        this.catalogo = new CatalogoSessoes(pecaRepositorio::buscarPorId, this::criarSessoesDeDemonstracao);
     }
 
     /**
-     * Método privado para popular a lista de sessões. Em um sistema real,
-     * isso seria substituído por uma leitura de um banco de dados ou arquivo.
+     * Cria as sessões de demonstração usadas para popular um catálogo vazio.
+     * Os IDs são derivados da peça e da data/hora, e não sorteados, para que o mesmo
+     * catálogo seja gerado em qualquer instalação.
      */
-    private void carregarSessoesHardcoded() {
-        // Limpa a lista para evitar duplicação se o construtor for chamado mais de uma vez.
-        if (!sessoesDB.isEmpty()) {
-            return;
-        }
+    private List<Sessao> criarSessoesDeDemonstracao() {
+        List<Sessao> sessoes = new ArrayList<>();
 
         // Busca todas as peças disponíveis para podermos criar sessões para elas.
         List<Peca> todasAsPecas = pecaRepositorio.listarTodas();
@@ -51,20 +54,27 @@ public class SessaoRepositorio implements ISessaoRepositorio {
         for (Peca peca : todasAsPecas) {
             switch (peca.getTitulo()) {
                 case "WICKEDONIA":
-                    sessoesDB.add(new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.of(2025, 6, 20, 20, 0), Turno.NOITE));
-                    sessoesDB.add(new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.of(2025, 6, 21, 17, 0), Turno.TARDE));
-                    sessoesDB.add(new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.of(2025, 6, 21, 20, 0), Turno.NOITE));
+                    sessoes.add(criarSessao(peca, LocalDateTime.of(2025, 6, 20, 20, 0), Turno.NOITE));
+                    sessoes.add(criarSessao(peca, LocalDateTime.of(2025, 6, 21, 17, 0), Turno.TARDE));
+                    sessoes.add(criarSessao(peca, LocalDateTime.of(2025, 6, 21, 20, 0), Turno.NOITE));
                     break;
                 case "HERMANOTEU":
-                    sessoesDB.add(new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.of(2025, 6, 22, 17, 0), Turno.TARDE));
-                    sessoesDB.add(new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.of(2025, 6, 22, 20, 0), Turno.NOITE));
+                    sessoes.add(criarSessao(peca, LocalDateTime.of(2025, 6, 22, 17, 0), Turno.TARDE));
+                    sessoes.add(criarSessao(peca, LocalDateTime.of(2025, 6, 22, 20, 0), Turno.NOITE));
                     break;
                 case "MORTE E VIDA SEVERINA":
-                    sessoesDB.add(new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.of(2025, 6, 28, 10, 0), Turno.MANHA));
-                    sessoesDB.add(new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.of(2025, 6, 28, 17, 0), Turno.TARDE));
+                    sessoes.add(criarSessao(peca, LocalDateTime.of(2025, 6, 28, 10, 0), Turno.MANHA));
+                    sessoes.add(criarSessao(peca, LocalDateTime.of(2025, 6, 28, 17, 0), Turno.TARDE));
                     break;
             }
         }
+        return sessoes;
+    }
+
+    private Sessao criarSessao(Peca peca, LocalDateTime dataHora, Turno turno) {
+        String chave = peca.getId() + "|" + dataHora;
+        String idEstavel = UUID.nameUUIDFromBytes(chave.getBytes(StandardCharsets.UTF_8)).toString();
+        return new Sessao(idEstavel, peca, dataHora, turno);
     }
 
     /**
@@ -75,11 +85,7 @@ public class SessaoRepositorio implements ISessaoRepositorio {
         if (idPeca == null || idPeca.trim().isEmpty()) {
             return new ArrayList<>();
         }
-        
-        // Filtra a lista de sessões em memória para encontrar aquelas que correspondem ao ID da peça.
-        return sessoesDB.stream()
-                .filter(sessao -> sessao.getPeca().getId().equals(idPeca))
-                .collect(Collectors.toList());
+        return catalogo.daPeca(idPeca);
     }
 
     /**
@@ -90,10 +96,36 @@ public class SessaoRepositorio implements ISessaoRepositorio {
         if (idSessao == null || idSessao.trim().isEmpty()) {
             return Optional.empty();
         }
+        return catalogo.buscarPorId(idSessao);
+    }
 
-        // Busca na lista em memória a sessão com o ID correspondente.
-        return sessoesDB.stream()
-                .filter(sessao -> sessao.getId().equals(idSessao))
-                .findFirst();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Sessao> buscarSessoesPorData(LocalDate data) {
+        if (data == null) {
+            return new ArrayList<>();
+        }
+        return catalogo.entre(data.atStartOfDay(), data.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Sessao> buscarSessoesEntre(LocalDateTime inicio, LocalDateTime fim) {
+        return catalogo.entre(inicio, fim);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Sessao> buscarProximasSessoesDaPeca(String idPeca, LocalDateTime aPartirDe, int quantidade) {
+        if (idPeca == null || idPeca.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return catalogo.proximasDaPeca(idPeca, aPartirDe, quantidade);
     }
-}
\ No newline at end of file
+}
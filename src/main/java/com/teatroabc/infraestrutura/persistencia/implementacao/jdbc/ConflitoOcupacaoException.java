@@ -0,0 +1,15 @@
+// Arquivo: infraestrutura/persistencia/implementacao/jdbc/ConflitoOcupacaoException.java
+package com.teatroabc.infraestrutura.persistencia.implementacao.jdbc;
+
+/**
+ * Sinaliza que a transação de venda foi desfeita porque um dos assentos já estava
+ * registrado como ocupado na sessão (violação da chave de assento_ocupado).
+ * Lançada por {@link JdbcBilheteRepositorio#salvar} e tratada por
+ * {@link JdbcAssentoRepositorio#reservarSeDisponiveis}, que então recusa a reserva.
+ */
+class ConflitoOcupacaoException extends RuntimeException {
+
+    ConflitoOcupacaoException(String mensagem, Throwable causa) {
+        super(mensagem, causa);
+    }
+}
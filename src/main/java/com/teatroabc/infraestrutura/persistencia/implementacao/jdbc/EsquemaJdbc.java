@@ -0,0 +1,102 @@
+// Arquivo: infraestrutura/persistencia/implementacao/jdbc/EsquemaJdbc.java
+package com.teatroabc.infraestrutura.persistencia.implementacao.jdbc;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Esquema do banco embarcado (dialeto H2). As tabelas espelham os arquivos de dados:
+ * <ul>
+ *   <li>peca, cliente (chave: CPF) e sessao;</li>
+ *   <li>bilhete, com os assentos de cada bilhete em bilhete_assento;</li>
+ *   <li>assento_ocupado, com chave primária (sessão, código): é essa chave que impede,
+ *       dentro da transação da venda, que um assento seja vendido duas vezes, mesmo por
+ *       processos diferentes;</li>
+ *   <li>entrada, com chave primária no ID do bilhete: uma única entrada por bilhete na portaria;</li>
+ *   <li>assento_retido, com as retenções temporárias das compras em andamento e a mesma
+ *       chave (sessão, código): dois terminais não retêm o mesmo assento.</li>
+ * </ul>
+ * Os índices cobrem as consultas dos repositórios: bilhetes por CPF e por código de barras,
+ * sessões por peça e data/hora, sessões por período e assentos ocupados por sessão
+ * (prefixo da chave primária).
+ */
+public final class EsquemaJdbc {
+
+    private static final String[] COMANDOS = {
+        "CREATE TABLE IF NOT EXISTS peca ("
+            + " id VARCHAR(64) PRIMARY KEY,"
+            + " titulo VARCHAR(200) NOT NULL,"
+            + " subtitulo VARCHAR(200),"
+            + " descricao VARCHAR(1000),"
+            + " cor_fundo VARCHAR(16),"
+            + " caminho_imagem VARCHAR(300),"
+            + " ordem INT NOT NULL DEFAULT 0)",
+        "CREATE TABLE IF NOT EXISTS cliente ("
+            + " cpf VARCHAR(11) PRIMARY KEY,"
+            + " nome VARCHAR(200) NOT NULL,"
+            + " data_nascimento DATE NOT NULL,"
+            + " telefone VARCHAR(40),"
+            + " email VARCHAR(200),"
+            + " plano VARCHAR(20) NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS sessao ("
+            + " id VARCHAR(64) PRIMARY KEY,"
+            + " id_peca VARCHAR(64) NOT NULL,"
+            + " data_hora TIMESTAMP NOT NULL,"
+            + " turno VARCHAR(10) NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_sessao_peca_data ON sessao (id_peca, data_hora)",
+        "CREATE INDEX IF NOT EXISTS idx_sessao_data ON sessao (data_hora)",
+        "CREATE TABLE IF NOT EXISTS bilhete ("
+            + " id VARCHAR(64) PRIMARY KEY,"
+            + " codigo_barras VARCHAR(64) NOT NULL,"
+            + " cpf_cliente VARCHAR(11) NOT NULL,"
+            + " id_peca VARCHAR(64) NOT NULL,"
+            + " id_sessao VARCHAR(64),"
+            + " data_sessao TIMESTAMP NOT NULL,"
+            + " turno VARCHAR(10) NOT NULL,"
+            + " subtotal DECIMAL(12,2) NOT NULL,"
+            + " desconto DECIMAL(12,2) NOT NULL,"
+            + " total DECIMAL(12,2) NOT NULL,"
+            + " data_compra TIMESTAMP NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_bilhete_cpf ON bilhete (cpf_cliente)",
+        "CREATE INDEX IF NOT EXISTS idx_bilhete_codigo_barras ON bilhete (codigo_barras)",
+        "CREATE TABLE IF NOT EXISTS bilhete_assento ("
+            + " id_bilhete VARCHAR(64) NOT NULL,"
+            + " posicao INT NOT NULL,"
+            + " codigo VARCHAR(16) NOT NULL,"
+            + " PRIMARY KEY (id_bilhete, posicao))",
+        "CREATE TABLE IF NOT EXISTS assento_ocupado ("
+            + " id_sessao VARCHAR(64) NOT NULL,"
+            + " codigo VARCHAR(16) NOT NULL,"
+            + " PRIMARY KEY (id_sessao, codigo))",
+        "CREATE TABLE IF NOT EXISTS entrada ("
+            + " id_bilhete VARCHAR(64) PRIMARY KEY,"
+            + " id_sessao VARCHAR(64),"
+            + " momento TIMESTAMP NOT NULL,"
+            + " porta VARCHAR(40))",
+        "CREATE TABLE IF NOT EXISTS assento_retido ("
+            + " id_sessao VARCHAR(64) NOT NULL,"
+            + " codigo VARCHAR(16) NOT NULL,"
+            + " token VARCHAR(64) NOT NULL,"
+            + " expira_em BIGINT NOT NULL,"
+            + " PRIMARY KEY (id_sessao, codigo))",
+        "CREATE INDEX IF NOT EXISTS idx_assento_retido_token ON assento_retido (token)",
+    };
+
+    private EsquemaJdbc() {
+    }
+
+    /**
+     * Cria as tabelas e os índices que ainda não existem.
+     *
+     * @param fonte O pool de conexões do banco.
+     * @throws SQLException Se algum comando falhar.
+     */
+    public static void criar(FonteConexoesJdbc fonte) throws SQLException {
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter();
+             Statement comando = conexao.getConexao().createStatement()) {
+            for (String sql : COMANDOS) {
+                comando.execute(sql);
+            }
+        }
+    }
+}
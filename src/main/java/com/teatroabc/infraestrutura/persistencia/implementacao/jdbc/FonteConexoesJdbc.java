@@ -0,0 +1,197 @@
+// Arquivo: infraestrutura/persistencia/implementacao/jdbc/FonteConexoesJdbc.java
+package com.teatroabc.infraestrutura.persistencia.implementacao.jdbc;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool pequeno de conexões JDBC com o banco embarcado, sem dependências além de java.sql.
+ * <p>
+ * Cada conexão do pool guarda os seus comandos preparados por SQL ({@link ConexaoJdbc#preparar(String)}),
+ * de modo que cada consulta é compilada pelo banco uma única vez por conexão, e não a cada chamada.
+ * As conexões são criadas sob demanda, até o tamanho máximo; quem pede uma conexão com
+ * o pool esgotado aguarda uma ser devolvida.
+ */
+public class FonteConexoesJdbc implements Closeable {
+
+    private static final long ESPERA_MAXIMA_SEGUNDOS = 30;
+
+    private final String url;
+    private final String usuario;
+    private final String senha;
+    private final int tamanhoMaximo;
+    private final BlockingQueue<ConexaoJdbc> livres = new LinkedBlockingQueue<>();
+    private final List<ConexaoJdbc> todas = new ArrayList<>();
+    private volatile boolean aberta = true;
+
+    /**
+     * @param url A URL JDBC do banco (por exemplo, "jdbc:h2:./dados/teatroabc").
+     * @param usuario O usuário do banco.
+     * @param senha A senha do banco.
+     * @param tamanhoMaximo A quantidade máxima de conexões abertas.
+     */
+    public FonteConexoesJdbc(String url, String usuario, String senha, int tamanhoMaximo) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("URL JDBC não pode ser vazia.");
+        }
+        if (tamanhoMaximo <= 0) {
+            throw new IllegalArgumentException("O pool precisa de pelo menos uma conexão.");
+        }
+        this.url = url;
+        this.usuario = usuario;
+        this.senha = senha;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    /**
+     * Obtém uma conexão do pool, em modo de confirmação automática. A conexão deve ser
+     * devolvida com {@link ConexaoJdbc#close()} (de preferência em um try-with-resources).
+     *
+     * @return Uma conexão livre.
+     * @throws SQLException Se não for possível abrir uma conexão ou o pool continuar esgotado.
+     */
+    public ConexaoJdbc obter() throws SQLException {
+        if (!aberta) {
+            throw new SQLException("Pool de conexões encerrado.");
+        }
+        ConexaoJdbc conexao = livres.poll();
+        if (conexao != null) {
+            return conexao;
+        }
+        synchronized (todas) {
+            if (todas.size() < tamanhoMaximo) {
+                conexao = new ConexaoJdbc(DriverManager.getConnection(url, usuario, senha));
+                todas.add(conexao);
+                return conexao;
+            }
+        }
+        try {
+            conexao = livres.poll(ESPERA_MAXIMA_SEGUNDOS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando uma conexão do pool.", e);
+        }
+        if (conexao == null) {
+            throw new SQLException("Nenhuma conexão livre após " + ESPERA_MAXIMA_SEGUNDOS + " segundos.");
+        }
+        return conexao;
+    }
+
+    /**
+     * Fecha todas as conexões, livres ou não.
+     */
+    @Override
+    public void close() {
+        aberta = false;
+        synchronized (todas) {
+            for (ConexaoJdbc conexao : todas) {
+                conexao.fechar();
+            }
+            todas.clear();
+        }
+        livres.clear();
+    }
+
+    private void devolver(ConexaoJdbc conexao) {
+        if (aberta) {
+            livres.add(conexao);
+        } else {
+            conexao.fechar();
+        }
+    }
+
+    /**
+     * Conexão do pool, com os comandos preparados em cache. Não é segura para uso por
+     * várias threads ao mesmo tempo: cada thread obtém a sua do pool.
+     */
+    public final class ConexaoJdbc implements AutoCloseable {
+        private final Connection conexao;
+        private final Map<String, PreparedStatement> comandos = new HashMap<>();
+
+        private ConexaoJdbc(Connection conexao) {
+            this.conexao = conexao;
+        }
+
+        /**
+         * @return O comando preparado para o SQL, reaproveitado entre usos da conexão.
+         *         Os parâmetros de usos anteriores podem continuar definidos.
+         */
+        public PreparedStatement preparar(String sql) throws SQLException {
+            PreparedStatement comando = comandos.get(sql);
+            if (comando == null) {
+                comando = conexao.prepareStatement(sql);
+                comandos.put(sql, comando);
+            }
+            return comando;
+        }
+
+        /**
+         * Inicia uma transação: os comandos seguintes só se tornam permanentes com {@link #confirmar()}.
+         */
+        public void iniciarTransacao() throws SQLException {
+            conexao.setAutoCommit(false);
+        }
+
+        /**
+         * Confirma a transação em andamento e volta ao modo de confirmação automática.
+         */
+        public void confirmar() throws SQLException {
+            conexao.commit();
+            conexao.setAutoCommit(true);
+        }
+
+        /**
+         * @return A conexão JDBC subjacente, para comandos que não devem ficar em cache (DDL).
+         */
+        public Connection getConexao() {
+            return conexao;
+        }
+
+        /**
+         * Devolve a conexão ao pool. Uma transação não confirmada é desfeita.
+         */
+        @Override
+        public void close() {
+            try {
+                if (!conexao.getAutoCommit()) {
+                    conexao.rollback();
+                    conexao.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                System.err.println("FonteConexoesJdbc: Conexão descartada após erro ao desfazer transação: " + e.getMessage());
+                synchronized (todas) {
+                    todas.remove(this);
+                }
+                fechar();
+                return;
+            }
+            devolver(this);
+        }
+
+        private void fechar() {
+            for (PreparedStatement comando : comandos.values()) {
+                try {
+                    comando.close();
+                } catch (SQLException ignorada) {
+                    // A conexão será fechada em seguida.
+                }
+            }
+            comandos.clear();
+            try {
+                conexao.close();
+            } catch (SQLException e) {
+                System.err.println("FonteConexoesJdbc: Erro ao fechar conexão: " + e.getMessage());
+            }
+        }
+    }
+}
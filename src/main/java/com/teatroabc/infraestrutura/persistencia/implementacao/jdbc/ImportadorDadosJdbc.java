@@ -0,0 +1,287 @@
+// Arquivo: infraestrutura/persistencia/implementacao/jdbc/ImportadorDadosJdbc.java
+package com.teatroabc.infraestrutura.persistencia.implementacao.jdbc;
+
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IPecaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.interfaces.ISessaoRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Importa para o banco embarcado os dados do diretório dados/: peças e sessões (a partir
+ * dos repositórios em arquivo), clientes.txt, bilhetes.txt, a ocupação persistida
+ * (snapshot e assentos_ocupados.txt) e as entradas da portaria (entradas.txt).
+ * <p>
+ * Os arquivos são lidos linha a linha, convertidos diretamente em colunas (sem montar
+ * objetos de domínio) e gravados em lotes de comandos preparados, com uma transação por
+ * tabela. Todos os comandos usam MERGE pela chave, de modo que repetir a importação não
+ * duplica nada. Como nos repositórios em arquivo, o primeiro cadastro de um CPF prevalece,
+ * e linhas de bilhete em formato antigo (menos de 10 campos) são ignoradas. Bilhetes gravados
+ * antes de o formato texto guardar a sessão ficam sem ID de sessão e com a data da compra como
+ * data da sessão, como na migração para o formato binário.
+ */
+public final class ImportadorDadosJdbc {
+
+    private static final int TAMANHO_LOTE = 1000;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final String SQL_PECA =
+            "MERGE INTO peca (id, titulo, subtitulo, descricao, cor_fundo, caminho_imagem, ordem) KEY (id)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_SESSAO =
+            "MERGE INTO sessao (id, id_peca, data_hora, turno) KEY (id) VALUES (?, ?, ?, ?)";
+    private static final String SQL_CLIENTE =
+            "MERGE INTO cliente (cpf, nome, data_nascimento, telefone, email, plano) KEY (cpf) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_BILHETE =
+            "MERGE INTO bilhete (id, codigo_barras, cpf_cliente, id_peca, id_sessao, data_sessao, turno,"
+            + " subtotal, desconto, total, data_compra) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_ASSENTO_BILHETE =
+            "MERGE INTO bilhete_assento (id_bilhete, posicao, codigo) KEY (id_bilhete, posicao) VALUES (?, ?, ?)";
+    private static final String SQL_OCUPACAO =
+            "MERGE INTO assento_ocupado (id_sessao, codigo) KEY (id_sessao, codigo) VALUES (?, ?)";
+    private static final String SQL_ENTRADA =
+            "MERGE INTO entrada (id_bilhete, id_sessao, momento, porta) KEY (id_bilhete) VALUES (?, ?, ?, ?)";
+
+    private ImportadorDadosJdbc() {
+    }
+
+    /**
+     * @return true se o banco ainda não tem nenhuma peça (nunca foi importado).
+     */
+    public static boolean bancoVazio(FonteConexoesJdbc fonte) throws SQLException {
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter();
+             ResultSet resultado = conexao.preparar("SELECT COUNT(*) FROM peca").executeQuery()) {
+            return resultado.next() && resultado.getLong(1) == 0;
+        }
+    }
+
+    /**
+     * Importa todos os dados.
+     *
+     * @param fonte O pool de conexões do banco.
+     * @param pecaRepositorio A origem das peças.
+     * @param sessaoRepositorio A origem das sessões de cada peça.
+     * @throws SQLException Se alguma tabela não puder ser importada.
+     */
+    public static void importar(FonteConexoesJdbc fonte, IPecaRepositorio pecaRepositorio,
+                                ISessaoRepositorio sessaoRepositorio) throws SQLException {
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            List<Peca> pecas = pecaRepositorio.listarTodas();
+            int pecasImportadas = importarPecasESessoes(conexao, pecas, sessaoRepositorio);
+            int clientes = importarClientes(conexao);
+            int bilhetes = importarBilhetes(conexao);
+            int ocupacoes = importarOcupacao(conexao);
+            int entradas = importarEntradas(conexao);
+            System.out.println("ImportadorDadosJdbc: " + pecasImportadas + " peça(s), " + clientes + " cliente(s), "
+                    + bilhetes + " bilhete(s), " + ocupacoes + " assento(s) ocupado(s) e "
+                    + entradas + " entrada(s) importados.");
+        }
+    }
+
+    private static int importarPecasESessoes(FonteConexoesJdbc.ConexaoJdbc conexao, List<Peca> pecas,
+                                             ISessaoRepositorio sessaoRepositorio) throws SQLException {
+        conexao.iniciarTransacao();
+        PreparedStatement comandoPeca = conexao.preparar(SQL_PECA);
+        PreparedStatement comandoSessao = conexao.preparar(SQL_SESSAO);
+        int ordem = 0;
+        for (Peca peca : pecas) {
+            comandoPeca.setString(1, peca.getId());
+            comandoPeca.setString(2, peca.getTitulo());
+            comandoPeca.setString(3, peca.getSubtitulo());
+            comandoPeca.setString(4, peca.getDescricao());
+            comandoPeca.setString(5, peca.getCorFundoHex());
+            comandoPeca.setString(6, peca.getCaminhoImagem());
+            comandoPeca.setInt(7, ordem++);
+            comandoPeca.addBatch();
+
+            Lote lote = new Lote(comandoSessao);
+            for (Sessao sessao : sessaoRepositorio.buscarSessoesPorPeca(peca.getId())) {
+                comandoSessao.setString(1, sessao.getId());
+                comandoSessao.setString(2, peca.getId());
+                comandoSessao.setTimestamp(3, Timestamp.valueOf(sessao.getDataHora()));
+                comandoSessao.setString(4, sessao.getTurno().name());
+                lote.adicionar();
+            }
+            lote.concluir();
+        }
+        comandoPeca.executeBatch();
+        conexao.confirmar();
+        return pecas.size();
+    }
+
+    private static int importarClientes(FonteConexoesJdbc.ConexaoJdbc conexao) throws SQLException {
+        conexao.iniciarTransacao();
+        Lote lote = new Lote(conexao.preparar(SQL_CLIENTE));
+        Set<String> cpfsImportados = new HashSet<>();
+        for (String linha : GerenciadorArquivos.lerClientes()) {
+            String[] partes = linha.split("\\|");
+            if (partes.length < 6 || !cpfsImportados.add(partes[0])) {
+                continue;
+            }
+            try {
+                String plano = partes[5].equalsIgnoreCase("TRUE") || partes[5].equalsIgnoreCase("GOLD") ? "GOLD" : "PADRAO";
+                lote.comando.setString(1, partes[0]);
+                lote.comando.setString(2, partes[1]);
+                lote.comando.setDate(3, Date.valueOf(LocalDate.parse(partes[2], DATE_FORMATTER)));
+                lote.comando.setString(4, partes[3].isEmpty() ? null : partes[3]);
+                lote.comando.setString(5, partes[4].isEmpty() ? null : partes[4]);
+                lote.comando.setString(6, plano);
+                lote.adicionar();
+            } catch (RuntimeException e) {
+                System.err.println("ImportadorDadosJdbc: Linha de cliente ignorada: " + linha);
+            }
+        }
+        lote.concluir();
+        conexao.confirmar();
+        return lote.total;
+    }
+
+    private static int importarBilhetes(FonteConexoesJdbc.ConexaoJdbc conexao) throws SQLException {
+        conexao.iniciarTransacao();
+        Lote bilhetes = new Lote(conexao.preparar(SQL_BILHETE));
+        Lote assentos = new Lote(conexao.preparar(SQL_ASSENTO_BILHETE));
+        SQLException[] falha = new SQLException[1];
+        // Inclui os segmentos selados de meses anteriores: o banco recebe todo o histórico.
+        try (Stream<String> linhas = GerenciadorArquivos.linhasTodosBilhetes()) {
+            linhas.forEach(linha -> {
+                String[] partes = linha.split("\\|");
+                if (partes.length < 10 || falha[0] != null) {
+                    return;
+                }
+                try {
+                    LocalDateTime dataCompra = LocalDateTime.parse(partes[9], DATETIME_FORMATTER);
+                    boolean comSessao = partes.length >= 12 && !partes[10].isEmpty();
+                    LocalDateTime dataSessao = comSessao ? LocalDateTime.parse(partes[11], DATETIME_FORMATTER) : dataCompra;
+                    bilhetes.comando.setString(1, partes[0]);
+                    bilhetes.comando.setString(2, partes[1]);
+                    bilhetes.comando.setString(3, partes[2]);
+                    bilhetes.comando.setString(4, partes[3]);
+                    bilhetes.comando.setString(5, comSessao ? partes[10] : null);
+                    bilhetes.comando.setTimestamp(6, Timestamp.valueOf(dataSessao));
+                    bilhetes.comando.setString(7, partes[8]);
+                    bilhetes.comando.setBigDecimal(8, new BigDecimal(partes[5].replace(",", ".")));
+                    bilhetes.comando.setBigDecimal(9, new BigDecimal(partes[6].replace(",", ".")));
+                    bilhetes.comando.setBigDecimal(10, new BigDecimal(partes[7].replace(",", ".")));
+                    bilhetes.comando.setTimestamp(11, Timestamp.valueOf(dataCompra));
+                    bilhetes.adicionar();
+
+                    String[] codigos = partes[4].split(",");
+                    for (int posicao = 0; posicao < codigos.length; posicao++) {
+                        assentos.comando.setString(1, partes[0]);
+                        assentos.comando.setInt(2, posicao);
+                        assentos.comando.setString(3, codigos[posicao]);
+                        assentos.adicionar();
+                    }
+                } catch (SQLException e) {
+                    falha[0] = e;
+                } catch (RuntimeException e) {
+                    System.err.println("ImportadorDadosJdbc: Linha de bilhete ignorada: " + linha);
+                }
+            });
+        }
+        if (falha[0] != null) {
+            throw falha[0];
+        }
+        bilhetes.concluir();
+        assentos.concluir();
+        conexao.confirmar();
+        return bilhetes.total;
+    }
+
+    private static int importarOcupacao(FonteConexoesJdbc.ConexaoJdbc conexao) throws SQLException {
+        conexao.iniciarTransacao();
+        Lote lote = new Lote(conexao.preparar(SQL_OCUPACAO));
+        SQLException[] falha = new SQLException[1];
+        GerenciadorArquivos.varrerAssentosOcupados((idSessao, codigoAssento) -> {
+            if (falha[0] != null) {
+                return;
+            }
+            try {
+                lote.comando.setString(1, idSessao);
+                lote.comando.setString(2, codigoAssento);
+                lote.adicionar();
+            } catch (SQLException e) {
+                falha[0] = e;
+            }
+        });
+        if (falha[0] != null) {
+            throw falha[0];
+        }
+        lote.concluir();
+        conexao.confirmar();
+        return lote.total;
+    }
+
+    private static int importarEntradas(FonteConexoesJdbc.ConexaoJdbc conexao) throws SQLException {
+        conexao.iniciarTransacao();
+        Lote lote = new Lote(conexao.preparar(SQL_ENTRADA));
+        Set<String> bilhetesImportados = new HashSet<>();
+        SQLException[] falha = new SQLException[1];
+        GerenciadorArquivos.varrerEntradas(0L, (offset, linha) -> {
+            String[] partes = linha.split("\\|", -1);
+            // A primeira linha de um bilhete prevalece, como no repositório em arquivo.
+            if (partes.length < 3 || falha[0] != null || !bilhetesImportados.add(partes[0])) {
+                return;
+            }
+            try {
+                lote.comando.setString(1, partes[0]);
+                lote.comando.setString(2, partes[1].isEmpty() ? null : partes[1]);
+                lote.comando.setTimestamp(3, Timestamp.valueOf(LocalDateTime.parse(partes[2], DATETIME_FORMATTER)));
+                lote.comando.setString(4, partes.length < 4 || partes[3].isEmpty() ? null : partes[3]);
+                lote.adicionar();
+            } catch (SQLException e) {
+                falha[0] = e;
+            } catch (RuntimeException e) {
+                System.err.println("ImportadorDadosJdbc: Linha de entrada ignorada: " + linha);
+            }
+        });
+        if (falha[0] != null) {
+            throw falha[0];
+        }
+        lote.concluir();
+        conexao.confirmar();
+        return lote.total;
+    }
+
+    /** Acumula linhas em um comando preparado e o executa a cada {@link #TAMANHO_LOTE} linhas. */
+    private static final class Lote {
+        private final PreparedStatement comando;
+        private int pendentes;
+        private int total;
+
+        private Lote(PreparedStatement comando) {
+            this.comando = comando;
+        }
+
+        private void adicionar() throws SQLException {
+            comando.addBatch();
+            total++;
+            if (++pendentes == TAMANHO_LOTE) {
+                comando.executeBatch();
+                pendentes = 0;
+            }
+        }
+
+        private void concluir() throws SQLException {
+            if (pendentes > 0) {
+                comando.executeBatch();
+                pendentes = 0;
+            }
+        }
+    }
+}
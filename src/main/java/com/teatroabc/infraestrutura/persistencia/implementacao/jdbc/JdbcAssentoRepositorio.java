@@ -0,0 +1,442 @@
+// Arquivo: infraestrutura/persistencia/implementacao/jdbc/JdbcAssentoRepositorio.java
+package com.teatroabc.infraestrutura.persistencia.implementacao.jdbc;
+
+import com.teatroabc.dominio.enums.StatusAssento;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.config.ConfiguracaoPlantaTeatro;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.config.ModeloPlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IAssentoRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.BloqueiosEntreProcessos;
+import com.teatroabc.infraestrutura.persistencia.util.PlantaSessao;
+import com.teatroabc.infraestrutura.persistencia.util.RodaTemporizacao;
+import com.teatroabc.infraestrutura.persistencia.util.SimulacaoOcupacao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementação do repositório de assentos sobre o banco embarcado.
+ * <p>
+ * A ocupação de uma sessão é lida com uma consulta pelo prefixo da chave primária de
+ * assento_ocupado e sobreposta ao {@link ModeloPlantaAssentos} do layout, como no
+ * repositório em arquivo. A reserva é protegida em dois níveis: um bloqueio por sessão
+ * evita vendas concorrentes no mesmo processo, e a chave de assento_ocupado, verificada
+ * na transação de {@link JdbcBilheteRepositorio#salvar}, rejeita a venda de um assento
+ * que outro processo acabou de vender; nesse caso a reserva é recusada.
+ * A ocupação simulada de demonstração (ver {@link SimulacaoOcupacao}) pode ser ligada na criação.
+ * <p>
+ * As retenções temporárias ficam em assento_retido, cuja chave impede que dois terminais
+ * retenham o mesmo assento; as consultas ignoram as linhas com o prazo vencido. Cada
+ * processo apaga as suas retenções vencidas quando a {@link RodaTemporizacao} as expira.
+ * Uma venda feita por outro processo entre a verificação e a transação ainda prevalece
+ * sobre uma retenção criada nesse intervalo: a compra retida é recusada ao ser confirmada.
+ */
+public class JdbcAssentoRepositorio implements IAssentoRepositorio {
+
+    private static final String SQL_OCUPADOS = "SELECT codigo FROM assento_ocupado WHERE id_sessao = ?";
+    private static final String SQL_RETIDOS =
+            "SELECT codigo, token FROM assento_retido WHERE id_sessao = ? AND expira_em > ?";
+    private static final String SQL_INSERIR_RETENCAO =
+            "INSERT INTO assento_retido (id_sessao, codigo, token, expira_em) VALUES (?, ?, ?, ?)";
+    private static final String SQL_REMOVER_RETENCAO = "DELETE FROM assento_retido WHERE token = ?";
+    private static final String SQL_REMOVER_VENCIDAS = "DELETE FROM assento_retido WHERE id_sessao = ? AND expira_em <= ?";
+    private static final String SQL_EXPIRAR_RETENCAO = "DELETE FROM assento_retido WHERE token = ? AND expira_em <= ?";
+
+    private final FonteConexoesJdbc fonte;
+    private final boolean simulacaoAtiva;
+    private final Map<String, BitSet> simulacaoPorSessao = new ConcurrentHashMap<>();
+    // Um bloqueio por balde de sessões, como no AssentoRepositorio: a quantidade não cresce com as sessões.
+    private final ReentrantLock[] bloqueiosPorBalde = novosBloqueiosPorBalde();
+    // Expiração das retenções criadas por este processo, por token.
+    private final RodaTemporizacao<String> rodaExpiracao =
+            new RodaTemporizacao<>(Duration.ofSeconds(1), 512, "expiracao-retencoes-jdbc", this::expirar);
+    private final Map<String, RodaTemporizacao.Agendamento<String>> expiracoesPorToken = new ConcurrentHashMap<>();
+
+    /**
+     * @param fonte O pool de conexões do banco.
+     * @param simulacaoAtiva Se true, cada sessão recebe também uma ocupação simulada.
+     */
+    public JdbcAssentoRepositorio(FonteConexoesJdbc fonte, boolean simulacaoAtiva) {
+        if (fonte == null) {
+            throw new IllegalArgumentException("Fonte de conexões não pode ser nula.");
+        }
+        this.fonte = fonte;
+        this.simulacaoAtiva = simulacaoAtiva;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Assento> buscarAssentosPorSessao(Sessao sessao) {
+        if (sessao == null) {
+            return Collections.emptyList();
+        }
+        ModeloPlantaAssentos modelo = ModeloPlantaAssentos.de(ConfiguracaoPlantaTeatro.getLayout());
+        BitSet ocupados = ocupacao(sessao, modelo.getIndicePlanta());
+        BitSet retidos = retidosPorOutro(sessao, modelo.getIndicePlanta(), null);
+
+        byte[] status = new byte[modelo.getTotalAssentos()];
+        byte ocupado = (byte) StatusAssento.OCUPADO.ordinal();
+        byte retido = (byte) StatusAssento.RETIDO.ordinal();
+        byte disponivel = (byte) StatusAssento.DISPONIVEL.ordinal();
+        for (int posicao = 0; posicao < status.length; posicao++) {
+            int indice = modelo.indiceOcupacaoEm(posicao);
+            if (indice < 0) {
+                status[posicao] = disponivel;
+            } else {
+                status[posicao] = ocupados.get(indice) ? ocupado : retidos.get(indice) ? retido : disponivel;
+            }
+        }
+        return new PlantaSessao(modelo, status);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean verificarDisponibilidade(Sessao sessao, List<String> codigosAssentos) {
+        if (sessao == null) return false;
+        return disponiveisPara(sessao, codigosAssentos, null);
+    }
+
+    /**
+     * @return true se nenhum dos assentos está ocupado nem retido por um token diferente do informado.
+     */
+    private boolean disponiveisPara(Sessao sessao, List<String> codigosAssentos, String tokenRetencao) {
+        if (codigosAssentos == null || codigosAssentos.isEmpty()) {
+            return true;
+        }
+        IndicePlantaAssentos indicePlanta = IndicePlantaAssentos.padrao();
+        BitSet indisponiveis = ocupacao(sessao, indicePlanta);
+        indisponiveis.or(retidosPorOutro(sessao, indicePlanta, tokenRetencao));
+        for (String codigo : codigosAssentos) {
+            int indice = indicePlanta.indiceDe(codigo);
+            if (indice >= 0 && indisponiveis.get(indice)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Se a confirmação falhar por conflito de ocupação (assento vendido por outro
+     * processo entre a verificação e a transação), a reserva é recusada.
+     */
+    @Override
+    public boolean reservarSeDisponiveis(Sessao sessao, List<String> codigosAssentos, String tokenRetencao,
+                                         Runnable confirmacao) {
+        if (sessao == null) return false;
+        if (confirmacao == null) {
+            throw new IllegalArgumentException("A ação de confirmação da reserva não pode ser nula.");
+        }
+
+        ReentrantLock bloqueio = bloqueioLocalDe(sessao.getId());
+        bloqueio.lock();
+        try {
+            if (!disponiveisPara(sessao, codigosAssentos, tokenRetencao)) {
+                return false;
+            }
+            confirmacao.run();
+            liberarRetencaoAposVenda(tokenRetencao);
+            return true;
+        } catch (ConflitoOcupacaoException e) {
+            System.err.println("JdbcAssentoRepositorio: " + e.getMessage());
+            return false;
+        } finally {
+            bloqueio.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Os bloqueios locais são adquiridos em ordem crescente de balde. Entre processos, a chave
+     * primária de assento_ocupado desfaz a transação inteira se outro terminal tiver vendido
+     * algum dos assentos; nesse caso, as sessões em conflito são identificadas de novo no banco.
+     */
+    @Override
+    public List<Sessao> reservarTodosSeDisponiveis(Map<Sessao, List<String>> codigosPorSessao, String tokenRetencao,
+                                                   Runnable confirmacao) {
+        if (codigosPorSessao == null || codigosPorSessao.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma sessão para a reserva.");
+        }
+        if (confirmacao == null) {
+            throw new IllegalArgumentException("A ação de confirmação da reserva não pode ser nula.");
+        }
+
+        List<Sessao> sessoes = new ArrayList<>(codigosPorSessao.keySet());
+        sessoes.sort(Comparator.comparing(Sessao::getId));
+        List<ReentrantLock> bloqueiosLocais = new ArrayList<>();
+        try {
+            for (ReentrantLock bloqueio : bloqueiosLocaisEmOrdem(sessoes)) {
+                bloqueio.lock();
+                bloqueiosLocais.add(bloqueio);
+            }
+            List<Sessao> indisponiveis = sessoesIndisponiveis(sessoes, codigosPorSessao, tokenRetencao);
+            if (!indisponiveis.isEmpty()) {
+                return indisponiveis;
+            }
+            try {
+                confirmacao.run();
+            } catch (ConflitoOcupacaoException e) {
+                System.err.println("JdbcAssentoRepositorio: " + e.getMessage());
+                indisponiveis = sessoesIndisponiveis(sessoes, codigosPorSessao, tokenRetencao);
+                return indisponiveis.isEmpty() ? sessoes : indisponiveis;
+            }
+            liberarRetencaoAposVenda(tokenRetencao);
+            return Collections.emptyList();
+        } finally {
+            for (int i = bloqueiosLocais.size() - 1; i >= 0; i--) {
+                bloqueiosLocais.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Em uma única transação, a retenção anterior do token e as retenções vencidas da sessão
+     * são apagadas e as novas linhas são inseridas; se outro terminal já retém algum dos
+     * assentos, a chave de assento_retido desfaz a transação.
+     *
+     * @throws IllegalStateException Se o banco não puder ser atualizado.
+     */
+    @Override
+    public boolean reterSeDisponiveis(Sessao sessao, List<String> codigosAssentos, String tokenRetencao, Instant expiraEm) {
+        if (sessao == null) return false;
+        if (tokenRetencao == null || expiraEm == null) {
+            throw new IllegalArgumentException("Token e prazo da retenção não podem ser nulos.");
+        }
+        // Plateia A e Plateia B compartilham códigos: a retenção é registrada uma vez por código.
+        Set<String> codigos = codigosAssentos != null ? new LinkedHashSet<>(codigosAssentos) : Collections.emptySet();
+
+        ReentrantLock bloqueio = bloqueioLocalDe(sessao.getId());
+        bloqueio.lock();
+        try {
+            // Consultado antes de obter a conexão da transação, que a consulta não pode disputar.
+            if (!verificarLivresDeOcupacao(sessao, codigos)) {
+                return false;
+            }
+            if (!gravarRetencao(sessao, codigos, tokenRetencao, expiraEm)) {
+                return false;
+            }
+        } finally {
+            bloqueio.unlock();
+        }
+        rodaExpiracao.cancelar(expiracoesPorToken.put(tokenRetencao, rodaExpiracao.agendar(tokenRetencao, expiraEm.toEpochMilli())));
+        return true;
+    }
+
+    /**
+     * Substitui, em uma transação, as linhas do token pelas dos códigos informados.
+     *
+     * @return false se outro token já retém algum dos assentos.
+     */
+    private boolean gravarRetencao(Sessao sessao, Set<String> codigos, String tokenRetencao, Instant expiraEm) {
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            conexao.iniciarTransacao();
+            PreparedStatement remover = conexao.preparar(SQL_REMOVER_RETENCAO);
+            remover.setString(1, tokenRetencao);
+            remover.executeUpdate();
+            PreparedStatement removerVencidas = conexao.preparar(SQL_REMOVER_VENCIDAS);
+            removerVencidas.setString(1, sessao.getId());
+            removerVencidas.setLong(2, System.currentTimeMillis());
+            removerVencidas.executeUpdate();
+            PreparedStatement inserir = conexao.preparar(SQL_INSERIR_RETENCAO);
+            for (String codigo : codigos) {
+                inserir.setString(1, sessao.getId());
+                inserir.setString(2, codigo);
+                inserir.setString(3, tokenRetencao);
+                inserir.setLong(4, expiraEm.toEpochMilli());
+                inserir.addBatch();
+            }
+            try {
+                inserir.executeBatch();
+            } catch (SQLException e) {
+                inserir.clearBatch();
+                if (JdbcBilheteRepositorio.violacaoDeChave(e)) {
+                    return false; // A transação é desfeita ao devolver a conexão.
+                }
+                throw e;
+            }
+            conexao.confirmar();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("JdbcAssentoRepositorio: Erro ao reter assentos da sessão " + sessao.getId() + ": " + e.getMessage());
+            e.printStackTrace();
+            throw new IllegalStateException("Não foi possível reter os assentos da sessão " + sessao.getId() + ".", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException Se o banco não puder ser atualizado.
+     */
+    @Override
+    public void liberarRetencao(String tokenRetencao) {
+        if (tokenRetencao == null) return;
+        rodaExpiracao.cancelar(expiracoesPorToken.remove(tokenRetencao));
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement remover = conexao.preparar(SQL_REMOVER_RETENCAO);
+            remover.setString(1, tokenRetencao);
+            remover.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("JdbcAssentoRepositorio: Erro ao liberar a retenção " + tokenRetencao + ": " + e.getMessage());
+            e.printStackTrace();
+            throw new IllegalStateException("Não foi possível liberar a retenção " + tokenRetencao + ".", e);
+        }
+    }
+
+    /**
+     * Libera a retenção de uma compra já vendida. Uma falha aqui não desfaz a venda: a
+     * retenção apenas deixa de valer no prazo.
+     */
+    private void liberarRetencaoAposVenda(String tokenRetencao) {
+        try {
+            liberarRetencao(tokenRetencao);
+        } catch (IllegalStateException e) {
+            System.err.println("JdbcAssentoRepositorio: Retenção " + tokenRetencao + " não liberada após a venda: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Chamado pela roda no prazo de uma retenção deste processo: apaga as suas linhas, a
+     * menos que ela tenha sido renovada (prazo novo, ainda não vencido).
+     */
+    private void expirar(String tokenRetencao) {
+        expiracoesPorToken.computeIfPresent(tokenRetencao,
+                (token, agendamento) -> rodaExpiracao.estaAgendado(agendamento) ? agendamento : null);
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement expirar = conexao.preparar(SQL_EXPIRAR_RETENCAO);
+            expirar.setString(1, tokenRetencao);
+            expirar.setLong(2, System.currentTimeMillis());
+            expirar.executeUpdate();
+        } catch (SQLException e) {
+            // As consultas já ignoram a retenção vencida; a linha é apagada na próxima retenção da sessão.
+            System.err.println("JdbcAssentoRepositorio: Erro ao apagar a retenção vencida " + tokenRetencao + ": " + e.getMessage());
+        }
+    }
+
+    private boolean verificarLivresDeOcupacao(Sessao sessao, Set<String> codigos) {
+        IndicePlantaAssentos indicePlanta = IndicePlantaAssentos.padrao();
+        BitSet ocupados = ocupacao(sessao, indicePlanta);
+        for (String codigo : codigos) {
+            int indice = indicePlanta.indiceDe(codigo);
+            if (indice >= 0 && ocupados.get(indice)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ReentrantLock[] novosBloqueiosPorBalde() {
+        ReentrantLock[] bloqueios = new ReentrantLock[BloqueiosEntreProcessos.BALDES_PADRAO];
+        for (int i = 0; i < bloqueios.length; i++) {
+            bloqueios[i] = new ReentrantLock();
+        }
+        return bloqueios;
+    }
+
+    private int baldeLocalDe(String idSessao) {
+        return Math.floorMod(idSessao.hashCode(), bloqueiosPorBalde.length);
+    }
+
+    private ReentrantLock bloqueioLocalDe(String idSessao) {
+        return bloqueiosPorBalde[baldeLocalDe(idSessao)];
+    }
+
+    /**
+     * @return Os bloqueios locais dos baldes das sessões, sem repetição e em ordem crescente de balde.
+     */
+    private List<ReentrantLock> bloqueiosLocaisEmOrdem(List<Sessao> sessoes) {
+        SortedSet<Integer> baldes = new TreeSet<>();
+        for (Sessao sessao : sessoes) {
+            baldes.add(baldeLocalDe(sessao.getId()));
+        }
+        List<ReentrantLock> bloqueios = new ArrayList<>(baldes.size());
+        for (int balde : baldes) {
+            bloqueios.add(bloqueiosPorBalde[balde]);
+        }
+        return bloqueios;
+    }
+
+    private List<Sessao> sessoesIndisponiveis(List<Sessao> sessoes, Map<Sessao, List<String>> codigosPorSessao,
+                                              String tokenRetencao) {
+        List<Sessao> indisponiveis = new ArrayList<>();
+        for (Sessao sessao : sessoes) {
+            if (!disponiveisPara(sessao, codigosPorSessao.get(sessao), tokenRetencao)) {
+                indisponiveis.add(sessao);
+            }
+        }
+        return indisponiveis;
+    }
+
+    /**
+     * @return Os índices retidos na sessão, ainda no prazo, por tokens diferentes do informado.
+     */
+    private BitSet retidosPorOutro(Sessao sessao, IndicePlantaAssentos indicePlanta, String tokenRetencao) {
+        BitSet retidos = new BitSet(indicePlanta.getTotalCodigos());
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement comando = conexao.preparar(SQL_RETIDOS);
+            comando.setString(1, sessao.getId());
+            comando.setLong(2, System.currentTimeMillis());
+            try (ResultSet resultado = comando.executeQuery()) {
+                while (resultado.next()) {
+                    int indice = indicePlanta.indiceDe(resultado.getString(1));
+                    if (indice >= 0 && !resultado.getString(2).equals(tokenRetencao)) {
+                        retidos.set(indice);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("JdbcAssentoRepositorio: Erro ao consultar retenções da sessão " + sessao.getId() + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return retidos;
+    }
+
+    /**
+     * @return Os índices ocupados da sessão: vendas registradas no banco e, se ativa, a simulação.
+     */
+    private BitSet ocupacao(Sessao sessao, IndicePlantaAssentos indicePlanta) {
+        BitSet ocupados = new BitSet(indicePlanta.getTotalCodigos());
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement comando = conexao.preparar(SQL_OCUPADOS);
+            comando.setString(1, sessao.getId());
+            try (ResultSet resultado = comando.executeQuery()) {
+                while (resultado.next()) {
+                    int indice = indicePlanta.indiceDe(resultado.getString(1));
+                    if (indice >= 0) {
+                        ocupados.set(indice);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("JdbcAssentoRepositorio: Erro ao consultar ocupação da sessão " + sessao.getId() + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        if (simulacaoAtiva) {
+            ocupados.or(simulacaoPorSessao.computeIfAbsent(sessao.getId(),
+                    id -> SimulacaoOcupacao.gerar(id, sessao.getTurno(), indicePlanta)));
+        }
+        return ocupados;
+    }
+}
@@ -0,0 +1,418 @@
+// Arquivo: infraestrutura/persistencia/implementacao/jdbc/JdbcBilheteRepositorio.java
+package com.teatroabc.infraestrutura.persistencia.implementacao.jdbc;
+
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.interfaces.FiltroBilhetes;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IBilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IPecaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.CacheLimitado;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementação (Adaptador Secundário) do repositório de Bilhetes sobre o banco embarcado.
+ * <p>
+ * A venda é uma única transação: a linha do bilhete, os seus assentos (em lote) e a
+ * ocupação dos assentos na sessão (também em lote) são confirmados juntos, ou nenhum é.
+ * Se algum assento já estiver ocupado, a chave de assento_ocupado rejeita a inserção,
+ * a transação é desfeita e {@link ConflitoOcupacaoException} é lançada.
+ * <p>
+ * As consultas por CPF usam o índice idx_bilhete_cpf e leem os assentos de todos os
+ * bilhetes do cliente em uma segunda consulta, sem uma ida ao banco por bilhete.
+ * As consultas por filtro viram cláusulas WHERE e são lidas em stream de um único
+ * resultado (bilhete junto com os seus assentos), mantendo a conexão até o stream ser fechado.
+ */
+public class JdbcBilheteRepositorio implements IBilheteRepositorio {
+
+    private static final String SQL_INSERIR_BILHETE =
+            "INSERT INTO bilhete (id, codigo_barras, cpf_cliente, id_peca, id_sessao, data_sessao, turno,"
+            + " subtotal, desconto, total, data_compra) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_INSERIR_ASSENTO_BILHETE =
+            "INSERT INTO bilhete_assento (id_bilhete, posicao, codigo) VALUES (?, ?, ?)";
+    private static final String SQL_INSERIR_OCUPACAO =
+            "INSERT INTO assento_ocupado (id_sessao, codigo) VALUES (?, ?)";
+
+    private static final String COLUNAS_BILHETE =
+            "SELECT id, codigo_barras, cpf_cliente, id_peca, id_sessao, data_sessao, turno,"
+            + " subtotal, desconto, total, data_compra FROM bilhete";
+    private static final String SQL_POR_CPF = COLUNAS_BILHETE + " WHERE cpf_cliente = ? ORDER BY data_compra, id";
+    private static final String SQL_POR_ID = COLUNAS_BILHETE + " WHERE id = ?";
+    private static final String SQL_POR_CODIGO_BARRAS = COLUNAS_BILHETE + " WHERE codigo_barras = ?";
+    private static final String SQL_ASSENTOS_POR_CODIGO_BARRAS =
+            "SELECT ba.id_bilhete, ba.codigo FROM bilhete_assento ba JOIN bilhete b ON b.id = ba.id_bilhete"
+            + " WHERE b.codigo_barras = ? ORDER BY ba.id_bilhete, ba.posicao";
+    private static final String SQL_ASSENTOS_POR_CPF =
+            "SELECT ba.id_bilhete, ba.codigo FROM bilhete_assento ba JOIN bilhete b ON b.id = ba.id_bilhete"
+            + " WHERE b.cpf_cliente = ? ORDER BY ba.id_bilhete, ba.posicao";
+    private static final String SQL_FILTRO =
+            "SELECT b.id, b.codigo_barras, b.cpf_cliente, b.id_peca, b.id_sessao, b.data_sessao, b.turno,"
+            + " b.subtotal, b.desconto, b.total, b.data_compra, ba.codigo"
+            + " FROM bilhete b LEFT JOIN bilhete_assento ba ON ba.id_bilhete = b.id";
+    private static final int LINHAS_POR_LEITURA = 500;
+    // Clientes distintos lembrados por uma consulta em stream (o histórico pode ter milhões).
+    private static final int CLIENTES_EM_CACHE_POR_CONSULTA = 1024;
+    private static final String SQL_ASSENTOS_POR_ID =
+            "SELECT id_bilhete, codigo FROM bilhete_assento WHERE id_bilhete = ? ORDER BY posicao";
+
+    private final FonteConexoesJdbc fonte;
+    private final IClienteRepositorio clienteRepositorio;
+    private final IPecaRepositorio pecaRepositorio;
+
+    public JdbcBilheteRepositorio(FonteConexoesJdbc fonte, IClienteRepositorio clienteRepositorio,
+                                  IPecaRepositorio pecaRepositorio) {
+        if (fonte == null) {
+            throw new IllegalArgumentException("Fonte de conexões não pode ser nula.");
+        }
+        this.fonte = fonte;
+        this.clienteRepositorio = clienteRepositorio;
+        this.pecaRepositorio = pecaRepositorio;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws ConflitoOcupacaoException Se algum assento já estiver ocupado na sessão.
+     * @throws IllegalStateException Se a transação não puder ser confirmada por outro motivo.
+     */
+    @Override
+    public void salvar(Bilhete bilhete) {
+        if (bilhete == null) {
+            System.err.println("JdbcBilheteRepositorio: Tentativa de salvar bilhete nulo.");
+            return;
+        }
+
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            conexao.iniciarTransacao();
+            inserir(conexao, bilhete);
+            conexao.confirmar();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao salvar bilhete " + bilhete.getId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Todos os bilhetes são inseridos em uma única transação do banco.
+     *
+     * @throws ConflitoOcupacaoException Se algum assento já estiver ocupado (nenhum bilhete é gravado).
+     */
+    @Override
+    public void salvarTodos(List<Bilhete> bilhetes) {
+        if (bilhetes == null || bilhetes.isEmpty()) {
+            return;
+        }
+
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            conexao.iniciarTransacao();
+            for (Bilhete bilhete : bilhetes) {
+                inserir(conexao, bilhete);
+            }
+            conexao.confirmar();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao salvar " + bilhetes.size() + " bilhete(s): " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Insere o bilhete, os seus assentos e a ocupação na transação aberta da conexão.
+     *
+     * @throws ConflitoOcupacaoException Se algum assento já estiver ocupado na sessão.
+     */
+    private void inserir(FonteConexoesJdbc.ConexaoJdbc conexao, Bilhete bilhete) throws SQLException {
+        Sessao sessao = bilhete.getSessao();
+
+        PreparedStatement comandoBilhete = conexao.preparar(SQL_INSERIR_BILHETE);
+        comandoBilhete.setString(1, bilhete.getId());
+        comandoBilhete.setString(2, bilhete.getCodigoBarras());
+        comandoBilhete.setString(3, bilhete.getCliente().getCpf());
+        comandoBilhete.setString(4, sessao.getPeca().getId());
+        comandoBilhete.setString(5, sessao.getId());
+        comandoBilhete.setTimestamp(6, Timestamp.valueOf(sessao.getDataHora()));
+        comandoBilhete.setString(7, sessao.getTurno().name());
+        comandoBilhete.setBigDecimal(8, bilhete.getSubtotal());
+        comandoBilhete.setBigDecimal(9, bilhete.getValorDesconto());
+        comandoBilhete.setBigDecimal(10, bilhete.getValorTotal());
+        comandoBilhete.setTimestamp(11, Timestamp.valueOf(bilhete.getDataHoraCompra()));
+        comandoBilhete.executeUpdate();
+
+        PreparedStatement comandoAssentos = conexao.preparar(SQL_INSERIR_ASSENTO_BILHETE);
+        // Plateia A e Plateia B compartilham códigos: a ocupação é registrada uma vez por código.
+        Set<String> codigosOcupados = new LinkedHashSet<>();
+        int posicao = 0;
+        for (Assento assento : bilhete.getAssentos()) {
+            comandoAssentos.setString(1, bilhete.getId());
+            comandoAssentos.setInt(2, posicao++);
+            comandoAssentos.setString(3, assento.getCodigo());
+            comandoAssentos.addBatch();
+            codigosOcupados.add(assento.getCodigo());
+        }
+        comandoAssentos.executeBatch();
+
+        PreparedStatement comandoOcupacao = conexao.preparar(SQL_INSERIR_OCUPACAO);
+        for (String codigo : codigosOcupados) {
+            comandoOcupacao.setString(1, sessao.getId());
+            comandoOcupacao.setString(2, codigo);
+            comandoOcupacao.addBatch();
+        }
+        try {
+            comandoOcupacao.executeBatch();
+        } catch (SQLException e) {
+            comandoOcupacao.clearBatch();
+            if (violacaoDeChave(e)) {
+                throw new ConflitoOcupacaoException(
+                        "Assento já ocupado na sessão " + sessao.getId() + "; venda desfeita.", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Bilhete> listarPorCpfCliente(String cpf) {
+        if (cpf == null) return new ArrayList<>();
+        return consultar(SQL_POR_CPF, SQL_ASSENTOS_POR_CPF, cpf);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Bilhete> buscarPorId(String id) {
+        if (id == null) return Optional.empty();
+        List<Bilhete> bilhetes = consultar(SQL_POR_ID, SQL_ASSENTOS_POR_ID, id);
+        return bilhetes.isEmpty() ? Optional.empty() : Optional.of(bilhetes.get(0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Bilhete> buscarPorCodigoBarras(String codigoBarras) {
+        if (codigoBarras == null) return Optional.empty();
+        List<Bilhete> bilhetes = consultar(SQL_POR_CODIGO_BARRAS, SQL_ASSENTOS_POR_CODIGO_BARRAS, codigoBarras);
+        return bilhetes.isEmpty() ? Optional.empty() : Optional.of(bilhetes.get(0));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Os critérios do filtro viram a cláusula WHERE (índice por CPF quando informado) e o
+     * resultado é lido em blocos de {@value #LINHAS_POR_LEITURA} linhas. Fechar o stream
+     * devolve a conexão ao pool.
+     * @throws IllegalStateException Se a consulta não puder ser iniciada.
+     */
+    @Override
+    public Stream<Bilhete> consultar(FiltroBilhetes filtro) {
+        FiltroBilhetes criterios = filtro != null ? filtro : FiltroBilhetes.todos();
+        StringBuilder sql = new StringBuilder(SQL_FILTRO);
+        List<Object> parametros = new ArrayList<>();
+        String conector = " WHERE ";
+        if (criterios.getCpfCliente() != null) {
+            sql.append(conector).append("b.cpf_cliente = ?");
+            parametros.add(criterios.getCpfCliente());
+            conector = " AND ";
+        }
+        if (criterios.getIdPeca() != null) {
+            sql.append(conector).append("b.id_peca = ?");
+            parametros.add(criterios.getIdPeca());
+            conector = " AND ";
+        }
+        if (criterios.getCompradoDesde() != null) {
+            sql.append(conector).append("b.data_compra >= ?");
+            parametros.add(Timestamp.valueOf(criterios.getCompradoDesde()));
+            conector = " AND ";
+        }
+        if (criterios.getCompradoAntesDe() != null) {
+            sql.append(conector).append("b.data_compra < ?");
+            parametros.add(Timestamp.valueOf(criterios.getCompradoAntesDe()));
+        }
+        sql.append(" ORDER BY b.data_compra, b.id, ba.posicao");
+
+        FonteConexoesJdbc.ConexaoJdbc conexao = null;
+        try {
+            conexao = fonte.obter();
+            PreparedStatement comando = conexao.preparar(sql.toString());
+            for (int i = 0; i < parametros.size(); i++) {
+                comando.setObject(i + 1, parametros.get(i));
+            }
+            comando.setFetchSize(LINHAS_POR_LEITURA);
+            LeitorBilhetes leitor = new LeitorBilhetes(conexao, comando.executeQuery());
+            return StreamSupport.stream(leitor, false).onClose(leitor::fechar);
+        } catch (SQLException e) {
+            if (conexao != null) {
+                conexao.close();
+            }
+            throw new IllegalStateException("Erro ao consultar bilhetes (" + criterios + "): " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Percorre o resultado de {@link #consultar(FiltroBilhetes)}: as linhas de um mesmo
+     * bilhete (uma por assento) chegam em sequência e são reunidas em um único Bilhete.
+     */
+    private final class LeitorBilhetes extends Spliterators.AbstractSpliterator<Bilhete> {
+        private final FonteConexoesJdbc.ConexaoJdbc conexao;
+        private final ResultSet resultado;
+        private final Map<String, Optional<Cliente>> cacheClientes = new CacheLimitado<>(CLIENTES_EM_CACHE_POR_CONSULTA);
+        private final Map<String, Optional<Peca>> cachePecas = new HashMap<>();
+        private boolean temLinha;
+        private boolean fechado;
+
+        private LeitorBilhetes(FonteConexoesJdbc.ConexaoJdbc conexao, ResultSet resultado) throws SQLException {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conexao = conexao;
+            this.resultado = resultado;
+            this.temLinha = resultado.next();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Bilhete> acao) {
+            try {
+                while (temLinha) {
+                    String idBilhete = resultado.getString("id");
+                    Optional<Cliente> cliente = cacheClientes.computeIfAbsent(
+                            resultado.getString("cpf_cliente"), clienteRepositorio::buscarPorCpf);
+                    Optional<Peca> peca = cachePecas.computeIfAbsent(
+                            resultado.getString("id_peca"), pecaRepositorio::buscarPorId);
+                    String idSessao = resultado.getString("id_sessao");
+                    LocalDateTime dataSessao = resultado.getTimestamp("data_sessao").toLocalDateTime();
+                    LocalDateTime dataCompra = resultado.getTimestamp("data_compra").toLocalDateTime();
+                    String codigoBarras = resultado.getString("codigo_barras");
+                    String turno = resultado.getString("turno");
+                    BigDecimal subtotal = resultado.getBigDecimal("subtotal");
+                    BigDecimal desconto = resultado.getBigDecimal("desconto");
+                    BigDecimal total = resultado.getBigDecimal("total");
+
+                    List<Assento> assentos = new ArrayList<>();
+                    do {
+                        String codigo = resultado.getString("codigo");
+                        if (codigo != null) {
+                            assentos.add(BilheteRepositorio.reconstruirAssento(codigo));
+                        }
+                        temLinha = resultado.next();
+                    } while (temLinha && idBilhete.equals(resultado.getString("id")));
+
+                    if (cliente.isEmpty() || peca.isEmpty()) {
+                        continue;
+                    }
+                    Sessao sessao = new Sessao(
+                            idSessao != null ? idSessao : GeradorIdUtil.gerarNovoId(), // Bilhetes importados não têm sessão
+                            peca.get(), dataSessao, Turno.valueOf(turno));
+                    acao.accept(new Bilhete(idBilhete, codigoBarras, sessao, cliente.get(), assentos,
+                            subtotal, desconto, total, dataCompra));
+                    return true;
+                }
+                fechar();
+                return false;
+            } catch (SQLException e) {
+                fechar();
+                throw new IllegalStateException("Erro ao ler bilhetes: " + e.getMessage(), e);
+            }
+        }
+
+        private void fechar() {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            try {
+                resultado.close();
+            } catch (SQLException e) {
+                System.err.println("JdbcBilheteRepositorio: Erro ao fechar consulta: " + e.getMessage());
+            }
+            conexao.close();
+        }
+    }
+
+    /**
+     * Executa a consulta de bilhetes e a consulta dos seus assentos (ambas com o mesmo
+     * parâmetro) e monta os objetos de domínio. Cliente e peças são resolvidos uma única
+     * vez por chamada.
+     */
+    private List<Bilhete> consultar(String sqlBilhetes, String sqlAssentos, String parametro) {
+        List<Bilhete> bilhetes = new ArrayList<>();
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            Map<String, List<Assento>> assentosPorBilhete = new HashMap<>();
+            PreparedStatement comandoAssentos = conexao.preparar(sqlAssentos);
+            comandoAssentos.setString(1, parametro);
+            try (ResultSet resultado = comandoAssentos.executeQuery()) {
+                while (resultado.next()) {
+                    assentosPorBilhete.computeIfAbsent(resultado.getString(1), id -> new ArrayList<>())
+                            .add(BilheteRepositorio.reconstruirAssento(resultado.getString(2)));
+                }
+            }
+
+            Map<String, Optional<Cliente>> cacheClientes = new HashMap<>();
+            Map<String, Optional<Peca>> cachePecas = new HashMap<>();
+            PreparedStatement comandoBilhetes = conexao.preparar(sqlBilhetes);
+            comandoBilhetes.setString(1, parametro);
+            try (ResultSet resultado = comandoBilhetes.executeQuery()) {
+                while (resultado.next()) {
+                    Optional<Cliente> cliente = cacheClientes.computeIfAbsent(
+                            resultado.getString("cpf_cliente"), clienteRepositorio::buscarPorCpf);
+                    Optional<Peca> peca = cachePecas.computeIfAbsent(
+                            resultado.getString("id_peca"), pecaRepositorio::buscarPorId);
+                    if (cliente.isEmpty() || peca.isEmpty()) {
+                        continue;
+                    }
+                    String idSessao = resultado.getString("id_sessao");
+                    Sessao sessao = new Sessao(
+                            idSessao != null ? idSessao : GeradorIdUtil.gerarNovoId(), // Bilhetes importados não têm sessão
+                            peca.get(),
+                            resultado.getTimestamp("data_sessao").toLocalDateTime(),
+                            Turno.valueOf(resultado.getString("turno")));
+                    String idBilhete = resultado.getString("id");
+                    bilhetes.add(new Bilhete(
+                            idBilhete,
+                            resultado.getString("codigo_barras"),
+                            sessao,
+                            cliente.get(),
+                            assentosPorBilhete.getOrDefault(idBilhete, new ArrayList<>()),
+                            resultado.getBigDecimal("subtotal"),
+                            resultado.getBigDecimal("desconto"),
+                            resultado.getBigDecimal("total"),
+                            resultado.getTimestamp("data_compra").toLocalDateTime()));
+                }
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            System.err.println("JdbcBilheteRepositorio: Erro ao consultar bilhetes (" + parametro + "): " + e.getMessage());
+            e.printStackTrace();
+        }
+        return bilhetes;
+    }
+
+    /** Violação de chave primária ou de unicidade (classe SQLSTATE 23). */
+    static boolean violacaoDeChave(SQLException e) {
+        for (SQLException atual = e; atual != null; atual = atual.getNextException()) {
+            if (atual.getSQLState() != null && atual.getSQLState().startsWith("23")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+// Arquivo: infraestrutura/persistencia/implementacao/jdbc/JdbcClienteRepositorio.java
+package com.teatroabc.infraestrutura.persistencia.implementacao.jdbc;
+
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IClienteRepositorio;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Implementação (Adaptador Secundário) do repositório de Clientes sobre o banco embarcado.
+ * O CPF é a chave primária da tabela, de modo que cada busca é uma consulta indexada.
+ * Assim como no arquivo de texto, o primeiro cadastro de um CPF prevalece: um novo
+ * cadastro com um CPF já existente é ignorado.
+ */
+public class JdbcClienteRepositorio implements IClienteRepositorio {
+
+    private static final String SQL_INSERIR_SE_AUSENTE =
+            "INSERT INTO cliente (cpf, nome, data_nascimento, telefone, email, plano)"
+            + " SELECT ?, ?, ?, ?, ?, ? FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM cliente WHERE cpf = ?)";
+    private static final String SQL_BUSCAR_POR_CPF =
+            "SELECT cpf, nome, data_nascimento, telefone, email, plano FROM cliente WHERE cpf = ?";
+    private static final String SQL_EXISTE = "SELECT 1 FROM cliente WHERE cpf = ?";
+
+    private final FonteConexoesJdbc fonte;
+
+    public JdbcClienteRepositorio(FonteConexoesJdbc fonte) {
+        if (fonte == null) {
+            throw new IllegalArgumentException("Fonte de conexões não pode ser nula.");
+        }
+        this.fonte = fonte;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void salvar(Cliente cliente) {
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement comando = conexao.preparar(SQL_INSERIR_SE_AUSENTE);
+            comando.setString(1, cliente.getCpf());
+            comando.setString(2, cliente.getNome());
+            comando.setDate(3, Date.valueOf(cliente.getDataNascimento()));
+            comando.setString(4, cliente.getTelefone());
+            comando.setString(5, cliente.getEmail());
+            comando.setString(6, cliente.getPlanoFidelidade().getIdentificadorPlano());
+            comando.setString(7, cliente.getCpf());
+            comando.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("JdbcClienteRepositorio: Erro ao salvar cliente " + cliente.getCpf() + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cliente> buscarPorCpf(String cpf) {
+        if (cpf == null) {
+            return Optional.empty();
+        }
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement comando = conexao.preparar(SQL_BUSCAR_POR_CPF);
+            comando.setString(1, cpf);
+            try (ResultSet resultado = comando.executeQuery()) {
+                if (!resultado.next()) {
+                    return Optional.empty();
+                }
+                return Optional.of(new Cliente(
+                        resultado.getString("cpf"),
+                        resultado.getString("nome"),
+                        resultado.getDate("data_nascimento").toLocalDate(),
+                        resultado.getString("telefone"),
+                        resultado.getString("email"),
+                        resultado.getString("plano")));
+            }
+        } catch (SQLException e) {
+            System.err.println("JdbcClienteRepositorio: Erro ao buscar cliente " + cpf + ": " + e.getMessage());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existe(String cpf) {
+        if (cpf == null) {
+            return false;
+        }
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement comando = conexao.preparar(SQL_EXISTE);
+            comando.setString(1, cpf);
+            try (ResultSet resultado = comando.executeQuery()) {
+                return resultado.next();
+            }
+        } catch (SQLException e) {
+            System.err.println("JdbcClienteRepositorio: Erro ao verificar cliente " + cpf + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+// Arquivo: infraestrutura/persistencia/implementacao/jdbc/JdbcEntradaRepositorio.java
+package com.teatroabc.infraestrutura.persistencia.implementacao.jdbc;
+
+import com.teatroabc.infraestrutura.persistencia.interfaces.IEntradaRepositorio;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementação (Adaptador Secundário) do registro de entradas sobre o banco embarcado.
+ * A chave primária da tabela entrada (ID do bilhete) é o que garante uma única entrada por
+ * bilhete, mesmo entre processos: a segunda inserção viola a chave e é recusada.
+ * Os bilhetes que já entraram por este processo ficam em um conjunto concorrente, de modo
+ * que uma nova leitura do mesmo bilhete é recusada sem ir ao banco.
+ */
+public class JdbcEntradaRepositorio implements IEntradaRepositorio {
+
+    private static final String SQL_INSERIR =
+            "INSERT INTO entrada (id_bilhete, id_sessao, momento, porta) VALUES (?, ?, ?, ?)";
+    private static final String SQL_BUSCAR = "SELECT momento FROM entrada WHERE id_bilhete = ?";
+
+    private final FonteConexoesJdbc fonte;
+    private final Set<String> jaUtilizados = ConcurrentHashMap.newKeySet();
+
+    public JdbcEntradaRepositorio(FonteConexoesJdbc fonte) {
+        if (fonte == null) {
+            throw new IllegalArgumentException("Fonte de conexões não pode ser nula.");
+        }
+        this.fonte = fonte;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean registrarSeAusente(String idBilhete, String idSessao, LocalDateTime momento, String porta) {
+        if (idBilhete == null || momento == null) {
+            throw new IllegalArgumentException("ID do bilhete e momento da entrada não podem ser nulos.");
+        }
+        if (jaUtilizados.contains(idBilhete)) {
+            return false;
+        }
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement comando = conexao.preparar(SQL_INSERIR);
+            comando.setString(1, idBilhete);
+            comando.setString(2, idSessao);
+            comando.setTimestamp(3, Timestamp.valueOf(momento.truncatedTo(ChronoUnit.MINUTES)));
+            comando.setString(4, porta);
+            comando.executeUpdate();
+            jaUtilizados.add(idBilhete);
+            return true;
+        } catch (SQLException e) {
+            if (JdbcBilheteRepositorio.violacaoDeChave(e)) {
+                jaUtilizados.add(idBilhete);
+                return false;
+            }
+            System.err.println("JdbcEntradaRepositorio: Erro ao registrar a entrada do bilhete " + idBilhete + ": " + e.getMessage());
+            e.printStackTrace();
+            throw new IllegalStateException("Não foi possível gravar a entrada do bilhete " + idBilhete + ".", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<LocalDateTime> buscarEntrada(String idBilhete) {
+        if (idBilhete == null) {
+            return Optional.empty();
+        }
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement comando = conexao.preparar(SQL_BUSCAR);
+            comando.setString(1, idBilhete);
+            try (ResultSet resultado = comando.executeQuery()) {
+                return resultado.next() ? Optional.of(resultado.getTimestamp("momento").toLocalDateTime()) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            System.err.println("JdbcEntradaRepositorio: Erro ao buscar a entrada do bilhete " + idBilhete + ": " + e.getMessage());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+}
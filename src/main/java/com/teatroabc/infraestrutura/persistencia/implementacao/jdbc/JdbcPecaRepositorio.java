@@ -0,0 +1,83 @@
+// Arquivo: infraestrutura/persistencia/implementacao/jdbc/JdbcPecaRepositorio.java
+package com.teatroabc.infraestrutura.persistencia.implementacao.jdbc;
+
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IPecaRepositorio;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementação (Adaptador Secundário) do repositório de Peças sobre o banco embarcado.
+ * As peças são gravadas pelo {@link ImportadorDadosJdbc} e listadas na ordem de cadastro.
+ */
+public class JdbcPecaRepositorio implements IPecaRepositorio {
+
+    private static final String SQL_LISTAR =
+            "SELECT id, titulo, subtitulo, descricao, cor_fundo, caminho_imagem FROM peca ORDER BY ordem, id";
+    private static final String SQL_BUSCAR_POR_ID =
+            "SELECT id, titulo, subtitulo, descricao, cor_fundo, caminho_imagem FROM peca WHERE id = ?";
+
+    private final FonteConexoesJdbc fonte;
+
+    public JdbcPecaRepositorio(FonteConexoesJdbc fonte) {
+        if (fonte == null) {
+            throw new IllegalArgumentException("Fonte de conexões não pode ser nula.");
+        }
+        this.fonte = fonte;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Peca> listarTodas() {
+        List<Peca> pecas = new ArrayList<>();
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            try (ResultSet resultado = conexao.preparar(SQL_LISTAR).executeQuery()) {
+                while (resultado.next()) {
+                    pecas.add(lerPeca(resultado));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("JdbcPecaRepositorio: Erro ao listar peças: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return pecas;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Peca> buscarPorId(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement comando = conexao.preparar(SQL_BUSCAR_POR_ID);
+            comando.setString(1, id);
+            try (ResultSet resultado = comando.executeQuery()) {
+                return resultado.next() ? Optional.of(lerPeca(resultado)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            System.err.println("JdbcPecaRepositorio: Erro ao buscar peça " + id + ": " + e.getMessage());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    private static Peca lerPeca(ResultSet resultado) throws SQLException {
+        return new Peca(
+                resultado.getString("id"),
+                resultado.getString("titulo"),
+                resultado.getString("subtitulo"),
+                resultado.getString("descricao"),
+                resultado.getString("cor_fundo"),
+                resultado.getString("caminho_imagem"));
+    }
+}
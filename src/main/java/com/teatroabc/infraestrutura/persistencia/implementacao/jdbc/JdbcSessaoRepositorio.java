@@ -0,0 +1,135 @@
+// Arquivo: infraestrutura/persistencia/implementacao/jdbc/JdbcSessaoRepositorio.java
+package com.teatroabc.infraestrutura.persistencia.implementacao.jdbc;
+
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.persistencia.interfaces.IPecaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.interfaces.ISessaoRepositorio;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementação (Adaptador Secundário) do repositório de Sessões sobre o banco embarcado.
+ * As consultas por peça e por período usam os índices (id_peca, data_hora) e (data_hora),
+ * e devolvem as sessões em ordem cronológica, como o catálogo em arquivo.
+ */
+public class JdbcSessaoRepositorio implements ISessaoRepositorio {
+
+    private static final String COLUNAS = "SELECT id, id_peca, data_hora, turno FROM sessao";
+    private static final String SQL_POR_PECA = COLUNAS + " WHERE id_peca = ? ORDER BY data_hora, id";
+    private static final String SQL_POR_ID = COLUNAS + " WHERE id = ?";
+    private static final String SQL_ENTRE = COLUNAS + " WHERE data_hora >= ? AND data_hora < ? ORDER BY data_hora, id";
+    private static final String SQL_PROXIMAS_DA_PECA =
+            COLUNAS + " WHERE id_peca = ? AND data_hora >= ? ORDER BY data_hora, id FETCH FIRST ? ROWS ONLY";
+
+    private final FonteConexoesJdbc fonte;
+    private final IPecaRepositorio pecaRepositorio;
+
+    /**
+     * @param fonte O pool de conexões do banco.
+     * @param pecaRepositorio O repositório usado para obter a Peca de cada sessão.
+     */
+    public JdbcSessaoRepositorio(FonteConexoesJdbc fonte, IPecaRepositorio pecaRepositorio) {
+        if (fonte == null) {
+            throw new IllegalArgumentException("Fonte de conexões não pode ser nula.");
+        }
+        this.fonte = fonte;
+        this.pecaRepositorio = pecaRepositorio;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Sessao> buscarSessoesPorPeca(String idPeca) {
+        if (idPeca == null || idPeca.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return consultar(SQL_POR_PECA, idPeca);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Sessao> buscarPorId(String idSessao) {
+        if (idSessao == null || idSessao.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        List<Sessao> sessoes = consultar(SQL_POR_ID, idSessao);
+        return sessoes.isEmpty() ? Optional.empty() : Optional.of(sessoes.get(0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Sessao> buscarSessoesPorData(LocalDate data) {
+        if (data == null) {
+            return new ArrayList<>();
+        }
+        return buscarSessoesEntre(data.atStartOfDay(), data.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Sessao> buscarSessoesEntre(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio == null || fim == null || !inicio.isBefore(fim)) {
+            return new ArrayList<>();
+        }
+        return consultar(SQL_ENTRE, Timestamp.valueOf(inicio), Timestamp.valueOf(fim));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Sessao> buscarProximasSessoesDaPeca(String idPeca, LocalDateTime aPartirDe, int quantidade) {
+        if (idPeca == null || idPeca.trim().isEmpty() || aPartirDe == null || quantidade <= 0) {
+            return new ArrayList<>();
+        }
+        return consultar(SQL_PROXIMAS_DA_PECA, idPeca, Timestamp.valueOf(aPartirDe), quantidade);
+    }
+
+    private List<Sessao> consultar(String sql, Object... parametros) {
+        List<Sessao> sessoes = new ArrayList<>();
+        // A mesma peça aparece em muitas sessões: cada uma é resolvida uma única vez por consulta.
+        Map<String, Optional<Peca>> cachePecas = new HashMap<>();
+        try (FonteConexoesJdbc.ConexaoJdbc conexao = fonte.obter()) {
+            PreparedStatement comando = conexao.preparar(sql);
+            for (int i = 0; i < parametros.length; i++) {
+                comando.setObject(i + 1, parametros[i]);
+            }
+            try (ResultSet resultado = comando.executeQuery()) {
+                while (resultado.next()) {
+                    Optional<Peca> peca = cachePecas.computeIfAbsent(resultado.getString("id_peca"), pecaRepositorio::buscarPorId);
+                    if (peca.isEmpty()) {
+                        continue;
+                    }
+                    sessoes.add(new Sessao(
+                            resultado.getString("id"),
+                            peca.get(),
+                            resultado.getTimestamp("data_hora").toLocalDateTime(),
+                            Turno.valueOf(resultado.getString("turno"))));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("JdbcSessaoRepositorio: Erro ao consultar sessões: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return sessoes;
+    }
+}
@@ -0,0 +1,120 @@
+// Arquivo: infraestrutura/persistencia/interfaces/FiltroBilhetes.java
+package com.teatroabc.infraestrutura.persistencia.interfaces;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Critérios de uma consulta de bilhetes ({@link IBilheteRepositorio#consultar}).
+ * Esta classe é imutável: cada método "com" devolve um novo filtro. Critérios não
+ * informados (nulos) não restringem a consulta.
+ * <p>
+ * Os repositórios aplicam o filtro o mais cedo possível (no índice, no registro binário
+ * ou no SQL), antes de montar os objetos de domínio.
+ */
+public final class FiltroBilhetes {
+
+    private static final FiltroBilhetes TODOS = new FiltroBilhetes(null, null, null, null);
+
+    private final String cpfCliente;
+    private final String idPeca;
+    private final LocalDateTime compradoDesde;
+    private final LocalDateTime compradoAntesDe;
+
+    private FiltroBilhetes(String cpfCliente, String idPeca, LocalDateTime compradoDesde, LocalDateTime compradoAntesDe) {
+        this.cpfCliente = cpfCliente;
+        this.idPeca = idPeca;
+        this.compradoDesde = compradoDesde;
+        this.compradoAntesDe = compradoAntesDe;
+    }
+
+    /**
+     * @return Um filtro sem critérios (todos os bilhetes).
+     */
+    public static FiltroBilhetes todos() {
+        return TODOS;
+    }
+
+    /**
+     * @param cpf O CPF do cliente (somente dígitos), ou null para qualquer cliente.
+     */
+    public FiltroBilhetes comCpfCliente(String cpf) {
+        return new FiltroBilhetes(cpf, idPeca, compradoDesde, compradoAntesDe);
+    }
+
+    /**
+     * @param idPeca O ID da peça, ou null para qualquer peça.
+     */
+    public FiltroBilhetes comPeca(String idPeca) {
+        return new FiltroBilhetes(cpfCliente, idPeca, compradoDesde, compradoAntesDe);
+    }
+
+    /**
+     * Restringe a data/hora da compra ao intervalo [inicio, fim).
+     *
+     * @param inicio O início do período (inclusivo), ou null para sem limite inferior.
+     * @param fim O fim do período (exclusivo), ou null para sem limite superior.
+     * @throws IllegalArgumentException Se o início não for anterior ao fim.
+     */
+    public FiltroBilhetes compradosEntre(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio != null && fim != null && !inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("O início do período deve ser anterior ao fim.");
+        }
+        return new FiltroBilhetes(cpfCliente, idPeca, inicio, fim);
+    }
+
+    public String getCpfCliente() { return cpfCliente; }
+    public String getIdPeca() { return idPeca; }
+    public LocalDateTime getCompradoDesde() { return compradoDesde; }
+    public LocalDateTime getCompradoAntesDe() { return compradoAntesDe; }
+
+    /**
+     * @return true se o filtro restringe a data da compra.
+     */
+    public boolean restringeDataCompra() {
+        return compradoDesde != null || compradoAntesDe != null;
+    }
+
+    /**
+     * Verifica os critérios de cliente e de peça. O período da compra é verificado à
+     * parte ({@link #aceitaDataCompra}), para que a data só seja decodificada quando preciso.
+     *
+     * @param cpf O CPF do cliente do bilhete.
+     * @param peca O ID da peça do bilhete.
+     * @return true se o cliente e a peça atenderem ao filtro.
+     */
+    public boolean aceitaClienteEPeca(String cpf, String peca) {
+        if (cpfCliente != null && !cpfCliente.equals(cpf)) return false;
+        return idPeca == null || idPeca.equals(peca);
+    }
+
+    /**
+     * @param dataCompra A data/hora da compra.
+     * @return true se a data estiver dentro do período do filtro (ou se não houver período).
+     */
+    public boolean aceitaDataCompra(LocalDateTime dataCompra) {
+        if (compradoDesde != null && dataCompra.isBefore(compradoDesde)) return false;
+        return compradoAntesDe == null || dataCompra.isBefore(compradoAntesDe);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FiltroBilhetes)) return false;
+        FiltroBilhetes outro = (FiltroBilhetes) o;
+        return Objects.equals(cpfCliente, outro.cpfCliente) && Objects.equals(idPeca, outro.idPeca)
+                && Objects.equals(compradoDesde, outro.compradoDesde)
+                && Objects.equals(compradoAntesDe, outro.compradoAntesDe);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cpfCliente, idPeca, compradoDesde, compradoAntesDe);
+    }
+
+    @Override
+    public String toString() {
+        return "FiltroBilhetes{cpf=" + cpfCliente + ", peca=" + idPeca
+                + ", desde=" + compradoDesde + ", antesDe=" + compradoAntesDe + "}";
+    }
+}
@@ -3,7 +3,9 @@ package com.teatroabc.infraestrutura.persistencia.interfaces;
 
 import com.teatroabc.dominio.modelos.Assento;
 import com.teatroabc.dominio.modelos.Sessao;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface (Porta de Saída) para o repositório de Assentos.
@@ -13,7 +15,7 @@ import java.util.List;
 public interface IAssentoRepositorio {
     /**
      * Retorna a planta de assentos completa para uma sessão específica, com o status
-     * de cada assento (Disponível, Ocupado) devidamente atualizado.
+     * de cada assento (Disponível, Ocupado, Retido) devidamente atualizado.
      *
      * @param sessao A sessão para a qual a planta de assentos será buscada.
      * @return Uma lista de todos os Assentos para a sessão.
@@ -22,10 +24,69 @@ public interface IAssentoRepositorio {
 
     /**
      * Verifica se um conjunto específico de assentos está disponível para uma dada sessão.
+     * Assentos retidos para uma compra em andamento não estão disponíveis.
      *
      * @param sessao A sessão na qual a verificação será feita.
      * @param codigosAssentos A lista de códigos de assento a serem verificados.
      * @return true se todos os assentos estiverem disponíveis, false caso contrário.
      */
     boolean verificarDisponibilidade(Sessao sessao, List<String> codigosAssentos);
+
+    /**
+     * Verifica a disponibilidade de um conjunto de assentos e, se todos estiverem livres,
+     * executa a confirmação da venda e passa a considerá-los ocupados, tudo de forma
+     * atômica em relação a outras reservas da MESMA sessão.
+     * Reservas de sessões diferentes não se bloqueiam mutuamente.
+     * Os assentos retidos pelo token da própria compra contam como livres, e a retenção
+     * é liberada depois da venda.
+     *
+     * @param sessao A sessão na qual os assentos serão reservados.
+     * @param codigosAssentos A lista de códigos de assento a serem reservados.
+     * @param tokenRetencao O token da retenção da compra (ver {@link #reterSeDisponiveis}), ou null.
+     * @param confirmacao Ação executada enquanto os assentos estão garantidos (ex: persistir o bilhete).
+     *                    Se lançar uma exceção, os assentos não são marcados e a exceção é propagada.
+     * @return true se os assentos estavam disponíveis e a confirmação foi executada;
+     *         false se algum assento já estava ocupado ou retido para outra compra
+     *         (nesse caso, a confirmação não é executada).
+     */
+    boolean reservarSeDisponiveis(Sessao sessao, List<String> codigosAssentos, String tokenRetencao, Runnable confirmacao);
+
+    /**
+     * Versão de {@link #reservarSeDisponiveis(Sessao, List, String, Runnable)} para várias sessões
+     * de uma vez (reservas de grupos): os assentos de todas as sessões são verificados e,
+     * só se todos estiverem livres, a confirmação é executada e eles passam a ser ocupados.
+     * As sessões são bloqueadas sempre na mesma ordem, de modo que dois lotes concorrentes
+     * não ficam esperando um pelo outro. Como na reserva simples, os assentos retidos pelo
+     * token da própria compra contam como livres, e a retenção é liberada depois da venda.
+     *
+     * @param codigosPorSessao Os códigos de assento a reservar em cada sessão.
+     * @param tokenRetencao O token da retenção da compra (ver {@link #reterSeDisponiveis}), ou null.
+     * @param confirmacao Ação executada enquanto os assentos de todas as sessões estão garantidos.
+     *                    Se lançar uma exceção, nenhum assento é marcado e a exceção é propagada.
+     * @return As sessões com algum assento já ocupado ou retido (a confirmação não é executada);
+     *         uma lista vazia se a reserva foi confirmada.
+     */
+    List<Sessao> reservarTodosSeDisponiveis(Map<Sessao, List<String>> codigosPorSessao, String tokenRetencao,
+                                            Runnable confirmacao);
+
+    /**
+     * Retém temporariamente assentos de uma sessão para uma compra em andamento: até o
+     * prazo, outros terminais os veem como retidos e não podem vendê-los nem retê-los.
+     * Os assentos substituem os que o token retinha antes, e o prazo é renovado.
+     *
+     * @param sessao A sessão dos assentos.
+     * @param codigosAssentos Os códigos dos assentos escolhidos até agora (pode ser vazia).
+     * @param tokenRetencao O token da compra.
+     * @param expiraEm O instante em que a retenção expira.
+     * @return true se os assentos foram retidos; false se algum já estava ocupado ou
+     *         retido para outra compra (nesse caso, a retenção anterior do token é mantida).
+     */
+    boolean reterSeDisponiveis(Sessao sessao, List<String> codigosAssentos, String tokenRetencao, Instant expiraEm);
+
+    /**
+     * Libera os assentos retidos por um token antes do prazo (compra abandonada).
+     *
+     * @param tokenRetencao O token da compra (null é ignorado).
+     */
+    void liberarRetencao(String tokenRetencao);
 }
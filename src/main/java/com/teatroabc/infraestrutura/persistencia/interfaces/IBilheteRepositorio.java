@@ -3,6 +3,7 @@ package com.teatroabc.infraestrutura.persistencia.interfaces;
 import com.teatroabc.dominio.modelos.Bilhete;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interface (Porta de Saída) para o repositório de Bilhetes.
@@ -20,6 +21,14 @@ public interface IBilheteRepositorio {
      */
     void salvar(Bilhete bilhete);
 
+    /**
+     * Salva vários bilhetes (de uma ou mais sessões) em uma única gravação durável:
+     * ou todos os bilhetes e a ocupação dos seus assentos são gravados, ou nenhum.
+     *
+     * @param bilhetes Os bilhetes a serem salvos.
+     */
+    void salvarTodos(List<Bilhete> bilhetes);
+
     /**
      * Busca todos os bilhetes de um cliente específico pelo CPF.
      * @param cpf O CPF do cliente.
@@ -33,4 +42,24 @@ public interface IBilheteRepositorio {
      * @return Um Optional contendo o Bilhete se encontrado.
      */
     Optional<Bilhete> buscarPorId(String id);
-}
\ No newline at end of file
+
+    /**
+     * Busca um bilhete pelo código de barras impresso nele (leitura na entrada do teatro).
+     * @param codigoBarras O código de barras do bilhete.
+     * @return Um Optional contendo o Bilhete se encontrado.
+     */
+    Optional<Bilhete> buscarPorCodigoBarras(String codigoBarras);
+
+    /**
+     * Consulta os bilhetes que atendem a um filtro, de forma preguiçosa: os bilhetes são
+     * lidos e montados à medida que o stream é consumido, sem carregar o histórico inteiro
+     * na memória. Os critérios do filtro são aplicados antes da montagem de cada bilhete.
+     * <p>
+     * O stream mantém recursos abertos (arquivo ou conexão) e deve ser fechado,
+     * preferencialmente com try-with-resources.
+     *
+     * @param filtro Os critérios da consulta ({@link FiltroBilhetes#todos()} para todos).
+     * @return Um stream dos bilhetes encontrados, na ordem em que foram gravados.
+     */
+    Stream<Bilhete> consultar(FiltroBilhetes filtro);
+}
@@ -0,0 +1,32 @@
+package com.teatroabc.infraestrutura.persistencia.interfaces;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Interface (Porta de Saída) para o registro das entradas no teatro: cada bilhete
+ * pode ser utilizado uma única vez.
+ */
+public interface IEntradaRepositorio {
+
+    /**
+     * Registra a entrada de um bilhete, se ele ainda não tiver entrado. A verificação e o
+     * registro formam uma única operação atômica, inclusive entre terminais diferentes.
+     *
+     * @param idBilhete O ID do bilhete.
+     * @param idSessao O ID da sessão do bilhete.
+     * @param momento O momento da entrada.
+     * @param porta A porta onde o bilhete foi lido.
+     * @return true se a entrada foi registrada agora; false se o bilhete já tinha entrado.
+     * @throws IllegalStateException Se a entrada não puder ser gravada.
+     */
+    boolean registrarSeAusente(String idBilhete, String idSessao, LocalDateTime momento, String porta);
+
+    /**
+     * Busca a entrada registrada de um bilhete.
+     *
+     * @param idBilhete O ID do bilhete.
+     * @return O momento da entrada, ou vazio se o bilhete ainda não entrou.
+     */
+    Optional<LocalDateTime> buscarEntrada(String idBilhete);
+}
@@ -1,6 +1,8 @@
 package com.teatroabc.infraestrutura.persistencia.interfaces;
 
 import com.teatroabc.dominio.modelos.Sessao;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +29,27 @@ public interface ISessaoRepositorio {
      */
     Optional<Sessao> buscarPorId(String idSessao);
 
-    // No futuro, poderíamos ter métodos como:
-    // List<Sessao> buscarSessoesPorData(LocalDate data);
+    /**
+     * Busca todas as sessões de um dia, de qualquer peça.
+     * @param data O dia desejado.
+     * @return As sessões do dia, em ordem cronológica. Pode ser vazia.
+     */
+    List<Sessao> buscarSessoesPorData(LocalDate data);
+
+    /**
+     * Busca as sessões com data/hora dentro de um período.
+     * @param inicio Início do período (inclusive).
+     * @param fim Fim do período (exclusive).
+     * @return As sessões do período, em ordem cronológica. Pode ser vazia.
+     */
+    List<Sessao> buscarSessoesEntre(LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Busca as próximas sessões de uma peça a partir de um instante.
+     * @param idPeca O ID da peça.
+     * @param aPartirDe O instante a partir do qual as sessões são consideradas (inclusive).
+     * @param quantidade O número máximo de sessões retornadas.
+     * @return Até {@code quantidade} sessões, em ordem cronológica.
+     */
+    List<Sessao> buscarProximasSessoesDaPeca(String idPeca, LocalDateTime aPartirDe, int quantidade);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+/**
+ * Adaptador de persistência cujos índices em memória podem ser construídos antes do
+ * primeiro uso. Sem o aquecimento, o índice é construído na primeira consulta, e
+ * quem paga o custo da varredura do arquivo é o atendimento no balcão.
+ * <p>
+ * {@link #aquecer()} pode ser chamado de qualquer thread, em paralelo com outros
+ * aquecimentos; uma consulta feita durante o aquecimento aguarda o índice ficar pronto.
+ */
+public interface Aquecivel {
+
+    /**
+     * Constrói (ou atualiza) os índices em memória do adaptador.
+     */
+    void aquecer();
+}
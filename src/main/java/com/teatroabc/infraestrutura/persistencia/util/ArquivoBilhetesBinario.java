@@ -0,0 +1,561 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Arquivo de bilhetes em formato binário de registros de tamanho fixo, acessado
+ * através de um {@link MappedByteBuffer}.
+ * <p>
+ * Diferente de bilhetes.txt, nenhum campo precisa ser dividido ou convertido a partir
+ * de texto: valores monetários são centavos em {@code long}, datas são segundos
+ * desde a época (UTC) e os assentos são um mapa de bits sobre os índices do
+ * {@link com.teatroabc.infraestrutura.config.IndicePlantaAssentos}. As consultas por
+ * CPF e por ID comparam os campos diretamente no buffer, sem criar objetos.
+ * <p>
+ * Layout do cabeçalho (64 bytes): mágico (int), versão (int), tamanho do registro (int),
+ * bytes do mapa de assentos (int), quantidade de registros (long).
+ * <p>
+ * Layout de cada registro:
+ * <pre>
+ *   0  id do bilhete       40 bytes (UTF-8, completado com zeros)
+ *  40  código de barras    24 bytes
+ *  64  CPF                  8 bytes (long)
+ *  72  id da peça          40 bytes
+ * 112  id da sessão        40 bytes
+ * 152  turno (ordinal)      1 byte + 7 de alinhamento
+ * 160  subtotal             8 bytes (centavos)
+ * 168  desconto             8 bytes (centavos)
+ * 176  total                8 bytes (centavos)
+ * 184  data/hora da compra  8 bytes (segundos desde a época, UTC)
+ * 192  data/hora da sessão  8 bytes (segundos desde a época, UTC)
+ * 200  assentos            bytesMapaAssentos (1 bit por índice de assento)
+ * </pre>
+ * Um registro só passa a contar (campo "quantidade" do cabeçalho) depois de ter sido
+ * forçado ao disco, de modo que uma queda no meio da escrita nunca expõe um registro parcial.
+ * Um lote ({@link #acrescentarTodos(List)}) é contabilizado de uma só vez, com uma única
+ * atualização do cabeçalho: após uma queda, ou todo o lote está no arquivo, ou nada dele.
+ * <p>
+ * Para as buscas, o arquivo mantém tabelas de espalhamento de endereçamento aberto
+ * feitas só de arrays primitivos: hash do ID → posição, hash do código de barras → posição,
+ * e CPF → primeira/última posição,
+ * com um encadeamento (posição → próxima posição do mesmo CPF). As tabelas são montadas
+ * na abertura, varrendo os registros no próprio buffer, e atualizadas a cada acréscimo.
+ * Por isso o arquivo tem um único processo escritor: a abertura bloqueia o arquivo com
+ * exclusividade e falha ({@link ArquivoEmUsoException}) se outro processo já o abriu.
+ * <p>
+ * O arquivo é mapeado em uma única região; o limite prático é de alguns milhões de bilhetes.
+ */
+public class ArquivoBilhetesBinario implements Closeable {
+
+    public static final int TAMANHO_ID = 40;
+    public static final int TAMANHO_CODIGO_BARRAS = 24;
+
+    private static final int MAGICO = 0x54414243; // "TABC"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 64;
+    private static final int POS_CABECALHO_QUANTIDADE = 16;
+    private static final int CAPACIDADE_INICIAL = 1024;
+    // Região do bloqueio de escritor único: além do fim do arquivo, onde o mapeamento nunca chega.
+    private static final long POSICAO_BLOQUEIO = Long.MAX_VALUE - 1;
+
+    private static final int POS_ID = 0;
+    private static final int POS_CODIGO_BARRAS = POS_ID + TAMANHO_ID;
+    private static final int POS_CPF = POS_CODIGO_BARRAS + TAMANHO_CODIGO_BARRAS;
+    private static final int POS_ID_PECA = POS_CPF + Long.BYTES;
+    private static final int POS_ID_SESSAO = POS_ID_PECA + TAMANHO_ID;
+    private static final int POS_TURNO = POS_ID_SESSAO + TAMANHO_ID;
+    private static final int POS_SUBTOTAL = POS_TURNO + Long.BYTES;
+    private static final int POS_DESCONTO = POS_SUBTOTAL + Long.BYTES;
+    private static final int POS_TOTAL = POS_DESCONTO + Long.BYTES;
+    private static final int POS_DATA_COMPRA = POS_TOTAL + Long.BYTES;
+    private static final int POS_DATA_SESSAO = POS_DATA_COMPRA + Long.BYTES;
+    private static final int POS_ASSENTOS = POS_DATA_SESSAO + Long.BYTES;
+
+    private final FileChannel canal;
+    private final int bytesMapaAssentos;
+    private final int tamanhoRegistro;
+    private MappedByteBuffer buffer;
+    private int capacidade;
+    private int quantidade;
+
+    // Índice por ID: posição + 1 (0 = vazio), endereçada pelo hash dos bytes do ID.
+    private int[] tabelaId;
+    // Índice por código de barras, no mesmo formato do índice por ID.
+    private int[] tabelaCodigoBarras;
+    // Índice por CPF: chave, primeira e última posição (+ 1) e encadeamento por registro.
+    private long[] chavesCpf;
+    private int[] primeiraPorCpf;
+    private int[] ultimaPorCpf;
+    private int[] proximaMesmoCpf;
+
+    /**
+     * Abre (ou cria) um arquivo binário de bilhetes.
+     *
+     * @param caminho O caminho do arquivo.
+     * @param totalIndicesAssentos Quantidade de índices de assento da planta (define o tamanho do mapa de bits).
+     * @throws ArquivoEmUsoException Se outro processo (ou este) já mantém o arquivo aberto.
+     * @throws IOException Se o arquivo não puder ser aberto ou tiver um layout incompatível.
+     */
+    public ArquivoBilhetesBinario(Path caminho, int totalIndicesAssentos) throws IOException {
+        this.bytesMapaAssentos = (totalIndicesAssentos + 7) / 8;
+        this.tamanhoRegistro = POS_ASSENTOS + bytesMapaAssentos;
+        this.canal = FileChannel.open(caminho,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        bloquearEscritorUnico(caminho);
+
+        long tamanhoArquivo = canal.size();
+        if (tamanhoArquivo >= TAMANHO_CABECALHO) {
+            capacidade = (int) Math.max(CAPACIDADE_INICIAL, (tamanhoArquivo - TAMANHO_CABECALHO) / tamanhoRegistro);
+            mapear();
+            if (buffer.getInt(0) != MAGICO || buffer.getInt(4) != VERSAO) {
+                canal.close();
+                throw new IOException("Arquivo binário de bilhetes inválido ou de versão desconhecida: " + caminho);
+            }
+            if (buffer.getInt(8) != tamanhoRegistro || buffer.getInt(12) != bytesMapaAssentos) {
+                canal.close();
+                throw new IOException("Arquivo binário de bilhetes foi criado para outra planta de assentos: " + caminho);
+            }
+            quantidade = (int) buffer.getLong(POS_CABECALHO_QUANTIDADE);
+        } else {
+            capacidade = CAPACIDADE_INICIAL;
+            mapear();
+            buffer.putInt(0, MAGICO);
+            buffer.putInt(4, VERSAO);
+            buffer.putInt(8, tamanhoRegistro);
+            buffer.putInt(12, bytesMapaAssentos);
+            buffer.putLong(POS_CABECALHO_QUANTIDADE, 0L);
+            buffer.force(0, TAMANHO_CABECALHO);
+            quantidade = 0;
+        }
+        reconstruirIndices();
+    }
+
+    /**
+     * Bloqueia o arquivo com exclusividade até o fechamento do canal, sem esperar.
+     */
+    private void bloquearEscritorUnico(Path caminho) throws IOException {
+        FileLock bloqueio;
+        try {
+            bloqueio = canal.tryLock(POSICAO_BLOQUEIO, 1L, false);
+        } catch (OverlappingFileLockException e) {
+            bloqueio = null; // Já aberto por este processo.
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+        if (bloqueio == null) {
+            canal.close();
+            throw new ArquivoEmUsoException("Arquivo binário de bilhetes já está aberto por outro terminal: " + caminho);
+        }
+    }
+
+    /**
+     * Traz para a memória as páginas da região mapeada, para que as primeiras consultas
+     * não esperem pelo disco. Pode ser chamado em paralelo com as consultas.
+     */
+    public void carregarPaginas() {
+        MappedByteBuffer mapeado;
+        synchronized (this) {
+            mapeado = buffer;
+        }
+        mapeado.load();
+    }
+
+    /**
+     * @return A quantidade de registros confirmados no arquivo.
+     */
+    public synchronized int getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Acrescenta um bilhete ao arquivo e o torna durável antes de contabilizá-lo.
+     *
+     * @return A posição (número do registro) do bilhete acrescentado.
+     */
+    public synchronized int acrescentar(String id, String codigoBarras, long cpf, String idPeca, String idSessao,
+                                        int turno, long subtotalCentavos, long descontoCentavos, long totalCentavos,
+                                        long dataCompraEpoch, long dataSessaoEpoch, BitSet assentos) throws IOException {
+        return acrescentar(id, codigoBarras, cpf, idPeca, idSessao, turno, subtotalCentavos, descontoCentavos,
+                totalCentavos, dataCompraEpoch, dataSessaoEpoch, assentos, true);
+    }
+
+    /**
+     * Acrescenta um bilhete sem forçá-lo ao disco; a durabilidade só é garantida no
+     * {@link #close()}. Destinado a cargas em lote sobre um arquivo ainda não publicado,
+     * como a migração de bilhetes.txt.
+     *
+     * @return A posição (número do registro) do bilhete acrescentado.
+     */
+    public synchronized int acrescentarEmLote(String id, String codigoBarras, long cpf, String idPeca, String idSessao,
+                                              int turno, long subtotalCentavos, long descontoCentavos, long totalCentavos,
+                                              long dataCompraEpoch, long dataSessaoEpoch, BitSet assentos) throws IOException {
+        return acrescentar(id, codigoBarras, cpf, idPeca, idSessao, turno, subtotalCentavos, descontoCentavos,
+                totalCentavos, dataCompraEpoch, dataSessaoEpoch, assentos, false);
+    }
+
+    private int acrescentar(String id, String codigoBarras, long cpf, String idPeca, String idSessao,
+                            int turno, long subtotalCentavos, long descontoCentavos, long totalCentavos,
+                            long dataCompraEpoch, long dataSessaoEpoch, BitSet assentos, boolean forcar) throws IOException {
+        garantirCapacidade(1);
+        int base = inicioRegistro(quantidade);
+        escreverRegistro(base, new NovoRegistro(id, codigoBarras, cpf, idPeca, idSessao, turno, subtotalCentavos,
+                descontoCentavos, totalCentavos, dataCompraEpoch, dataSessaoEpoch, assentos));
+        if (forcar) {
+            buffer.force(base, tamanhoRegistro);
+        }
+
+        // Só após o registro estar no disco ele passa a ser contabilizado.
+        int posicao = quantidade++;
+        buffer.putLong(POS_CABECALHO_QUANTIDADE, quantidade);
+        if (forcar) {
+            buffer.force(0, TAMANHO_CABECALHO);
+        }
+        indexar(posicao);
+        return posicao;
+    }
+
+    /**
+     * Acrescenta vários bilhetes como uma única gravação: os registros são escritos e
+     * forçados ao disco juntos, e só então o cabeçalho passa a contá-los, todos de uma vez.
+     *
+     * @param registros Os bilhetes a acrescentar.
+     * @return A posição do primeiro bilhete acrescentado (os demais seguem em ordem).
+     */
+    public synchronized int acrescentarTodos(List<NovoRegistro> registros) throws IOException {
+        return acrescentarTodos(registros, null);
+    }
+
+    /**
+     * Como {@link #acrescentarTodos(List)}, executando {@code antesDeContabilizar} depois de os
+     * registros estarem no disco e antes de o cabeçalho passar a contá-los. Se a ação lançar
+     * uma exceção, os registros ficam além da quantidade do cabeçalho: não contam e são
+     * sobrescritos pelo próximo acréscimo.
+     *
+     * @param registros Os bilhetes a acrescentar.
+     * @param antesDeContabilizar Ação executada entre a gravação e a contabilização, ou null.
+     * @return A posição do primeiro bilhete acrescentado (os demais seguem em ordem).
+     */
+    public synchronized int acrescentarTodos(List<NovoRegistro> registros, Runnable antesDeContabilizar) throws IOException {
+        if (registros.isEmpty()) {
+            return quantidade;
+        }
+        garantirCapacidade(registros.size());
+        int primeira = quantidade;
+        for (int i = 0; i < registros.size(); i++) {
+            escreverRegistro(inicioRegistro(primeira + i), registros.get(i));
+        }
+        buffer.force(inicioRegistro(primeira), registros.size() * tamanhoRegistro);
+        if (antesDeContabilizar != null) {
+            antesDeContabilizar.run();
+        }
+
+        quantidade += registros.size();
+        buffer.putLong(POS_CABECALHO_QUANTIDADE, quantidade);
+        buffer.force(0, TAMANHO_CABECALHO);
+        for (int posicao = primeira; posicao < quantidade; posicao++) {
+            indexar(posicao);
+        }
+        return primeira;
+    }
+
+    private void garantirCapacidade(int novosRegistros) throws IOException {
+        if (quantidade + novosRegistros <= capacidade) {
+            return;
+        }
+        while (quantidade + novosRegistros > capacidade) {
+            capacidade *= 2;
+        }
+        mapear();
+        reconstruirIndices();
+    }
+
+    private void escreverRegistro(int base, NovoRegistro registro) {
+        byte[] mapa = registro.assentos.toByteArray();
+        if (mapa.length > bytesMapaAssentos) {
+            throw new IllegalArgumentException("Mapa de assentos maior que a planta configurada.");
+        }
+        escreverTexto(base + POS_ID, TAMANHO_ID, registro.id);
+        escreverTexto(base + POS_CODIGO_BARRAS, TAMANHO_CODIGO_BARRAS, registro.codigoBarras);
+        buffer.putLong(base + POS_CPF, registro.cpf);
+        escreverTexto(base + POS_ID_PECA, TAMANHO_ID, registro.idPeca);
+        escreverTexto(base + POS_ID_SESSAO, TAMANHO_ID, registro.idSessao);
+        buffer.put(base + POS_TURNO, (byte) registro.turno);
+        buffer.putLong(base + POS_SUBTOTAL, registro.subtotalCentavos);
+        buffer.putLong(base + POS_DESCONTO, registro.descontoCentavos);
+        buffer.putLong(base + POS_TOTAL, registro.totalCentavos);
+        buffer.putLong(base + POS_DATA_COMPRA, registro.dataCompraEpoch);
+        buffer.putLong(base + POS_DATA_SESSAO, registro.dataSessaoEpoch);
+        for (int i = 0; i < bytesMapaAssentos; i++) {
+            buffer.put(base + POS_ASSENTOS + i, i < mapa.length ? mapa[i] : 0);
+        }
+    }
+
+    /**
+     * Os campos de um bilhete a acrescentar com {@link #acrescentarTodos(List)}.
+     */
+    public static final class NovoRegistro {
+        private final String id;
+        private final String codigoBarras;
+        private final long cpf;
+        private final String idPeca;
+        private final String idSessao;
+        private final int turno;
+        private final long subtotalCentavos;
+        private final long descontoCentavos;
+        private final long totalCentavos;
+        private final long dataCompraEpoch;
+        private final long dataSessaoEpoch;
+        private final BitSet assentos;
+
+        public NovoRegistro(String id, String codigoBarras, long cpf, String idPeca, String idSessao,
+                            int turno, long subtotalCentavos, long descontoCentavos, long totalCentavos,
+                            long dataCompraEpoch, long dataSessaoEpoch, BitSet assentos) {
+            this.id = id;
+            this.codigoBarras = codigoBarras;
+            this.cpf = cpf;
+            this.idPeca = idPeca;
+            this.idSessao = idSessao;
+            this.turno = turno;
+            this.subtotalCentavos = subtotalCentavos;
+            this.descontoCentavos = descontoCentavos;
+            this.totalCentavos = totalCentavos;
+            this.dataCompraEpoch = dataCompraEpoch;
+            this.dataSessaoEpoch = dataSessaoEpoch;
+            this.assentos = assentos;
+        }
+    }
+
+    // --- Consultas sem alocação ---
+
+    /**
+     * @return A posição do primeiro registro (em ordem de gravação) com o CPF informado, ou -1.
+     */
+    public synchronized int primeiroComCpf(long cpf) {
+        int slot = slotCpf(cpf);
+        return primeiraPorCpf[slot] - 1;
+    }
+
+    /**
+     * @return A posição do próximo registro com o mesmo CPF do registro informado, ou -1.
+     */
+    public synchronized int proximoMesmoCpf(int posicao) {
+        return proximaMesmoCpf[posicao];
+    }
+
+    /**
+     * Procura o primeiro registro cujo ID é igual aos bytes informados.
+     * @param idCodificado O ID já codificado com {@link #codificar(String)}.
+     * @return A posição do registro encontrado, ou -1.
+     */
+    public synchronized int buscarId(byte[] idCodificado) {
+        return buscarNaTabela(tabelaId, POS_ID, TAMANHO_ID, idCodificado);
+    }
+
+    /**
+     * Procura o primeiro registro cujo código de barras é igual aos bytes informados.
+     * @param codigoCodificado O código de barras já codificado com {@link #codificar(String)}.
+     * @return A posição do registro encontrado, ou -1.
+     */
+    public synchronized int buscarCodigoBarras(byte[] codigoCodificado) {
+        return buscarNaTabela(tabelaCodigoBarras, POS_CODIGO_BARRAS, TAMANHO_CODIGO_BARRAS, codigoCodificado);
+    }
+
+    private int buscarNaTabela(int[] tabela, int posicaoCampo, int tamanhoCampo, byte[] valor) {
+        int mascara = tabela.length - 1;
+        for (int slot = (int) hash(valor) & mascara; tabela[slot] != 0; slot = (slot + 1) & mascara) {
+            int posicao = tabela[slot] - 1;
+            if (campoIgual(inicioRegistro(posicao) + posicaoCampo, tamanhoCampo, valor)) {
+                return posicao;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converte um texto para a representação usada nos campos de tamanho fixo,
+     * permitindo comparar campos sem decodificá-los.
+     */
+    public static byte[] codificar(String texto) {
+        return texto == null ? new byte[0] : texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // --- Leitura de campos (usada apenas para hidratar os registros encontrados) ---
+
+    public synchronized String idEm(int posicao) { return lerTexto(inicioRegistro(posicao) + POS_ID, TAMANHO_ID); }
+    public synchronized String codigoBarrasEm(int posicao) { return lerTexto(inicioRegistro(posicao) + POS_CODIGO_BARRAS, TAMANHO_CODIGO_BARRAS); }
+    public synchronized long cpfEm(int posicao) { return buffer.getLong(inicioRegistro(posicao) + POS_CPF); }
+    public synchronized String idPecaEm(int posicao) { return lerTexto(inicioRegistro(posicao) + POS_ID_PECA, TAMANHO_ID); }
+    public synchronized String idSessaoEm(int posicao) { return lerTexto(inicioRegistro(posicao) + POS_ID_SESSAO, TAMANHO_ID); }
+    public synchronized int turnoEm(int posicao) { return buffer.get(inicioRegistro(posicao) + POS_TURNO); }
+    public synchronized long subtotalEm(int posicao) { return buffer.getLong(inicioRegistro(posicao) + POS_SUBTOTAL); }
+    public synchronized long descontoEm(int posicao) { return buffer.getLong(inicioRegistro(posicao) + POS_DESCONTO); }
+    public synchronized long totalEm(int posicao) { return buffer.getLong(inicioRegistro(posicao) + POS_TOTAL); }
+    public synchronized long dataCompraEm(int posicao) { return buffer.getLong(inicioRegistro(posicao) + POS_DATA_COMPRA); }
+    public synchronized long dataSessaoEm(int posicao) { return buffer.getLong(inicioRegistro(posicao) + POS_DATA_SESSAO); }
+
+    public synchronized BitSet assentosEm(int posicao) {
+        byte[] mapa = new byte[bytesMapaAssentos];
+        int base = inicioRegistro(posicao) + POS_ASSENTOS;
+        for (int i = 0; i < bytesMapaAssentos; i++) {
+            mapa[i] = buffer.get(base + i);
+        }
+        return BitSet.valueOf(mapa);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        canal.close();
+    }
+
+    // --- Índices ---
+
+    private void reconstruirIndices() {
+        int tamanhoTabela = Integer.highestOneBit(Math.max(16, capacidade) * 2 - 1) << 1;
+        tabelaId = new int[tamanhoTabela];
+        tabelaCodigoBarras = new int[tamanhoTabela];
+        chavesCpf = new long[tamanhoTabela];
+        primeiraPorCpf = new int[tamanhoTabela];
+        ultimaPorCpf = new int[tamanhoTabela];
+        proximaMesmoCpf = new int[capacidade];
+        for (int posicao = 0; posicao < quantidade; posicao++) {
+            indexar(posicao);
+        }
+    }
+
+    private void indexar(int posicao) {
+        int base = inicioRegistro(posicao);
+
+        // ID e código de barras: como na busca sequencial, o primeiro registro com um dado valor prevalece.
+        indexarNaTabela(tabelaId, posicao, POS_ID, TAMANHO_ID);
+        indexarNaTabela(tabelaCodigoBarras, posicao, POS_CODIGO_BARRAS, TAMANHO_CODIGO_BARRAS);
+
+        // CPF: encadeia o registro ao final da lista do cliente.
+        long cpf = buffer.getLong(base + POS_CPF);
+        int slotCpf = slotCpf(cpf);
+        proximaMesmoCpf[posicao] = -1;
+        if (primeiraPorCpf[slotCpf] == 0) {
+            chavesCpf[slotCpf] = cpf;
+            primeiraPorCpf[slotCpf] = posicao + 1;
+        } else {
+            proximaMesmoCpf[ultimaPorCpf[slotCpf] - 1] = posicao;
+        }
+        ultimaPorCpf[slotCpf] = posicao + 1;
+    }
+
+    private void indexarNaTabela(int[] tabela, int posicao, int posicaoCampo, int tamanhoCampo) {
+        int base = inicioRegistro(posicao);
+        int mascara = tabela.length - 1;
+        int slot = (int) hashCampo(base + posicaoCampo, tamanhoCampo) & mascara;
+        while (tabela[slot] != 0) {
+            if (camposIguais(inicioRegistro(tabela[slot] - 1) + posicaoCampo, base + posicaoCampo, tamanhoCampo)) {
+                return;
+            }
+            slot = (slot + 1) & mascara;
+        }
+        tabela[slot] = posicao + 1;
+    }
+
+    /** Slot do CPF na tabela: o slot que já o contém ou o slot vazio onde ele entraria. */
+    private int slotCpf(long cpf) {
+        int mascara = chavesCpf.length - 1;
+        int slot = (int) misturar(cpf) & mascara;
+        while (primeiraPorCpf[slot] != 0 && chavesCpf[slot] != cpf) {
+            slot = (slot + 1) & mascara;
+        }
+        return slot;
+    }
+
+    private long hashCampo(int posicao, int tamanho) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < tamanho; i++) {
+            byte b = buffer.get(posicao + i);
+            if (b == 0) {
+                break;
+            }
+            h = (h ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return misturar(h);
+    }
+
+    private static long hash(byte[] valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor) {
+            h = (h ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return misturar(h);
+    }
+
+    private static long misturar(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        return x;
+    }
+
+    private boolean camposIguais(int posicaoA, int posicaoB, int tamanho) {
+        for (int i = 0; i < tamanho; i++) {
+            if (buffer.get(posicaoA + i) != buffer.get(posicaoB + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- Auxiliares ---
+
+    private void mapear() throws IOException {
+        long tamanho = (long) TAMANHO_CABECALHO + (long) capacidade * tamanhoRegistro;
+        if (tamanho > Integer.MAX_VALUE) {
+            throw new IOException("Arquivo binário de bilhetes excedeu o tamanho máximo de uma região mapeada.");
+        }
+        buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+    }
+
+    private int inicioRegistro(int posicao) {
+        return TAMANHO_CABECALHO + posicao * tamanhoRegistro;
+    }
+
+    private void escreverTexto(int posicao, int tamanho, String texto) {
+        byte[] bytes = codificar(texto);
+        if (bytes.length > tamanho) {
+            throw new IllegalArgumentException("Valor excede " + tamanho + " bytes no arquivo binário: " + texto);
+        }
+        for (int i = 0; i < tamanho; i++) {
+            buffer.put(posicao + i, i < bytes.length ? bytes[i] : 0);
+        }
+    }
+
+    private String lerTexto(int posicao, int tamanho) {
+        int comprimento = 0;
+        while (comprimento < tamanho && buffer.get(posicao + comprimento) != 0) {
+            comprimento++;
+        }
+        byte[] bytes = new byte[comprimento];
+        buffer.get(posicao, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean campoIgual(int posicao, int tamanho, byte[] valor) {
+        if (valor.length > tamanho) {
+            return false;
+        }
+        for (int i = 0; i < valor.length; i++) {
+            if (buffer.get(posicao + i) != valor[i]) {
+                return false;
+            }
+        }
+        return valor.length == tamanho || buffer.get(posicao + valor.length) == 0;
+    }
+}
@@ -0,0 +1,16 @@
+// Arquivo: infraestrutura/persistencia/util/ArquivoEmUsoException.java
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.io.IOException;
+
+/**
+ * Sinaliza que um arquivo de dados de escritor único já está aberto por outro processo.
+ * Lançada por {@link ArquivoBilhetesBinario} na abertura: dois terminais gravando no mesmo
+ * bilhetes.bin sobrescreveriam os registros um do outro, então o segundo não pode iniciar.
+ */
+public class ArquivoEmUsoException extends IOException {
+
+    public ArquivoEmUsoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,48 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.util.Objects;
+
+/**
+ * Identifica o estado de um arquivo de dados em um dado momento, a partir do seu
+ * tamanho em bytes e da data da última modificação.
+ * Usada pelos índices em memória dos repositórios para decidir, com uma única
+ * consulta ao sistema de arquivos, se o arquivo mudou desde a última carga e
+ * precisa ser relido.
+ */
+public final class AssinaturaArquivo {
+
+    /** Assinatura usada quando o arquivo não existe ou não pôde ser consultado. */
+    public static final AssinaturaArquivo INEXISTENTE = new AssinaturaArquivo(-1L, -1L);
+
+    private final long tamanho;
+    private final long ultimaModificacao;
+
+    public AssinaturaArquivo(long tamanho, long ultimaModificacao) {
+        this.tamanho = tamanho;
+        this.ultimaModificacao = ultimaModificacao;
+    }
+
+    public long getTamanho() { return tamanho; }
+    public long getUltimaModificacao() { return ultimaModificacao; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AssinaturaArquivo that = (AssinaturaArquivo) o;
+        return tamanho == that.tamanho && ultimaModificacao == that.ultimaModificacao;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tamanho, ultimaModificacao);
+    }
+
+    @Override
+    public String toString() {
+        return "AssinaturaArquivo{" +
+                "tamanho=" + tamanho +
+                ", ultimaModificacao=" + ultimaModificacao +
+                '}';
+    }
+}
@@ -0,0 +1,290 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloqueios que coordenam vários processos (terminais) gravando no mesmo diretório
+ * de dados, implementados com {@link FileChannel#tryLock(long, long, boolean)} sobre
+ * regiões de um arquivo de bloqueios:
+ * <ul>
+ *   <li>a região de gravação (bytes 0 a 7) serializa as gravações do
+ *       {@link DiarioEscrita} de todos os processos, de modo que dois terminais nunca
+ *       escolhem a mesma posição no fim de um arquivo. Esses 8 bytes guardam também a
+ *       geração dos arquivos, incrementada sempre que um arquivo é substituído;</li>
+ *   <li>cada sessão pertence a um de {@code baldes} baldes (pelo hash do seu ID), e cada
+ *       balde tem a sua própria região de 1 byte. Vendas de sessões em baldes diferentes
+ *       não se bloqueiam, nem no mesmo processo, nem entre processos;</li>
+ *   <li>a partir do byte {@code 16384}, a mesma quantidade de baldes para os bilhetes (pelo
+ *       hash do ID), usados pela portaria para registrar uma única entrada por bilhete. Ficam
+ *       separados dos baldes de sessões, de modo que as leituras nas portas não esperam pelas
+ *       vendas no balcão, nem o contrário;</li>
+ *   <li>a região de retenções (byte {@code 32768}) serializa as leituras e gravações do log
+ *       de retenções temporárias de assentos (ver {@link RegistroOcupacaoAssentos});</li>
+ *   <li>a partir do byte {@code 65536}, uma região de 1 byte por nó do gerador de IDs. Cada
+ *       processo reserva a de um nó livre e a mantém até terminar, de modo que dois
+ *       terminais nunca geram IDs com o mesmo nó.</li>
+ * </ul>
+ * Um {@link FileLock} pertence ao processo inteiro, e a JVM não permite que duas threads
+ * bloqueiem regiões sobrepostas. Por isso cada região tem também um {@link ReentrantLock}
+ * local, adquirido antes dela: threads do mesmo processo esperam nele, e só a primeira
+ * disputa a região com os outros processos. O bloqueio é reentrante: uma thread que já
+ * detém a região não a bloqueia de novo.
+ * <p>
+ * A espera usa {@code tryLock} com pausas crescentes, e não {@code lock}: interromper
+ * uma thread parada em {@code lock} fecharia o canal compartilhado por todas as outras.
+ */
+public class BloqueiosEntreProcessos implements Closeable {
+
+    /** Nome do arquivo de bloqueios no diretório de dados. */
+    public static final String ARQUIVO_BLOQUEIOS = "bloqueios.lck";
+    /** Quantidade padrão de baldes de sessões. */
+    public static final int BALDES_PADRAO = 64;
+
+    private static final long POSICAO_GRAVACAO = 0L;
+    private static final long TAMANHO_GRAVACAO = Long.BYTES;
+    private static final Duration ESPERA_MAXIMA = Duration.ofSeconds(30);
+    private static final long PAUSA_MAXIMA_MS = 20L;
+    private static final long POSICAO_BILHETES = 1L << 14;
+    private static final long POSICAO_RETENCOES = 1L << 15;
+    private static final long POSICAO_NOS = 1L << 16;
+
+    private final FileChannel canal;
+    private final ReentrantLock bloqueioLocalGravacao = new ReentrantLock();
+    private final ReentrantLock bloqueioLocalRetencoes = new ReentrantLock();
+    private final ReentrantLock[] bloqueiosLocaisPorBalde;
+    private final ReentrantLock[] bloqueiosLocaisPorBaldeBilhetes;
+    // Regiões de nós reservadas, mantidas até o fechamento do arquivo.
+    private final List<FileLock> nosReservados = new ArrayList<>();
+
+    /**
+     * Um bloqueio adquirido. Deve ser liberado com {@link #close()}, de preferência em
+     * um try-with-resources.
+     */
+    public static final class Bloqueio implements AutoCloseable {
+        private final ReentrantLock local;
+        private final FileLock regiao;
+
+        private Bloqueio(ReentrantLock local, FileLock regiao) {
+            this.local = local;
+            this.regiao = regiao;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (regiao != null) {
+                    regiao.release();
+                }
+            } catch (IOException e) {
+                // O sistema operacional libera a região quando o canal é fechado.
+                System.err.println("BloqueiosEntreProcessos: Erro ao liberar região: " + e.getMessage());
+            } finally {
+                local.unlock();
+            }
+        }
+    }
+
+    /**
+     * Abre (ou cria) o arquivo de bloqueios.
+     *
+     * @param arquivo O caminho do arquivo de bloqueios.
+     * @param baldes A quantidade de baldes de sessões e de bilhetes (regiões independentes).
+     * @throws IOException Se o arquivo não puder ser aberto.
+     */
+    public BloqueiosEntreProcessos(Path arquivo, int baldes) throws IOException {
+        if (baldes <= 0 || TAMANHO_GRAVACAO + baldes > POSICAO_BILHETES) {
+            throw new IllegalArgumentException("A quantidade de baldes deve estar entre 1 e "
+                    + (POSICAO_BILHETES - TAMANHO_GRAVACAO) + ": " + baldes);
+        }
+        this.canal = FileChannel.open(arquivo,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        this.bloqueiosLocaisPorBalde = novosBloqueiosLocais(baldes);
+        this.bloqueiosLocaisPorBaldeBilhetes = novosBloqueiosLocais(baldes);
+    }
+
+    private static ReentrantLock[] novosBloqueiosLocais(int quantidade) {
+        ReentrantLock[] bloqueios = new ReentrantLock[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            bloqueios[i] = new ReentrantLock();
+        }
+        return bloqueios;
+    }
+
+    /**
+     * Bloqueia o balde de uma sessão, neste e nos demais processos.
+     *
+     * @param idSessao O ID da sessão.
+     * @return O bloqueio adquirido.
+     * @throws IOException Se a região não for obtida em 30 segundos ou a espera for interrompida.
+     */
+    public Bloqueio bloquearSessao(String idSessao) throws IOException {
+        int balde = baldeDe(idSessao);
+        return bloquear(bloqueiosLocaisPorBalde[balde], TAMANHO_GRAVACAO + balde, 1L);
+    }
+
+    /**
+     * Bloqueia o balde de um bilhete (pelo seu ID), neste e nos demais processos. Os baldes de
+     * bilhetes são regiões próprias: nunca esperam pelo bloqueio de uma sessão.
+     *
+     * @param idBilhete O ID do bilhete.
+     * @return O bloqueio adquirido.
+     * @throws IOException Se a região não for obtida em 30 segundos ou a espera for interrompida.
+     */
+    public Bloqueio bloquearBilhete(String idBilhete) throws IOException {
+        int balde = baldeDe(idBilhete);
+        return bloquear(bloqueiosLocaisPorBaldeBilhetes[balde], POSICAO_BILHETES + balde, 1L);
+    }
+
+    /**
+     * @param idSessao O ID da sessão (ou do bilhete, para os baldes de bilhetes).
+     * @return O balde da sessão. É o mesmo em todos os processos, pois {@code String.hashCode} é estável.
+     */
+    public int baldeDe(String idSessao) {
+        if (idSessao == null) {
+            throw new IllegalArgumentException("ID da sessão não pode ser nulo.");
+        }
+        return Math.floorMod(idSessao.hashCode(), bloqueiosLocaisPorBalde.length);
+    }
+
+    /**
+     * Bloqueia a região de gravação, neste e nos demais processos.
+     *
+     * @return O bloqueio adquirido.
+     * @throws IOException Se a região não for obtida em 30 segundos ou a espera for interrompida.
+     */
+    public Bloqueio bloquearGravacao() throws IOException {
+        return bloquear(bloqueioLocalGravacao, POSICAO_GRAVACAO, TAMANHO_GRAVACAO);
+    }
+
+    /**
+     * Lê a geração dos arquivos de dados. Deve ser chamado com a região de gravação bloqueada.
+     *
+     * @return A geração atual (0 se nenhum arquivo foi substituído ainda).
+     * @throws IOException Se o arquivo de bloqueios não puder ser lido.
+     */
+    public long geracaoArquivos() throws IOException {
+        exigirGravacaoBloqueada();
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining() && canal.read(buffer, POSICAO_GRAVACAO + buffer.position()) > 0) {
+            // lê os 8 bytes da geração
+        }
+        return buffer.hasRemaining() ? 0L : buffer.getLong(0);
+    }
+
+    /**
+     * Incrementa a geração dos arquivos de dados, avisando os outros processos de que
+     * devem reabrir os arquivos que mantêm abertos. Deve ser chamado com a região de
+     * gravação bloqueada, depois de substituir um arquivo.
+     *
+     * @return A nova geração.
+     * @throws IOException Se o arquivo de bloqueios não puder ser gravado.
+     */
+    public long avancarGeracaoArquivos() throws IOException {
+        long nova = geracaoArquivos() + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, nova);
+        while (buffer.hasRemaining()) {
+            canal.write(buffer, POSICAO_GRAVACAO + buffer.position());
+        }
+        canal.force(false);
+        return nova;
+    }
+
+    /**
+     * Bloqueia a região do log de retenções de assentos, neste e nos demais processos.
+     * Quem também bloqueia o balde de uma sessão deve bloqueá-lo antes desta região.
+     *
+     * @return O bloqueio adquirido.
+     * @throws IOException Se a região não for obtida em 30 segundos ou a espera for interrompida.
+     */
+    public Bloqueio bloquearRetencoes() throws IOException {
+        return bloquear(bloqueioLocalRetencoes, POSICAO_RETENCOES, 1L);
+    }
+
+    /**
+     * Reserva um nó do gerador de IDs para este processo, sem esperar. A reserva dura até o
+     * arquivo de bloqueios ser fechado (ou o processo terminar).
+     *
+     * @param no O nó desejado.
+     * @return true se o nó foi reservado; false se outro processo (ou este) já o reservou.
+     * @throws IOException Se o arquivo de bloqueios não puder ser bloqueado.
+     */
+    public synchronized boolean reservarNo(int no) throws IOException {
+        if (no < 0) {
+            throw new IllegalArgumentException("O nó não pode ser negativo: " + no);
+        }
+        try {
+            FileLock regiao = canal.tryLock(POSICAO_NOS + no, 1L, false);
+            if (regiao == null) {
+                return false;
+            }
+            nosReservados.add(regiao);
+            return true;
+        } catch (OverlappingFileLockException e) {
+            return false; // Já reservado por este processo.
+        }
+    }
+
+    private void exigirGravacaoBloqueada() {
+        if (!bloqueioLocalGravacao.isHeldByCurrentThread()) {
+            throw new IllegalStateException("A região de gravação precisa estar bloqueada pela thread atual.");
+        }
+    }
+
+    private Bloqueio bloquear(ReentrantLock local, long posicao, long tamanho) throws IOException {
+        local.lock();
+        if (local.getHoldCount() > 1) {
+            return new Bloqueio(local, null); // A thread já detém a região.
+        }
+        try {
+            return new Bloqueio(local, travarRegiao(posicao, tamanho));
+        } catch (IOException | RuntimeException e) {
+            local.unlock();
+            throw e;
+        }
+    }
+
+    private FileLock travarRegiao(long posicao, long tamanho) throws IOException {
+        long limite = System.nanoTime() + ESPERA_MAXIMA.toNanos();
+        long pausa = 1L;
+        while (true) {
+            FileLock regiao = canal.tryLock(posicao, tamanho, false);
+            if (regiao != null) {
+                return regiao;
+            }
+            if (System.nanoTime() - limite > 0) {
+                throw new IOException("Tempo esgotado aguardando outro terminal liberar a região " + posicao + " de " + ARQUIVO_BLOQUEIOS + ".");
+            }
+            try {
+                Thread.sleep(pausa);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrompido aguardando bloqueio de outro terminal.");
+            }
+            pausa = Math.min(pausa * 2, PAUSA_MAXIMA_MS);
+        }
+    }
+
+    /**
+     * Fecha o arquivo de bloqueios, liberando as regiões ainda detidas por este processo.
+     */
+    @Override
+    public void close() {
+        try {
+            canal.close();
+        } catch (IOException e) {
+            System.err.println("BloqueiosEntreProcessos: Erro ao fechar " + ARQUIVO_BLOQUEIOS + ": " + e.getMessage());
+        }
+    }
+}
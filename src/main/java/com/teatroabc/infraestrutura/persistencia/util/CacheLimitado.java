@@ -0,0 +1,25 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mapa com no máximo {@code capacidade} entradas, que descarta a usada há mais tempo.
+ * Usado pelas consultas em stream para resolver clientes e peças uma única vez sem que
+ * o cache cresça com o tamanho do histórico percorrido. Não é sincronizado: cada
+ * consulta usa o seu próprio cache.
+ */
+public class CacheLimitado<K, V> extends LinkedHashMap<K, V> {
+
+    private final int capacidade;
+
+    public CacheLimitado(int capacidade) {
+        super(16, 0.75f, true);
+        this.capacidade = capacidade;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> maisAntiga) {
+        return size() > capacidade;
+    }
+}
@@ -0,0 +1,94 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Os segmentos selados de bilhetes ({@link SegmentoBilhetes}) presentes no diretório de
+ * dados, em ordem de mês.
+ * <p>
+ * O diretório só é listado de novo quando a sua data de modificação muda (um segmento
+ * novo, gravado por este ou por outro terminal, sempre a altera); fora isso, obter os
+ * segmentos custa uma única consulta de atributos. Como os segmentos nunca são
+ * alterados, os já abertos (mapeados) são reaproveitados entre listagens.
+ */
+public class CatalogoSegmentosBilhetes {
+
+    private final Path diretorio;
+    private volatile List<SegmentoBilhetes> segmentos = Collections.emptyList();
+    private volatile FileTime modificacaoListada;
+
+    /**
+     * @param diretorio O diretório de dados.
+     */
+    public CatalogoSegmentosBilhetes(Path diretorio) {
+        if (diretorio == null) {
+            throw new IllegalArgumentException("Diretório dos segmentos não pode ser nulo.");
+        }
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * @return Os segmentos, do mês mais antigo para o mais recente (lista imutável).
+     */
+    public List<SegmentoBilhetes> segmentos() {
+        FileTime modificacao = modificacaoDoDiretorio();
+        if (modificacao == null || !modificacao.equals(modificacaoListada)) {
+            listar(modificacao);
+        }
+        return segmentos;
+    }
+
+    private synchronized void listar(FileTime modificacao) {
+        if (modificacao != null && modificacao.equals(modificacaoListada)) {
+            return; // Outra thread já listou enquanto aguardávamos o monitor.
+        }
+        Map<Path, SegmentoBilhetes> abertos = new HashMap<>();
+        for (SegmentoBilhetes segmento : segmentos) {
+            abertos.put(segmento.getCaminho(), segmento);
+        }
+        List<SegmentoBilhetes> encontrados = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "bilhetes-*.seg")) {
+            for (Path arquivo : arquivos) {
+                if (!SegmentoBilhetes.ehSegmento(arquivo.getFileName().toString())) {
+                    continue;
+                }
+                SegmentoBilhetes segmento = abertos.get(arquivo);
+                if (segmento == null) {
+                    try {
+                        segmento = SegmentoBilhetes.abrir(arquivo);
+                    } catch (IOException e) {
+                        System.err.println("CatalogoSegmentosBilhetes: Segmento ignorado (" + arquivo + "): " + e.getMessage());
+                        continue;
+                    }
+                }
+                encontrados.add(segmento);
+            }
+        } catch (NoSuchFileException e) {
+            // Sem diretório, sem segmentos.
+        } catch (IOException e) {
+            System.err.println("CatalogoSegmentosBilhetes: Erro ao listar os segmentos: " + e.getMessage());
+            return; // Mantém a listagem anterior e tenta de novo na próxima consulta.
+        }
+        encontrados.sort(SegmentoBilhetes.POR_MES);
+        segmentos = Collections.unmodifiableList(encontrados);
+        modificacaoListada = modificacao;
+    }
+
+    private FileTime modificacaoDoDiretorio() {
+        try {
+            return Files.getLastModifiedTime(diretorio);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.dominio.modelos.Sessao;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Catálogo de sessões persistido em sessoes.txt (uma linha por sessão, no formato
+ * "idSessao|idPeca|dd/MM/yyyy HH:mm|TURNO"), com IDs estáveis entre execuções.
+ * <p>
+ * Na inicialização, o catálogo apenas mapeia o índice sessoes.idx ({@link IndiceArquivoSessoes});
+ * nenhuma linha de sessão é lida. O índice só é reconstruído quando não existe ou quando
+ * o tamanho de sessoes.txt difere do tamanho que ele cobre. As sessões são carregadas
+ * sob demanda: cada consulta localiza as entradas no índice e lê, com um posicionamento
+ * por linha, somente as sessões ainda não carregadas. Uma sessão carregada é sempre
+ * a mesma instância nas consultas seguintes.
+ */
+public class CatalogoSessoes {
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final String ARQUIVO_INDICE = "sessoes.idx";
+
+    private final Function<String, Optional<Peca>> resolverPeca;
+    private final Path caminhoIndice;
+    private final Map<String, Sessao> sessoesCarregadas = new ConcurrentHashMap<>();
+    private final IndiceArquivoSessoes indice;
+
+    /**
+     * Abre o catálogo, criando-o a partir das sessões iniciais se sessoes.txt ainda não existir.
+     *
+     * @param resolverPeca Função que obtém uma Peca pelo seu ID.
+     * @param sessoesIniciais Fornece as sessões gravadas quando o catálogo está vazio.
+     */
+    public CatalogoSessoes(Function<String, Optional<Peca>> resolverPeca, Supplier<List<Sessao>> sessoesIniciais) {
+        this.resolverPeca = resolverPeca;
+        this.caminhoIndice = GerenciadorArquivos.caminhoArquivo(ARQUIVO_INDICE);
+
+        if (GerenciadorArquivos.tamanhoSessoes() == 0) {
+            List<String> linhas = new ArrayList<>();
+            for (Sessao sessao : sessoesIniciais.get()) {
+                linhas.add(formatarLinha(sessao));
+            }
+            GerenciadorArquivos.salvarSessoes(linhas);
+        }
+
+        IndiceArquivoSessoes indiceMapeado = IndiceArquivoSessoes.abrir(caminhoIndice);
+        if (indiceMapeado == null || indiceMapeado.getBytesIndexados() != GerenciadorArquivos.tamanhoSessoes()) {
+            indiceMapeado = reconstruirIndice();
+        }
+        this.indice = indiceMapeado;
+    }
+
+    /**
+     * Formata uma sessão como linha de sessoes.txt.
+     */
+    public static String formatarLinha(Sessao sessao) {
+        return sessao.getId() + "|" + sessao.getPeca().getId() + "|"
+                + sessao.getDataHora().format(DATETIME_FORMATTER) + "|" + sessao.getTurno().name();
+    }
+
+    /**
+     * @return A sessão com o ID informado, carregando-a de sessoes.txt na primeira consulta.
+     */
+    public Optional<Sessao> buscarPorId(String idSessao) {
+        if (indice == null || idSessao == null || idSessao.length() > IndiceArquivoSessoes.TAMANHO_ID) {
+            return Optional.empty();
+        }
+        Sessao carregada = sessoesCarregadas.get(idSessao);
+        if (carregada != null) {
+            return Optional.of(carregada);
+        }
+        int entrada = indice.buscarId(IndiceArquivoSessoes.codificar(idSessao));
+        if (entrada < 0) {
+            return Optional.empty();
+        }
+        List<Sessao> sessoes = carregar(List.of(entrada));
+        return sessoes.isEmpty() ? Optional.empty() : Optional.of(sessoes.get(0));
+    }
+
+    /**
+     * @return As sessões da peça, em ordem cronológica.
+     */
+    public List<Sessao> daPeca(String idPeca) {
+        return proximasDaPeca(idPeca, LocalDateTime.MIN, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return As sessões com data/hora em [inicio, fim), em ordem cronológica.
+     */
+    public List<Sessao> entre(LocalDateTime inicio, LocalDateTime fim) {
+        if (indice == null || inicio == null || fim == null || !inicio.isBefore(fim)) {
+            return new ArrayList<>();
+        }
+        List<Integer> entradas = new ArrayList<>();
+        long limite = epoch(fim);
+        for (int e = indice.primeiraAPartirDe(epoch(inicio)); e < indice.getQuantidade() && indice.dataHoraEm(e) < limite; e++) {
+            entradas.add(e);
+        }
+        return carregar(entradas);
+    }
+
+    /**
+     * @return Até {@code quantidade} sessões da peça a partir de {@code aPartirDe} (inclusive).
+     */
+    public List<Sessao> proximasDaPeca(String idPeca, LocalDateTime aPartirDe, int quantidade) {
+        if (indice == null || idPeca == null || aPartirDe == null || quantidade <= 0
+                || idPeca.length() > IndiceArquivoSessoes.TAMANHO_ID) {
+            return new ArrayList<>();
+        }
+        List<Integer> entradas = new ArrayList<>();
+        byte[] pecaCodificada = IndiceArquivoSessoes.codificar(idPeca);
+        for (int e = indice.primeiraAPartirDe(epoch(aPartirDe)); e < indice.getQuantidade() && entradas.size() < quantidade; e++) {
+            if (indice.pecaIgual(e, pecaCodificada)) {
+                entradas.add(e);
+            }
+        }
+        return carregar(entradas);
+    }
+
+    /**
+     * @return A quantidade de sessões do catálogo.
+     */
+    public int tamanho() {
+        return indice == null ? 0 : indice.getQuantidade();
+    }
+
+    // --- Carga sob demanda ---
+
+    /**
+     * Retorna as sessões das entradas informadas, lendo de sessoes.txt apenas as que
+     * ainda não foram carregadas.
+     */
+    private List<Sessao> carregar(List<Integer> entradas) {
+        List<Long> offsetsPendentes = new ArrayList<>();
+        for (int entrada : entradas) {
+            if (!sessoesCarregadas.containsKey(indice.idEm(entrada))) {
+                offsetsPendentes.add(indice.offsetEm(entrada));
+            }
+        }
+        CursorRegistro cursor = new CursorRegistro('|');
+        for (String linha : GerenciadorArquivos.lerSessoesEm(offsetsPendentes)) {
+            parsearSessao(cursor.sobre(linha)).ifPresent(sessao -> sessoesCarregadas.putIfAbsent(sessao.getId(), sessao));
+        }
+
+        List<Sessao> sessoes = new ArrayList<>(entradas.size());
+        for (int entrada : entradas) {
+            Sessao sessao = sessoesCarregadas.get(indice.idEm(entrada));
+            if (sessao != null) {
+                sessoes.add(sessao);
+            }
+        }
+        return sessoes;
+    }
+
+    private Optional<Sessao> parsearSessao(CursorRegistro campos) {
+        try {
+            if (campos.quantidadeCampos() < 4) {
+                return Optional.empty();
+            }
+            Optional<Peca> peca = resolverPeca.apply(campos.texto(1));
+            if (peca.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Sessao(campos.texto(0), peca.get(),
+                    campos.dataHora(2), Turno.valueOf(campos.texto(3))));
+        } catch (Exception e) {
+            System.err.println("CatalogoSessoes: Erro ao parsear sessão da linha: " + campos.getRegistro());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Percorre sessoes.txt extraindo apenas ID, peça e data/hora de cada linha, e grava um novo índice.
+     */
+    private IndiceArquivoSessoes reconstruirIndice() {
+        List<IndiceArquivoSessoes.Entrada> entradas = new ArrayList<>();
+        CursorRegistro campos = new CursorRegistro('|');
+        long bytesIndexados = GerenciadorArquivos.varrerSessoes(0L, (offset, linha) -> {
+            if (campos.sobre(linha).quantidadeCampos() < 4) {
+                return;
+            }
+            try {
+                long dataHora = epoch(campos.dataHora(2));
+                entradas.add(new IndiceArquivoSessoes.Entrada(campos.texto(0), campos.texto(1), dataHora, offset));
+            } catch (Exception e) {
+                System.err.println("CatalogoSessoes: Linha de sessão ignorada no índice: " + linha);
+            }
+        });
+        try {
+            IndiceArquivoSessoes.gravar(caminhoIndice, entradas, bytesIndexados);
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar o índice de sessões: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return IndiceArquivoSessoes.abrir(caminhoIndice);
+    }
+
+    private static long epoch(LocalDateTime dataHora) {
+        return dataHora.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,116 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compactador em segundo plano dos arquivos de dados que só crescem.
+ * <p>
+ * Periodicamente, em uma thread daemon própria:
+ * <ul>
+ *   <li>quando assentos_ocupados.txt passa do limite configurado, incorpora o log ao
+ *       snapshot de ocupação por sessão e o trunca
+ *       ({@link GerenciadorArquivos#compactarAssentosOcupados()}), de modo que a carga do
+ *       {@link RegistroOcupacaoAssentos} lê um snapshot e um log curto, e não todo o histórico;</li>
+ *   <li>quando clientes.txt mudou desde a última passada, remove as linhas repetidas de
+ *       um mesmo CPF ({@link GerenciadorArquivos#compactarClientes()});</li>
+ *   <li>quando o primeiro bilhete de bilhetes.txt é de um mês já encerrado, sela os meses
+ *       encerrados em segmentos imutáveis ({@link GerenciadorArquivos#selarBilhetesAnteriores}),
+ *       de modo que bilhetes.txt (e o seu índice em memória) fica com os bilhetes de um
+ *       único mês, por maior que seja o histórico.</li>
+ * </ul>
+ * <p>
+ * As reescritas acontecem na thread do diário de escrita, entre dois lotes e com a região
+ * de gravação dos {@link BloqueiosEntreProcessos} bloqueada, e por isso não competem com
+ * as gravações deste nem de outros terminais; os caches dos outros terminais percebem que
+ * o arquivo foi reescrito e o releem. Ainda assim, cada passada lê e regrava arquivos
+ * inteiros, e um único compactador por diretório de dados basta: a aplicação só o inicia
+ * no terminal em que a compactação for ligada explicitamente.
+ */
+public class CompactadorArquivos implements Closeable {
+
+    /** Tamanho mínimo de assentos_ocupados.txt para valer a pena compactá-lo. */
+    public static final long LIMITE_PADRAO_LOG_OCUPACAO_BYTES = 64 * 1024;
+
+    private final Duration intervalo;
+    private final long limiteLogOcupacaoBytes;
+    private final ScheduledExecutorService agendador;
+    // Assinatura de clientes.txt após a última passada; se não mudou, não há o que deduplicar.
+    private AssinaturaArquivo assinaturaClientesCompactada;
+
+    /**
+     * @param intervalo O intervalo entre duas passadas do compactador.
+     * @param limiteLogOcupacaoBytes O tamanho a partir do qual o log de ocupação é compactado.
+     */
+    public CompactadorArquivos(Duration intervalo, long limiteLogOcupacaoBytes) {
+        if (intervalo == null || intervalo.isNegative() || intervalo.isZero()) {
+            throw new IllegalArgumentException("Intervalo de compactação deve ser positivo.");
+        }
+        this.intervalo = intervalo;
+        this.limiteLogOcupacaoBytes = Math.max(0L, limiteLogOcupacaoBytes);
+        this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "compactador-arquivos");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Agenda as passadas periódicas. A primeira acontece após um intervalo, para não
+     * competir com a inicialização da aplicação.
+     */
+    public void iniciar() {
+        long periodo = intervalo.toMillis();
+        agendador.scheduleWithFixedDelay(this::compactar, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Executa uma passada de compactação imediatamente, na thread chamadora.
+     * Falhas são registradas e não interrompem as passadas seguintes.
+     */
+    public synchronized void compactar() {
+        try {
+            if (GerenciadorArquivos.tamanhoAssentosOcupados() >= limiteLogOcupacaoBytes) {
+                GerenciadorArquivos.compactarAssentosOcupados();
+            }
+        } catch (Exception e) {
+            System.err.println("CompactadorArquivos: Erro ao compactar assentos ocupados: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        try {
+            AssinaturaArquivo assinaturaAtual = GerenciadorArquivos.assinaturaClientes();
+            if (!assinaturaAtual.equals(assinaturaClientesCompactada)) {
+                GerenciadorArquivos.compactarClientes();
+                assinaturaClientesCompactada = GerenciadorArquivos.assinaturaClientes();
+            }
+        } catch (Exception e) {
+            System.err.println("CompactadorArquivos: Erro ao compactar clientes: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        try {
+            YearMonth mesAtual = YearMonth.now();
+            YearMonth mesDoPrimeiroBilhete = GerenciadorArquivos.mesDoPrimeiroBilhete();
+            if (mesDoPrimeiroBilhete != null && mesDoPrimeiroBilhete.isBefore(mesAtual)) {
+                GerenciadorArquivos.selarBilhetesAnteriores(mesAtual);
+            }
+        } catch (Exception e) {
+            System.err.println("CompactadorArquivos: Erro ao selar bilhetes: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Cancela as passadas agendadas. Uma passada em andamento termina normalmente.
+     */
+    @Override
+    public void close() {
+        agendador.shutdown();
+    }
+}
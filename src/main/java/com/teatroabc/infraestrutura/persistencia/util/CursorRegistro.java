@@ -0,0 +1,305 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cursor sobre um registro delimitado (por exemplo, uma linha "a|b|c" dos arquivos de
+ * dados), que guarda apenas as posições de início e fim de cada campo.
+ * <p>
+ * Ao contrário de {@code String.split}, {@link #sobre(CharSequence)} não cria um array
+ * nem uma String por campo: os campos são comparados ({@link #campoIgual}) e convertidos
+ * ({@link #inteiro}, {@link #decimal}, {@link #data}, {@link #dataHora}) diretamente na
+ * linha, e uma String só é criada quando o chamador pede {@link #texto}. Assim, um filtro
+ * por CPF descarta as linhas de outros clientes sem alocar nada.
+ * <p>
+ * O mesmo cursor é reaproveitado linha após linha e não é thread-safe: cada leitura
+ * (varredura, consulta) usa o seu próprio cursor.
+ */
+public final class CursorRegistro {
+
+    private final char separador;
+    private CharSequence registro = "";
+    // inicio e fim (exclusivo) de cada campo, intercalados: [i0, f0, i1, f1, ...]
+    private int[] limites = new int[32];
+    private int quantidade;
+    // Resultado do último numeroDecimal: dígitos sem a vírgula e quantidade de casas decimais.
+    private long semEscala;
+    private int escala;
+
+    /**
+     * @param separador O caractere que separa os campos (ex.: '|' ou ',').
+     */
+    public CursorRegistro(char separador) {
+        this.separador = separador;
+    }
+
+    /**
+     * Posiciona o cursor sobre um registro inteiro.
+     *
+     * @param registro O registro (normalmente uma linha, sem a quebra de linha).
+     * @return Este cursor.
+     */
+    public CursorRegistro sobre(CharSequence registro) {
+        return sobre(registro, 0, registro.length());
+    }
+
+    /**
+     * Posiciona o cursor sobre um trecho de um registro, por exemplo um campo de outro
+     * cursor que contém uma lista ("F1-1,F1-2").
+     *
+     * @param registro O texto que contém o trecho.
+     * @param inicio O início do trecho (inclusivo).
+     * @param fim O fim do trecho (exclusivo).
+     * @return Este cursor.
+     */
+    public CursorRegistro sobre(CharSequence registro, int inicio, int fim) {
+        this.registro = registro;
+        quantidade = 0;
+        if (inicio == fim) {
+            return this; // Trecho vazio: nenhum campo (como uma lista vazia).
+        }
+        int inicioCampo = inicio;
+        for (int i = inicio; i < fim; i++) {
+            if (registro.charAt(i) == separador) {
+                adicionar(inicioCampo, i);
+                inicioCampo = i + 1;
+            }
+        }
+        adicionar(inicioCampo, fim);
+        return this;
+    }
+
+    private void adicionar(int inicio, int fim) {
+        if (2 * quantidade + 2 > limites.length) {
+            int[] maiores = new int[limites.length * 2];
+            System.arraycopy(limites, 0, maiores, 0, limites.length);
+            limites = maiores;
+        }
+        limites[2 * quantidade] = inicio;
+        limites[2 * quantidade + 1] = fim;
+        quantidade++;
+    }
+
+    /** @return A quantidade de campos do registro atual. */
+    public int quantidadeCampos() {
+        return quantidade;
+    }
+
+    /** @return A posição, no registro, do primeiro caractere do campo. */
+    public int inicio(int campo) {
+        return limites[2 * verificar(campo)];
+    }
+
+    /** @return A posição, no registro, logo após o último caractere do campo. */
+    public int fim(int campo) {
+        return limites[2 * verificar(campo) + 1];
+    }
+
+    /** @return O registro sobre o qual o cursor está posicionado. */
+    public CharSequence getRegistro() {
+        return registro;
+    }
+
+    /** @return true se o campo não tiver nenhum caractere. */
+    public boolean vazio(int campo) {
+        return inicio(campo) == fim(campo);
+    }
+
+    /**
+     * Compara o campo com um valor, caractere a caractere, sem criar Strings.
+     *
+     * @return true se o campo for exatamente igual ao valor.
+     */
+    public boolean campoIgual(int campo, CharSequence valor) {
+        int inicio = inicio(campo);
+        int tamanho = fim(campo) - inicio;
+        if (valor == null || valor.length() != tamanho) {
+            return false;
+        }
+        for (int i = 0; i < tamanho; i++) {
+            if (registro.charAt(inicio + i) != valor.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return O campo como String (a única conversão que aloca o texto do campo). */
+    public String texto(int campo) {
+        return registro.subSequence(inicio(campo), fim(campo)).toString();
+    }
+
+    /** @return O campo como String, ou null se estiver vazio. */
+    public String textoOuNulo(int campo) {
+        return vazio(campo) ? null : texto(campo);
+    }
+
+    /**
+     * @return O campo interpretado como inteiro decimal (com sinal opcional).
+     * @throws NumberFormatException Se o campo não for um inteiro válido.
+     */
+    public int inteiro(int campo) {
+        long valor = inteiroEntre(inicio(campo), fim(campo));
+        if (valor < Integer.MIN_VALUE || valor > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Inteiro fora do intervalo: " + texto(campo));
+        }
+        return (int) valor;
+    }
+
+    /**
+     * @return O campo interpretado como long decimal (com sinal opcional).
+     * @throws NumberFormatException Se o campo não for um inteiro válido.
+     */
+    public long longo(int campo) {
+        return inteiroEntre(inicio(campo), fim(campo));
+    }
+
+    /**
+     * Interpreta um valor decimal gravado com ponto ou vírgula ("76,00", "95.00").
+     * A escala do resultado é a quantidade de casas gravadas, como em
+     * {@code new BigDecimal(texto.replace(",", "."))}.
+     *
+     * @throws NumberFormatException Se o campo não for um decimal válido.
+     */
+    public BigDecimal decimal(int campo) {
+        numeroDecimal(campo);
+        return BigDecimal.valueOf(semEscala, escala);
+    }
+
+    /**
+     * Interpreta um valor decimal gravado com ponto ou vírgula como centavos, sem criar
+     * objetos. Casas além da segunda são arredondadas HALF_UP, como em
+     * {@code Centavos.de(decimal(campo))}.
+     *
+     * @throws NumberFormatException Se o campo não for um decimal válido.
+     * @throws ArithmeticException Se o valor não couber em um long.
+     */
+    public long centavos(int campo) {
+        numeroDecimal(campo);
+        long valor = semEscala;
+        if (escala <= 2) {
+            for (int i = escala; i < 2; i++) {
+                valor = Math.multiplyExact(valor, 10L);
+            }
+            return valor;
+        }
+        long divisor = 1L;
+        for (int i = 2; i < escala; i++) {
+            divisor = Math.multiplyExact(divisor, 10L);
+        }
+        long quociente = valor / divisor;
+        long resto = valor % divisor;
+        if (Math.abs(resto) * 2 >= divisor) {
+            quociente += Long.signum(valor);
+        }
+        return quociente;
+    }
+
+    private void numeroDecimal(int campo) {
+        int inicio = inicio(campo);
+        int fim = fim(campo);
+        int i = inicio;
+        boolean negativo = false;
+        if (i < fim && (registro.charAt(i) == '-' || registro.charAt(i) == '+')) {
+            negativo = registro.charAt(i) == '-';
+            i++;
+        }
+        long digitosLidos = 0L;
+        int casas = 0;
+        boolean separadorDecimal = false;
+        int digitos = 0;
+        for (; i < fim; i++) {
+            char c = registro.charAt(i);
+            if (c == '.' || c == ',') {
+                if (separadorDecimal) {
+                    throw new NumberFormatException("Decimal inválido: " + texto(campo));
+                }
+                separadorDecimal = true;
+            } else if (c >= '0' && c <= '9') {
+                digitosLidos = Math.addExact(Math.multiplyExact(digitosLidos, 10L), c - '0');
+                digitos++;
+                if (separadorDecimal) {
+                    casas++;
+                }
+            } else {
+                throw new NumberFormatException("Decimal inválido: " + texto(campo));
+            }
+        }
+        if (digitos == 0) {
+            throw new NumberFormatException("Decimal inválido: " + texto(campo));
+        }
+        semEscala = negativo ? -digitosLidos : digitosLidos;
+        escala = casas;
+    }
+
+    /**
+     * @return O campo no formato "dd/MM/yyyy".
+     * @throws DateTimeException Se o campo não for uma data válida nesse formato.
+     */
+    public LocalDate data(int campo) {
+        int inicio = inicio(campo);
+        if (fim(campo) - inicio != 10 || registro.charAt(inicio + 2) != '/' || registro.charAt(inicio + 5) != '/') {
+            throw new DateTimeException("Data fora do formato dd/MM/yyyy: " + texto(campo));
+        }
+        return LocalDate.of(
+                digitos(inicio + 6, 4, campo), digitos(inicio + 3, 2, campo), digitos(inicio, 2, campo));
+    }
+
+    /**
+     * @return O campo no formato "dd/MM/yyyy HH:mm".
+     * @throws DateTimeException Se o campo não for uma data/hora válida nesse formato.
+     */
+    public LocalDateTime dataHora(int campo) {
+        int inicio = inicio(campo);
+        if (fim(campo) - inicio != 16 || registro.charAt(inicio + 2) != '/' || registro.charAt(inicio + 5) != '/'
+                || registro.charAt(inicio + 10) != ' ' || registro.charAt(inicio + 13) != ':') {
+            throw new DateTimeException("Data/hora fora do formato dd/MM/yyyy HH:mm: " + texto(campo));
+        }
+        return LocalDateTime.of(
+                digitos(inicio + 6, 4, campo), digitos(inicio + 3, 2, campo), digitos(inicio, 2, campo),
+                digitos(inicio + 11, 2, campo), digitos(inicio + 14, 2, campo));
+    }
+
+    private int digitos(int posicao, int tamanho, int campo) {
+        int valor = 0;
+        for (int i = posicao; i < posicao + tamanho; i++) {
+            char c = registro.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new DateTimeException("Dígito esperado em: " + texto(campo));
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+
+    private long inteiroEntre(int inicio, int fim) {
+        int i = inicio;
+        boolean negativo = false;
+        if (i < fim && (registro.charAt(i) == '-' || registro.charAt(i) == '+')) {
+            negativo = registro.charAt(i) == '-';
+            i++;
+        }
+        if (i == fim) {
+            throw new NumberFormatException("Inteiro inválido: " + registro.subSequence(inicio, fim));
+        }
+        long valor = 0L;
+        for (; i < fim; i++) {
+            char c = registro.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Inteiro inválido: " + registro.subSequence(inicio, fim));
+            }
+            valor = Math.addExact(Math.multiplyExact(valor, 10L), c - '0');
+        }
+        return negativo ? -valor : valor;
+    }
+
+    private int verificar(int campo) {
+        if (campo < 0 || campo >= quantidade) {
+            throw new IndexOutOfBoundsException("Campo " + campo + " inexistente (registro com " + quantidade + " campos).");
+        }
+        return campo;
+    }
+}
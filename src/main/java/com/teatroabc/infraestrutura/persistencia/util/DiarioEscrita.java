@@ -0,0 +1,643 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Diário de escrita antecipada (write-ahead log) com confirmação em grupo para os
+ * arquivos de dados em texto.
+ * <p>
+ * Cada {@link Transacao} agrupa uma ou mais linhas destinadas a um ou mais arquivos
+ * (ex: a linha do bilhete e as linhas de ocupação dos seus assentos). Uma única
+ * thread escritora mantém os arquivos abertos e, a cada ciclo, junta todas as
+ * transações pendentes em um lote:
+ * <ol>
+ *   <li>define a posição (offset) de cada linha no fim do respectivo arquivo;</li>
+ *   <li>grava o lote inteiro no diário e chama {@link FileChannel#force(boolean)} uma única vez;</li>
+ *   <li>só então escreve as linhas nos arquivos de dados, nas posições definidas.</li>
+ * </ol>
+ * Uma transação é durável assim que o diário é forçado ao disco. Se o processo cair
+ * antes de as linhas chegarem aos arquivos de dados, a próxima abertura do diário
+ * reaplica as transações completas (a reaplicação é idempotente, pois compara o
+ * conteúdo já presente em cada posição). Transações incompletas no fim do diário
+ * nunca foram confirmadas ao chamador e são descartadas, o que impede compras
+ * gravadas pela metade.
+ * <p>
+ * Formato do diário (uma linha por registro, UTF-8):
+ * <pre>
+ * T|sequencia|quantidadeDeEntradas
+ * E|nomeArquivo|offset|linha
+ * C|sequencia|crc32DasEntradas
+ * </pre>
+ * Quando o diário ultrapassa {@link #LIMITE_DIARIO_BYTES}, os arquivos de dados são
+ * forçados ao disco e o diário é truncado (checkpoint).
+ * <p>
+ * Operações de manutenção que reescrevem arquivos de dados (como a compactação) são
+ * executadas pela própria thread escritora com {@link #executarExclusivo(OperacaoExclusiva)},
+ * entre dois lotes e logo após um checkpoint, quando nenhuma escrita está em andamento.
+ * <p>
+ * Vários processos podem compartilhar o diretório de dados (e o diário): cada lote, cada
+ * operação exclusiva e a recuperação acontecem com a região de gravação dos
+ * {@link BloqueiosEntreProcessos} bloqueada, de modo que as posições no fim dos arquivos
+ * são escolhidas e preenchidas por um processo de cada vez. Antes de escolher as posições
+ * de um lote e antes de truncar o diário, o processo reaplica as transações completas que
+ * ainda não conferiu, qualquer que seja o processo que as gravou: o lote que um terminal
+ * gravou no diário, mas não chegou a aplicar antes de cair, ocupa o fim dos arquivos antes
+ * que outro terminal escolha posições ali, e nunca é truncado sem ter sido aplicado.
+ * Quando outro processo substitui um arquivo (geração dos arquivos avançou), os canais
+ * abertos são reabertos.
+ */
+public class DiarioEscrita implements Closeable {
+
+    private static final String NOME_DIARIO = "diario_escrita.log";
+    private static final long LIMITE_DIARIO_BYTES = 1024L * 1024L;
+    private static final int MAX_TRANSACOES_POR_LOTE = 512;
+    // Os arquivos de dados terminam as linhas em '\n' em qualquer sistema, como as
+    // compactações de GerenciadorArquivos; os leitores ainda aceitam o '\r\n' de arquivos antigos.
+    private static final byte[] SEPARADOR_LINHA = {'\n'};
+
+    private final Path diretorio;
+    private final FileChannel canalDiario;
+    // Canais dos arquivos de dados, abertos sob demanda e mantidos abertos.
+    // Acessados apenas pela thread escritora (e pela recuperação/encerramento, antes/depois dela).
+    private final Map<String, FileChannel> canaisDados = new HashMap<>();
+    private final BlockingQueue<Transacao> pendentes = new LinkedBlockingQueue<>();
+    private final BlockingQueue<PedidoExclusivo> exclusivas = new LinkedBlockingQueue<>();
+    private final Thread escritora;
+    // Coordenação com outros processos; null quando o diretório não é compartilhado.
+    private final BloqueiosEntreProcessos bloqueios;
+    // Geração dos arquivos (ver BloqueiosEntreProcessos) em que os canais foram abertos.
+    private long geracaoArquivos;
+
+    private volatile boolean ativo = true;
+    private long sequencia;
+    // Posição do diário até a qual todas as transações completas já estão nos arquivos de dados,
+    // e o registro "C|...", terminado em '\n', que acaba nela (null na posição 0). Se o registro
+    // não estiver mais lá, outro processo truncou o diário, que é então conferido desde o início.
+    private long posicaoConferida;
+    private byte[] registroConferido;
+
+    /**
+     * Conjunto de linhas que devem se tornar duráveis juntas.
+     */
+    public static final class Transacao {
+        private final List<String> arquivos = new ArrayList<>();
+        private final List<String> linhas = new ArrayList<>();
+        private final CompletableFuture<long[]> conclusao = new CompletableFuture<>();
+
+        /**
+         * Acrescenta uma linha (sem o separador final) destinada a um arquivo de dados.
+         * @param nomeArquivo O nome do arquivo dentro do diretório de dados.
+         * @param linha O conteúdo da linha.
+         * @return Esta transação, para encadeamento.
+         */
+        public Transacao acrescentar(String nomeArquivo, String linha) {
+            if (nomeArquivo == null || nomeArquivo.indexOf('|') >= 0) {
+                throw new IllegalArgumentException("Nome de arquivo inválido para o diário: " + nomeArquivo);
+            }
+            if (linha == null || linha.indexOf('\n') >= 0 || linha.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("Linha inválida para o diário: " + linha);
+            }
+            arquivos.add(nomeArquivo);
+            linhas.add(linha);
+            return this;
+        }
+
+        public boolean isVazia() {
+            return linhas.isEmpty();
+        }
+    }
+
+    /**
+     * Operação que precisa dos arquivos de dados estáveis (diário vazio e nenhuma escrita
+     * em andamento), por exemplo para reescrevê-los.
+     */
+    @FunctionalInterface
+    public interface OperacaoExclusiva {
+        void executar() throws IOException;
+    }
+
+    /** Uma operação exclusiva aguardando a thread escritora. */
+    private static final class PedidoExclusivo {
+        private final OperacaoExclusiva operacao;
+        private final CompletableFuture<Void> conclusao = new CompletableFuture<>();
+
+        private PedidoExclusivo(OperacaoExclusiva operacao) {
+            this.operacao = operacao;
+        }
+    }
+
+    /**
+     * Abre (ou cria) o diário no diretório de dados, reaplica transações confirmadas
+     * que não chegaram aos arquivos de dados e inicia a thread escritora.
+     *
+     * @param diretorio O diretório dos arquivos de dados.
+     * @param bloqueios Os bloqueios compartilhados com outros processos, ou null se apenas
+     *                  este processo grava no diretório.
+     * @throws IOException Se o diário não puder ser aberto ou recuperado.
+     */
+    @SuppressWarnings("try") // o bloqueio de gravação só precisa valer durante o bloco
+    public DiarioEscrita(Path diretorio, BloqueiosEntreProcessos bloqueios) throws IOException {
+        this.diretorio = diretorio;
+        this.bloqueios = bloqueios;
+        this.canalDiario = FileChannel.open(diretorio.resolve(NOME_DIARIO),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try (BloqueiosEntreProcessos.Bloqueio gravacao = bloquearGravacao()) {
+            acompanharGeracaoArquivos();
+            checkpoint();
+        } catch (IOException e) {
+            fecharSilenciosamente(canalDiario);
+            throw e;
+        }
+
+        this.escritora = new Thread(this::executarLacoEscrita, "diario-escrita");
+        this.escritora.setDaemon(true);
+        this.escritora.start();
+    }
+
+    /**
+     * Envia a transação para o próximo lote e aguarda até que ela seja durável e
+     * esteja visível nos arquivos de dados.
+     *
+     * @param transacao A transação a confirmar.
+     * @return A posição (offset) em que cada linha foi gravada, na ordem em que foram acrescentadas.
+     * @throws IOException Se a transação não puder ser gravada no diário.
+     */
+    public long[] confirmar(Transacao transacao) throws IOException {
+        if (transacao == null || transacao.isVazia()) {
+            return new long[0];
+        }
+        if (!ativo) {
+            throw new IOException("Diário de escrita encerrado.");
+        }
+        pendentes.add(transacao);
+        try {
+            return transacao.conclusao.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando a confirmação do diário de escrita.");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            throw new IOException("Falha ao confirmar transação no diário de escrita.", causa);
+        }
+    }
+
+    /**
+     * Executa uma operação na thread escritora, entre dois lotes e após um checkpoint, e
+     * aguarda o seu término. Depois da operação, os arquivos de dados são reabertos, de
+     * modo que ela pode substituí-los ou truncá-los livremente.
+     *
+     * @param operacao A operação a executar.
+     * @throws IOException Se a operação falhar ou o diário estiver encerrado.
+     */
+    public void executarExclusivo(OperacaoExclusiva operacao) throws IOException {
+        if (!ativo) {
+            throw new IOException("Diário de escrita encerrado.");
+        }
+        PedidoExclusivo pedido = new PedidoExclusivo(operacao);
+        exclusivas.add(pedido);
+        if (!ativo && exclusivas.remove(pedido)) {
+            // O diário foi encerrado enquanto o pedido era enfileirado.
+            throw new IOException("Diário de escrita encerrado.");
+        }
+        try {
+            pedido.conclusao.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando operação exclusiva do diário de escrita.");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            throw new IOException("Falha na operação exclusiva do diário de escrita.", causa);
+        }
+    }
+
+    /**
+     * Encerra a thread escritora após gravar as transações pendentes, faz um
+     * checkpoint e fecha todos os arquivos.
+     */
+    @Override
+    @SuppressWarnings("try")
+    public void close() {
+        if (!ativo) {
+            return;
+        }
+        ativo = false;
+        try {
+            escritora.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try (BloqueiosEntreProcessos.Bloqueio gravacao = bloquearGravacao()) {
+            checkpoint();
+        } catch (IOException e) {
+            System.err.println("DiarioEscrita: Erro no checkpoint de encerramento: " + e.getMessage());
+        }
+        for (FileChannel canal : canaisDados.values()) {
+            fecharSilenciosamente(canal);
+        }
+        fecharSilenciosamente(canalDiario);
+    }
+
+    // --- Thread escritora ---
+
+    private void executarLacoEscrita() {
+        List<Transacao> lote = new ArrayList<>();
+        while (ativo || !pendentes.isEmpty() || !exclusivas.isEmpty()) {
+            try {
+                PedidoExclusivo exclusiva = exclusivas.poll();
+                if (exclusiva != null) {
+                    executarOperacaoExclusiva(exclusiva);
+                    continue;
+                }
+                Transacao primeira = pendentes.poll(100, TimeUnit.MILLISECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+                lote.add(primeira);
+                pendentes.drainTo(lote, MAX_TRANSACOES_POR_LOTE - 1);
+                gravarLote(lote);
+            } catch (InterruptedException e) {
+                // A thread só é interrompida no encerramento; o laço drena o que restar.
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void gravarLote(List<Transacao> lote) {
+        try (BloqueiosEntreProcessos.Bloqueio gravacao = bloquearGravacao()) {
+            acompanharGeracaoArquivos();
+            gravarLoteBloqueado(lote);
+        } catch (IOException e) {
+            // Sem a região de gravação, nenhuma transação do lote foi gravada.
+            for (Transacao transacao : lote) {
+                transacao.conclusao.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void gravarLoteBloqueado(List<Transacao> lote) {
+        List<long[]> offsetsPorTransacao = new ArrayList<>(lote.size());
+        List<byte[][]> conteudoPorTransacao = new ArrayList<>(lote.size());
+        long inicioLote;
+        byte[] ultimoRegistro = null;
+        try {
+            // Lotes de outros processos (inclusive de um que caiu antes de aplicá-los) vão para os arquivos primeiro.
+            conferirDiario();
+            inicioLote = canalDiario.size();
+
+            // 1. Define a posição de cada linha no fim atual do seu arquivo. O tamanho é
+            //    consultado a cada lote, pois outros processos podem ter acrescentado linhas.
+            Map<String, Long> fimPorArquivo = new HashMap<>();
+            ByteArrayOutputStream registro = new ByteArrayOutputStream();
+            for (Transacao transacao : lote) {
+                int quantidade = transacao.linhas.size();
+                long[] offsets = new long[quantidade];
+                byte[][] conteudos = new byte[quantidade][];
+                ByteArrayOutputStream entradas = new ByteArrayOutputStream();
+
+                for (int i = 0; i < quantidade; i++) {
+                    String arquivo = transacao.arquivos.get(i);
+                    String linha = transacao.linhas.get(i);
+                    Long fim = fimPorArquivo.get(arquivo);
+                    if (fim == null) {
+                        fim = canalDados(arquivo).size();
+                    }
+                    conteudos[i] = comSeparador(linha);
+                    offsets[i] = fim;
+                    fimPorArquivo.put(arquivo, fim + conteudos[i].length);
+                    escreverTexto(entradas, "E|" + arquivo + "|" + offsets[i] + "|" + linha + "\n");
+                }
+
+                long seq = ++sequencia;
+                CRC32 crc = new CRC32();
+                crc.update(entradas.toByteArray());
+                escreverTexto(registro, "T|" + seq + "|" + quantidade + "\n");
+                entradas.writeTo(registro);
+                ultimoRegistro = ("C|" + seq + "|" + crc.getValue() + "\n").getBytes(StandardCharsets.UTF_8);
+                registro.write(ultimoRegistro, 0, ultimoRegistro.length);
+
+                offsetsPorTransacao.add(offsets);
+                conteudoPorTransacao.add(conteudos);
+            }
+
+            // 2. Uma única escrita e um único force no diário para o lote inteiro.
+            byte[] bytesLote = registro.toByteArray();
+            escreverTudo(canalDiario, ByteBuffer.wrap(bytesLote), inicioLote);
+            canalDiario.force(false);
+            inicioLote += bytesLote.length;
+        } catch (IOException | RuntimeException e) {
+            for (Transacao transacao : lote) {
+                transacao.conclusao.completeExceptionally(e);
+            }
+            return;
+        }
+
+        // 3. O lote já é durável: aplica as linhas aos arquivos de dados.
+        try {
+            for (int t = 0; t < lote.size(); t++) {
+                Transacao transacao = lote.get(t);
+                long[] offsets = offsetsPorTransacao.get(t);
+                byte[][] conteudos = conteudoPorTransacao.get(t);
+                for (int i = 0; i < offsets.length; i++) {
+                    escreverTudo(canalDados(transacao.arquivos.get(i)), ByteBuffer.wrap(conteudos[i]), offsets[i]);
+                }
+            }
+            posicaoConferida = inicioLote;
+            registroConferido = ultimoRegistro;
+        } catch (IOException e) {
+            // As transações estão no diário, além da posição conferida: serão reaplicadas antes
+            // do próximo lote (deste ou de outro processo) ou na próxima abertura.
+            System.err.println("DiarioEscrita: Erro ao aplicar lote aos arquivos de dados: " + e.getMessage());
+        }
+
+        for (int t = 0; t < lote.size(); t++) {
+            lote.get(t).conclusao.complete(offsetsPorTransacao.get(t));
+        }
+
+        try {
+            if (canalDiario.size() > LIMITE_DIARIO_BYTES) {
+                checkpoint();
+            }
+        } catch (IOException e) {
+            System.err.println("DiarioEscrita: Erro no checkpoint: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void executarOperacaoExclusiva(PedidoExclusivo pedido) {
+        try (BloqueiosEntreProcessos.Bloqueio gravacao = bloquearGravacao()) {
+            acompanharGeracaoArquivos();
+            checkpoint();
+            pedido.operacao.executar();
+            // A operação pode ter substituído arquivos que outros processos mantêm abertos.
+            if (bloqueios != null) {
+                geracaoArquivos = bloqueios.avancarGeracaoArquivos();
+            }
+            pedido.conclusao.complete(null);
+        } catch (IOException | RuntimeException e) {
+            pedido.conclusao.completeExceptionally(e);
+        } finally {
+            // A operação pode ter substituído arquivos: os canais são reabertos sob demanda.
+            for (FileChannel canal : canaisDados.values()) {
+                fecharSilenciosamente(canal);
+            }
+            canaisDados.clear();
+        }
+    }
+
+    // --- Recuperação e checkpoint ---
+
+    /**
+     * Reaplica as transações completas do diário que este processo ainda não conferiu,
+     * gravadas por ele ou por qualquer outro, e descarta do fim do diário a transação
+     * incompleta de um processo que caiu no meio da gravação (nunca confirmada ao chamador).
+     * Chamado com a região de gravação bloqueada; se o diário não mudou desde a última
+     * conferência, custa só a leitura do último registro conferido.
+     */
+    private void conferirDiario() throws IOException {
+        long tamanho = canalDiario.size();
+        boolean continua = registroConferidoPresente(tamanho);
+        if (continua && tamanho == posicaoConferida) {
+            return;
+        }
+        reaplicarDiario(continua ? posicaoConferida : 0L);
+        if (canalDiario.size() > posicaoConferida) {
+            canalDiario.truncate(posicaoConferida);
+        }
+    }
+
+    /**
+     * @return true se o diário ainda contém, terminando na posição conferida, o último registro
+     *         conferido; false se outro processo o truncou desde então.
+     */
+    private boolean registroConferidoPresente(long tamanho) throws IOException {
+        if (registroConferido == null) {
+            return posicaoConferida == 0;
+        }
+        if (tamanho < posicaoConferida) {
+            return false;
+        }
+        ByteBuffer existente = ByteBuffer.allocate(registroConferido.length);
+        long inicio = posicaoConferida - registroConferido.length;
+        while (existente.hasRemaining() && canalDiario.read(existente, inicio + existente.position()) > 0) {
+            // lê o registro
+        }
+        return Arrays.equals(existente.array(), registroConferido);
+    }
+
+    /**
+     * Reaplica as transações completas gravadas a partir da posição {@code desde} e avança a
+     * posição conferida até o fim da última delas.
+     */
+    private void reaplicarDiario(long desde) throws IOException {
+        posicaoConferida = desde;
+        if (desde == 0) {
+            registroConferido = null;
+        }
+        long tamanho = canalDiario.size();
+        if (tamanho <= desde) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(tamanho - desde, Integer.MAX_VALUE));
+        while (buffer.hasRemaining() && canalDiario.read(buffer, desde + buffer.position()) > 0) {
+            // lê até o fim
+        }
+        byte[] conteudo = buffer.array();
+        int lidos = buffer.position();
+
+        List<String[]> entradasDaTransacao = new ArrayList<>();
+        ByteArrayOutputStream bytesDaTransacao = new ByteArrayOutputStream();
+        String seqAtual = null;
+        int esperadas = -1;
+        int reaplicadas = 0;
+
+        // As posições são contadas em bytes: as linhas podem ter caracteres de mais de um byte.
+        int inicio = 0;
+        while (inicio < lidos) {
+            int fim = inicio;
+            while (fim < lidos && conteudo[fim] != '\n') {
+                fim++;
+            }
+            if (fim == lidos) {
+                break; // Linha final incompleta: transação nunca confirmada.
+            }
+            String registro = new String(conteudo, inicio, fim - inicio, StandardCharsets.UTF_8);
+            int inicioRegistro = inicio;
+            inicio = fim + 1;
+
+            if (registro.startsWith("T|")) {
+                String[] partes = registro.split("\\|");
+                seqAtual = partes.length == 3 ? partes[1] : null;
+                esperadas = partes.length == 3 ? parseIntSeguro(partes[2]) : -1;
+                entradasDaTransacao.clear();
+                bytesDaTransacao.reset();
+            } else if (registro.startsWith("E|") && seqAtual != null) {
+                String[] partes = registro.split("\\|", 4);
+                if (partes.length == 4) {
+                    entradasDaTransacao.add(partes);
+                    bytesDaTransacao.write(conteudo, inicioRegistro, inicio - inicioRegistro);
+                }
+            } else if (registro.startsWith("C|") && seqAtual != null) {
+                String[] partes = registro.split("\\|");
+                CRC32 crc = new CRC32();
+                crc.update(bytesDaTransacao.toByteArray());
+                boolean integra = partes.length == 3
+                        && partes[1].equals(seqAtual)
+                        && entradasDaTransacao.size() == esperadas
+                        && partes[2].equals(Long.toString(crc.getValue()));
+                if (integra) {
+                    for (String[] entrada : entradasDaTransacao) {
+                        if (garantirConteudo(entrada[1], Long.parseLong(entrada[2]), comSeparador(entrada[3]))) {
+                            reaplicadas++;
+                        }
+                    }
+                }
+                seqAtual = null;
+                posicaoConferida = desde + inicio;
+                registroConferido = Arrays.copyOfRange(conteudo, inicioRegistro, inicio);
+            }
+        }
+
+        if (reaplicadas > 0) {
+            System.err.println("DiarioEscrita: " + reaplicadas + " linha(s) reaplicada(s) a partir do diário.");
+        }
+    }
+
+    /**
+     * Garante que o arquivo contenha exatamente {@code conteudo} na posição informada.
+     * @return true se foi preciso escrever (a linha ainda não estava no arquivo).
+     */
+    private boolean garantirConteudo(String arquivo, long offset, byte[] conteudo) throws IOException {
+        FileChannel canal = canalDados(arquivo);
+        if (canal.size() >= offset + conteudo.length) {
+            ByteBuffer existente = ByteBuffer.allocate(conteudo.length);
+            while (existente.hasRemaining() && canal.read(existente, offset + existente.position()) > 0) {
+                // lê o trecho correspondente
+            }
+            if (Arrays.equals(existente.array(), conteudo)) {
+                return false;
+            }
+        }
+        escreverTudo(canal, ByteBuffer.wrap(conteudo), offset);
+        return true;
+    }
+
+    /**
+     * Reaplica as transações ainda não conferidas, força os arquivos de dados ao disco e
+     * trunca o diário, que deixa de ser necessário. Se a reaplicação falhar, o diário não é
+     * truncado. Chamado com a região de gravação bloqueada.
+     */
+    private void checkpoint() throws IOException {
+        conferirDiario();
+        // A conferência abriu os arquivos de todas as transações do diário, inclusive as de outros processos.
+        for (FileChannel canal : canaisDados.values()) {
+            canal.force(false);
+        }
+        canalDiario.truncate(0);
+        canalDiario.force(true);
+        posicaoConferida = 0;
+        registroConferido = null;
+    }
+
+    // --- Coordenação entre processos ---
+
+    /**
+     * @return O bloqueio da região de gravação, ou null se o diretório não é compartilhado
+     *         (um recurso nulo é ignorado pelo try-with-resources).
+     */
+    private BloqueiosEntreProcessos.Bloqueio bloquearGravacao() throws IOException {
+        return bloqueios == null ? null : bloqueios.bloquearGravacao();
+    }
+
+    /**
+     * Reabre os arquivos de dados se outro processo os substituiu desde a última gravação
+     * (por exemplo, ao compactá-los): os canais abertos apontariam para os arquivos antigos.
+     * Chamado com a região de gravação bloqueada.
+     */
+    private void acompanharGeracaoArquivos() throws IOException {
+        if (bloqueios == null) {
+            return;
+        }
+        long atual = bloqueios.geracaoArquivos();
+        if (atual != geracaoArquivos) {
+            for (FileChannel canal : canaisDados.values()) {
+                fecharSilenciosamente(canal);
+            }
+            canaisDados.clear();
+            geracaoArquivos = atual;
+        }
+    }
+
+    // --- Auxiliares ---
+
+    private FileChannel canalDados(String nomeArquivo) throws IOException {
+        FileChannel canal = canaisDados.get(nomeArquivo);
+        if (canal == null) {
+            canal = FileChannel.open(diretorio.resolve(nomeArquivo),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            canaisDados.put(nomeArquivo, canal);
+        }
+        return canal;
+    }
+
+    private static int parseIntSeguro(String valor) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static byte[] comSeparador(String linha) {
+        byte[] corpo = linha.getBytes(StandardCharsets.UTF_8);
+        byte[] resultado = Arrays.copyOf(corpo, corpo.length + SEPARADOR_LINHA.length);
+        System.arraycopy(SEPARADOR_LINHA, 0, resultado, corpo.length, SEPARADOR_LINHA.length);
+        return resultado;
+    }
+
+    private static void escreverTexto(ByteArrayOutputStream destino, String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        destino.write(bytes, 0, bytes.length);
+    }
+
+    private static void escreverTudo(FileChannel canal, ByteBuffer buffer, long posicao) throws IOException {
+        long atual = posicao;
+        while (buffer.hasRemaining()) {
+            atual += canal.write(buffer, atual);
+        }
+    }
+
+    private static void fecharSilenciosamente(Closeable recurso) {
+        try {
+            recurso.close();
+        } catch (IOException e) {
+            System.err.println("DiarioEscrita: Erro ao fechar arquivo: " + e.getMessage());
+        }
+    }
+}
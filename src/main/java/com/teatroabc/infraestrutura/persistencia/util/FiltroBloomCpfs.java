@@ -0,0 +1,261 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Filtro de Bloom sobre os CPFs cadastrados, codificados como longs de 11 dígitos.
+ * <p>
+ * Responde "com certeza não cadastrado" ou "talvez cadastrado": um CPF adicionado nunca
+ * deixa de ser encontrado, mas um CPF ausente pode, com a probabilidade escolhida na
+ * criação, parecer presente. Por isso o filtro só serve para evitar a consulta ao
+ * repositório nos casos negativos; os positivos sempre são confirmados nele.
+ * <p>
+ * O filtro guarda até que posição de clientes.txt já incorporou ({@link #getBytesCobertos()})
+ * e um CRC-32 dos bytes que antecedem essa posição, de modo que, ao ser carregado de
+ * clientes.bloom, basta ler as linhas acrescentadas desde então (ou reconstruí-lo, se o
+ * arquivo foi reescrito). Os bits são escritos por uma única thread de cada vez e
+ * publicados pela escrita (volátil) de {@code bytesCobertos}: quem lê a posição antes
+ * de consultar os bits vê todos os CPFs das linhas cobertas.
+ * <p>
+ * Layout de clientes.bloom: cabeçalho de 48 bytes (mágico, versão, funções de hash,
+ * reservado, quantidade de bits, CPFs adicionados, bytes cobertos, CRC da janela,
+ * reservado) seguido dos bits, em longs.
+ */
+public final class FiltroBloomCpfs {
+
+    /** Nome do arquivo do filtro no diretório de dados. */
+    public static final String ARQUIVO_FILTRO = "clientes.bloom";
+    /** Quantidade de bytes de clientes.txt, antes da posição coberta, conferidos pelo CRC. */
+    public static final int TAMANHO_JANELA = 256;
+    /** Valor de {@link #codificar(CharSequence)} para um texto que não é um CPF de 11 dígitos. */
+    public static final long NAO_CODIFICAVEL = -1L;
+
+    private static final int MAGICO = 0x54424C4D; // "TBLM"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 48;
+    private static final double LN2 = Math.log(2);
+
+    private final long[] bits;
+    private final long quantidadeBits;
+    private final int funcoesHash;
+    private final long capacidade;
+    private long quantidade;
+    private volatile long bytesCobertos;
+    private volatile int crcJanela;
+
+    private FiltroBloomCpfs(long[] bits, int funcoesHash, long quantidade, long bytesCobertos, int crcJanela) {
+        this.bits = bits;
+        this.quantidadeBits = (long) bits.length * Long.SIZE;
+        this.funcoesHash = funcoesHash;
+        // Capacidade para a qual a taxa de falsos positivos ainda é a de projeto: m·ln²2 / -ln p,
+        // com p = 2^-k, ou seja, m·ln2 / k.
+        this.capacidade = (long) (quantidadeBits * LN2 / funcoesHash);
+        this.quantidade = quantidade;
+        this.bytesCobertos = bytesCobertos;
+        this.crcJanela = crcJanela;
+    }
+
+    /**
+     * Cria um filtro vazio.
+     *
+     * @param capacidade A quantidade de CPFs prevista.
+     * @param taxaFalsosPositivos A taxa de falsos positivos desejada com essa quantidade (entre 0 e 1).
+     * @return O filtro, sem nenhum CPF e cobrindo 0 bytes.
+     */
+    public static FiltroBloomCpfs criar(long capacidade, double taxaFalsosPositivos) {
+        if (capacidade <= 0 || taxaFalsosPositivos <= 0 || taxaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("Capacidade e taxa de falsos positivos inválidas.");
+        }
+        int funcoesHash = Math.max(1, (int) Math.round(-Math.log(taxaFalsosPositivos) / LN2));
+        double bitsNecessarios = capacidade * funcoesHash / LN2;
+        int longs = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1L, (long) Math.ceil(bitsNecessarios / Long.SIZE)));
+        return new FiltroBloomCpfs(new long[longs], funcoesHash, 0L, 0L, 0);
+    }
+
+    /**
+     * Converte um CPF normalizado (11 dígitos) no long usado pelo filtro.
+     *
+     * @param cpf O CPF normalizado.
+     * @return O CPF como número, ou {@link #NAO_CODIFICAVEL} se não tiver exatamente 11 dígitos.
+     */
+    public static long codificar(CharSequence cpf) {
+        return cpf == null ? NAO_CODIFICAVEL : codificar(cpf, 0, cpf.length());
+    }
+
+    /**
+     * Converte o trecho [inicio, fim) de um texto em CPF, sem criar uma String.
+     *
+     * @return O CPF como número, ou {@link #NAO_CODIFICAVEL} se o trecho não tiver exatamente 11 dígitos.
+     */
+    public static long codificar(CharSequence texto, int inicio, int fim) {
+        if (fim - inicio != 11) {
+            return NAO_CODIFICAVEL;
+        }
+        long valor = 0L;
+        for (int i = inicio; i < fim; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return NAO_CODIFICAVEL;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+
+    /**
+     * Adiciona um CPF. Não deve ser chamado por duas threads ao mesmo tempo.
+     *
+     * @param cpf O CPF codificado por {@link #codificar(CharSequence)}.
+     */
+    public void adicionar(long cpf) {
+        long h1 = misturar(cpf);
+        long h2 = misturar(h1) | 1L;
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(h1 + i * h2, quantidadeBits);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        quantidade++;
+    }
+
+    /**
+     * @param cpf O CPF codificado por {@link #codificar(CharSequence)}.
+     * @return false se o CPF com certeza não foi adicionado; true se talvez tenha sido.
+     */
+    public boolean podeConter(long cpf) {
+        long h1 = misturar(cpf);
+        long h2 = misturar(h1) | 1L;
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(h1 + i * h2, quantidadeBits);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registra até onde o filtro cobre clientes.txt. Publica os CPFs adicionados antes da chamada.
+     *
+     * @param bytesCobertos A posição logo após a última linha incorporada.
+     * @param crcJanela O CRC-32 dos {@link #TAMANHO_JANELA} bytes que antecedem essa posição.
+     */
+    public void cobrirAte(long bytesCobertos, int crcJanela) {
+        this.crcJanela = crcJanela;
+        this.bytesCobertos = bytesCobertos;
+    }
+
+    /**
+     * @return A posição de clientes.txt logo após a última linha incorporada.
+     */
+    public long getBytesCobertos() {
+        return bytesCobertos;
+    }
+
+    /**
+     * @return O CRC-32 dos bytes de clientes.txt que antecedem {@link #getBytesCobertos()}.
+     */
+    public int getCrcJanela() {
+        return crcJanela;
+    }
+
+    /**
+     * @return A quantidade de CPFs adicionados (contando repetições).
+     */
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * @return true se o filtro recebeu mais CPFs do que a capacidade de projeto, e a taxa
+     *         de falsos positivos já é maior que a escolhida.
+     */
+    public boolean saturado() {
+        return quantidade > capacidade;
+    }
+
+    /**
+     * @return O tamanho dos bits do filtro, em bytes.
+     */
+    public long tamanhoEmBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    /**
+     * Grava o filtro, substituindo o arquivo anterior atomicamente.
+     *
+     * @param caminho O caminho de clientes.bloom.
+     * @throws IOException Se o arquivo não puder ser gravado.
+     */
+    public synchronized void gravar(Path caminho) throws IOException {
+        ByteBuffer conteudo = ByteBuffer.allocate(TAMANHO_CABECALHO + bits.length * Long.BYTES);
+        long cobertos = bytesCobertos; // lido antes dos bits: o arquivo nunca cobre mais do que contém
+        conteudo.putInt(MAGICO).putInt(VERSAO).putInt(funcoesHash).putInt(0)
+                .putLong(quantidadeBits).putLong(quantidade).putLong(cobertos).putInt(crcJanela).putInt(0);
+        conteudo.position(TAMANHO_CABECALHO);
+        conteudo.asLongBuffer().put(bits);
+        conteudo.position(0);
+
+        Path temporario = caminho.resolveSibling(caminho.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, caminho, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Carrega um filtro gravado por {@link #gravar(Path)}.
+     *
+     * @param caminho O caminho de clientes.bloom.
+     * @return O filtro, ou null se o arquivo não existir ou estiver inválido.
+     */
+    public static FiltroBloomCpfs carregar(Path caminho) {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho < TAMANHO_CABECALHO || tamanho > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer conteudo = ByteBuffer.allocate((int) tamanho);
+            while (conteudo.hasRemaining() && canal.read(conteudo) > 0) {
+                // lê o arquivo inteiro
+            }
+            conteudo.flip();
+            if (conteudo.remaining() != tamanho || conteudo.getInt(0) != MAGICO || conteudo.getInt(4) != VERSAO) {
+                return null;
+            }
+            int funcoesHash = conteudo.getInt(8);
+            long quantidadeBits = conteudo.getLong(16);
+            if (funcoesHash <= 0 || quantidadeBits <= 0 || quantidadeBits % Long.SIZE != 0
+                    || tamanho != TAMANHO_CABECALHO + quantidadeBits / Byte.SIZE) {
+                return null;
+            }
+            long[] bits = new long[(int) (quantidadeBits / Long.SIZE)];
+            conteudo.position(TAMANHO_CABECALHO);
+            conteudo.asLongBuffer().get(bits);
+            return new FiltroBloomCpfs(bits, funcoesHash, conteudo.getLong(24), conteudo.getLong(32), conteudo.getInt(40));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Erro ao carregar o filtro de CPFs: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Finalizador do SplitMix64: espalha os CPFs, que são sequenciais em boa parte, por todos os bits.
+    private static long misturar(long valor) {
+        long z = valor + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -2,9 +2,16 @@
 package com.teatroabc.infraestrutura.persistencia.util;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 /**
  * Utilitário de infraestrutura responsável pelo gerenciamento de leitura e escrita
@@ -14,12 +21,48 @@ import java.util.*;
  */
 public class GerenciadorArquivos {
     private static final String DIRETORIO_DADOS = "dados";
-    private static final String ARQUIVO_CLIENTES = "clientes.txt";
-    private static final String ARQUIVO_BILHETES = "bilhetes.txt";
+    // Os nomes dos arquivos acompanhados pelo MonitorArquivosDados são públicos.
+    public static final String ARQUIVO_CLIENTES = "clientes.txt";
+    public static final String ARQUIVO_BILHETES = "bilhetes.txt";
     // O arquivo para assentos ocupados foi renomeado para refletir a nova lógica.
-    private static final String ARQUIVO_ASSENTOS_OCUPADOS = "assentos_ocupados.txt";
+    public static final String ARQUIVO_ASSENTOS_OCUPADOS = "assentos_ocupados.txt";
+    private static final String ARQUIVO_SESSOES = "sessoes.txt";
+    // Snapshot compacto da ocupação (ver compactarAssentosOcupados): "idSessao|codigo1,codigo2,...".
+    public static final String ARQUIVO_SNAPSHOT_ASSENTOS_OCUPADOS = "assentos_ocupados.snapshot";
+    // Entradas registradas na portaria: "idBilhete|idSessao|dd/MM/yyyy HH:mm|porta".
+    public static final String ARQUIVO_ENTRADAS = "entradas.txt";
+    // Retenções temporárias de assentos: "R|token|idSessao|expiraEmMs|codigo1,codigo2,..." e "L|token".
+    public static final String ARQUIVO_RETENCOES = "retencoes_assentos.txt";
+    // Cabeçalho de retencoes_assentos.txt após uma compactação: "#geracao|N".
+    private static final String PREFIXO_GERACAO_RETENCOES = "#geracao|";
+    // Bytes que os caches conferem por CRC antes da posição já lida (ver crcClientesAntesDe).
+    public static final int JANELA_CONTINUIDADE = 256;
 
-    // O bloco estático garante que o diretório de dados exista ao iniciar a aplicação.
+    /**
+     * Recebe, durante uma varredura, cada linha completa de um arquivo junto com a
+     * posição (em bytes) em que ela começa.
+     */
+    @FunctionalInterface
+    public interface ConsumidorLinha {
+        void aceitar(long offset, String linha);
+    }
+
+    /**
+     * Recebe, durante uma varredura da ocupação, cada assento ocupado de cada sessão.
+     */
+    @FunctionalInterface
+    public interface ConsumidorOcupacao {
+        void aceitar(String idSessao, String codigoAssento);
+    }
+
+    // Bloqueios compartilhados com os outros terminais que usam o mesmo diretório de dados.
+    private static final BloqueiosEntreProcessos BLOQUEIOS;
+    // Diário de escrita com confirmação em grupo pelo qual passam todas as gravações.
+    private static final DiarioEscrita DIARIO;
+
+    // O bloco estático garante que o diretório de dados exista ao iniciar a aplicação,
+    // abre os bloqueios entre processos e o diário de escrita (reaplicando transações
+    // pendentes de uma queda anterior).
     static {
         try {
             Path diretorio = Paths.get(DIRETORIO_DADOS);
@@ -30,90 +73,646 @@ public class GerenciadorArquivos {
             System.err.println("Erro crítico ao inicializar GerenciadorArquivos: " + e.getMessage());
             e.printStackTrace();
         }
+
+        BloqueiosEntreProcessos bloqueios = null;
+        try {
+            bloqueios = new BloqueiosEntreProcessos(
+                    Paths.get(DIRETORIO_DADOS, BloqueiosEntreProcessos.ARQUIVO_BLOQUEIOS), BloqueiosEntreProcessos.BALDES_PADRAO);
+        } catch (IOException e) {
+            System.err.println("Erro crítico ao abrir os bloqueios entre processos; outros terminais não serão coordenados: " + e.getMessage());
+            e.printStackTrace();
+        }
+        BLOQUEIOS = bloqueios;
+
+        DiarioEscrita diario = null;
+        try {
+            diario = new DiarioEscrita(Paths.get(DIRETORIO_DADOS), BLOQUEIOS);
+            Runtime.getRuntime().addShutdownHook(new Thread(diario::close, "diario-escrita-encerramento"));
+        } catch (IOException e) {
+            System.err.println("Erro crítico ao abrir o diário de escrita: " + e.getMessage());
+            e.printStackTrace();
+        }
+        DIARIO = diario;
     }
 
-    // --- Métodos para Clientes (sem alterações) ---
-    public static void salvarCliente(String linhaCliente) {
-        salvarLinha(ARQUIVO_CLIENTES, linhaCliente);
+    // --- Métodos para Clientes ---
+    public static boolean salvarCliente(String linhaCliente) {
+        return salvarLinha(ARQUIVO_CLIENTES, linhaCliente);
     }
 
     public static List<String> lerClientes() {
         return lerArquivo(ARQUIVO_CLIENTES);
     }
 
-    public static String buscarClientePorCpf(String cpf) {
-        List<String> clientes = lerClientes();
-        for (String linha : clientes) {
-            if (linha.startsWith(cpf + "|")) {
-                return linha;
+    /**
+     * Percorre as linhas de clientes.txt a partir de uma posição, informando o offset de
+     * cada linha. Usado para acompanhar incrementalmente os clientes cadastrados por
+     * outros terminais.
+     *
+     * @param desdeOffset A posição (em bytes) do início da primeira linha a ler.
+     * @param consumidor Recebe cada linha completa e seu offset.
+     * @return A posição logo após a última linha completa lida.
+     */
+    public static long varrerClientes(long desdeOffset, ConsumidorLinha consumidor) {
+        return varrerLinhas(ARQUIVO_CLIENTES, desdeOffset, consumidor);
+    }
+
+    /**
+     * @return O tamanho atual de clientes.txt em bytes (0 se o arquivo não existir).
+     */
+    public static long tamanhoClientes() {
+        return Math.max(0L, lerAssinatura(ARQUIVO_CLIENTES).getTamanho());
+    }
+
+    /**
+     * Calcula o CRC-32 dos {@code janela} bytes de clientes.txt que antecedem uma posição.
+     * Um cache que guardou esse CRC junto com a posição até onde leu o arquivo consegue
+     * conferir, com uma leitura curta, se as linhas acrescentadas continuam a partir dali
+     * ou se o arquivo foi reescrito (pela compactação) e precisa ser lido desde o início.
+     *
+     * @param posicao A posição (em bytes) que encerra a janela.
+     * @param janela A quantidade máxima de bytes conferidos (menos, se a posição estiver no começo do arquivo).
+     * @return O CRC-32 da janela, ou -1 se o arquivo for menor que a posição ou não puder ser lido.
+     */
+    public static long crcClientesAntesDe(long posicao, int janela) {
+        return crcAntesDe(ARQUIVO_CLIENTES, posicao, janela);
+    }
+
+    /**
+     * Retorna a assinatura atual (tamanho e data de modificação) do arquivo de clientes.
+     * Permite que índices em memória detectem alterações sem reler o arquivo.
+     *
+     * @return A assinatura do arquivo, ou {@link AssinaturaArquivo#INEXISTENTE} se ele não existir.
+     */
+    public static AssinaturaArquivo assinaturaClientes() {
+        return lerAssinatura(ARQUIVO_CLIENTES);
+    }
+
+    /**
+     * Reescreve clientes.txt mantendo apenas a primeira linha de cada CPF (a que sempre
+     * prevaleceu nas buscas) e descartando linhas em branco. A reescrita acontece na
+     * thread do diário de escrita, sem nenhuma gravação em andamento, e substitui o
+     * arquivo atomicamente. Se não houver nada a remover, o arquivo não é tocado.
+     *
+     * @return A quantidade de linhas removidas.
+     * @throws IOException Se o arquivo não puder ser reescrito.
+     */
+    public static int compactarClientes() throws IOException {
+        int[] removidas = new int[1];
+        executarNoDiario(() -> {
+            List<String> linhas = lerArquivo(ARQUIVO_CLIENTES);
+            Set<String> cpfsVistos = new HashSet<>();
+            List<String> mantidas = new ArrayList<>(linhas.size());
+            for (String linha : linhas) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                int separador = linha.indexOf('|');
+                String cpf = separador < 0 ? linha : linha.substring(0, separador);
+                if (cpfsVistos.add(cpf)) {
+                    mantidas.add(linha);
+                }
             }
+            removidas[0] = linhas.size() - mantidas.size();
+            if (removidas[0] > 0) {
+                gravarAtomicamente(ARQUIVO_CLIENTES, mantidas);
+            }
+        });
+        return removidas[0];
+    }
+
+    /**
+     * Grava a linha de um bilhete e as linhas de ocupação dos seus assentos como uma
+     * única transação do diário: ou todas se tornam duráveis, ou nenhuma.
+     *
+     * @param linhaBilhete A linha do bilhete, já formatada.
+     * @param idSessao O ID da sessão cujos assentos foram vendidos.
+     * @param codigosAssentos Os códigos dos assentos vendidos.
+     * @return A posição (offset) em que a linha do bilhete foi gravada em bilhetes.txt.
+     * @throws UncheckedIOException Se a transação não puder ser confirmada.
+     */
+    public static long salvarBilheteComOcupacao(String linhaBilhete, String idSessao, Collection<String> codigosAssentos) {
+        DiarioEscrita.Transacao transacao = new DiarioEscrita.Transacao();
+        acrescentarBilheteComOcupacao(transacao, linhaBilhete, idSessao, codigosAssentos);
+        try {
+            return confirmarNoDiario(transacao)[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao salvar bilhete e ocupação de assentos: " + linhaBilhete, e);
+        }
+    }
+
+    /**
+     * Grava as linhas de vários bilhetes, com a ocupação dos assentos de cada um, como uma
+     * única transação do diário: ou todos os bilhetes se tornam duráveis, ou nenhum.
+     *
+     * @param linhasBilhetes As linhas dos bilhetes, já formatadas.
+     * @param idsSessoes O ID da sessão de cada bilhete (na mesma ordem).
+     * @param codigosAssentos Os códigos dos assentos de cada bilhete (na mesma ordem).
+     * @throws UncheckedIOException Se a transação não puder ser confirmada.
+     */
+    public static void salvarBilhetesComOcupacao(List<String> linhasBilhetes, List<String> idsSessoes,
+                                                 List<? extends Collection<String>> codigosAssentos) {
+        if (linhasBilhetes.size() != idsSessoes.size() || linhasBilhetes.size() != codigosAssentos.size()) {
+            throw new IllegalArgumentException("Cada bilhete precisa de uma sessão e de uma lista de assentos.");
+        }
+        DiarioEscrita.Transacao transacao = new DiarioEscrita.Transacao();
+        for (int i = 0; i < linhasBilhetes.size(); i++) {
+            acrescentarBilheteComOcupacao(transacao, linhasBilhetes.get(i), idsSessoes.get(i), codigosAssentos.get(i));
+        }
+        if (transacao.isVazia()) {
+            return;
+        }
+        try {
+            confirmarNoDiario(transacao);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao salvar " + linhasBilhetes.size() + " bilhete(s) e a ocupação de assentos.", e);
         }
-        return null;
     }
 
-    // --- Métodos para Bilhetes (sem alterações na leitura/escrita) ---
-    public static void salvarBilhete(String linhaBilhete) {
-        salvarLinha(ARQUIVO_BILHETES, linhaBilhete);
+    private static void acrescentarBilheteComOcupacao(DiarioEscrita.Transacao transacao, String linhaBilhete,
+                                                      String idSessao, Collection<String> codigosAssentos) {
+        transacao.acrescentar(ARQUIVO_BILHETES, linhaBilhete);
+        for (String codigoAssento : codigosAssentos) {
+            transacao.acrescentar(ARQUIVO_ASSENTOS_OCUPADOS, idSessao + "|" + codigoAssento);
+        }
+    }
+
+    /**
+     * Abre as linhas de bilhetes.txt como um stream preguiçoso, lido por um leitor com
+     * buffer: a memória usada não depende do tamanho do arquivo. O stream deve ser fechado
+     * para liberar o arquivo.
+     *
+     * @return As linhas do arquivo (vazio se o arquivo não existir).
+     */
+    public static Stream<String> linhasBilhetes() {
+        return linhasArquivo(ARQUIVO_BILHETES);
+    }
+
+    /**
+     * Como {@link #linhasBilhetes()}, mas inclui antes os bilhetes dos segmentos selados
+     * ({@link SegmentoBilhetes}), do mês mais antigo para o mais recente. Usado por quem
+     * precisa de todo o histórico (migração e importação).
+     *
+     * @return Todas as linhas de bilhetes, em ordem de compra. O stream deve ser fechado.
+     */
+    public static Stream<String> linhasTodosBilhetes() {
+        List<SegmentoBilhetes> segmentos = new CatalogoSegmentosBilhetes(Paths.get(DIRETORIO_DADOS)).segmentos();
+        return Stream.concat(segmentos.stream().flatMap(SegmentoBilhetes::linhas), linhasBilhetes());
     }
 
-    public static List<String> lerBilhetes() {
-        return lerArquivo(ARQUIVO_BILHETES);
+    /**
+     * Retorna o mês da compra do primeiro bilhete de bilhetes.txt (lendo apenas o início
+     * do arquivo). Como os bilhetes são gravados no momento da compra, um mês anterior ao
+     * atual indica que há bilhetes a selar.
+     *
+     * @return O mês do primeiro bilhete com data válida, ou null se não houver nenhum.
+     */
+    public static YearMonth mesDoPrimeiroBilhete() {
+        CursorRegistro campos = new CursorRegistro('|');
+        try (Stream<String> linhas = linhasBilhetes()) {
+            return linhas.map(linha -> mesDaCompra(campos, linha)).filter(Objects::nonNull).findFirst().orElse(null);
+        }
     }
 
-    public static List<String> buscarBilhetesPorCpf(String cpfCliente) {
-        List<String> todosBilhetes = lerBilhetes();
-        List<String> bilhetesDoCliente = new ArrayList<>();
-        for (String linha : todosBilhetes) {
-            String[] partes = linha.split("\\|");
-            if (partes.length > 2 && partes[2].equals(cpfCliente)) {
-                bilhetesDoCliente.add(linha);
+    /**
+     * Retira de bilhetes.txt os bilhetes comprados antes do mês informado e os grava em
+     * segmentos selados, um por mês ({@link SegmentoBilhetes}); bilhetes.txt passa a ter só
+     * os bilhetes do mês em aberto (e linhas sem data válida, que ficam como estão).
+     * <p>
+     * Os segmentos são gravados antes de bilhetes.txt ser substituído. Uma queda entre os
+     * dois passos deixa os bilhetes nos dois lugares por algum tempo; na selagem seguinte,
+     * os que já estão em um segmento do mês são apenas retirados de bilhetes.txt. A selagem
+     * roda na thread do diário de escrita, sem nenhuma gravação em andamento.
+     *
+     * @param mesAberto O mês corrente, cujos bilhetes permanecem em bilhetes.txt.
+     * @return A quantidade de bilhetes retirados de bilhetes.txt.
+     * @throws IOException Se um segmento ou o novo bilhetes.txt não puder ser gravado.
+     */
+    public static int selarBilhetesAnteriores(YearMonth mesAberto) throws IOException {
+        int[] selados = new int[1];
+        executarNoDiario(() -> {
+            List<String> linhas = lerArquivo(ARQUIVO_BILHETES);
+            Map<YearMonth, List<String>> linhasPorMes = new TreeMap<>();
+            List<String> mantidas = new ArrayList<>();
+            CursorRegistro campos = new CursorRegistro('|');
+            for (String linha : linhas) {
+                YearMonth mes = mesDaCompra(campos, linha);
+                if (mes != null && mes.isBefore(mesAberto)) {
+                    linhasPorMes.computeIfAbsent(mes, m -> new ArrayList<>()).add(linha);
+                } else {
+                    mantidas.add(linha);
+                }
+            }
+            if (linhasPorMes.isEmpty()) {
+                return;
+            }
+
+            List<SegmentoBilhetes> existentes = new CatalogoSegmentosBilhetes(Paths.get(DIRETORIO_DADOS)).segmentos();
+            for (Map.Entry<YearMonth, List<String>> mes : linhasPorMes.entrySet()) {
+                List<SegmentoBilhetes> doMes = new ArrayList<>();
+                for (SegmentoBilhetes segmento : existentes) {
+                    if (segmento.getMes().equals(mes.getKey())) {
+                        doMes.add(segmento);
+                    }
+                }
+                // Bilhetes já selados (por exemplo, antes de uma queda) não são gravados de novo.
+                List<String> novas = new ArrayList<>(mes.getValue().size());
+                for (String linha : mes.getValue()) {
+                    campos.sobre(linha);
+                    String id = campos.texto(0);
+                    if (doMes.stream().noneMatch(segmento -> segmento.linhaDoId(id) != null)) {
+                        novas.add(linha);
+                    }
+                }
+                if (!novas.isEmpty()) {
+                    int sequencia = doMes.stream().mapToInt(SegmentoBilhetes::getSequencia).max().orElse(0) + 1;
+                    SegmentoBilhetes.gravar(
+                            Paths.get(DIRETORIO_DADOS, SegmentoBilhetes.nomeArquivo(mes.getKey(), sequencia)), novas);
+                }
+                selados[0] += mes.getValue().size();
             }
+            gravarAtomicamente(ARQUIVO_BILHETES, mantidas);
+        });
+        return selados[0];
+    }
+
+    /**
+     * @return O mês da compra (campo 9) de uma linha de bilhete, ou null se a linha não tiver uma data válida.
+     */
+    private static YearMonth mesDaCompra(CursorRegistro campos, String linha) {
+        if (campos.sobre(linha).quantidadeCampos() < 10) {
+            return null;
         }
-        return bilhetesDoCliente;
+        try {
+            return YearMonth.from(campos.dataHora(9));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Percorre as linhas de bilhetes.txt a partir de uma posição, informando o offset de
+     * cada linha. Usado para construir e atualizar incrementalmente índices por offset.
+     *
+     * @param desdeOffset A posição (em bytes) do início da primeira linha a ler.
+     * @param consumidor Recebe cada linha completa e seu offset.
+     * @return A posição logo após a última linha completa lida.
+     */
+    public static long varrerBilhetes(long desdeOffset, ConsumidorLinha consumidor) {
+        return varrerLinhas(ARQUIVO_BILHETES, desdeOffset, consumidor);
+    }
+
+    /**
+     * Lê as linhas de bilhetes.txt que começam nas posições informadas, com um único
+     * posicionamento (seek) por linha, sem percorrer o restante do arquivo.
+     *
+     * @param offsets As posições de início das linhas desejadas.
+     * @return As linhas lidas, na mesma ordem dos offsets.
+     */
+    public static List<String> lerBilhetesEm(List<Long> offsets) {
+        return lerLinhasEm(ARQUIVO_BILHETES, offsets);
+    }
+
+    /**
+     * @return O tamanho atual de bilhetes.txt em bytes (0 se o arquivo não existir).
+     */
+    public static long tamanhoBilhetes() {
+        return Math.max(0L, lerAssinatura(ARQUIVO_BILHETES).getTamanho());
+    }
+
+    /**
+     * Como {@link #crcClientesAntesDe}, para bilhetes.txt (reescrito pela selagem dos meses fechados).
+     */
+    public static long crcBilhetesAntesDe(long posicao, int janela) {
+        return crcAntesDe(ARQUIVO_BILHETES, posicao, janela);
     }
 
     // --- MÉTODOS DE ASSENTOS OCUPADOS REFATORADOS ---
 
     /**
-     * Registra que um assento foi ocupado para uma sessão específica.
-     * Salva uma linha no formato "idSessao|codigoAssento".
+     * Registra a ocupação de vários assentos de uma sessão como uma única transação do diário.
      *
-     * @param idSessao O ID da sessão para a qual o assento foi ocupado.
-     * @param codigoAssento O código do assento ocupado.
+     * @param idSessao O ID da sessão.
+     * @param codigosAssentos Os códigos dos assentos ocupados.
+     * @throws UncheckedIOException Se a transação não puder ser confirmada.
      */
-    public static void marcarAssentoOcupado(String idSessao, String codigoAssento) {
-        String linhaOcupacao = idSessao + "|" + codigoAssento;
-        salvarLinha(ARQUIVO_ASSENTOS_OCUPADOS, linhaOcupacao);
+    public static void marcarAssentosOcupados(String idSessao, Collection<String> codigosAssentos) {
+        marcarAssentosOcupados(Collections.singletonMap(idSessao, codigosAssentos));
     }
 
     /**
-     * Busca todos os códigos de assentos que estão registrados como ocupados
-     * para uma determinada sessão.
+     * Registra a ocupação de assentos de várias sessões como uma única transação do diário.
      *
-     * @param idSessao O ID da sessão a ser consultada.
-     * @return Um Set contendo os códigos dos assentos ocupados.
+     * @param codigosPorSessao Os códigos dos assentos ocupados, por ID da sessão.
+     * @throws UncheckedIOException Se a transação não puder ser confirmada.
      */
-    public static Set<String> buscarAssentosOcupados(String idSessao) {
-        Set<String> assentosOcupados = new HashSet<>();
-        List<String> linhas = lerArquivo(ARQUIVO_ASSENTOS_OCUPADOS);
-        String prefixoBusca = idSessao + "|";
+    public static void marcarAssentosOcupados(Map<String, ? extends Collection<String>> codigosPorSessao) {
+        DiarioEscrita.Transacao transacao = new DiarioEscrita.Transacao();
+        for (Map.Entry<String, ? extends Collection<String>> sessao : codigosPorSessao.entrySet()) {
+            for (String codigoAssento : sessao.getValue()) {
+                transacao.acrescentar(ARQUIVO_ASSENTOS_OCUPADOS, sessao.getKey() + "|" + codigoAssento);
+            }
+        }
+        if (transacao.isVazia()) {
+            return;
+        }
+        try {
+            confirmarNoDiario(transacao);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao registrar assentos ocupados das sessões " + codigosPorSessao.keySet(), e);
+        }
+    }
+
+    /**
+     * Percorre toda a ocupação persistida: primeiro o snapshot mais recente, depois as
+     * linhas de assentos_ocupados.txt gravadas desde a última compactação.
+     * Usado para a carga inicial do registro de ocupação em memória.
+     *
+     * @param consumidor Recebe cada par (sessão, assento) ocupado. Um mesmo par pode
+     *                   aparecer mais de uma vez (por exemplo, após uma queda durante a compactação).
+     * @return A posição, em assentos_ocupados.txt, logo após a última linha completa lida
+     *         (o ponto de partida de {@link #varrerLogAssentosOcupados}).
+     */
+    public static long varrerAssentosOcupados(ConsumidorOcupacao consumidor) {
+        varrerLinhas(ARQUIVO_SNAPSHOT_ASSENTOS_OCUPADOS, 0L, (offset, linha) -> {
+            int separador = linha.indexOf('|');
+            if (separador <= 0 || linha.startsWith("#")) {
+                return;
+            }
+            String idSessao = linha.substring(0, separador);
+            int inicio = separador + 1;
+            while (inicio < linha.length()) {
+                int fim = linha.indexOf(',', inicio);
+                if (fim < 0) {
+                    fim = linha.length();
+                }
+                if (fim > inicio) {
+                    consumidor.aceitar(idSessao, linha.substring(inicio, fim));
+                }
+                inicio = fim + 1;
+            }
+        });
+        return varrerLogAssentosOcupados(0L, consumidor);
+    }
 
-        for (String linha : linhas) {
-            if (linha.startsWith(prefixoBusca)) {
-                String codigoAssento = linha.substring(prefixoBusca.length());
-                assentosOcupados.add(codigoAssento);
+    /**
+     * Percorre as linhas de assentos_ocupados.txt a partir de uma posição, sem reler o
+     * snapshot. Usado para acompanhar as vendas de outros terminais lendo apenas os
+     * bytes acrescentados ao log.
+     *
+     * @param desdeOffset A posição (em bytes) do início da primeira linha a ler.
+     * @param consumidor Recebe cada par (sessão, assento) das linhas lidas.
+     * @return A posição logo após a última linha completa lida.
+     */
+    public static long varrerLogAssentosOcupados(long desdeOffset, ConsumidorOcupacao consumidor) {
+        return varrerLinhas(ARQUIVO_ASSENTOS_OCUPADOS, desdeOffset, (offset, linha) -> {
+            int separador = linha.indexOf('|');
+            if (separador > 0) {
+                consumidor.aceitar(linha.substring(0, separador), linha.substring(separador + 1));
             }
+        });
+    }
+
+    /**
+     * @return O tamanho atual de assentos_ocupados.txt em bytes (0 se o arquivo não existir),
+     *         isto é, o quanto o log cresceu desde a última compactação.
+     */
+    public static long tamanhoAssentosOcupados() {
+        return Math.max(0L, lerAssinatura(ARQUIVO_ASSENTOS_OCUPADOS).getTamanho());
+    }
+
+    /**
+     * Como {@link #crcClientesAntesDe}, para assentos_ocupados.txt (truncado pela compactação).
+     */
+    public static long crcAssentosOcupadosAntesDe(long posicao, int janela) {
+        return crcAntesDe(ARQUIVO_ASSENTOS_OCUPADOS, posicao, janela);
+    }
+
+    /**
+     * Incorpora o log de assentos ocupados ao snapshot: grava um novo snapshot com o
+     * conjunto de assentos ocupados de cada sessão (snapshot anterior mais o log) e, só
+     * depois de substituí-lo atomicamente, trunca assentos_ocupados.txt. Uma queda entre
+     * os dois passos apenas faz o log ser lido de novo sobre um snapshot que já o contém.
+     * A compactação roda na thread do diário de escrita, sem nenhuma gravação em andamento.
+     *
+     * @return A quantidade de sessões no novo snapshot.
+     * @throws IOException Se o snapshot não puder ser gravado ou o log não puder ser truncado.
+     */
+    public static int compactarAssentosOcupados() throws IOException {
+        int[] sessoes = new int[1];
+        executarNoDiario(() -> {
+            Map<String, Set<String>> ocupacaoPorSessao = new LinkedHashMap<>();
+            varrerAssentosOcupados((idSessao, codigoAssento) ->
+                    ocupacaoPorSessao.computeIfAbsent(idSessao, id -> new LinkedHashSet<>()).add(codigoAssento));
+
+            List<String> linhas = new ArrayList<>(ocupacaoPorSessao.size() + 1);
+            linhas.add("#snapshot|" + System.currentTimeMillis());
+            for (Map.Entry<String, Set<String>> entrada : ocupacaoPorSessao.entrySet()) {
+                linhas.add(entrada.getKey() + "|" + String.join(",", entrada.getValue()));
+            }
+            gravarAtomicamente(ARQUIVO_SNAPSHOT_ASSENTOS_OCUPADOS, linhas);
+
+            Path log = Paths.get(DIRETORIO_DADOS, ARQUIVO_ASSENTOS_OCUPADOS);
+            if (Files.exists(log)) {
+                try (FileChannel canal = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                    canal.truncate(0L);
+                    canal.force(true);
+                }
+            }
+            sessoes[0] = ocupacaoPorSessao.size();
+        });
+        return sessoes[0];
+    }
+
+    // --- Métodos para o Catálogo de Sessões ---
+
+    /**
+     * Grava várias linhas do catálogo de sessões como uma única transação do diário.
+     *
+     * @param linhasSessoes As linhas das sessões, já formatadas.
+     * @throws UncheckedIOException Se a transação não puder ser confirmada.
+     */
+    public static void salvarSessoes(List<String> linhasSessoes) {
+        DiarioEscrita.Transacao transacao = new DiarioEscrita.Transacao();
+        for (String linha : linhasSessoes) {
+            transacao.acrescentar(ARQUIVO_SESSOES, linha);
+        }
+        if (transacao.isVazia()) {
+            return;
+        }
+        try {
+            confirmarNoDiario(transacao);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao salvar o catálogo de sessões", e);
+        }
+    }
+
+    /**
+     * Percorre as linhas de sessoes.txt a partir de uma posição, informando o offset de cada linha.
+     * @return A posição logo após a última linha completa lida.
+     */
+    public static long varrerSessoes(long desdeOffset, ConsumidorLinha consumidor) {
+        return varrerLinhas(ARQUIVO_SESSOES, desdeOffset, consumidor);
+    }
+
+    /**
+     * Lê as linhas de sessoes.txt que começam nas posições informadas.
+     * @return As linhas lidas, na mesma ordem dos offsets.
+     */
+    public static List<String> lerSessoesEm(List<Long> offsets) {
+        return lerLinhasEm(ARQUIVO_SESSOES, offsets);
+    }
+
+    /**
+     * @return O tamanho atual de sessoes.txt em bytes (0 se o arquivo não existir).
+     */
+    public static long tamanhoSessoes() {
+        return Math.max(0L, lerAssinatura(ARQUIVO_SESSOES).getTamanho());
+    }
+
+    /**
+     * Resolve o caminho de um arquivo dentro do diretório de dados, para adaptadores
+     * que gerenciam seus próprios arquivos (por exemplo, o armazenamento binário de bilhetes).
+     *
+     * @param nomeArquivo O nome do arquivo.
+     * @return O caminho do arquivo no diretório de dados.
+     */
+    public static Path caminhoArquivo(String nomeArquivo) {
+        return Paths.get(DIRETORIO_DADOS, nomeArquivo);
+    }
+
+    /**
+     * @return Os bloqueios compartilhados com outros processos que usam o diretório de dados,
+     *         ou null se o arquivo de bloqueios não pôde ser aberto.
+     */
+    public static BloqueiosEntreProcessos bloqueiosEntreProcessos() {
+        return BLOQUEIOS;
+    }
+
+    /**
+     * @return O diretório de dados, onde ficam todos os arquivos.
+     */
+    public static Path diretorioDados() {
+        return Paths.get(DIRETORIO_DADOS);
+    }
+
+    // --- Métodos para as Entradas (portaria) ---
+
+    /**
+     * Grava a linha de uma entrada na portaria.
+     *
+     * @param linhaEntrada A linha já formatada.
+     * @return true se a linha foi confirmada no diário de escrita.
+     */
+    public static boolean salvarEntrada(String linhaEntrada) {
+        return salvarLinha(ARQUIVO_ENTRADAS, linhaEntrada);
+    }
+
+    /**
+     * Percorre as linhas de entradas.txt a partir de uma posição, informando o offset de cada linha.
+     * @return A posição logo após a última linha completa lida.
+     */
+    public static long varrerEntradas(long desdeOffset, ConsumidorLinha consumidor) {
+        return varrerLinhas(ARQUIVO_ENTRADAS, desdeOffset, consumidor);
+    }
+
+    /**
+     * @return O tamanho atual de entradas.txt em bytes (0 se o arquivo não existir).
+     */
+    public static long tamanhoEntradas() {
+        return Math.max(0L, lerAssinatura(ARQUIVO_ENTRADAS).getTamanho());
+    }
+
+    /**
+     * Como {@link #crcClientesAntesDe}, para entradas.txt.
+     */
+    public static long crcEntradasAntesDe(long posicao, int janela) {
+        return crcAntesDe(ARQUIVO_ENTRADAS, posicao, janela);
+    }
+
+    // --- Métodos para as Retenções temporárias de assentos ---
+
+    /**
+     * Acrescenta uma linha ao log de retenções. O chamador deve deter a região de
+     * retenções dos {@link BloqueiosEntreProcessos}, se houver outros terminais.
+     *
+     * @param linhaRetencao A linha já formatada.
+     * @throws UncheckedIOException Se a linha não puder ser confirmada no diário de escrita.
+     */
+    public static void salvarRetencao(String linhaRetencao) {
+        try {
+            confirmarNoDiario(new DiarioEscrita.Transacao().acrescentar(ARQUIVO_RETENCOES, linhaRetencao));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível registrar a retenção de assentos.", e);
         }
-        return assentosOcupados;
+    }
+
+    /**
+     * Percorre as linhas de retencoes_assentos.txt a partir de uma posição. A linha de
+     * cabeçalho (a geração do arquivo) não é repassada.
+     * @return A posição logo após a última linha completa lida.
+     */
+    public static long varrerRetencoes(long desdeOffset, ConsumidorLinha consumidor) {
+        return varrerLinhas(ARQUIVO_RETENCOES, desdeOffset, (offset, linha) -> {
+            if (!linha.startsWith("#")) {
+                consumidor.aceitar(offset, linha);
+            }
+        });
+    }
+
+    /**
+     * @return O tamanho atual de retencoes_assentos.txt em bytes (0 se o arquivo não existir).
+     */
+    public static long tamanhoRetencoes() {
+        return Math.max(0L, lerAssinatura(ARQUIVO_RETENCOES).getTamanho());
+    }
+
+    /**
+     * Lê a geração de retencoes_assentos.txt, incrementada a cada compactação: se mudou,
+     * as posições já lidas do arquivo anterior não valem mais.
+     *
+     * @return A geração do arquivo (0 se ele nunca foi compactado ou não existe).
+     */
+    public static long geracaoRetencoes() {
+        Path caminho = Paths.get(DIRETORIO_DADOS, ARQUIVO_RETENCOES);
+        try (BufferedReader leitor = Files.newBufferedReader(caminho, StandardCharsets.UTF_8)) {
+            String primeira = leitor.readLine();
+            if (primeira != null && primeira.startsWith(PREFIXO_GERACAO_RETENCOES)) {
+                return Long.parseLong(primeira.substring(PREFIXO_GERACAO_RETENCOES.length()));
+            }
+        } catch (NoSuchFileException e) {
+            return 0L;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Erro ao ler a geração de " + ARQUIVO_RETENCOES + ": " + e.getMessage());
+        }
+        return 0L;
+    }
+
+    /**
+     * Substitui o log de retenções pelas linhas das retenções ainda válidas, com a geração
+     * seguinte no cabeçalho. Roda na thread do diário de escrita, sem nenhuma gravação em
+     * andamento; o chamador deve deter a região de retenções.
+     *
+     * @param linhasAtivas As linhas das retenções ainda válidas.
+     * @return A nova geração do arquivo.
+     * @throws IOException Se o arquivo não puder ser substituído.
+     */
+    public static long compactarRetencoes(List<String> linhasAtivas) throws IOException {
+        long[] geracao = new long[1];
+        executarNoDiario(() -> {
+            geracao[0] = geracaoRetencoes() + 1;
+            List<String> linhas = new ArrayList<>(linhasAtivas.size() + 1);
+            linhas.add(PREFIXO_GERACAO_RETENCOES + geracao[0]);
+            linhas.addAll(linhasAtivas);
+            gravarAtomicamente(ARQUIVO_RETENCOES, linhas);
+        });
+        return geracao[0];
     }
 
     // --- Métodos Auxiliares Genéricos de Manipulação de Arquivo ---
     private static boolean salvarLinha(String nomeArquivo, String linha) {
-        Path caminho = Paths.get(DIRETORIO_DADOS, nomeArquivo);
         try {
-            Files.write(caminho,
-                    (linha + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
-                    StandardOpenOption.APPEND, StandardOpenOption.CREATE);
+            confirmarNoDiario(new DiarioEscrita.Transacao().acrescentar(nomeArquivo, linha));
             return true;
         } catch (IOException e) {
             System.err.println("Erro ao salvar linha no arquivo " + nomeArquivo + ": " + linha);
@@ -122,6 +721,172 @@ public class GerenciadorArquivos {
         }
     }
 
+    private static Stream<String> linhasArquivo(String nomeArquivo) {
+        Path caminho = Paths.get(DIRETORIO_DADOS, nomeArquivo);
+        try {
+            BufferedReader leitor = new BufferedReader(
+                    new InputStreamReader(Files.newInputStream(caminho), StandardCharsets.UTF_8), 64 * 1024);
+            return leitor.lines().onClose(() -> {
+                try {
+                    leitor.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (NoSuchFileException e) {
+            return Stream.empty();
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir arquivo " + nomeArquivo + ": " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    private static long varrerLinhas(String nomeArquivo, long desdeOffset, ConsumidorLinha consumidor) {
+        Path caminho = Paths.get(DIRETORIO_DADOS, nomeArquivo);
+        long inicioLinha = desdeOffset;
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            ByteArrayOutputStream linhaAtual = new ByteArrayOutputStream(256);
+            long posicao = desdeOffset;
+            while (canal.read(buffer, posicao) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    posicao++;
+                    if (b == '\n') {
+                        consumidor.aceitar(inicioLinha, decodificarLinha(linhaAtual));
+                        linhaAtual.reset();
+                        inicioLinha = posicao;
+                    } else {
+                        linhaAtual.write(b);
+                    }
+                }
+                buffer.clear();
+            }
+        } catch (NoSuchFileException e) {
+            return desdeOffset;
+        } catch (IOException e) {
+            System.err.println("Erro ao varrer arquivo " + nomeArquivo + ": " + e.getMessage());
+        }
+        // Uma linha final sem quebra ainda está sendo escrita: fica para a próxima varredura.
+        return inicioLinha;
+    }
+
+    private static long crcAntesDe(String nomeArquivo, long posicao, int janela) {
+        Path caminho = Paths.get(DIRETORIO_DADOS, nomeArquivo);
+        long inicio = Math.max(0L, posicao - janela);
+        ByteBuffer buffer = ByteBuffer.allocate((int) (posicao - inicio));
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            if (canal.size() < posicao) {
+                return -1L;
+            }
+            while (buffer.hasRemaining() && canal.read(buffer, inicio + buffer.position()) > 0) {
+                // lê a janela inteira
+            }
+        } catch (NoSuchFileException e) {
+            return posicao == 0 ? new CRC32().getValue() : -1L;
+        } catch (IOException e) {
+            System.err.println("Erro ao ler o arquivo " + nomeArquivo + ": " + e.getMessage());
+            return -1L;
+        }
+        if (buffer.hasRemaining()) {
+            return -1L;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.flip());
+        return crc.getValue();
+    }
+
+    private static List<String> lerLinhasEm(String nomeArquivo, List<Long> offsets) {
+        if (offsets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> linhas = new ArrayList<>(offsets.size());
+        Path caminho = Paths.get(DIRETORIO_DADOS, nomeArquivo);
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1024);
+            ByteArrayOutputStream linhaAtual = new ByteArrayOutputStream(256);
+            for (long offset : offsets) {
+                linhaAtual.reset();
+                long posicao = offset;
+                boolean fimDaLinha = false;
+                while (!fimDaLinha) {
+                    buffer.clear();
+                    if (canal.read(buffer, posicao) <= 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        byte b = buffer.get();
+                        if (b == '\n') {
+                            fimDaLinha = true;
+                            break;
+                        }
+                        linhaAtual.write(b);
+                    }
+                    posicao += buffer.position();
+                }
+                linhas.add(decodificarLinha(linhaAtual));
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao ler linhas do arquivo " + nomeArquivo + ": " + e.getMessage());
+        }
+        return linhas;
+    }
+
+    private static String decodificarLinha(ByteArrayOutputStream bytes) {
+        String linha = bytes.toString(StandardCharsets.UTF_8);
+        return linha.endsWith("\r") ? linha.substring(0, linha.length() - 1) : linha;
+    }
+
+    private static long[] confirmarNoDiario(DiarioEscrita.Transacao transacao) throws IOException {
+        if (DIARIO == null) {
+            throw new IOException("Diário de escrita indisponível.");
+        }
+        return DIARIO.confirmar(transacao);
+    }
+
+    private static void executarNoDiario(DiarioEscrita.OperacaoExclusiva operacao) throws IOException {
+        if (DIARIO == null) {
+            throw new IOException("Diário de escrita indisponível.");
+        }
+        DIARIO.executarExclusivo(operacao);
+    }
+
+    /**
+     * Substitui o conteúdo de um arquivo de dados por completo: as linhas são gravadas e
+     * forçadas em um arquivo temporário, que então substitui o original atomicamente.
+     * Cada linha termina em '\n', como as acrescentadas pelo {@link DiarioEscrita}.
+     */
+    private static void gravarAtomicamente(String nomeArquivo, List<String> linhas) throws IOException {
+        Path caminho = Paths.get(DIRETORIO_DADOS, nomeArquivo);
+        Path temporario = Paths.get(DIRETORIO_DADOS, nomeArquivo + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer escritor = new BufferedWriter(Channels.newWriter(canal, StandardCharsets.UTF_8), 64 * 1024)) {
+            for (String linha : linhas) {
+                escritor.write(linha);
+                escritor.write('\n');
+            }
+            escritor.flush();
+            canal.force(true);
+        }
+        Files.move(temporario, caminho, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static AssinaturaArquivo lerAssinatura(String nomeArquivo) {
+        Path caminho = Paths.get(DIRETORIO_DADOS, nomeArquivo);
+        try {
+            BasicFileAttributes atributos = Files.readAttributes(caminho, BasicFileAttributes.class);
+            return new AssinaturaArquivo(atributos.size(), atributos.lastModifiedTime().toMillis());
+        } catch (NoSuchFileException e) {
+            return AssinaturaArquivo.INEXISTENTE;
+        } catch (IOException e) {
+            System.err.println("Erro ao consultar atributos do arquivo " + nomeArquivo + ": " + e.getMessage());
+            return AssinaturaArquivo.INEXISTENTE;
+        }
+    }
+
     private static List<String> lerArquivo(String nomeArquivo) {
         Path caminho = Paths.get(DIRETORIO_DADOS, nomeArquivo);
         try {
@@ -0,0 +1,267 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Índice binário do catálogo de sessões (sessoes.idx), lido por mapeamento em memória.
+ * <p>
+ * Cada entrada guarda apenas o necessário para localizar sessões sem ler o catálogo:
+ * ID da sessão, ID da peça, data/hora (segundos desde a época, UTC) e a posição (offset)
+ * da linha da sessão em sessoes.txt. As entradas ficam ordenadas por data/hora, o que
+ * permite responder consultas por período com uma busca binária. Uma segunda seção
+ * guarda a permutação das entradas ordenada por ID, para a busca binária por ID.
+ * <p>
+ * Layout: cabeçalho de 32 bytes (mágico, versão, quantidade, reservado, bytes do catálogo
+ * indexados), entradas de 96 bytes (ID 40, peça 40, data/hora 8, offset 8) e, por fim,
+ * um int por entrada com a ordem por ID.
+ * <p>
+ * O índice é imutável depois de gravado; quando o catálogo muda, um novo índice é
+ * construído com {@link #gravar(Path, List, long)} e substitui o anterior atomicamente.
+ */
+public final class IndiceArquivoSessoes {
+
+    public static final int TAMANHO_ID = 40;
+
+    private static final int MAGICO = 0x54534553; // "TSES"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 32;
+    private static final int TAMANHO_ENTRADA = 96;
+    private static final int POS_ID = 0;
+    private static final int POS_ID_PECA = POS_ID + TAMANHO_ID;
+    private static final int POS_DATA_HORA = POS_ID_PECA + TAMANHO_ID;
+    private static final int POS_OFFSET = POS_DATA_HORA + Long.BYTES;
+
+    /**
+     * Dados de uma sessão usados para construir o índice.
+     */
+    public static final class Entrada {
+        private final String idSessao;
+        private final String idPeca;
+        private final long dataHoraEpoch;
+        private final long offset;
+
+        public Entrada(String idSessao, String idPeca, long dataHoraEpoch, long offset) {
+            this.idSessao = idSessao;
+            this.idPeca = idPeca;
+            this.dataHoraEpoch = dataHoraEpoch;
+            this.offset = offset;
+        }
+    }
+
+    private final MappedByteBuffer buffer;
+    private final int quantidade;
+    private final long bytesIndexados;
+    private final int inicioOrdemPorId;
+
+    private IndiceArquivoSessoes(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.quantidade = buffer.getInt(8);
+        this.bytesIndexados = buffer.getLong(16);
+        this.inicioOrdemPorId = TAMANHO_CABECALHO + quantidade * TAMANHO_ENTRADA;
+    }
+
+    /**
+     * Mapeia um índice existente.
+     *
+     * @param caminho O caminho do arquivo de índice.
+     * @return O índice, ou null se o arquivo não existir ou estiver inválido.
+     */
+    public static IndiceArquivoSessoes abrir(Path caminho) {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho < TAMANHO_CABECALHO) {
+                return null;
+            }
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+            if (buffer.getInt(0) != MAGICO || buffer.getInt(4) != VERSAO) {
+                return null;
+            }
+            long esperado = TAMANHO_CABECALHO + (long) buffer.getInt(8) * (TAMANHO_ENTRADA + Integer.BYTES);
+            return esperado == tamanho ? new IndiceArquivoSessoes(buffer) : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o índice de sessões: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Grava um novo índice a partir das entradas informadas, substituindo o anterior.
+     *
+     * @param caminho O caminho do arquivo de índice.
+     * @param entradas As entradas (em qualquer ordem).
+     * @param bytesIndexados O tamanho do catálogo coberto por estas entradas.
+     */
+    public static void gravar(Path caminho, List<Entrada> entradas, long bytesIndexados) throws IOException {
+        List<Entrada> porDataHora = new ArrayList<>(entradas);
+        porDataHora.sort(Comparator.comparingLong((Entrada e) -> e.dataHoraEpoch).thenComparing(e -> e.idSessao));
+        Integer[] ordemPorId = new Integer[porDataHora.size()];
+        for (int i = 0; i < ordemPorId.length; i++) {
+            ordemPorId[i] = i;
+        }
+        Arrays.sort(ordemPorId, (a, b) -> compararBytes(
+                codificar(porDataHora.get(a).idSessao), codificar(porDataHora.get(b).idSessao)));
+
+        ByteBuffer conteudo = ByteBuffer.allocate(TAMANHO_CABECALHO + porDataHora.size() * (TAMANHO_ENTRADA + Integer.BYTES));
+        conteudo.putInt(MAGICO).putInt(VERSAO).putInt(porDataHora.size()).putInt(0).putLong(bytesIndexados).putLong(0L);
+        for (Entrada entrada : porDataHora) {
+            escreverTexto(conteudo, entrada.idSessao);
+            escreverTexto(conteudo, entrada.idPeca);
+            conteudo.putLong(entrada.dataHoraEpoch).putLong(entrada.offset);
+        }
+        for (Integer posicao : ordemPorId) {
+            conteudo.putInt(posicao);
+        }
+        conteudo.flip();
+
+        Path temporario = caminho.resolveSibling(caminho.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, caminho, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return O tamanho de sessoes.txt que este índice cobre.
+     */
+    public long getBytesIndexados() {
+        return bytesIndexados;
+    }
+
+    /**
+     * @return A quantidade de entradas (sessões) do índice.
+     */
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Busca binária pelo ID da sessão.
+     * @param idCodificado O ID já codificado com {@link #codificar(String)}.
+     * @return O número da entrada, ou -1.
+     */
+    public int buscarId(byte[] idCodificado) {
+        int inicio = 0;
+        int fim = quantidade - 1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            int entrada = buffer.getInt(inicioOrdemPorId + meio * Integer.BYTES);
+            int comparacao = compararCampo(inicioEntrada(entrada) + POS_ID, idCodificado);
+            if (comparacao == 0) {
+                return entrada;
+            } else if (comparacao < 0) {
+                inicio = meio + 1;
+            } else {
+                fim = meio - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return O número da primeira entrada com data/hora maior ou igual à informada
+     *         (igual a {@link #getQuantidade()} se não houver nenhuma).
+     */
+    public int primeiraAPartirDe(long dataHoraEpoch) {
+        int inicio = 0;
+        int fim = quantidade;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (dataHoraEm(meio) < dataHoraEpoch) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * @return true se a entrada pertence à peça informada (ID já codificado).
+     */
+    public boolean pecaIgual(int entrada, byte[] idPecaCodificado) {
+        return compararCampo(inicioEntrada(entrada) + POS_ID_PECA, idPecaCodificado) == 0;
+    }
+
+    public long dataHoraEm(int entrada) {
+        return buffer.getLong(inicioEntrada(entrada) + POS_DATA_HORA);
+    }
+
+    public long offsetEm(int entrada) {
+        return buffer.getLong(inicioEntrada(entrada) + POS_OFFSET);
+    }
+
+    public String idEm(int entrada) {
+        int base = inicioEntrada(entrada) + POS_ID;
+        int comprimento = 0;
+        while (comprimento < TAMANHO_ID && buffer.get(base + comprimento) != 0) {
+            comprimento++;
+        }
+        byte[] bytes = new byte[comprimento];
+        buffer.get(base, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static byte[] codificar(String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > TAMANHO_ID) {
+            throw new IllegalArgumentException("ID excede " + TAMANHO_ID + " bytes no índice de sessões: " + texto);
+        }
+        return bytes;
+    }
+
+    // --- Auxiliares ---
+
+    private int inicioEntrada(int entrada) {
+        return TAMANHO_CABECALHO + entrada * TAMANHO_ENTRADA;
+    }
+
+    /** Compara o campo (completado com zeros) com o valor, como sequências de bytes sem sinal. */
+    private int compararCampo(int posicao, byte[] valor) {
+        for (int i = 0; i < TAMANHO_ID; i++) {
+            int a = buffer.get(posicao + i) & 0xff;
+            int b = i < valor.length ? valor[i] & 0xff : 0;
+            if (a != b) {
+                return a < b ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int compararBytes(byte[] a, byte[] b) {
+        for (int i = 0; i < TAMANHO_ID; i++) {
+            int x = i < a.length ? a[i] & 0xff : 0;
+            int y = i < b.length ? b[i] & 0xff : 0;
+            if (x != y) {
+                return x < y ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void escreverTexto(ByteBuffer destino, String texto) {
+        byte[] bytes = codificar(texto);
+        destino.put(bytes);
+        for (int i = bytes.length; i < TAMANHO_ID; i++) {
+            destino.put((byte) 0);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice em memória sobre bilhetes.txt que guarda apenas posições (offsets) de linhas:
+ * <ul>
+ *   <li>CPF do cliente → offsets de todos os seus bilhetes (índice secundário);</li>
+ *   <li>ID do bilhete → offset da sua linha;</li>
+ *   <li>código de barras → offset da linha (validação na entrada do teatro).</li>
+ * </ul>
+ * A primeira atualização (no aquecimento do repositório ou na primeira consulta)
+ * percorre o arquivo uma vez. Depois disso, cada consulta
+ * compara o tamanho atual do arquivo com a quantidade de bytes já indexada e
+ * indexa somente as linhas acrescentadas desde então (por este ou por outro
+ * terminal). Se o arquivo encolher ou não começar mais como quando foi indexado
+ * (a selagem o reescreveu), o índice é reconstruído.
+ * <p>
+ * As linhas em si não ficam em memória: o repositório as lê sob demanda, com um
+ * posicionamento por bilhete.
+ */
+public class IndiceBilhetes {
+
+    private final Map<String, List<Long>> offsetsPorCpf = new HashMap<>();
+    private final Map<String, Long> offsetPorId = new HashMap<>();
+    private final Map<String, Long> offsetPorCodigoBarras = new HashMap<>();
+    private long bytesIndexados;
+    // CRC-32 dos bytes que antecedem bytesIndexados: se mudar, o arquivo foi reescrito.
+    private long crcAntesDosIndexados;
+    private final CursorRegistro cursor = new CursorRegistro('|');
+
+    /**
+     * Retorna os offsets das linhas de bilhetes de um cliente, em ordem de gravação.
+     * @param cpf O CPF (normalizado) do cliente.
+     * @return Uma lista (cópia) de offsets; vazia se o cliente não tiver bilhetes.
+     */
+    public synchronized List<Long> offsetsDoCpf(String cpf) {
+        atualizar();
+        List<Long> offsets = offsetsPorCpf.get(cpf);
+        return offsets == null ? Collections.emptyList() : new ArrayList<>(offsets);
+    }
+
+    /**
+     * Retorna o offset da linha de um bilhete.
+     * @param idBilhete O ID do bilhete.
+     * @return O offset, ou -1 se o bilhete não estiver no arquivo.
+     */
+    public synchronized long offsetDoId(String idBilhete) {
+        atualizar();
+        Long offset = offsetPorId.get(idBilhete);
+        return offset == null ? -1L : offset;
+    }
+
+    /**
+     * Retorna o offset da linha de um bilhete pelo seu código de barras.
+     * @param codigoBarras O código de barras do bilhete.
+     * @return O offset, ou -1 se o bilhete não estiver no arquivo.
+     */
+    public synchronized long offsetDoCodigoBarras(String codigoBarras) {
+        atualizar();
+        Long offset = offsetPorCodigoBarras.get(codigoBarras);
+        return offset == null ? -1L : offset;
+    }
+
+    /**
+     * Indexa as linhas acrescentadas ao arquivo desde a última atualização,
+     * ou reconstrói o índice se o arquivo tiver encolhido ou sido reescrito.
+     */
+    public void atualizar() {
+        atualizar(false);
+    }
+
+    /**
+     * Como {@link #atualizar()}, mas reconstrói o índice também quando se sabe que o
+     * arquivo foi substituído (aviso do {@link MonitorArquivosDados}), mesmo sem ter encolhido.
+     *
+     * @param arquivoSubstituido true se bilhetes.txt foi recriado.
+     */
+    public synchronized void atualizar(boolean arquivoSubstituido) {
+        long tamanhoAtual = GerenciadorArquivos.tamanhoBilhetes();
+        if (tamanhoAtual == bytesIndexados && !arquivoSubstituido) {
+            return;
+        }
+        if (arquivoSubstituido || tamanhoAtual < bytesIndexados
+                || GerenciadorArquivos.crcBilhetesAntesDe(bytesIndexados, GerenciadorArquivos.JANELA_CONTINUIDADE) != crcAntesDosIndexados) {
+            offsetsPorCpf.clear();
+            offsetPorId.clear();
+            offsetPorCodigoBarras.clear();
+            bytesIndexados = 0L;
+        }
+        if (tamanhoAtual > bytesIndexados) {
+            bytesIndexados = GerenciadorArquivos.varrerBilhetes(bytesIndexados, this::indexarLinha);
+        }
+        crcAntesDosIndexados = GerenciadorArquivos.crcBilhetesAntesDe(bytesIndexados, GerenciadorArquivos.JANELA_CONTINUIDADE);
+    }
+
+    private void indexarLinha(long offset, String linha) {
+        // Extrai apenas os campos 0 (ID), 1 (código de barras) e 2 (CPF), sem dividir a linha inteira.
+        if (cursor.sobre(linha).quantidadeCampos() < 3 || cursor.vazio(0)) {
+            return;
+        }
+        String id = cursor.texto(0);
+        String cpf = cursor.texto(2);
+
+        // Como na busca sequencial, a primeira linha com um dado ID prevalece.
+        offsetPorId.putIfAbsent(id, offset);
+        if (!cursor.vazio(1)) {
+            offsetPorCodigoBarras.putIfAbsent(cursor.texto(1), offset);
+        }
+        offsetsPorCpf.computeIfAbsent(cpf, c -> new ArrayList<>()).add(offset);
+    }
+}
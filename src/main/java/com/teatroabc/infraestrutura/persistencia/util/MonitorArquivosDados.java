@@ -0,0 +1,156 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Acompanha, com um {@link WatchService}, as alterações nos arquivos do diretório de
+ * dados feitas por este ou por outro terminal que compartilhe o diretório, e avisa os
+ * caches em memória interessados (índice de clientes, índice de bilhetes, registro de
+ * ocupação).
+ * <p>
+ * O monitor apenas avisa: cada ouvinte guarda a posição (em bytes) até onde já leu o
+ * seu arquivo e lê somente as linhas acrescentadas desde então. Um arquivo criado ou
+ * substituído (por exemplo, reescrito pelo {@link CompactadorArquivos}) é sinalizado
+ * como tal, para que o ouvinte o releia desde o início.
+ * <p>
+ * Em sistemas de arquivos de rede, o {@code WatchService} pode não receber as
+ * alterações feitas por outras máquinas. Por isso os caches continuam comparando o
+ * tamanho do arquivo nas consultas: o monitor tira a leitura do caminho da consulta,
+ * mas não é a única forma de detectar mudanças.
+ */
+public class MonitorArquivosDados implements Closeable {
+
+    /**
+     * Recebe o aviso de que um arquivo acompanhado mudou.
+     */
+    @FunctionalInterface
+    public interface OuvinteArquivo {
+        /**
+         * @param substituido true se o arquivo foi criado ou substituído (e deve ser relido
+         *                    desde o início); false se apenas recebeu gravações.
+         */
+        void arquivoAlterado(boolean substituido);
+    }
+
+    private final Path diretorio;
+    private final Map<String, List<OuvinteArquivo>> ouvintesPorArquivo = new ConcurrentHashMap<>();
+    private volatile WatchService servico;
+
+    /**
+     * @param diretorio O diretório cujos arquivos serão acompanhados.
+     */
+    public MonitorArquivosDados(Path diretorio) {
+        if (diretorio == null) {
+            throw new IllegalArgumentException("Diretório monitorado não pode ser nulo.");
+        }
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * Registra um ouvinte para um arquivo do diretório. Um arquivo pode ter vários ouvintes.
+     *
+     * @param nomeArquivo O nome do arquivo (sem o diretório).
+     * @param ouvinte Chamado, na thread do monitor, a cada alteração do arquivo.
+     */
+    public void registrar(String nomeArquivo, OuvinteArquivo ouvinte) {
+        if (nomeArquivo == null || ouvinte == null) {
+            throw new IllegalArgumentException("Arquivo e ouvinte não podem ser nulos.");
+        }
+        ouvintesPorArquivo.computeIfAbsent(nomeArquivo, nome -> new CopyOnWriteArrayList<>()).add(ouvinte);
+    }
+
+    /**
+     * Começa a acompanhar o diretório em uma thread daemon própria.
+     *
+     * @throws IOException Se o sistema de arquivos não oferecer o serviço de monitoramento.
+     */
+    public synchronized void iniciar() throws IOException {
+        if (servico != null) {
+            return;
+        }
+        WatchService novoServico = FileSystems.getDefault().newWatchService();
+        try {
+            diretorio.register(novoServico, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            novoServico.close();
+            throw e;
+        }
+        servico = novoServico;
+        Thread thread = new Thread(() -> acompanhar(novoServico), "monitor-arquivos-dados");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void acompanhar(WatchService servicoAtivo) {
+        try {
+            while (true) {
+                WatchKey chave = servicoAtivo.take();
+                // Um lote de gravações gera vários eventos do mesmo arquivo: cada ouvinte é
+                // avisado uma única vez por lote (como "substituído", se algum evento for de criação).
+                Map<String, Boolean> alterados = new LinkedHashMap<>();
+                for (WatchEvent<?> evento : chave.pollEvents()) {
+                    if (evento.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Eventos perdidos: todos os arquivos podem ter mudado.
+                        ouvintesPorArquivo.keySet().forEach(nome -> alterados.putIfAbsent(nome, false));
+                        continue;
+                    }
+                    String nome = ((Path) evento.context()).getFileName().toString();
+                    if (ouvintesPorArquivo.containsKey(nome)) {
+                        boolean criado = evento.kind() == StandardWatchEventKinds.ENTRY_CREATE;
+                        alterados.merge(nome, criado, Boolean::logicalOr);
+                    }
+                }
+                alterados.forEach(this::avisar);
+                if (!chave.reset()) {
+                    System.err.println("MonitorArquivosDados: O diretório " + diretorio + " deixou de ser acompanhado.");
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Monitor encerrado.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void avisar(String nomeArquivo, boolean substituido) {
+        for (OuvinteArquivo ouvinte : ouvintesPorArquivo.getOrDefault(nomeArquivo, List.of())) {
+            try {
+                ouvinte.arquivoAlterado(substituido);
+            } catch (Exception e) {
+                // Uma falha em um cache não pode interromper o acompanhamento dos demais.
+                System.err.println("MonitorArquivosDados: Erro ao atualizar o cache de " + nomeArquivo + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Encerra o monitoramento. Os caches voltam a depender apenas da verificação nas consultas.
+     */
+    @Override
+    public synchronized void close() {
+        if (servico == null) {
+            return;
+        }
+        try {
+            servico.close();
+        } catch (IOException e) {
+            System.err.println("MonitorArquivosDados: Erro ao encerrar o monitoramento: " + e.getMessage());
+        }
+        servico = null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import com.teatroabc.dominio.enums.StatusAssento;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.infraestrutura.config.ModeloPlantaAssentos;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Planta de assentos de uma sessão, vista como uma lista de {@link Assento} sobre um
+ * {@link ModeloPlantaAssentos} compartilhado.
+ * <p>
+ * A única estrutura própria da sessão é o array de status (um byte por assento).
+ * Os objetos Assento são criados sob demanda, na primeira vez em que cada posição é
+ * acessada, reaproveitando o código, a categoria e o preço do modelo. O status de cada
+ * Assento é lido e escrito diretamente no array da planta, de modo que a seleção feita
+ * pela interface e a ocupação da sessão nunca divergem.
+ * <p>
+ * A lista não pode mudar de tamanho; apenas o status dos seus assentos é alterável.
+ */
+public final class PlantaSessao extends AbstractList<Assento> implements RandomAccess {
+
+    private static final StatusAssento[] STATUS = StatusAssento.values();
+
+    private final ModeloPlantaAssentos modelo;
+    private final byte[] status;
+    private final Assento[] assentos;
+
+    /**
+     * @param modelo O modelo imutável da planta.
+     * @param status O status inicial de cada posição do modelo (ordinal de {@link StatusAssento}).
+     *               O array passa a pertencer à planta.
+     */
+    public PlantaSessao(ModeloPlantaAssentos modelo, byte[] status) {
+        if (modelo == null || status == null || status.length != modelo.getTotalAssentos()) {
+            throw new IllegalArgumentException("Status da planta não corresponde ao modelo de assentos.");
+        }
+        this.modelo = modelo;
+        this.status = status;
+        this.assentos = new Assento[status.length];
+    }
+
+    @Override
+    public Assento get(int posicao) {
+        Assento assento = assentos[posicao];
+        if (assento == null) {
+            assento = new AssentoDaPlanta(posicao);
+            assentos[posicao] = assento;
+        }
+        return assento;
+    }
+
+    @Override
+    public int size() {
+        return status.length;
+    }
+
+    /**
+     * @return O status do assento de uma posição, sem precisar materializar o Assento.
+     */
+    public StatusAssento statusEm(int posicao) {
+        return STATUS[status[posicao]];
+    }
+
+    /**
+     * Assento cujo status vive no array da planta.
+     */
+    private final class AssentoDaPlanta extends Assento {
+        private final int posicao;
+
+        AssentoDaPlanta(int posicao) {
+            super(modelo.codigoEm(posicao), modelo.fileiraEm(posicao), modelo.numeroEm(posicao),
+                    modelo.categoriaEm(posicao), modelo.precoCentavosEm(posicao));
+            this.posicao = posicao;
+            super.setStatus(STATUS[status[posicao]]);
+        }
+
+        @Override
+        public StatusAssento getStatus() {
+            return STATUS[status[posicao]];
+        }
+
+        @Override
+        public void setStatus(StatusAssento novoStatus) {
+            super.setStatus(novoStatus);
+            status[posicao] = (byte) novoStatus.ordinal();
+        }
+    }
+}
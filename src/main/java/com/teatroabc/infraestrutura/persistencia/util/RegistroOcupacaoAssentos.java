@@ -0,0 +1,521 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Armazena em memória a ocupação real (assentos vendidos) de cada sessão, na forma
+ * de um {@link BitSet} por ID de sessão. Cada bit corresponde ao índice denso de
+ * um código de assento, definido pelo {@link IndicePlantaAssentos} da planta.
+ * <p>
+ * A ocupação persistida (o snapshot compactado mais as linhas de assentos_ocupados.txt
+ * gravadas desde a última compactação) é lida uma única vez, no aquecimento
+ * ({@link #aquecer()}) ou na primeira operação sobre o registro.
+ * A partir daí, as vendas atualizam o registro diretamente (ver BilheteRepositorio),
+ * e montar o mapa de uma sessão custa O(assentos da planta), e não O(bilhetes já vendidos).
+ * As vendas de outros terminais chegam pelo log: o registro guarda até que posição de
+ * assentos_ocupados.txt já leu e incorpora apenas as linhas novas
+ * ({@link #sincronizarComLog(boolean)}), avisado pelo {@link MonitorArquivosDados} ou ao
+ * perceber, em uma consulta, que o log cresceu.
+ * <p>
+ * Ao lado das vendas reais, o registro guarda a ocupação simulada de cada sessão
+ * (ver {@link SimulacaoOcupacao}), calculada uma única vez, quando a sessão é preparada
+ * com {@link #prepararSessao(String, Turno)}. As consultas de ocupação consideram as duas,
+ * de modo que verificar um assento é apenas um teste de bit. A simulação pode ser
+ * desligada na criação do registro (ambiente de produção).
+ * <p>
+ * Cada BitSet é protegido pelo seu próprio monitor, de modo que operações em
+ * sessões diferentes não disputam o mesmo bloqueio.
+ * <p>
+ * O registro guarda também as retenções temporárias: os assentos escolhidos em uma
+ * compra ainda em andamento, guardados por um token até um prazo. Cada sessão tem um
+ * array com a retenção dona de cada índice, e os prazos ficam em uma
+ * {@link RodaTemporizacao}, de modo que reter e expirar custam O(1) mesmo com milhares
+ * de retenções. As retenções são gravadas em retencoes_assentos.txt (sem fsync próprio:
+ * passam pelo diário, mas não precisam sobreviver por mais que o prazo), e os outros
+ * terminais as incorporam com {@link #sincronizarRetencoes()}. Como o prazo é um instante
+ * absoluto, cada processo expira as retenções por conta própria, sem gravar nada.
+ */
+public class RegistroOcupacaoAssentos implements Aquecivel {
+
+    /** Resolução da expiração das retenções. */
+    private static final Duration TIQUE_EXPIRACAO = Duration.ofSeconds(1);
+    // 512 tiques de 1 s: uma volta da roda cobre cerca de 8 minutos.
+    private static final int POSICOES_RODA = 512;
+    /**
+     * Tamanho mínimo de retencoes_assentos.txt para ser compactado. Acima dele, o log só é
+     * compactado quando tem mais que o dobro do tamanho das retenções ativas, para que
+     * muitas retenções ativas não provoquem uma reescrita a cada nova retenção.
+     */
+    private static final long LIMITE_LOG_RETENCOES_BYTES = 64 * 1024;
+
+    /**
+     * Os assentos de uma sessão guardados por um token até um prazo.
+     */
+    private static final class Retencao {
+        private final String token;
+        private final String idSessao;
+        private final int[] indices;
+        private final long expiraEmMs;
+        private final int bytesNoLog;
+        private RodaTemporizacao.Agendamento<Retencao> agendamento;
+
+        private Retencao(String token, String idSessao, int[] indices, long expiraEmMs, int bytesNoLog) {
+            this.token = token;
+            this.idSessao = idSessao;
+            this.indices = indices;
+            this.expiraEmMs = expiraEmMs;
+            this.bytesNoLog = bytesNoLog;
+        }
+    }
+
+    private final IndicePlantaAssentos indicePlanta;
+    private final Map<String, BitSet> ocupacaoPorSessao = new ConcurrentHashMap<>();
+    // Ocupação simulada (imutável após o cálculo) por ID de sessão.
+    private final Map<String, BitSet> simulacaoPorSessao = new ConcurrentHashMap<>();
+    private final boolean simulacaoAtiva;
+    private volatile boolean carregado;
+    // Posição de assentos_ocupados.txt logo após a última linha incorporada (protegida por this).
+    private volatile long bytesLidosDoLog;
+    // CRC-32 dos bytes do log que antecedem bytesLidosDoLog (protegido por this): se mudar, o log foi truncado.
+    private long crcAntesDoLidoDoLog;
+
+    // Estado das retenções, protegido por monitorRetencoes.
+    private final Object monitorRetencoes = new Object();
+    // Por sessão, a retenção dona de cada índice da planta (null se o assento não está retido).
+    private final Map<String, Retencao[]> retencoesPorSessao = new HashMap<>();
+    private final Map<String, Retencao> retencoesPorToken = new HashMap<>();
+    private final RodaTemporizacao<Retencao> rodaExpiracao =
+            new RodaTemporizacao<>(TIQUE_EXPIRACAO, POSICOES_RODA, "expiracao-retencoes", this::expirar);
+    // Geração e posição de retencoes_assentos.txt já incorporadas.
+    private long geracaoRetencoesLida;
+    private long bytesLidosRetencoes;
+    // Tamanho aproximado (linhas "R") das retenções ativas, que sobreviveriam a uma compactação.
+    private long bytesRetencoesAtivas;
+
+    /**
+     * Cria o registro. A ocupação já persistida é carregada no aquecimento ou no primeiro uso.
+     * @param indicePlanta O índice que traduz códigos de assento em posições do BitSet.
+     * @param simulacaoAtiva Se true, cada sessão recebe também uma ocupação simulada.
+     */
+    public RegistroOcupacaoAssentos(IndicePlantaAssentos indicePlanta, boolean simulacaoAtiva) {
+        if (indicePlanta == null) {
+            throw new IllegalArgumentException("Índice da planta de assentos não pode ser nulo.");
+        }
+        this.indicePlanta = indicePlanta;
+        this.simulacaoAtiva = simulacaoAtiva;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Carrega a ocupação persistida, se ainda não foi carregada.
+     */
+    @Override
+    public void aquecer() {
+        garantirCarregado();
+    }
+
+    /**
+     * Na primeira chamada, lê o snapshot de ocupação e o log gravado depois dele, e
+     * popula os BitSets. Chamadas concorrentes aguardam a carga terminar.
+     */
+    private void garantirCarregado() {
+        if (carregado) {
+            return;
+        }
+        synchronized (this) {
+            if (!carregado) {
+                bytesLidosDoLog = GerenciadorArquivos.varrerAssentosOcupados(this::marcarNoBitSet);
+                crcAntesDoLidoDoLog = crcDoLogAntesDe(bytesLidosDoLog);
+                carregado = true;
+            }
+        }
+    }
+
+    /**
+     * Incorpora as vendas gravadas no log de ocupação desde a última leitura, inclusive as
+     * de outros terminais. Se o log foi truncado ou o snapshot foi substituído (compactação),
+     * inclusive quando novas vendas já fizeram o log passar do tamanho anterior (o log não
+     * começa mais como quando foi lido), o snapshot e o log são relidos por inteiro; como uma venda nunca é desfeita, reler
+     * apenas marca de novo os mesmos bits.
+     * Antes da primeira carga não há o que fazer: a carga já lerá tudo.
+     *
+     * @param releitura true se o snapshot foi regravado ou o log recriado, e tudo deve ser relido.
+     */
+    public void sincronizarComLog(boolean releitura) {
+        if (!carregado) {
+            return;
+        }
+        synchronized (this) {
+            long tamanho = GerenciadorArquivos.tamanhoAssentosOcupados();
+            if (tamanho == bytesLidosDoLog && !releitura) {
+                return;
+            }
+            if (releitura || tamanho < bytesLidosDoLog || crcDoLogAntesDe(bytesLidosDoLog) != crcAntesDoLidoDoLog) {
+                bytesLidosDoLog = GerenciadorArquivos.varrerAssentosOcupados(this::marcarNoBitSet);
+            } else {
+                bytesLidosDoLog = GerenciadorArquivos.varrerLogAssentosOcupados(bytesLidosDoLog, this::marcarNoBitSet);
+            }
+            crcAntesDoLidoDoLog = crcDoLogAntesDe(bytesLidosDoLog);
+        }
+    }
+
+    private static long crcDoLogAntesDe(long posicao) {
+        return GerenciadorArquivos.crcAssentosOcupadosAntesDe(posicao, GerenciadorArquivos.JANELA_CONTINUIDADE);
+    }
+
+    /**
+     * Garante a carga e, com uma única consulta de atributos do log, incorpora as vendas
+     * de outros terminais que o monitor ainda não tenha entregado.
+     */
+    private void garantirAtualizado() {
+        garantirCarregado();
+        if (GerenciadorArquivos.tamanhoAssentosOcupados() != bytesLidosDoLog) {
+            sincronizarComLog(false);
+        }
+    }
+
+    /**
+     * @return O índice de planta usado por este registro.
+     */
+    public IndicePlantaAssentos getIndicePlanta() {
+        return indicePlanta;
+    }
+
+    /**
+     * Prepara uma sessão para consultas, calculando sua ocupação simulada na primeira
+     * chamada. Chamadas seguintes (ou com a simulação desligada) não fazem nada.
+     *
+     * @param idSessao O ID da sessão.
+     * @param turno O turno da sessão.
+     */
+    public void prepararSessao(String idSessao, Turno turno) {
+        if (simulacaoAtiva && idSessao != null) {
+            simulacaoPorSessao.computeIfAbsent(idSessao, id -> SimulacaoOcupacao.gerar(id, turno, indicePlanta));
+        }
+    }
+
+    /**
+     * Marca um assento como ocupado em uma sessão. Códigos que não pertencem à
+     * planta são ignorados, pois nunca corresponderiam a um assento exibido.
+     *
+     * @param idSessao O ID da sessão.
+     * @param codigoAssento O código do assento vendido.
+     */
+    public void marcarOcupado(String idSessao, String codigoAssento) {
+        garantirCarregado();
+        marcarNoBitSet(idSessao, codigoAssento);
+    }
+
+    private void marcarNoBitSet(String idSessao, String codigoAssento) {
+        int indice = indicePlanta.indiceDe(codigoAssento);
+        if (idSessao == null || indice < 0) {
+            return;
+        }
+        BitSet ocupacao = ocupacaoDaSessao(idSessao);
+        synchronized (ocupacao) {
+            ocupacao.set(indice);
+        }
+    }
+
+    /**
+     * Marca vários assentos de uma mesma sessão como ocupados.
+     */
+    public void marcarOcupados(String idSessao, Collection<String> codigosAssentos) {
+        for (String codigo : codigosAssentos) {
+            marcarOcupado(idSessao, codigo);
+        }
+    }
+
+    /**
+     * Retorna uma cópia da ocupação de uma sessão (vendas reais e simulação, se houver).
+     * A cópia pode ser consultada livremente sem sincronização.
+     *
+     * @param idSessao O ID da sessão.
+     * @return Um BitSet com os índices dos assentos ocupados (vazio se não houver vendas).
+     */
+    public BitSet obterOcupacao(String idSessao) {
+        garantirAtualizado();
+        BitSet ocupacao = idSessao == null ? null : ocupacaoPorSessao.get(idSessao);
+        BitSet resultado;
+        if (ocupacao == null) {
+            resultado = new BitSet(indicePlanta.getTotalCodigos());
+        } else {
+            synchronized (ocupacao) {
+                resultado = (BitSet) ocupacao.clone();
+            }
+        }
+        BitSet simulados = idSessao == null ? null : simulacaoPorSessao.get(idSessao);
+        if (simulados != null) {
+            resultado.or(simulados);
+        }
+        return resultado;
+    }
+
+    /**
+     * Verifica se algum dos códigos informados está ocupado na sessão.
+     *
+     * @param idSessao O ID da sessão.
+     * @param codigosAssentos Os códigos a verificar.
+     * @return true se pelo menos um dos assentos já foi vendido.
+     */
+    public boolean algumOcupado(String idSessao, List<String> codigosAssentos) {
+        if (idSessao == null) {
+            return false;
+        }
+        garantirAtualizado();
+        BitSet simulados = simulacaoPorSessao.get(idSessao);
+        if (simulados != null) {
+            for (String codigo : codigosAssentos) {
+                int indice = indicePlanta.indiceDe(codigo);
+                if (indice >= 0 && simulados.get(indice)) {
+                    return true;
+                }
+            }
+        }
+        BitSet ocupacao = ocupacaoPorSessao.get(idSessao);
+        if (ocupacao == null) {
+            return false;
+        }
+        synchronized (ocupacao) {
+            for (String codigo : codigosAssentos) {
+                int indice = indicePlanta.indiceDe(codigo);
+                if (indice >= 0 && ocupacao.get(indice)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // --- Retenções temporárias ---
+
+    /**
+     * Retém assentos de uma sessão para o token até o prazo informado, substituindo o que
+     * o token retinha antes. A retenção é gravada no log antes de valer neste processo.
+     * Quem chama deve ter verificado, sob o bloqueio da sessão e da região de retenções,
+     * que os assentos não estão ocupados nem retidos por outro token.
+     *
+     * @param idSessao O ID da sessão.
+     * @param codigosAssentos Os códigos dos assentos a reter.
+     * @param token O token da compra em andamento.
+     * @param expiraEmMs O instante (milissegundos desde 1970) em que a retenção expira.
+     * @throws java.io.UncheckedIOException Se a retenção não puder ser gravada.
+     */
+    public void reter(String idSessao, Collection<String> codigosAssentos, String token, long expiraEmMs) {
+        if (idSessao == null || token == null || codigosAssentos == null) {
+            throw new IllegalArgumentException("Sessão, token e assentos da retenção não podem ser nulos.");
+        }
+        String linha = "R|" + token + "|" + idSessao + "|" + expiraEmMs + "|" + String.join(",", codigosAssentos);
+        synchronized (monitorRetencoes) {
+            GerenciadorArquivos.salvarRetencao(linha);
+            aplicarRetencao(token, idSessao, expiraEmMs, codigosAssentos);
+            if (GerenciadorArquivos.tamanhoRetencoes() >= Math.max(LIMITE_LOG_RETENCOES_BYTES, 2 * bytesRetencoesAtivas)) {
+                compactarRetencoes();
+            }
+        }
+    }
+
+    /**
+     * Libera os assentos retidos por um token (compra concluída ou abandonada).
+     *
+     * @param token O token da compra.
+     * @return true se o token tinha uma retenção ainda válida.
+     * @throws java.io.UncheckedIOException Se a liberação não puder ser gravada.
+     */
+    public boolean liberarRetencao(String token) {
+        if (token == null) {
+            return false;
+        }
+        synchronized (monitorRetencoes) {
+            if (!retencoesPorToken.containsKey(token)) {
+                return false;
+            }
+            GerenciadorArquivos.salvarRetencao("L|" + token);
+            removerRetencao(token);
+            return true;
+        }
+    }
+
+    /**
+     * Verifica se algum dos códigos está retido, ainda no prazo, por um token diferente do informado.
+     *
+     * @param idSessao O ID da sessão.
+     * @param codigosAssentos Os códigos a verificar.
+     * @param token O token da própria compra (seus assentos não contam), ou null.
+     * @return true se pelo menos um dos assentos está guardado para outra compra.
+     */
+    public boolean algumRetidoPorOutro(String idSessao, Collection<String> codigosAssentos, String token) {
+        if (idSessao == null || codigosAssentos == null) {
+            return false;
+        }
+        long agora = System.currentTimeMillis();
+        synchronized (monitorRetencoes) {
+            Retencao[] donos = retencoesPorSessao.get(idSessao);
+            if (donos == null) {
+                return false;
+            }
+            for (String codigo : codigosAssentos) {
+                int indice = indicePlanta.indiceDe(codigo);
+                Retencao dono = indice >= 0 ? donos[indice] : null;
+                if (dono != null && dono.expiraEmMs > agora && !dono.token.equals(token)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param idSessao O ID da sessão.
+     * @return Um BitSet com os índices dos assentos retidos (ainda no prazo) na sessão.
+     */
+    public BitSet obterRetidos(String idSessao) {
+        BitSet retidos = new BitSet(indicePlanta.getTotalCodigos());
+        long agora = System.currentTimeMillis();
+        synchronized (monitorRetencoes) {
+            Retencao[] donos = idSessao == null ? null : retencoesPorSessao.get(idSessao);
+            if (donos != null) {
+                for (int indice = 0; indice < donos.length; indice++) {
+                    if (donos[indice] != null && donos[indice].expiraEmMs > agora) {
+                        retidos.set(indice);
+                    }
+                }
+            }
+        }
+        return retidos;
+    }
+
+    /**
+     * Incorpora as retenções e liberações gravadas por outros terminais desde a última leitura.
+     * Se o log foi compactado (geração nova), as retenções são recarregadas por inteiro.
+     * Deve ser chamado com a região de retenções dos {@link BloqueiosEntreProcessos} bloqueada,
+     * para não ler o log durante uma compactação.
+     */
+    public void sincronizarRetencoes() {
+        synchronized (monitorRetencoes) {
+            long geracao = GerenciadorArquivos.geracaoRetencoes();
+            if (geracao != geracaoRetencoesLida) {
+                for (String token : new ArrayList<>(retencoesPorToken.keySet())) {
+                    removerRetencao(token);
+                }
+                geracaoRetencoesLida = geracao;
+                bytesLidosRetencoes = 0L;
+            }
+            if (GerenciadorArquivos.tamanhoRetencoes() > bytesLidosRetencoes) {
+                bytesLidosRetencoes = GerenciadorArquivos.varrerRetencoes(bytesLidosRetencoes,
+                        (offset, linha) -> aplicarLinhaRetencao(linha));
+            }
+        }
+    }
+
+    /**
+     * @return A quantidade de retenções agendadas para expirar.
+     */
+    public int quantidadeRetencoes() {
+        return rodaExpiracao.getQuantidade();
+    }
+
+    private void aplicarLinhaRetencao(String linha) {
+        String[] campos = linha.split("\\|", -1);
+        try {
+            if (campos.length == 2 && campos[0].equals("L")) {
+                removerRetencao(campos[1]);
+            } else if (campos.length == 5 && campos[0].equals("R")) {
+                List<String> codigos = campos[4].isEmpty() ? List.of() : List.of(campos[4].split(","));
+                aplicarRetencao(campos[1], campos[2], Long.parseLong(campos[3]), codigos);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("RegistroOcupacaoAssentos: Linha de retenção inválida ignorada: " + linha);
+        }
+    }
+
+    // Chamado com monitorRetencoes detido.
+    private void aplicarRetencao(String token, String idSessao, long expiraEmMs, Collection<String> codigosAssentos) {
+        removerRetencao(token);
+        if (expiraEmMs <= System.currentTimeMillis()) {
+            return;
+        }
+        int[] indices = codigosAssentos.stream().mapToInt(indicePlanta::indiceDe).filter(i -> i >= 0).toArray();
+        // Estimativa do tamanho da linha "R": campos fixos + códigos com separadores.
+        int bytesNoLog = token.length() + idSessao.length() + 24 + indices.length * 6;
+        Retencao retencao = new Retencao(token, idSessao, indices, expiraEmMs, bytesNoLog);
+        Retencao[] donos = retencoesPorSessao.computeIfAbsent(idSessao, id -> new Retencao[indicePlanta.getTotalCodigos()]);
+        for (int indice : indices) {
+            donos[indice] = retencao;
+        }
+        retencao.agendamento = rodaExpiracao.agendar(retencao, expiraEmMs);
+        retencoesPorToken.put(token, retencao);
+        bytesRetencoesAtivas += bytesNoLog;
+    }
+
+    // Chamado com monitorRetencoes detido.
+    private void removerRetencao(String token) {
+        Retencao retencao = retencoesPorToken.remove(token);
+        if (retencao == null) {
+            return;
+        }
+        rodaExpiracao.cancelar(retencao.agendamento);
+        limparIndices(retencao);
+    }
+
+    private void limparIndices(Retencao retencao) {
+        bytesRetencoesAtivas -= retencao.bytesNoLog;
+        Retencao[] donos = retencoesPorSessao.get(retencao.idSessao);
+        if (donos == null) {
+            return;
+        }
+        for (int indice : retencao.indices) {
+            if (donos[indice] == retencao) {
+                donos[indice] = null;
+            }
+        }
+    }
+
+    /**
+     * Chamado pela roda quando o prazo de uma retenção passa. A retenção só é removida se
+     * ainda for a vigente do token (uma renovação a substitui por outra).
+     */
+    private void expirar(Retencao retencao) {
+        synchronized (monitorRetencoes) {
+            if (retencoesPorToken.remove(retencao.token, retencao)) {
+                limparIndices(retencao);
+            }
+        }
+    }
+
+    // Reescreve o log só com as retenções ainda no prazo. Chamado com monitorRetencoes detido.
+    private void compactarRetencoes() {
+        long agora = System.currentTimeMillis();
+        List<String> ativas = new ArrayList<>(retencoesPorToken.size());
+        for (Retencao retencao : retencoesPorToken.values()) {
+            if (retencao.expiraEmMs > agora) {
+                List<String> codigos = new ArrayList<>(retencao.indices.length);
+                for (int indice : retencao.indices) {
+                    codigos.add(indicePlanta.codigoEm(indice));
+                }
+                ativas.add("R|" + retencao.token + "|" + retencao.idSessao + "|" + retencao.expiraEmMs + "|" + String.join(",", codigos));
+            }
+        }
+        try {
+            geracaoRetencoesLida = GerenciadorArquivos.compactarRetencoes(ativas);
+            bytesLidosRetencoes = GerenciadorArquivos.varrerRetencoes(0L, (offset, linha) -> { });
+        } catch (IOException e) {
+            System.err.println("RegistroOcupacaoAssentos: Erro ao compactar retenções: " + e.getMessage());
+        }
+    }
+
+    private BitSet ocupacaoDaSessao(String idSessao) {
+        return ocupacaoPorSessao.computeIfAbsent(idSessao, id -> new BitSet(indicePlanta.getTotalCodigos()));
+    }
+}
@@ -0,0 +1,199 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Roda de temporização com hash (hashed timing wheel) para expirar itens em um prazo.
+ * <p>
+ * O tempo é dividido em tiques de duração fixa, e a roda tem {@code posicoes} posições
+ * (uma potência de 2). Um item com prazo no tique {@code t} entra na lista da posição
+ * {@code t & (posicoes - 1)}; prazos mais distantes que uma volta da roda apenas ficam na
+ * mesma posição por mais voltas. Agendar e cancelar custam O(1) (inserção e remoção em
+ * uma lista duplamente encadeada), e cada tique percorre só a lista da sua posição,
+ * independentemente de quantos itens estão agendados ao todo.
+ * <p>
+ * Um item nunca expira antes do prazo: o prazo é arredondado para o fim do seu tique, e
+ * o atraso máximo é de um tique. Os tiques são avançados por uma thread daemon própria,
+ * iniciada no primeiro agendamento, ou diretamente com {@link #avancar(long)}.
+ *
+ * @param <T> O tipo dos itens agendados.
+ */
+public final class RodaTemporizacao<T> {
+
+    /**
+     * Um item agendado na roda. Serve para cancelá-lo com {@link #cancelar(Agendamento)}.
+     */
+    public static final class Agendamento<T> {
+        private final T item;
+        private final long tiquePrazo;
+        private Agendamento<T> anterior;
+        private Agendamento<T> proximo;
+        private boolean agendado;
+
+        private Agendamento(T item, long tiquePrazo) {
+            this.item = item;
+            this.tiquePrazo = tiquePrazo;
+        }
+
+        public T getItem() {
+            return item;
+        }
+    }
+
+    private final long duracaoTiqueMs;
+    private final Agendamento<T>[] posicoes;
+    private final int mascara;
+    private final String nomeThread;
+    private final Consumer<? super T> aoExpirar;
+    // Último tique já processado: itens agendados para ele ou antes já expiraram.
+    private long ultimoTique;
+    private int quantidade;
+    private ScheduledExecutorService agendador;
+
+    /**
+     * @param tique A duração de um tique (a resolução da expiração).
+     * @param posicoes A quantidade de posições da roda (potência de 2).
+     * @param nomeThread O nome da thread que avança os tiques.
+     * @param aoExpirar Chamado, fora do bloqueio da roda, com cada item que expirou.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"}) // não há criação de array genérico em Java
+    public RodaTemporizacao(Duration tique, int posicoes, String nomeThread, Consumer<? super T> aoExpirar) {
+        if (tique == null || tique.toMillis() <= 0) {
+            throw new IllegalArgumentException("A duração do tique deve ser de pelo menos 1 ms.");
+        }
+        if (posicoes <= 0 || Integer.bitCount(posicoes) != 1) {
+            throw new IllegalArgumentException("A quantidade de posições deve ser uma potência de 2: " + posicoes);
+        }
+        if (aoExpirar == null) {
+            throw new IllegalArgumentException("A ação de expiração não pode ser nula.");
+        }
+        this.duracaoTiqueMs = tique.toMillis();
+        this.posicoes = (Agendamento<T>[]) new Agendamento[posicoes];
+        this.mascara = posicoes - 1;
+        this.nomeThread = nomeThread;
+        this.aoExpirar = aoExpirar;
+        this.ultimoTique = System.currentTimeMillis() / duracaoTiqueMs;
+    }
+
+    /**
+     * Agenda a expiração de um item.
+     *
+     * @param item O item.
+     * @param prazoMs O instante (milissegundos desde 1970) a partir do qual o item expira.
+     * @return O agendamento, para cancelamento.
+     */
+    public synchronized Agendamento<T> agendar(T item, long prazoMs) {
+        // Arredonda para cima: o item só expira no fim do tique que contém o prazo.
+        long tique = Math.max(Math.floorDiv(prazoMs + duracaoTiqueMs - 1, duracaoTiqueMs), ultimoTique + 1);
+        Agendamento<T> agendamento = new Agendamento<>(item, tique);
+        int posicao = (int) (tique & mascara);
+        agendamento.proximo = posicoes[posicao];
+        if (agendamento.proximo != null) {
+            agendamento.proximo.anterior = agendamento;
+        }
+        posicoes[posicao] = agendamento;
+        agendamento.agendado = true;
+        quantidade++;
+        iniciarSeNecessario();
+        return agendamento;
+    }
+
+    /**
+     * Cancela um agendamento que ainda não expirou.
+     *
+     * @param agendamento O agendamento (null é ignorado).
+     * @return true se o item foi removido; false se já tinha expirado ou sido cancelado.
+     */
+    public synchronized boolean cancelar(Agendamento<T> agendamento) {
+        if (agendamento == null || !agendamento.agendado) {
+            return false;
+        }
+        remover(agendamento);
+        return true;
+    }
+
+    /**
+     * @param agendamento Um agendamento desta roda.
+     * @return true se o item ainda aguarda o prazo (não expirou nem foi cancelado).
+     */
+    public synchronized boolean estaAgendado(Agendamento<T> agendamento) {
+        return agendamento != null && agendamento.agendado;
+    }
+
+    /**
+     * Processa os tiques até o instante informado, expirando os itens cujo prazo passou.
+     * Se a roda ficou parada por mais de uma volta, cada posição é percorrida uma única vez.
+     *
+     * @param agoraMs O instante atual (milissegundos desde 1970).
+     * @return A quantidade de itens expirados.
+     */
+    public int avancar(long agoraMs) {
+        List<T> expirados = new ArrayList<>();
+        synchronized (this) {
+            long tiqueAtual = agoraMs / duracaoTiqueMs;
+            long tiques = Math.min(tiqueAtual - ultimoTique, posicoes.length);
+            for (long tique = tiqueAtual - tiques + 1; tique <= tiqueAtual; tique++) {
+                Agendamento<T> agendamento = posicoes[(int) (tique & mascara)];
+                while (agendamento != null) {
+                    Agendamento<T> seguinte = agendamento.proximo;
+                    if (agendamento.tiquePrazo <= tiqueAtual) {
+                        remover(agendamento);
+                        expirados.add(agendamento.item);
+                    }
+                    agendamento = seguinte;
+                }
+            }
+            ultimoTique = Math.max(ultimoTique, tiqueAtual);
+        }
+        for (T item : expirados) {
+            try {
+                aoExpirar.accept(item);
+            } catch (RuntimeException e) {
+                System.err.println("RodaTemporizacao: Erro ao expirar item: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return expirados.size();
+    }
+
+    /**
+     * @return A quantidade de itens agendados e ainda não expirados.
+     */
+    public synchronized int getQuantidade() {
+        return quantidade;
+    }
+
+    private void remover(Agendamento<T> agendamento) {
+        if (agendamento.anterior != null) {
+            agendamento.anterior.proximo = agendamento.proximo;
+        } else {
+            posicoes[(int) (agendamento.tiquePrazo & mascara)] = agendamento.proximo;
+        }
+        if (agendamento.proximo != null) {
+            agendamento.proximo.anterior = agendamento.anterior;
+        }
+        agendamento.anterior = null;
+        agendamento.proximo = null;
+        agendamento.agendado = false;
+        quantidade--;
+    }
+
+    private void iniciarSeNecessario() {
+        if (agendador != null) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, nomeThread);
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleAtFixedRate(() -> avancar(System.currentTimeMillis()),
+                duracaoTiqueMs, duracaoTiqueMs, TimeUnit.MILLISECONDS);
+    }
+}
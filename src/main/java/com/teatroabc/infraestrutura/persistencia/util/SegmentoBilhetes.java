@@ -0,0 +1,380 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Segmento selado de bilhetes: os bilhetes comprados em um mês já encerrado, retirados
+ * de bilhetes.txt pela compactação ({@link GerenciadorArquivos#selarBilhetesAnteriores}).
+ * Um segmento nunca é alterado depois de gravado e é lido mapeado em memória.
+ * <p>
+ * Formato (inteiros big-endian):
+ * <pre>
+ * linhas      as linhas dos bilhetes, no mesmo formato de bilhetes.txt, terminadas por '\n'
+ * índice ID   quantidade × (hash do ID: long, offset da linha: int), ordenado por hash e offset
+ * índice CPF  quantidade × (hash do CPF: long, offset da linha: int), ordenado por hash e offset
+ * índice cód. quantidade × (hash do código de barras: long, offset da linha: int), idem (a partir da versão 2)
+ * rodapé      mágico (long), versão (int), quantidade (int), tamanho das linhas (long),
+ *             menor e maior data/hora de compra (long, minutos desde 01/01/1970 no horário local)
+ * </pre>
+ * As buscas por ID, por CPF e por código de barras fazem uma busca binária no índice e
+ * conferem o campo na linha (dois valores podem ter o mesmo hash). Segmentos da versão 1,
+ * sem o índice de códigos de barras, continuam legíveis: neles essa busca percorre as linhas. O intervalo de datas do rodapé permite que
+ * uma consulta por período descarte o segmento sem ler nenhuma linha.
+ * <p>
+ * Um mês pode ter mais de um segmento ("bilhetes-2025-06.seg", "bilhetes-2025-06_2.seg"),
+ * se bilhetes daquele mês forem gravados depois de ele ter sido selado.
+ */
+public final class SegmentoBilhetes {
+
+    private static final Pattern NOME = Pattern.compile("bilhetes-(\\d{4})-(\\d{2})(?:_(\\d+))?\\.seg");
+    private static final long MAGICO = 0x5441424353454731L; // "TABCSEG1"
+    private static final int VERSAO = 2;
+    private static final int TAMANHO_ENTRADA = Long.BYTES + Integer.BYTES;
+    private static final int TAMANHO_RODAPE = Long.BYTES + 2 * Integer.BYTES + 3 * Long.BYTES;
+    private static final int CAMPO_ID = 0;
+    private static final int CAMPO_CODIGO_BARRAS = 1;
+    private static final int CAMPO_CPF = 2;
+    private static final int CAMPO_DATA_COMPRA = 9;
+
+    /** Ordena os segmentos por mês e, dentro do mês, pela ordem em que foram selados. */
+    public static final Comparator<SegmentoBilhetes> POR_MES =
+            Comparator.comparing(SegmentoBilhetes::getMes).thenComparingInt(SegmentoBilhetes::getSequencia);
+
+    private final Path caminho;
+    private final YearMonth mes;
+    private final int sequencia;
+    private final ByteBuffer dados;
+    private final int quantidade;
+    private final int quantidadeIndices;
+    private final int tamanhoLinhas;
+    private final long menorCompraMinutos;
+    private final long maiorCompraMinutos;
+
+    private SegmentoBilhetes(Path caminho, YearMonth mes, int sequencia, ByteBuffer dados) throws IOException {
+        this.caminho = caminho;
+        this.mes = mes;
+        this.sequencia = sequencia;
+        this.dados = dados;
+        int rodape = dados.capacity() - TAMANHO_RODAPE;
+        int versao = rodape < 0 ? 0 : dados.getInt(rodape + 8);
+        if (rodape < 0 || dados.getLong(rodape) != MAGICO || versao < 1 || versao > VERSAO) {
+            throw new IOException("Segmento de bilhetes inválido: " + caminho);
+        }
+        this.quantidade = dados.getInt(rodape + 12);
+        this.quantidadeIndices = versao == 1 ? 2 : 3;
+        long linhas = dados.getLong(rodape + 16);
+        if (quantidade < 0 || linhas < 0 || linhas + (long) quantidadeIndices * quantidade * TAMANHO_ENTRADA != rodape) {
+            throw new IOException("Segmento de bilhetes inconsistente: " + caminho);
+        }
+        this.tamanhoLinhas = (int) linhas;
+        this.menorCompraMinutos = dados.getLong(rodape + 24);
+        this.maiorCompraMinutos = dados.getLong(rodape + 32);
+    }
+
+    /**
+     * Abre um segmento, mapeando-o em memória (somente leitura).
+     *
+     * @param caminho O arquivo do segmento.
+     * @return O segmento aberto.
+     * @throws IOException Se o arquivo não puder ser lido ou não for um segmento válido.
+     */
+    public static SegmentoBilhetes abrir(Path caminho) throws IOException {
+        Matcher nome = NOME.matcher(caminho.getFileName().toString());
+        if (!nome.matches()) {
+            throw new IOException("Nome de segmento de bilhetes inválido: " + caminho);
+        }
+        YearMonth mes = YearMonth.of(Integer.parseInt(nome.group(1)), Integer.parseInt(nome.group(2)));
+        int sequencia = nome.group(3) == null ? 1 : Integer.parseInt(nome.group(3));
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois que o canal é fechado.
+            ByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return new SegmentoBilhetes(caminho, mes, sequencia, dados);
+        }
+    }
+
+    /**
+     * @param nomeArquivo O nome de um arquivo do diretório de dados.
+     * @return true se o nome for o de um segmento de bilhetes.
+     */
+    public static boolean ehSegmento(String nomeArquivo) {
+        return NOME.matcher(nomeArquivo).matches();
+    }
+
+    /**
+     * @param mes O mês do segmento.
+     * @param sequencia 1 para o primeiro segmento do mês, 2 para o seguinte, e assim por diante.
+     * @return O nome do arquivo do segmento.
+     */
+    public static String nomeArquivo(YearMonth mes, int sequencia) {
+        String base = String.format("bilhetes-%04d-%02d", mes.getYear(), mes.getMonthValue());
+        return sequencia <= 1 ? base + ".seg" : base + "_" + sequencia + ".seg";
+    }
+
+    /**
+     * Grava um novo segmento com as linhas informadas, em um arquivo temporário que só
+     * então é movido para o nome definitivo.
+     *
+     * @param caminho O arquivo do segmento (não deve existir).
+     * @param linhas As linhas dos bilhetes, todas com a data da compra no campo 9.
+     * @throws IOException Se o segmento não puder ser gravado.
+     * @throws IllegalArgumentException Se alguma linha não tiver uma data de compra válida.
+     */
+    public static void gravar(Path caminho, List<String> linhas) throws IOException {
+        int n = linhas.size();
+        long[] hashesId = new long[n];
+        long[] hashesCpf = new long[n];
+        long[] hashesCodigoBarras = new long[n];
+        int[] offsets = new int[n];
+        long menor = Long.MAX_VALUE;
+        long maior = Long.MIN_VALUE;
+
+        ByteArrayOutputStream conteudo = new ByteArrayOutputStream(n * 160 + 3 * n * TAMANHO_ENTRADA + TAMANHO_RODAPE);
+        CursorRegistro campos = new CursorRegistro('|');
+        for (int i = 0; i < n; i++) {
+            String linha = linhas.get(i);
+            if (campos.sobre(linha).quantidadeCampos() <= CAMPO_DATA_COMPRA) {
+                throw new IllegalArgumentException("Linha sem data de compra não pode ser selada: " + linha);
+            }
+            long minutos = minutosDesdeEpoca(campos.dataHora(CAMPO_DATA_COMPRA));
+            menor = Math.min(menor, minutos);
+            maior = Math.max(maior, minutos);
+            hashesId[i] = hash(linha, campos.inicio(CAMPO_ID), campos.fim(CAMPO_ID));
+            hashesCpf[i] = hash(linha, campos.inicio(CAMPO_CPF), campos.fim(CAMPO_CPF));
+            hashesCodigoBarras[i] = hash(linha, campos.inicio(CAMPO_CODIGO_BARRAS), campos.fim(CAMPO_CODIGO_BARRAS));
+            offsets[i] = conteudo.size();
+            byte[] bytes = linha.getBytes(StandardCharsets.UTF_8);
+            conteudo.write(bytes, 0, bytes.length);
+            conteudo.write('\n');
+        }
+        if (n == 0) {
+            menor = 0L;
+            maior = 0L;
+        }
+        long tamanhoLinhas = conteudo.size();
+
+        ByteBuffer indices = ByteBuffer.allocate(3 * n * TAMANHO_ENTRADA + TAMANHO_RODAPE);
+        escreverIndice(indices, hashesId, offsets);
+        escreverIndice(indices, hashesCpf, offsets);
+        escreverIndice(indices, hashesCodigoBarras, offsets);
+        indices.putLong(MAGICO).putInt(VERSAO).putInt(n).putLong(tamanhoLinhas).putLong(menor).putLong(maior);
+        conteudo.write(indices.array(), 0, indices.position());
+
+        Path temporario = caminho.resolveSibling(caminho.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(conteudo.toByteArray());
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, caminho, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void escreverIndice(ByteBuffer destino, long[] hashes, int[] offsets) {
+        Integer[] ordem = new Integer[hashes.length];
+        for (int i = 0; i < ordem.length; i++) {
+            ordem[i] = i;
+        }
+        // Ordenação estável: linhas com o mesmo hash ficam na ordem do arquivo (ordem de compra).
+        Arrays.sort(ordem, Comparator.comparingLong(i -> hashes[i]));
+        for (int i : ordem) {
+            destino.putLong(hashes[i]).putInt(offsets[i]);
+        }
+    }
+
+    /**
+     * @return A data/hora da compra da linha, em minutos desde 01/01/1970 (no horário local,
+     *         sem fuso), a unidade do intervalo de datas do rodapé.
+     */
+    private static long minutosDesdeEpoca(LocalDateTime dataHora) {
+        return dataHora.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    /**
+     * Hash FNV-1a de 64 bits de um trecho de texto, usado como chave dos índices.
+     */
+    private static long hash(CharSequence texto, int inicio, int fim) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = inicio; i < fim; i++) {
+            char c = texto.charAt(i);
+            h = (h ^ (c & 0xff)) * 0x100000001b3L;
+            h = (h ^ (c >>> 8)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    public Path getCaminho() { return caminho; }
+    public YearMonth getMes() { return mes; }
+    public int getSequencia() { return sequencia; }
+    public int getQuantidade() { return quantidade; }
+
+    /**
+     * Verifica, pelo rodapé, se o segmento pode ter bilhetes comprados no período [desde, antesDe).
+     *
+     * @param desde O início do período (inclusivo), ou null para sem limite inferior.
+     * @param antesDe O fim do período (exclusivo), ou null para sem limite superior.
+     * @return false se nenhum bilhete do segmento pode estar no período.
+     */
+    public boolean podeTerCompradosEntre(LocalDateTime desde, LocalDateTime antesDe) {
+        if (quantidade == 0) {
+            return false;
+        }
+        // O rodapé tem precisão de minutos, a mesma das datas gravadas nas linhas.
+        if (desde != null && maiorCompraMinutos < Math.floorDiv(desde.toEpochSecond(ZoneOffset.UTC) + 59, 60)) {
+            return false;
+        }
+        return antesDe == null || menorCompraMinutos < Math.floorDiv(antesDe.toEpochSecond(ZoneOffset.UTC) + 59, 60);
+    }
+
+    /**
+     * Busca a linha de um bilhete pelo ID.
+     *
+     * @param idBilhete O ID do bilhete.
+     * @return A linha, ou null se o bilhete não estiver neste segmento.
+     */
+    public String linhaDoId(String idBilhete) {
+        return primeiraLinhaCom(CAMPO_ID, tamanhoLinhas, idBilhete);
+    }
+
+    /**
+     * Busca a linha de um bilhete pelo código de barras.
+     *
+     * @param codigoBarras O código de barras do bilhete.
+     * @return A linha, ou null se o bilhete não estiver neste segmento.
+     */
+    public String linhaDoCodigoBarras(String codigoBarras) {
+        if (quantidadeIndices < 3) {
+            CursorRegistro campos = new CursorRegistro('|');
+            try (Stream<String> linhas = linhas()) {
+                return linhas.filter(linha -> campos.sobre(linha).quantidadeCampos() > CAMPO_CODIGO_BARRAS
+                                && campos.campoIgual(CAMPO_CODIGO_BARRAS, codigoBarras))
+                        .findFirst().orElse(null);
+            }
+        }
+        return primeiraLinhaCom(CAMPO_CODIGO_BARRAS, tamanhoLinhas + 2 * quantidade * TAMANHO_ENTRADA, codigoBarras);
+    }
+
+    private String primeiraLinhaCom(int campo, int inicioIndice, String valor) {
+        CursorRegistro campos = new CursorRegistro('|');
+        long h = hash(valor, 0, valor.length());
+        for (int i = primeiraEntrada(inicioIndice, h); i < quantidade && hashEm(inicioIndice, i) == h; i++) {
+            String linha = linhaEm(offsetEm(inicioIndice, i));
+            if (campos.sobre(linha).quantidadeCampos() > campo && campos.campoIgual(campo, valor)) {
+                return linha;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Busca as linhas dos bilhetes de um cliente, em ordem de compra.
+     *
+     * @param cpf O CPF (normalizado) do cliente.
+     * @return As linhas (vazia se o cliente não tiver bilhetes neste segmento).
+     */
+    public List<String> linhasDoCpf(String cpf) {
+        CursorRegistro campos = new CursorRegistro('|');
+        long h = hash(cpf, 0, cpf.length());
+        int inicioIndice = tamanhoLinhas + quantidade * TAMANHO_ENTRADA;
+        List<String> linhas = new ArrayList<>();
+        for (int i = primeiraEntrada(inicioIndice, h); i < quantidade && hashEm(inicioIndice, i) == h; i++) {
+            String linha = linhaEm(offsetEm(inicioIndice, i));
+            if (campos.sobre(linha).quantidadeCampos() > CAMPO_CPF && campos.campoIgual(CAMPO_CPF, cpf)) {
+                linhas.add(linha);
+            }
+        }
+        return linhas;
+    }
+
+    /**
+     * @return Todas as linhas do segmento, em ordem de compra, lidas sob demanda do mapeamento.
+     */
+    public Stream<String> linhas() {
+        Iterator<String> iterador = new Iterator<>() {
+            private int posicao;
+
+            @Override
+            public boolean hasNext() {
+                return posicao < tamanhoLinhas;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String linha = linhaEm(posicao);
+                posicao = fimDaLinha(posicao) + 1;
+                return linha;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(iterador, quantidade,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED), false);
+    }
+
+    /** Busca binária pela primeira entrada do índice com hash maior ou igual a {@code h}. */
+    private int primeiraEntrada(int inicioIndice, long h) {
+        int baixo = 0;
+        int alto = quantidade;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (hashEm(inicioIndice, meio) < h) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    private long hashEm(int inicioIndice, int entrada) {
+        return dados.getLong(inicioIndice + entrada * TAMANHO_ENTRADA);
+    }
+
+    private int offsetEm(int inicioIndice, int entrada) {
+        return dados.getInt(inicioIndice + entrada * TAMANHO_ENTRADA + Long.BYTES);
+    }
+
+    private int fimDaLinha(int offset) {
+        int fim = offset;
+        while (fim < tamanhoLinhas && dados.get(fim) != '\n') {
+            fim++;
+        }
+        return fim;
+    }
+
+    private String linhaEm(int offset) {
+        byte[] bytes = new byte[fimDaLinha(offset) - offset];
+        dados.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentoBilhetes{" + caminho.getFileName() + ", bilhetes=" + quantidade + "}";
+    }
+}
@@ -0,0 +1,63 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+
+import java.util.BitSet;
+
+/**
+ * Gera a ocupação simulada (pré-ocupação de demonstração) de uma sessão como um
+ * {@link BitSet} sobre os índices do {@link IndicePlantaAssentos}.
+ * <p>
+ * O resultado é o mesmo da simulação original, que para cada assento calculava
+ * {@code (idSessao + codigoAssento).hashCode()} e o comparava com a probabilidade do turno.
+ * Aqui o hash da concatenação é obtido combinando os hashes das duas partes
+ * ({@code h(a + b) = h(a) * 31^|b| + h(b)}), sem montar nenhuma String, e o mapa é
+ * calculado uma única vez por sessão pelo {@link RegistroOcupacaoAssentos}.
+ * Em um sistema real, a ocupação viria apenas da persistência.
+ */
+public final class SimulacaoOcupacao {
+
+    private SimulacaoOcupacao() {
+    }
+
+    /**
+     * Calcula os assentos simuladamente ocupados de uma sessão.
+     *
+     * @param idSessao O ID da sessão.
+     * @param turno O turno da sessão, que define a taxa de ocupação simulada.
+     * @param indicePlanta O índice de códigos da planta.
+     * @return Um BitSet com os índices dos assentos ocupados na simulação.
+     */
+    public static BitSet gerar(String idSessao, Turno turno, IndicePlantaAssentos indicePlanta) {
+        // Comparação em double, exatamente como na simulação original.
+        double limite = probabilidade(turno) * 100;
+        int hashSessao = idSessao.hashCode();
+        BitSet simulados = new BitSet(indicePlanta.getTotalCodigos());
+
+        for (int indice = 0; indice < indicePlanta.getTotalCodigos(); indice++) {
+            String codigo = indicePlanta.codigoEm(indice);
+            int potencia = 1;
+            for (int i = 0; i < codigo.length(); i++) {
+                potencia *= 31;
+            }
+            int hash = hashSessao * potencia + codigo.hashCode();
+            if ((Math.abs(hash) % 100) < limite) {
+                simulados.set(indice);
+            }
+        }
+        return simulados;
+    }
+
+    private static double probabilidade(Turno turno) {
+        if (turno == null) {
+            return 0.15;
+        }
+        switch (turno) {
+            case MANHA: return 0.10;
+            case TARDE: return 0.20;
+            case NOITE: return 0.30;
+            default:    return 0.15;
+        }
+    }
+}
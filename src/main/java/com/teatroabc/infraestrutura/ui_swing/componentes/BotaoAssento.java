@@ -11,7 +11,7 @@ import java.awt.*;
  * Este componente é um Adaptador de UI, responsável por traduzir o estado do
  * modelo de domínio Assento em uma representação gráfica interativa (um botão circular).
  * A cor e a interatividade do botão mudam de acordo com o status do assento
- * (Disponível, Ocupado, Selecionado).
+ * (Disponível, Ocupado, Selecionado, Retido).
  */
 public class BotaoAssento extends JButton {
     private final Assento assento; // A entidade de domínio que este botão representa.
@@ -55,8 +55,8 @@ public class BotaoAssento extends JButton {
      */
     public void atualizarInteratividadeBaseadaNoStatus() {
         
-        if (verificarStatusOcupado(assento)) {
-            // Se o assento está ocupado, ele não é clicável.
+        if (verificarStatusOcupado(assento) || verificarStatusRetido(assento)) {
+            // Se o assento está ocupado ou retido em outro terminal, ele não é clicável.
             setCursor(Cursor.getDefaultCursor());
             setEnabled(false);
         } else {
@@ -71,13 +71,18 @@ public class BotaoAssento extends JButton {
     private boolean verificarStatusOcupado (Assento assento){
         return assento.getStatus().equals(StatusAssento.OCUPADO);
     }
+
+    //encapsulamento da lógica de assentos retidos por uma compra em andamento em outro terminal
+    private boolean verificarStatusRetido (Assento assento){
+        return assento.getStatus().equals(StatusAssento.RETIDO);
+    }
     
 
     /**
      * {@inheritDoc}
      * Sobrescreve o método de pintura para desenhar a aparência customizada do botão de assento.
      * Desenha um círculo preenchido com uma cor que representa o status do assento
-     * (Disponível, Ocupado, Selecionado).
+     * (Disponível, Ocupado, Selecionado, Retido).
      */
     @Override
     protected void paintComponent(Graphics g) {
@@ -105,6 +110,10 @@ public class BotaoAssento extends JButton {
                 corDePreenchimento = Constantes.VERDE;
                 corDaBorda = Constantes.VERDE.darker();
                 break;
+            case RETIDO:
+                corDePreenchimento = Constantes.LARANJA;
+                corDaBorda = Constantes.LARANJA.darker();
+                break;
             default: // Cor de fallback para um estado inesperado.
                 corDePreenchimento = Color.GRAY;
                 corDaBorda = Color.DARK_GRAY;
@@ -112,8 +121,10 @@ public class BotaoAssento extends JButton {
         }
         
         // Se o botão estiver desabilitado (o que acontece para assentos OCUPADOS),
-        // usa uma cor mais esmaecida para indicar visualmente a inatividade.
-        if (!isEnabled()) {
+        // usa uma cor mais esmaecida para indicar visualmente a inatividade. Assentos
+        // RETIDOS também ficam desabilitados, mas mantêm a sua cor: voltam a ficar livres
+        // se a compra do outro terminal não for concluída.
+        if (!isEnabled() && !verificarStatusRetido(assento)) {
             corDePreenchimento = Constantes.CINZA_ESCURO.brighter();
             corDaBorda = Color.DARK_GRAY;
         }
@@ -1,6 +1,7 @@
 package com.teatroabc.infraestrutura.ui_swing.componentes;
 
 import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Centavos;
 import com.teatroabc.dominio.modelos.Cliente;
 import com.teatroabc.dominio.modelos.Sessao;
 import com.teatroabc.infraestrutura.ui_swing.constantes_ui.Constantes;
@@ -10,7 +11,6 @@ import com.teatroabc.infraestrutura.ui_swing.util.FormatadorMoeda;
 import javax.swing.*;
 import java.awt.*;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -54,11 +54,13 @@ public class PainelResumoPedido extends JPanel {
         gbc.insets = new Insets(8, 15, 8, 15);
         int linhaAtual = 0;
 
-        // Cálculos para exibição
-        BigDecimal subtotalExibicao = calcularSubtotalParaExibicao(assentos);
-        BigDecimal fatorDesconto = cliente.getPlanoFidelidade().getFatorDesconto();
-        BigDecimal descontoExibicao = subtotalExibicao.multiply(fatorDesconto).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal totalExibicao = calcularTotalParaExibicao(subtotalExibicao, descontoExibicao);
+        // Cálculos para exibição, em centavos e com as mesmas regras do ReservaServico;
+        // a conversão para BigDecimal acontece apenas aqui, para a formatação.
+        long subtotalCentavos = calcularSubtotalParaExibicao(assentos);
+        long descontoCentavos = Centavos.percentual(subtotalCentavos, cliente.getPlanoFidelidade().getDescontoEmPontosBase());
+        BigDecimal subtotalExibicao = Centavos.paraBigDecimal(subtotalCentavos);
+        BigDecimal descontoExibicao = Centavos.paraBigDecimal(descontoCentavos);
+        BigDecimal totalExibicao = Centavos.paraBigDecimal(Math.max(0L, subtotalCentavos - descontoCentavos));
 
         // Badge de Membro (se aplicável)
         if (cliente.isMembroGold()) {
@@ -104,16 +106,12 @@ public class PainelResumoPedido extends JPanel {
         adicionarLinhaComponentes(gbc, linhaAtual, lblTotalRotulo, lblTotalValor);
     }
     
-    private BigDecimal calcularSubtotalParaExibicao(List<Assento> assentos) {
-        return assentos.stream()
-                .map(Assento::getPreco)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-    }
-    
-    private BigDecimal calcularTotalParaExibicao(BigDecimal subtotal, BigDecimal desconto) {
-        BigDecimal total = subtotal.subtract(desconto);
-        return total.compareTo(BigDecimal.ZERO) < 0 ? BigDecimal.ZERO : total.setScale(2, RoundingMode.HALF_UP);
+    private long calcularSubtotalParaExibicao(List<Assento> assentos) {
+        long subtotal = 0L;
+        for (Assento assento : assentos) {
+            subtotal = Centavos.somar(subtotal, assento.getPrecoCentavos());
+        }
+        return subtotal;
     }
 
     private void adicionarLinhaDetalhe(GridBagConstraints gbc, int linha, String rotulo, String valor) {
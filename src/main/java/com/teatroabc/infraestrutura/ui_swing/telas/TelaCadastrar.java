@@ -26,6 +26,7 @@ import java.util.List;
 public class TelaCadastrar extends JPanel {
     private final Sessao sessao;
     private final List<Assento> assentosSelecionados;
+    private final String tokenRetencao;
 
     private final IClienteServico clienteServico;
     private final IPecaServico pecaServico;
@@ -35,7 +36,7 @@ public class TelaCadastrar extends JPanel {
     // Referências aos novos componentes encapsulados
     private PainelFormularioCliente painelFormulario;
 
-    public TelaCadastrar(String cpf, Sessao sessao, List<Assento> assentosSelecionados,
+    public TelaCadastrar(String cpf, Sessao sessao, List<Assento> assentosSelecionados, String tokenRetencao,
                          IClienteServico clienteServico, IPecaServico pecaServico, 
                          IReservaServico reservaServico, ISessaoServico sessaoServico) {
         if (clienteServico == null || pecaServico == null || reservaServico == null || sessaoServico == null) {
@@ -43,6 +44,7 @@ public class TelaCadastrar extends JPanel {
         }
         this.sessao = sessao;
         this.assentosSelecionados = assentosSelecionados;
+        this.tokenRetencao = tokenRetencao;
         this.clienteServico = clienteServico;
         this.pecaServico = pecaServico;
         this.reservaServico = reservaServico;
@@ -134,7 +136,7 @@ public class TelaCadastrar extends JPanel {
 
             if (this.sessao != null && this.assentosSelecionados != null) {
                 frame.setContentPane(new TelaConfirmarPedido(
-                    clienteCadastrado, this.sessao, this.assentosSelecionados,
+                    clienteCadastrado, this.sessao, this.assentosSelecionados, this.tokenRetencao,
                     this.clienteServico, this.pecaServico, this.reservaServico, this.sessaoServico
                 ));
             } else {
@@ -162,7 +164,7 @@ public class TelaCadastrar extends JPanel {
         JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
         if (this.sessao != null) {
             frame.setContentPane(new TelaInformarCPF(
-                false, this.sessao, this.assentosSelecionados,
+                false, this.sessao, this.assentosSelecionados, this.tokenRetencao,
                 this.clienteServico, this.pecaServico, this.reservaServico, this.sessaoServico
             ));
         } else {
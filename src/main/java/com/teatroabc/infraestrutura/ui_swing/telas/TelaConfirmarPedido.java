@@ -30,13 +30,14 @@ public class TelaConfirmarPedido extends JPanel {
     private final Cliente cliente;
     private final Sessao sessao;
     private final List<Assento> assentos;
+    private final String tokenRetencao; // retenção dos assentos, liberada na compra ou ao voltar
 
     private final IClienteServico clienteServico;
     private final IPecaServico pecaServico;
     private final IReservaServico reservaServico;
     private final ISessaoServico sessaoServico;
 
-    public TelaConfirmarPedido(Cliente cliente, Sessao sessao, List<Assento> assentos,
+    public TelaConfirmarPedido(Cliente cliente, Sessao sessao, List<Assento> assentos, String tokenRetencao,
                                IClienteServico clienteServico, IPecaServico pecaServico, 
                                IReservaServico reservaServico, ISessaoServico sessaoServico) {
         
@@ -48,6 +49,7 @@ public class TelaConfirmarPedido extends JPanel {
         this.cliente = cliente;
         this.sessao = sessao;
         this.assentos = assentos; 
+        this.tokenRetencao = tokenRetencao;
         this.clienteServico = clienteServico;
         this.pecaServico = pecaServico;
         this.reservaServico = reservaServico;
@@ -109,7 +111,7 @@ public class TelaConfirmarPedido extends JPanel {
     private void processarConfirmacaoDaCompra() {
         try {
             Bilhete bilheteCriado = this.reservaServico.criarReserva(
-                this.sessao, this.cliente, this.assentos
+                this.sessao, this.cliente, this.assentos, this.tokenRetencao
             );
 
             StringBuilder mensagem = new StringBuilder("<html><body style='width: 350px;'>");
@@ -148,9 +150,10 @@ public class TelaConfirmarPedido extends JPanel {
 
     /**
      * Navega de volta para a tela de seleção de assentos, permitindo ao usuário
-     * alterar sua escolha.
+     * alterar sua escolha. A seleção recomeça, então os assentos retidos são liberados.
      */
     private void navegarParaTelaAnterior() {
+        this.reservaServico.liberarRetencao(this.tokenRetencao);
         JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
         frame.setContentPane(new TelaSelecionarAssento(
             this.sessao, this.pecaServico, this.clienteServico, this.reservaServico, this.sessaoServico
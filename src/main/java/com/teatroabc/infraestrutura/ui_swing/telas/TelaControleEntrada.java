@@ -0,0 +1,146 @@
+package com.teatroabc.infraestrutura.ui_swing.telas;
+
+import com.teatroabc.aplicacao.dto.ResultadoEntradaDTO;
+import com.teatroabc.aplicacao.interfaces.IEntradaServico;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.infraestrutura.ui_swing.componentes.LogoTeatro;
+import com.teatroabc.infraestrutura.ui_swing.constantes_ui.Constantes;
+import com.teatroabc.infraestrutura.ui_swing.util.FormatadorData;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Tela do terminal da portaria. O leitor de código de barras (USB) "digita" o código no
+ * campo e envia Enter; a tela valida o bilhete, mostra o resultado em destaque e limpa o
+ * campo para a próxima leitura, sem que o operador precise tocar no teclado.
+ */
+public class TelaControleEntrada extends JPanel {
+    private final IEntradaServico entradaServico;
+    private final String porta;
+
+    private JTextField txtCodigoBarras;
+    private JLabel lblResultado;
+    private JLabel lblDetalhes;
+
+    /**
+     * Construtor da TelaControleEntrada.
+     *
+     * @param entradaServico Serviço de validação das entradas.
+     * @param porta A identificação da porta deste terminal.
+     */
+    public TelaControleEntrada(IEntradaServico entradaServico, String porta) {
+        if (entradaServico == null) {
+            throw new IllegalArgumentException("Serviço de entradas não pode ser nulo em TelaControleEntrada.");
+        }
+        if (porta == null || porta.trim().isEmpty()) {
+            throw new IllegalArgumentException("Porta não pode ser nula ou vazia em TelaControleEntrada.");
+        }
+        this.entradaServico = entradaServico;
+        this.porta = porta.trim();
+        configurarTelaVisual();
+    }
+
+    /**
+     * Configura os componentes visuais e o layout da tela.
+     */
+    private void configurarTelaVisual() {
+        setLayout(new BorderLayout());
+        setBackground(Constantes.AZUL_ESCURO);
+
+        JPanel containerPrincipal = new JPanel();
+        containerPrincipal.setLayout(new BoxLayout(containerPrincipal, BoxLayout.Y_AXIS));
+        containerPrincipal.setBackground(Constantes.AZUL_ESCURO);
+        containerPrincipal.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        containerPrincipal.add(Box.createVerticalGlue());
+        containerPrincipal.add(new LogoTeatro());
+        containerPrincipal.add(Box.createRigidArea(new Dimension(0, 40)));
+
+        JLabel titulo = new JLabel("PORTARIA - " + porta.toUpperCase());
+        titulo.setFont(Constantes.FONTE_SUBTITULO);
+        titulo.setForeground(Constantes.AMARELO);
+        titulo.setAlignmentX(Component.CENTER_ALIGNMENT);
+        containerPrincipal.add(titulo);
+        containerPrincipal.add(Box.createRigidArea(new Dimension(0, 30)));
+
+        txtCodigoBarras = new JTextField();
+        txtCodigoBarras.setFont(new Font("Arial", Font.BOLD, 22));
+        txtCodigoBarras.setHorizontalAlignment(JTextField.CENTER);
+        txtCodigoBarras.setMaximumSize(new Dimension(500, 50));
+        txtCodigoBarras.setBackground(Constantes.CINZA_ESCURO);
+        txtCodigoBarras.setForeground(Color.WHITE);
+        txtCodigoBarras.setCaretColor(Constantes.AMARELO);
+        txtCodigoBarras.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(Constantes.AZUL_CLARO, 1),
+                BorderFactory.createEmptyBorder(5, 10, 5, 10)));
+        txtCodigoBarras.setAlignmentX(Component.CENTER_ALIGNMENT);
+        // O leitor termina cada código com Enter.
+        txtCodigoBarras.addActionListener(e -> processarLeitura());
+        containerPrincipal.add(txtCodigoBarras);
+        containerPrincipal.add(Box.createRigidArea(new Dimension(0, 40)));
+
+        lblResultado = new JLabel("Aguardando leitura...");
+        lblResultado.setFont(Constantes.FONTE_TITULO);
+        lblResultado.setForeground(Constantes.AZUL_CLARO);
+        lblResultado.setAlignmentX(Component.CENTER_ALIGNMENT);
+        containerPrincipal.add(lblResultado);
+        containerPrincipal.add(Box.createRigidArea(new Dimension(0, 20)));
+
+        lblDetalhes = new JLabel(" ");
+        lblDetalhes.setFont(Constantes.FONTE_TEXTO);
+        lblDetalhes.setForeground(Color.WHITE);
+        lblDetalhes.setAlignmentX(Component.CENTER_ALIGNMENT);
+        containerPrincipal.add(lblDetalhes);
+
+        containerPrincipal.add(Box.createVerticalGlue());
+        add(containerPrincipal, BorderLayout.CENTER);
+
+        // O foco volta ao campo sempre que a tela é exibida, para que o leitor funcione de imediato.
+        addAncestorListener(new javax.swing.event.AncestorListener() {
+            @Override public void ancestorAdded(javax.swing.event.AncestorEvent e) { txtCodigoBarras.requestFocusInWindow(); }
+            @Override public void ancestorRemoved(javax.swing.event.AncestorEvent e) { }
+            @Override public void ancestorMoved(javax.swing.event.AncestorEvent e) { }
+        });
+    }
+
+    /**
+     * Valida o código lido e exibe o resultado.
+     */
+    private void processarLeitura() {
+        String codigo = txtCodigoBarras.getText();
+        txtCodigoBarras.setText("");
+        if (codigo == null || codigo.trim().isEmpty()) {
+            return;
+        }
+        try {
+            exibirResultado(entradaServico.validarEntrada(codigo, porta));
+        } catch (Exception ex) {
+            lblResultado.setText("ERRO NA LEITURA");
+            lblResultado.setForeground(Constantes.VERMELHO);
+            lblDetalhes.setText(ex.getMessage());
+            ex.printStackTrace();
+        } finally {
+            txtCodigoBarras.requestFocusInWindow();
+        }
+    }
+
+    private void exibirResultado(ResultadoEntradaDTO resultado) {
+        lblResultado.setText(resultado.getStatus().getDescricao().toUpperCase());
+        lblResultado.setForeground(resultado.isLiberada() ? Constantes.VERDE : Constantes.VERMELHO);
+
+        Bilhete bilhete = resultado.getBilhete();
+        if (bilhete == null) {
+            lblDetalhes.setText(" ");
+            return;
+        }
+        StringBuilder detalhes = new StringBuilder()
+                .append(bilhete.getSessao().getPeca().getTitulo())
+                .append(" - ").append(FormatadorData.formatar(bilhete.getSessao().getDataHora()))
+                .append(" - ").append(bilhete.getAssentos().size()).append(" assento(s)");
+        if (!resultado.isLiberada() && resultado.getMomentoEntrada() != null) {
+            detalhes.append(" - entrada em ").append(FormatadorData.formatar(resultado.getMomentoEntrada()));
+        }
+        lblDetalhes.setText(detalhes.toString());
+    }
+}
@@ -26,6 +26,7 @@ public class TelaInformarCPF extends JPanel {
     private final boolean modoConsulta;
     private final Sessao sessao;
     private final List<Assento> assentosSelecionados;
+    private final String tokenRetencao; // retenção dos assentos selecionados (modo compra)
 
     // Serviços injetados
     private final IClienteServico clienteServico;
@@ -42,12 +43,13 @@ public class TelaInformarCPF extends JPanel {
      * @param modoConsulta {@code true} para consulta, {@code false} para compra.
      * @param sessao A sessão selecionada (relevante no modo compra, pode ser nulo em consulta).
      * @param assentosSelecionados Lista de assentos (relevante no modo compra).
+     * @param tokenRetencao Token da retenção dos assentos selecionados (null se não houver).
      * @param clienteServico Serviço de cliente.
      * @param pecaServico Serviço de peça.
      * @param reservaServico Serviço de reserva.
      * @param sessaoServico Serviço de sessão.
      */
-    public TelaInformarCPF(boolean modoConsulta, Sessao sessao, List<Assento> assentosSelecionados,
+    public TelaInformarCPF(boolean modoConsulta, Sessao sessao, List<Assento> assentosSelecionados, String tokenRetencao,
                            IClienteServico clienteServico, IPecaServico pecaServico, 
                            IReservaServico reservaServico, ISessaoServico sessaoServico) {
         if (clienteServico == null || pecaServico == null || reservaServico == null || sessaoServico == null) {
@@ -57,6 +59,7 @@ public class TelaInformarCPF extends JPanel {
         this.modoConsulta = modoConsulta;
         this.sessao = sessao;
         this.assentosSelecionados = assentosSelecionados;
+        this.tokenRetencao = tokenRetencao;
         this.clienteServico = clienteServico;
         this.pecaServico = pecaServico;
         this.reservaServico = reservaServico;
@@ -130,12 +133,12 @@ public class TelaInformarCPF extends JPanel {
                 Optional<Cliente> clienteOpt = this.clienteServico.buscarPorCpf(cpfNormalizado);
                 if (clienteOpt.isPresent()) {
                     frame.setContentPane(new TelaConfirmarPedido(
-                        clienteOpt.get(), this.sessao, this.assentosSelecionados,
+                        clienteOpt.get(), this.sessao, this.assentosSelecionados, this.tokenRetencao,
                         this.clienteServico, this.pecaServico, this.reservaServico, this.sessaoServico
                     ));
                 } else {
                     frame.setContentPane(new TelaCadastrar(
-                        cpfNormalizado, this.sessao, this.assentosSelecionados,
+                        cpfNormalizado, this.sessao, this.assentosSelecionados, this.tokenRetencao,
                         this.clienteServico, this.pecaServico, this.reservaServico, this.sessaoServico
                     ));
                 }
@@ -156,7 +159,9 @@ public class TelaInformarCPF extends JPanel {
         if (modoConsulta) {
             frame.setContentPane(new TelaPrincipal(this.clienteServico, this.pecaServico, this.reservaServico, this.sessaoServico));
         } else {
-            // Volta para a tela de seleção de assentos, passando a sessão.
+            // Volta para a tela de seleção de assentos, passando a sessão. A seleção recomeça,
+            // então os assentos retidos são liberados.
+            this.reservaServico.liberarRetencao(this.tokenRetencao);
             frame.setContentPane(new TelaSelecionarAssento(
                 this.sessao, this.pecaServico, this.clienteServico, this.reservaServico, this.sessaoServico
             ));
@@ -190,6 +190,7 @@ public class TelaPrincipal extends JPanel {
                 true, // modoConsulta = true
                 null, // sessao
                 null, // assentosSelecionados
+                null, // tokenRetencao
                 this.clienteServico,
                 this.pecaServico,
                 this.reservaServico,
@@ -209,6 +210,7 @@ public class TelaPrincipal extends JPanel {
                 null, // cpf
                 null, // sessao
                 null, 
+                null, // tokenRetencao
                 this.clienteServico,
                 this.pecaServico,
                 this.reservaServico,
@@ -1,6 +1,8 @@
 // Arquivo: infraestrutura/ui_swing/telas/TelaSelecionarAssento.java
 package com.teatroabc.infraestrutura.ui_swing.telas;
 
+import com.teatroabc.aplicacao.dto.RetencaoAssentosDTO;
+import com.teatroabc.aplicacao.excecoes.ReservaInvalidaException;
 import com.teatroabc.aplicacao.interfaces.IClienteServico;
 import com.teatroabc.aplicacao.interfaces.IPecaServico;
 import com.teatroabc.aplicacao.interfaces.IReservaServico;
@@ -8,6 +10,7 @@ import com.teatroabc.aplicacao.interfaces.ISessaoServico;
 import com.teatroabc.dominio.enums.CategoriaAssento;
 import com.teatroabc.dominio.enums.StatusAssento;
 import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Centavos;
 import com.teatroabc.dominio.modelos.Sessao;
 import com.teatroabc.infraestrutura.config.Alinhamento;
 import com.teatroabc.infraestrutura.config.ConfiguracaoPlantaTeatro;
@@ -19,12 +22,14 @@ import com.teatroabc.infraestrutura.ui_swing.constantes_ui.Constantes;
 import com.teatroabc.infraestrutura.ui_swing.util.FormatadorMoeda;
 
 import java.awt.*;
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
@@ -34,6 +39,10 @@ import javax.swing.border.TitledBorder;
  * Renderiza a planta do teatro dinamicamente com base na configuração centralizada
  * e na disponibilidade de assentos para a sessão escolhida.
  * REFATORADO: Utiliza ISessaoServico para buscar os assentos.
+ * Os assentos selecionados ficam retidos (ver {@link IReservaServico#reterAssentos}) enquanto
+ * a compra está em andamento, para que outro terminal não os venda; o token da retenção
+ * segue para as telas seguintes e é usado na compra. A retenção grava em arquivo e pode
+ * esperar o bloqueio de outro terminal, por isso roda fora da EDT (ver {@link #reterSelecao}).
  */
 public class TelaSelecionarAssento extends JPanel {
     // Contexto da seleção
@@ -46,8 +55,10 @@ public class TelaSelecionarAssento extends JPanel {
     private final ISessaoServico sessaoServico;
 
     // Estado da UI
-    private final List<Assento> assentosDaPlanta;
+    private List<Assento> assentosDaPlanta;
     private final List<Assento> assentosSelecionadosPeloUsuario;
+    private String tokenRetencao; // null até o primeiro assento ser retido
+    private boolean retencaoEmAndamento; // cliques são ignorados até a retenção anterior terminar
     private JLabel lblTotal;
     private BotaoAnimado btnConfirmar;
     private JPanel painelSecoes;
@@ -232,17 +243,98 @@ public class TelaSelecionarAssento extends JPanel {
     }
 
     private void onAssentoClicked(Assento assento, BotaoAssento botao) {
+        if (retencaoEmAndamento) {
+            return;
+        }
+        List<Assento> novaSelecao = new ArrayList<>(assentosSelecionadosPeloUsuario);
         if (assento.getStatus() == StatusAssento.DISPONIVEL) {
-            assento.setStatus(StatusAssento.SELECIONADO);
-            assentosSelecionadosPeloUsuario.add(assento);
+            novaSelecao.add(assento);
         } else if (assento.getStatus() == StatusAssento.SELECIONADO) {
-            assento.setStatus(StatusAssento.DISPONIVEL);
-            assentosSelecionadosPeloUsuario.remove(assento);
+            novaSelecao.remove(assento);
+        } else {
+            return;
         }
-        botao.atualizarInteratividadeBaseadaNoStatus();
-        atualizarTotalDaCompra();
+        // A seleção inteira é retida antes de ser mostrada: se outro terminal acabou de
+        // escolher o assento, o clique é desfeito e a planta é atualizada.
+        botao.setEnabled(false);
+        reterSelecao(novaSelecao, () -> {
+            if (assento.getStatus() == StatusAssento.DISPONIVEL) {
+                assento.setStatus(StatusAssento.SELECIONADO);
+                assentosSelecionadosPeloUsuario.add(assento);
+            } else if (assento.getStatus() == StatusAssento.SELECIONADO) {
+                assento.setStatus(StatusAssento.DISPONIVEL);
+                assentosSelecionadosPeloUsuario.remove(assento);
+            }
+            botao.atualizarInteratividadeBaseadaNoStatus();
+        });
     }
     
+    /**
+     * Retém os assentos informados com o token desta compra, renovando o prazo, em um
+     * {@link SwingWorker}. Enquanto a retenção não termina, o botão de confirmar fica
+     * desabilitado e novos cliques são ignorados. Ao terminar, já na EDT, executa
+     * {@code aoReter}; em caso de falha, avisa o usuário e recarrega a planta com o estado atual.
+     */
+    private void reterSelecao(List<Assento> selecao, Runnable aoReter) {
+        retencaoEmAndamento = true;
+        btnConfirmar.setEnabled(false);
+        List<Assento> copiaSelecao = new ArrayList<>(selecao);
+        String tokenAtual = this.tokenRetencao;
+        new SwingWorker<RetencaoAssentosDTO, Void>() {
+            @Override
+            protected RetencaoAssentosDTO doInBackground() throws ReservaInvalidaException {
+                return reservaServico.reterAssentos(sessaoEscolhida, copiaSelecao, tokenAtual);
+            }
+
+            @Override
+            protected void done() {
+                retencaoEmAndamento = false;
+                try {
+                    tokenRetencao = get().getToken();
+                    aoReter.run();
+                    atualizarTotalDaCompra();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof ReservaInvalidaException) {
+                        JOptionPane.showMessageDialog(TelaSelecionarAssento.this, e.getCause().getMessage(),
+                                "Assento Indisponível", JOptionPane.WARNING_MESSAGE);
+                    } else {
+                        e.getCause().printStackTrace();
+                        JOptionPane.showMessageDialog(TelaSelecionarAssento.this,
+                                "Erro ao reter os assentos.\n" + e.getCause().getMessage(),
+                                "Erro de Sistema", JOptionPane.ERROR_MESSAGE);
+                    }
+                    recarregarPlanta();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    recarregarPlanta();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Busca novamente os assentos da sessão, mantendo selecionados os assentos do usuário
+     * que não foram vendidos nesse meio-tempo (os retidos por esta compra aparecem como retidos
+     * na consulta e voltam a ser marcados como selecionados).
+     */
+    private void recarregarPlanta() {
+        Set<String> selecionados = new HashSet<>();
+        for (Assento assento : assentosSelecionadosPeloUsuario) {
+            selecionados.add(assento.getCategoria() + "|" + assento.getCodigo());
+        }
+        assentosSelecionadosPeloUsuario.clear();
+        this.assentosDaPlanta = carregarAssentosParaSessao();
+        for (Assento assento : assentosDaPlanta) {
+            if (assento.getStatus() != StatusAssento.OCUPADO
+                    && selecionados.contains(assento.getCategoria() + "|" + assento.getCodigo())) {
+                assento.setStatus(StatusAssento.SELECIONADO);
+                assentosSelecionadosPeloUsuario.add(assento);
+            }
+        }
+        atualizarVisualizacaoDasSecoes();
+        atualizarTotalDaCompra();
+    }
+
     private JPanel createColumnPanel() {
         JPanel panel = new JPanel();
         panel.setOpaque(false);
@@ -282,6 +374,7 @@ public class TelaSelecionarAssento extends JPanel {
         adicionarItemLegenda(legenda, "Disponível", Constantes.AZUL_CLARO);
         adicionarItemLegenda(legenda, "Ocupado", Constantes.BEGE);
         adicionarItemLegenda(legenda, "Selecionado", Constantes.VERDE);
+        adicionarItemLegenda(legenda, "Retido", Constantes.LARANJA);
         return legenda;
     }
 
@@ -357,10 +450,11 @@ public class TelaSelecionarAssento extends JPanel {
     }
 
     private void atualizarTotalDaCompra() {
-        BigDecimal total = assentosSelecionadosPeloUsuario.stream()
-                .map(Assento::getPreco)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        lblTotal.setText("TOTAL: " + FormatadorMoeda.formatar(total));
+        long totalCentavos = 0L;
+        for (Assento assento : assentosSelecionadosPeloUsuario) {
+            totalCentavos = Centavos.somar(totalCentavos, assento.getPrecoCentavos());
+        }
+        lblTotal.setText("TOTAL: " + FormatadorMoeda.formatar(Centavos.paraBigDecimal(totalCentavos)));
         btnConfirmar.setEnabled(!assentosSelecionadosPeloUsuario.isEmpty());
     }
 
@@ -369,17 +463,26 @@ public class TelaSelecionarAssento extends JPanel {
             JOptionPane.showMessageDialog(this, "Por favor, selecione ao menos um assento.", "Nenhum Assento Selecionado", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
-
-        JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
-        frame.setContentPane(new TelaInformarCPF(
-            false, this.sessaoEscolhida, new ArrayList<>(this.assentosSelecionadosPeloUsuario),
-            this.clienteServico, this.pecaServico, this.reservaServico, this.sessaoServico
-        ));
-        frame.revalidate();
-        frame.repaint();
+        if (retencaoEmAndamento) {
+            return;
+        }
+        // Renova o prazo da retenção para as telas de identificação e confirmação.
+        reterSelecao(this.assentosSelecionadosPeloUsuario, () -> {
+            JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
+            frame.setContentPane(new TelaInformarCPF(
+                false, this.sessaoEscolhida, new ArrayList<>(this.assentosSelecionadosPeloUsuario), this.tokenRetencao,
+                this.clienteServico, this.pecaServico, this.reservaServico, this.sessaoServico
+            ));
+            frame.revalidate();
+            frame.repaint();
+        });
     }
 
     private void voltarParaSelecaoDeSessao() {
+        if (retencaoEmAndamento) {
+            return; // o token da retenção em andamento ainda não chegou para ser liberado
+        }
+        this.reservaServico.liberarRetencao(this.tokenRetencao);
         JFrame frame = (JFrame) SwingUtilities.getWindowAncestor(this);
         frame.setContentPane(new TelaSelecionarSessao(
             this.sessaoEscolhida.getPeca(), this.sessaoServico, 
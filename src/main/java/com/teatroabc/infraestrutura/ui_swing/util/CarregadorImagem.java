@@ -18,10 +18,17 @@ import java.net.URL;
 import java.io.File;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CarregadorImagem {
     
     private static final boolean DEBUG = true; // Ativar/desativar logs detalhados
+
+    // Imagens já decodificadas por caminho (vazio = não encontrada), para que cada cartaz
+    // seja lido do disco uma única vez, seja no aquecimento da inicialização ou pela tela.
+    private static final Map<String, Optional<BufferedImage>> CACHE_IMAGENS = new ConcurrentHashMap<>();
     
     public static ImageIcon carregar(String caminho, int largura, int altura) {
         BufferedImage img = carregar(caminho);
@@ -32,11 +39,20 @@ public class CarregadorImagem {
         return null;
     }
     
+    /**
+     * Carrega uma imagem, decodificando-a apenas na primeira vez em que o caminho é pedido.
+     * Chamadas simultâneas para o mesmo caminho aguardam a mesma decodificação.
+     * A imagem retornada é compartilhada e não deve ser alterada.
+     */
     public static BufferedImage carregar(String caminho) {
         if (caminho == null || caminho.isEmpty()) {
             debug("Caminho da imagem está vazio ou nulo");
             return null;
         }
+        return CACHE_IMAGENS.computeIfAbsent(caminho, c -> Optional.ofNullable(carregarSemCache(c))).orElse(null);
+    }
+
+    private static BufferedImage carregarSemCache(String caminho) {
         
         debug("=== INICIANDO CARREGAMENTO DE IMAGEM ===");
         debug("Caminho solicitado: " + caminho);
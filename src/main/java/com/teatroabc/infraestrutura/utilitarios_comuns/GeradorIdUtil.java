@@ -1,6 +1,6 @@
 package com.teatroabc.infraestrutura.utilitarios_comuns;
 
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Utilitário para a geração de identificadores únicos.
@@ -9,32 +9,92 @@ import java.util.UUID;
  * um identificador único.
  * Na arquitetura hexagonal, a geração de IDs é frequentemente uma preocupação
  * de infraestrutura ou de um serviço de aplicação que orquestra a criação de entidades.
+ * <p>
+ * IDs e códigos de barras vêm de um {@link GeradorSequencialIds} (tempo + nó + sequência),
+ * sem bloqueio e sem colisões entre threads ou entre terminais, desde que cada terminal
+ * use um nó diferente ({@link #definirNo(int)}, chamado na inicialização). Até lá, o nó
+ * é sorteado.
  */
 public class GeradorIdUtil {
 
+    /** Quantidade de dígitos de um código de barras gerado, incluindo o dígito verificador. */
+    public static final int DIGITOS_CODIGO_BARRAS = 20;
+
+    private static volatile GeradorSequencialIds gerador =
+            new GeradorSequencialIds(ThreadLocalRandom.current().nextInt(GeradorSequencialIds.QUANTIDADE_NOS));
+
+    /**
+     * Define o nó deste terminal nos IDs e códigos de barras gerados a partir de agora.
+     * Os valores continuam crescentes em relação aos já gerados com o nó anterior.
+     *
+     * @param no O nó (0 a {@link GeradorSequencialIds#QUANTIDADE_NOS} - 1), único entre os
+     *           terminais que compartilham os dados.
+     */
+    public static synchronized void definirNo(int no) {
+        gerador = new GeradorSequencialIds(no, gerador.getUltimoTempoSequencia());
+    }
+
     /**
-     * Gera um ID único universal (UUID) como String.
+     * @return O nó usado na geração.
+     */
+    public static int getNo() {
+        return gerador.getNo();
+    }
+
+    /**
+     * Gera um novo ID: o valor do gerador em 16 dígitos hexadecimais, de modo que IDs
+     * mais novos também são maiores na ordem alfabética.
      * Este método é comumente usado para gerar IDs para entidades de domínio.
-     * @return Uma String representando o UUID.
+     * @return Uma String representando o ID.
      */
     public static String gerarNovoId() {
-        return UUID.randomUUID().toString();
+        String hex = Long.toHexString(gerador.proximo());
+        return "0000000000000000".substring(hex.length()) + hex;
     }
 
     /**
-     * Gera um novo código de barras.
-     * A lógica atual é um exemplo simples e pode ser adaptada conforme a necessidade
-     * de formato ou unicidade do código de barras.
+     * Gera um novo código de barras numérico de {@value #DIGITOS_CODIGO_BARRAS} dígitos:
+     * o valor do gerador em 19 dígitos seguido de um dígito verificador (módulo 10, pesos
+     * 3 e 1 como no EAN), que permite à portaria recusar uma leitura corrompida.
      * @return Uma String representando o código de barras.
      */
     public static String gerarNovoCodigoBarras() {
-        // Exemplo: Prefixo "TB" + parte do timestamp em nanossegundos para alguma variação.
-        // Em um sistema real, a lógica poderia ser mais robusta para garantir unicidade
-        // ou seguir um padrão específico de código de barras.
-        return String.format("TB%010d", System.nanoTime() % 10000000000L);
+        char[] digitos = new char[DIGITOS_CODIGO_BARRAS];
+        long valor = gerador.proximo();
+        for (int i = DIGITOS_CODIGO_BARRAS - 2; i >= 0; i--) {
+            digitos[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+        digitos[DIGITOS_CODIGO_BARRAS - 1] = (char) ('0' + digitoVerificador(digitos, DIGITOS_CODIGO_BARRAS - 1));
+        return new String(digitos);
     }
 
-    // Futuramente, outros métodos para gerar diferentes tipos de IDs
-    // poderiam ser adicionados aqui, por exemplo:
-    // public static long gerarIdNumericoSequencial() { /* ... */ }
-}
\ No newline at end of file
+    /**
+     * Indica se um código tem o formato dos códigos gerados por {@link #gerarNovoCodigoBarras()}
+     * ({@value #DIGITOS_CODIGO_BARRAS} dígitos) e o dígito verificador confere.
+     * Códigos em outros formatos (bilhetes antigos) não são avaliados.
+     *
+     * @param codigo O código lido.
+     * @return false apenas se o código tem o formato gerado e o dígito verificador não confere.
+     */
+    public static boolean digitoVerificadorConfere(String codigo) {
+        if (codigo == null || codigo.length() != DIGITOS_CODIGO_BARRAS) {
+            return true;
+        }
+        char[] digitos = codigo.toCharArray();
+        for (char c : digitos) {
+            if (c < '0' || c > '9') {
+                return true;
+            }
+        }
+        return digitos[DIGITOS_CODIGO_BARRAS - 1] - '0' == digitoVerificador(digitos, DIGITOS_CODIGO_BARRAS - 1);
+    }
+
+    private static int digitoVerificador(char[] digitos, int quantidade) {
+        int soma = 0;
+        for (int i = quantidade - 1, peso = 3; i >= 0; i--, peso = 4 - peso) {
+            soma += (digitos[i] - '0') * peso;
+        }
+        return (10 - soma % 10) % 10;
+    }
+}
@@ -0,0 +1,103 @@
+package com.teatroabc.infraestrutura.utilitarios_comuns;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de identificadores numéricos ordenados pelo tempo, no estilo Snowflake.
+ * Cada valor é um {@code long} positivo de 63 bits:
+ * <pre>
+ *   | 41 bits: milissegundos desde 01/01/2025 UTC | 10 bits: nó | 12 bits: sequência |
+ * </pre>
+ * O nó identifica o terminal (0 a {@value #QUANTIDADE_NOS} - 1), de modo que terminais
+ * diferentes nunca geram o mesmo valor; a sequência distingue os valores gerados no
+ * mesmo milissegundo (até 4096 por milissegundo e por nó).
+ * <p>
+ * O tempo e a sequência ficam juntos em um único {@link AtomicLong}, avançado por
+ * compare-and-set: nenhuma thread espera por bloqueio. O próximo valor é o maior entre
+ * o relógio atual e o último valor + 1. Assim, se a sequência de um milissegundo se
+ * esgota, o gerador "adianta" o milissegundo em vez de esperar o relógio, e um relógio
+ * que volta no tempo (ajuste de NTP) não repete valores. Os valores de um nó são,
+ * portanto, estritamente crescentes enquanto o processo estiver em execução. O adiantamento
+ * só acontece acima de 4096 valores por milissegundo, e o relógio o alcança assim que a
+ * rajada termina.
+ */
+public final class GeradorSequencialIds {
+
+    /** Quantidade de nós distintos (10 bits). */
+    public static final int QUANTIDADE_NOS = 1 << 10;
+    /** Início da contagem do tempo: 01/01/2025 00:00 UTC, em milissegundos. */
+    public static final long EPOCA_MS = 1_735_689_600_000L;
+
+    private static final int BITS_SEQUENCIA = 12;
+    private static final int BITS_NO = 10;
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+
+    private final long no;
+    // Milissegundos desde a época << BITS_SEQUENCIA | sequência, do último valor gerado.
+    private final AtomicLong ultimoTempoSequencia;
+
+    /**
+     * @param no O nó deste terminal (0 a {@value #QUANTIDADE_NOS} - 1).
+     */
+    public GeradorSequencialIds(int no) {
+        this(no, 0L);
+    }
+
+    /**
+     * @param no O nó deste terminal (0 a {@value #QUANTIDADE_NOS} - 1).
+     * @param ultimoTempoSequencia O estado de um gerador anterior, para que o novo nunca
+     *                             volte atrás dele (0 para começar pelo relógio).
+     */
+    GeradorSequencialIds(int no, long ultimoTempoSequencia) {
+        if (no < 0 || no >= QUANTIDADE_NOS) {
+            throw new IllegalArgumentException("O nó deve estar entre 0 e " + (QUANTIDADE_NOS - 1) + ": " + no);
+        }
+        this.no = no;
+        this.ultimoTempoSequencia = new AtomicLong(ultimoTempoSequencia);
+    }
+
+    /**
+     * @return Um valor único para este nó e maior que todos os gerados antes por este gerador.
+     */
+    public long proximo() {
+        long relogio = (System.currentTimeMillis() - EPOCA_MS) << BITS_SEQUENCIA;
+        long anterior;
+        long proximo;
+        do {
+            anterior = ultimoTempoSequencia.get();
+            proximo = Math.max(relogio, anterior + 1);
+        } while (!ultimoTempoSequencia.compareAndSet(anterior, proximo));
+        long tempo = proximo >>> BITS_SEQUENCIA;
+        return (tempo << (BITS_NO + BITS_SEQUENCIA)) | (no << BITS_SEQUENCIA) | (proximo & MASCARA_SEQUENCIA);
+    }
+
+    /**
+     * @return O nó deste gerador.
+     */
+    public int getNo() {
+        return (int) no;
+    }
+
+    /**
+     * @return O estado do último valor gerado, para continuar a partir dele em outro gerador.
+     */
+    long getUltimoTempoSequencia() {
+        return ultimoTempoSequencia.get();
+    }
+
+    /**
+     * @param valor Um valor gerado por {@link #proximo()}.
+     * @return O nó que gerou o valor.
+     */
+    public static int noDe(long valor) {
+        return (int) ((valor >>> BITS_SEQUENCIA) & (QUANTIDADE_NOS - 1));
+    }
+
+    /**
+     * @param valor Um valor gerado por {@link #proximo()}.
+     * @return O instante (milissegundos desde 1970) em que o valor foi gerado.
+     */
+    public static long instanteDe(long valor) {
+        return (valor >>> (BITS_NO + BITS_SEQUENCIA)) + EPOCA_MS;
+    }
+}
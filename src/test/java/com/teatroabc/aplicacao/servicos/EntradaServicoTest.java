@@ -0,0 +1,104 @@
+package com.teatroabc.aplicacao.servicos;
+
+import com.teatroabc.apoio.DadosDeTeste;
+import com.teatroabc.aplicacao.dto.ResultadoEntradaDTO;
+import com.teatroabc.dominio.enums.StatusEntrada;
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.ClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.EntradaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.PecaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Portaria sobre o armazenamento em texto: o bilhete é gravado em bilhetes.txt e lido de volta
+ * por um repositório novo, como em outro terminal, antes de passar pela porta.
+ */
+class EntradaServicoTest {
+
+    private static ClienteRepositorio clienteRepositorio;
+    private static PecaRepositorio pecaRepositorio;
+    private static RegistroOcupacaoAssentos registroOcupacao;
+    private static Cliente cliente;
+    private static Peca peca;
+
+    @BeforeAll
+    static void prepararDados() {
+        DadosDeTeste.prepararCopiaDaOrigem();
+        clienteRepositorio = new ClienteRepositorio();
+        pecaRepositorio = new PecaRepositorio();
+        registroOcupacao = new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false);
+        cliente = clienteRepositorio.buscarPorCpf("10034519505").orElseThrow();
+        peca = pecaRepositorio.listarTodas().get(0);
+    }
+
+    /**
+     * Grava um bilhete comprado em {@code dataCompra} para uma sessão em {@code dataSessao}.
+     */
+    private Bilhete gravarBilhete(LocalDateTime dataCompra, LocalDateTime dataSessao, String codigoAssento) {
+        Sessao sessao = new Sessao(GeradorIdUtil.gerarNovoId(), peca, dataSessao, Turno.NOITE);
+        Bilhete bilhete = new Bilhete(GeradorIdUtil.gerarNovoId(), GeradorIdUtil.gerarNovoCodigoBarras(), sessao, cliente,
+                List.of(BilheteRepositorio.reconstruirAssento(codigoAssento)), 5000, 0, 5000, dataCompra);
+        new BilheteRepositorio(clienteRepositorio, pecaRepositorio, registroOcupacao).salvar(bilhete);
+        return bilhete;
+    }
+
+    private EntradaServico novaPortaria() {
+        BilheteRepositorio bilhetesLidosDoArquivo = new BilheteRepositorio(clienteRepositorio, pecaRepositorio, registroOcupacao);
+        return new EntradaServico(bilhetesLidosDoArquivo, new EntradaRepositorio(GerenciadorArquivos.bloqueiosEntreProcessos()));
+    }
+
+    @Test
+    void bilheteCompradoDiasAntesEntraNoDiaDaSessao() throws IOException {
+        LocalDate hoje = LocalDate.now();
+        Bilhete bilhete = gravarBilhete(hoje.minusDays(5).atTime(14, 30), hoje.atTime(20, 0), "B1-1");
+
+        ResultadoEntradaDTO resultado = novaPortaria().validarEntrada(bilhete.getCodigoBarras(), "Porta 1");
+
+        assertEquals(StatusEntrada.LIBERADA, resultado.getStatus());
+        assertEquals(bilhete.getSessao().getId(), resultado.getBilhete().getSessao().getId());
+        assertEquals(hoje.atTime(20, 0), resultado.getBilhete().getSessao().getDataHora());
+        List<String> entradas = Files.readAllLines(DadosDeTeste.DIRETORIO.resolve(GerenciadorArquivos.ARQUIVO_ENTRADAS));
+        assertTrue(entradas.stream().anyMatch(linha -> linha.startsWith(bilhete.getId() + "|" + bilhete.getSessao().getId() + "|")),
+                "entradas.txt deve registrar a sessão do bilhete: " + entradas);
+    }
+
+    @Test
+    void bilheteCompradoHojeParaOutroDiaNaoEntra() {
+        LocalDate hoje = LocalDate.now();
+        Bilhete bilhete = gravarBilhete(hoje.atTime(0, 5), hoje.plusDays(3).atTime(20, 0), "B1-2");
+
+        ResultadoEntradaDTO resultado = novaPortaria().validarEntrada(bilhete.getCodigoBarras(), "Porta 1");
+
+        assertEquals(StatusEntrada.OUTRA_DATA, resultado.getStatus());
+    }
+
+    @Test
+    void segundaLeituraDoMesmoBilheteEhRecusada() {
+        LocalDate hoje = LocalDate.now();
+        Bilhete bilhete = gravarBilhete(hoje.minusDays(2).atTime(9, 0), hoje.atTime(20, 0), "B1-3");
+        EntradaServico portaria = novaPortaria();
+
+        assertEquals(StatusEntrada.LIBERADA, portaria.validarEntrada(bilhete.getCodigoBarras(), "Porta 1").getStatus());
+        assertEquals(StatusEntrada.JA_UTILIZADO, portaria.validarEntrada(bilhete.getCodigoBarras(), "Porta 2").getStatus());
+    }
+}
@@ -0,0 +1,127 @@
+package com.teatroabc.aplicacao.servicos;
+
+import com.teatroabc.apoio.DadosDeTeste;
+import com.teatroabc.aplicacao.dto.PedidoReservaDTO;
+import com.teatroabc.aplicacao.dto.RetencaoAssentosDTO;
+import com.teatroabc.aplicacao.excecoes.ReservaInvalidaException;
+import com.teatroabc.dominio.enums.StatusAssento;
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.implementacao.AssentoRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.ClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.PecaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reserva em grupo ({@link ReservaServico#criarReservas}) de assentos que o próprio cliente
+ * reteve antes: os assentos retidos pelo token do pedido contam como livres, e a retenção
+ * é liberada quando os bilhetes são gravados.
+ */
+class ReservaEmLoteTest {
+
+    private static AssentoRepositorio assentoRepositorio;
+    private static ReservaServico reservaServico;
+    private static Cliente cliente;
+    private static Peca peca;
+
+    @BeforeAll
+    static void prepararDados() {
+        DadosDeTeste.prepararCopiaDaOrigem();
+        RegistroOcupacaoAssentos registroOcupacao = new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false);
+        PecaRepositorio pecaRepositorio = new PecaRepositorio();
+        ClienteRepositorio clienteRepositorio = new ClienteRepositorio();
+        assentoRepositorio = new AssentoRepositorio(registroOcupacao, GerenciadorArquivos.bloqueiosEntreProcessos());
+        BilheteRepositorio bilheteRepositorio = new BilheteRepositorio(clienteRepositorio, pecaRepositorio, registroOcupacao);
+        reservaServico = new ReservaServico(bilheteRepositorio, assentoRepositorio);
+        cliente = clienteRepositorio.buscarPorCpf("10034519505").orElseThrow();
+        peca = pecaRepositorio.listarTodas().get(0);
+    }
+
+    private static Sessao novaSessao() {
+        return new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.now().plusDays(1), Turno.NOITE);
+    }
+
+    /**
+     * Assentos livres da sessão, um por código (Plateia A e Plateia B compartilham o prefixo "P").
+     */
+    private static List<Assento> assentosLivres(Sessao sessao) {
+        Map<String, Assento> porCodigo = new LinkedHashMap<>();
+        for (Assento assento : assentoRepositorio.buscarAssentosPorSessao(sessao)) {
+            if (assento.getStatus() == StatusAssento.DISPONIVEL) {
+                porCodigo.putIfAbsent(assento.getCodigo(), assento);
+            }
+        }
+        return new ArrayList<>(porCodigo.values());
+    }
+
+    private static Set<String> codigosComStatus(Sessao sessao, StatusAssento status) {
+        return assentoRepositorio.buscarAssentosPorSessao(sessao).stream()
+                .filter(a -> a.getStatus() == status)
+                .map(Assento::getCodigo)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void grupoReservaOsAssentosRetidosPeloProprioToken() throws Exception {
+        Sessao retida = novaSessao();
+        Sessao outra = novaSessao();
+        List<Assento> assentosRetidos = assentosLivres(retida).subList(0, 4);
+        List<Assento> assentosOutra = assentosLivres(outra).subList(0, 2);
+        RetencaoAssentosDTO retencao = reservaServico.reterAssentos(retida, assentosRetidos, null);
+        Set<String> codigosRetidos = assentosRetidos.stream().map(Assento::getCodigo).collect(Collectors.toSet());
+        assertTrue(codigosComStatus(retida, StatusAssento.RETIDO).containsAll(codigosRetidos));
+
+        PedidoReservaDTO pedido = new PedidoReservaDTO(cliente, List.of(
+                new PedidoReservaDTO.ItemPedido(retida, assentosRetidos.subList(0, 2)),
+                new PedidoReservaDTO.ItemPedido(retida, assentosRetidos.subList(2, 4)),
+                new PedidoReservaDTO.ItemPedido(outra, assentosOutra)), retencao.getToken());
+        List<Bilhete> bilhetes = reservaServico.criarReservas(pedido);
+
+        assertEquals(3, bilhetes.size());
+        assertTrue(codigosComStatus(retida, StatusAssento.OCUPADO).containsAll(codigosRetidos));
+        assertTrue(codigosComStatus(retida, StatusAssento.RETIDO).isEmpty(), "A retenção deve ser liberada após a venda.");
+        assertTrue(codigosComStatus(outra, StatusAssento.OCUPADO)
+                .containsAll(assentosOutra.stream().map(Assento::getCodigo).toList()));
+    }
+
+    @Test
+    void semOTokenOsAssentosRetidosContinuamIndisponiveis() throws Exception {
+        Sessao retida = novaSessao();
+        List<Assento> assentosRetidos = assentosLivres(retida).subList(0, 2);
+        RetencaoAssentosDTO retencao = reservaServico.reterAssentos(retida, assentosRetidos, null);
+
+        PedidoReservaDTO semToken = new PedidoReservaDTO(cliente,
+                List.of(new PedidoReservaDTO.ItemPedido(retida, assentosRetidos)));
+        assertThrows(ReservaInvalidaException.class, () -> reservaServico.criarReservas(semToken));
+        PedidoReservaDTO outroToken = new PedidoReservaDTO(cliente,
+                List.of(new PedidoReservaDTO.ItemPedido(retida, assentosRetidos)), GeradorIdUtil.gerarNovoId());
+        assertThrows(ReservaInvalidaException.class, () -> reservaServico.criarReservas(outroToken));
+
+        // A retenção recusada continua valendo para a compra que a fez.
+        Set<String> codigosRetidos = assentosRetidos.stream().map(Assento::getCodigo).collect(Collectors.toSet());
+        assertEquals(codigosRetidos, codigosComStatus(retida, StatusAssento.RETIDO));
+        reservaServico.liberarRetencao(retencao.getToken());
+    }
+}
@@ -0,0 +1,192 @@
+package com.teatroabc.aplicacao.servicos;
+
+import com.teatroabc.apoio.DadosDeTeste;
+import com.teatroabc.aplicacao.excecoes.ReservaInvalidaException;
+import com.teatroabc.dominio.enums.StatusAssento;
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.dominio.modelos.Peca;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.implementacao.AssentoRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.BilheteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.ClienteRepositorio;
+import com.teatroabc.infraestrutura.persistencia.implementacao.PecaRepositorio;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga da verificação e reserva atômica por sessão
+ * ({@link AssentoRepositorio#reservarSeDisponiveis}): muitas threads disputam os mesmos
+ * assentos de uma sessão, e nenhum assento pode ser vendido duas vezes.
+ */
+class ReservaServicoConcorrenciaTest {
+
+    private static final int THREADS = 32;
+    private static final int TENTATIVAS_POR_THREAD = 200;
+
+    private static AssentoRepositorio assentoRepositorio;
+    private static BilheteRepositorio bilheteRepositorio;
+    private static ReservaServico reservaServico;
+    private static Cliente cliente;
+    private static Peca peca;
+
+    @BeforeAll
+    static void prepararDados() {
+        DadosDeTeste.prepararCopiaDaOrigem();
+        RegistroOcupacaoAssentos registroOcupacao = new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false);
+        PecaRepositorio pecaRepositorio = new PecaRepositorio();
+        ClienteRepositorio clienteRepositorio = new ClienteRepositorio();
+        assentoRepositorio = new AssentoRepositorio(registroOcupacao, GerenciadorArquivos.bloqueiosEntreProcessos());
+        bilheteRepositorio = new BilheteRepositorio(clienteRepositorio, pecaRepositorio, registroOcupacao);
+        reservaServico = new ReservaServico(bilheteRepositorio, assentoRepositorio);
+        cliente = clienteRepositorio.buscarPorCpf("10034519505").orElseThrow();
+        peca = pecaRepositorio.listarTodas().get(0);
+    }
+
+    private static Sessao novaSessao() {
+        return new Sessao(GeradorIdUtil.gerarNovoId(), peca, LocalDateTime.now().plusDays(1), Turno.NOITE);
+    }
+
+    /**
+     * Assentos livres da sessão, um por código (Plateia A e Plateia B compartilham o prefixo "P").
+     */
+    private static List<Assento> assentosLivres(Sessao sessao) {
+        Map<String, Assento> porCodigo = new LinkedHashMap<>();
+        for (Assento assento : assentoRepositorio.buscarAssentosPorSessao(sessao)) {
+            if (assento.getStatus() == StatusAssento.DISPONIVEL) {
+                porCodigo.putIfAbsent(assento.getCodigo(), assento);
+            }
+        }
+        return new ArrayList<>(porCodigo.values());
+    }
+
+    @Test
+    void nenhumAssentoEhVendidoDuasVezesSobDisputa() throws Exception {
+        Sessao sessao = novaSessao();
+        // Poucos assentos para muitas threads: quase toda tentativa colide com outra.
+        List<Assento> disputados = assentosLivres(sessao).subList(0, 40);
+        Map<String, String> vendidoPara = new ConcurrentHashMap<>();
+        List<String> vendasDuplicadas = new ArrayList<>();
+        AtomicInteger vendas = new AtomicInteger();
+        AtomicInteger recusas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> terminais = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                terminais.add(executor.submit(() -> {
+                    largada.await();
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    for (int i = 0; i < TENTATIVAS_POR_THREAD; i++) {
+                        Assento primeiro = disputados.get(aleatorio.nextInt(disputados.size()));
+                        Assento segundo = disputados.get(aleatorio.nextInt(disputados.size()));
+                        List<Assento> pedido = primeiro == segundo ? List.of(primeiro) : List.of(primeiro, segundo);
+                        try {
+                            Bilhete bilhete = reservaServico.criarReserva(sessao, cliente, pedido);
+                            vendas.incrementAndGet();
+                            for (Assento assento : bilhete.getAssentos()) {
+                                String anterior = vendidoPara.putIfAbsent(assento.getCodigo(), bilhete.getId());
+                                if (anterior != null) {
+                                    synchronized (vendasDuplicadas) {
+                                        vendasDuplicadas.add(assento.getCodigo());
+                                    }
+                                }
+                            }
+                        } catch (ReservaInvalidaException e) {
+                            recusas.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> terminal : terminais) {
+                terminal.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(vendasDuplicadas.isEmpty(), "Assentos vendidos mais de uma vez: " + vendasDuplicadas);
+        assertEquals(THREADS * TENTATIVAS_POR_THREAD, vendas.get() + recusas.get());
+        assertTrue(vendas.get() > 0 && recusas.get() > 0, "A disputa deve gerar vendas e recusas.");
+        assertTrue(assentosLivres(sessao).stream().noneMatch(a -> vendidoPara.containsKey(a.getCodigo())));
+
+        // O que foi gravado em bilhetes.txt confirma: cada assento da sessão aparece em um único bilhete.
+        Map<String, Long> vendasPorCodigo = bilheteRepositorio.listarPorCpfCliente(cliente.getCpf()).stream()
+                .filter(b -> b.getSessao().getId().equals(sessao.getId()))
+                .flatMap(b -> b.getAssentos().stream())
+                .collect(Collectors.groupingBy(Assento::getCodigo, Collectors.counting()));
+        assertEquals(vendidoPara.keySet(), vendasPorCodigo.keySet());
+        assertTrue(vendasPorCodigo.values().stream().allMatch(n -> n == 1), "Gravado em dobro: " + vendasPorCodigo);
+    }
+
+    @Test
+    void vendaEmOutraSessaoNaoEsperaPelaSessaoBloqueada() throws Exception {
+        Sessao bloqueada = novaSessao();
+        Sessao livre;
+        do {
+            livre = novaSessao(); // Outra sessão, em outro balde entre processos.
+        } while (GerenciadorArquivos.bloqueiosEntreProcessos().baldeDe(livre.getId())
+                == GerenciadorArquivos.bloqueiosEntreProcessos().baldeDe(bloqueada.getId()));
+        List<String> codigoBloqueado = List.of(assentosLivres(bloqueada).get(0).getCodigo());
+        Assento assentoLivre = assentosLivres(livre).get(0);
+
+        CountDownLatch dentroDaSessao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> vendaLenta = executor.submit(() -> assentoRepositorio.reservarSeDisponiveis(
+                    bloqueada, codigoBloqueado, null, () -> {
+                        dentroDaSessao.countDown();
+                        try {
+                            liberar.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }));
+            assertTrue(dentroDaSessao.await(10, TimeUnit.SECONDS));
+
+            Sessao sessaoLivre = livre;
+            Bilhete bilhete = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> reservaServico.criarReserva(sessaoLivre, cliente, List.of(assentoLivre)));
+            assertEquals(sessaoLivre.getId(), bilhete.getSessao().getId());
+
+            liberar.countDown();
+            assertTrue(vendaLenta.get(10, TimeUnit.SECONDS));
+        } finally {
+            liberar.countDown();
+            executor.shutdownNow();
+        }
+        assertNull(assentosLivres(bloqueada).stream()
+                .filter(a -> a.getCodigo().equals(codigoBloqueado.get(0))).findFirst().orElse(null));
+    }
+}
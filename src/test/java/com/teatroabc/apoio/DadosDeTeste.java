@@ -0,0 +1,64 @@
+package com.teatroabc.apoio;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Prepara o diretório dados/ de uma classe de teste. Os repositórios de arquivo abrem dados/
+ * relativo ao diretório de trabalho e guardam o diário e os bloqueios em campos estáticos,
+ * por isso o build roda cada classe de teste em uma JVM própria, com o diretório de trabalho
+ * em target/, e cada classe chama {@link #prepararCopiaDaOrigem()} antes de criar qualquer repositório.
+ */
+public final class DadosDeTeste {
+
+    /** Propriedade com o dados/ do projeto, copiado para cada teste (definida no pom.xml). */
+    public static final String PROPRIEDADE_ORIGEM = "teatroabc.dados.origem";
+
+    public static final Path DIRETORIO = Paths.get("dados");
+
+    private DadosDeTeste() {}
+
+    /**
+     * Apaga o dados/ do diretório de trabalho e copia nele os arquivos .txt do dados/ do projeto.
+     *
+     * @throws IllegalStateException Se o diretório de trabalho for o próprio projeto: os dados
+     *                               versionados seriam apagados.
+     */
+    public static void prepararCopiaDaOrigem() {
+        Path origem = Paths.get(System.getProperty(PROPRIEDADE_ORIGEM, "")).toAbsolutePath().normalize();
+        if (origem.equals(DIRETORIO.toAbsolutePath().normalize())) {
+            throw new IllegalStateException("Os testes não podem rodar sobre o dados/ do projeto: " + origem);
+        }
+        try {
+            limpar();
+            Files.createDirectories(DIRETORIO);
+            try (Stream<Path> arquivos = Files.list(origem)) {
+                for (Path arquivo : arquivos.filter(a -> a.getFileName().toString().endsWith(".txt")).toList()) {
+                    Files.copy(arquivo, DIRETORIO.resolve(arquivo.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao preparar " + DIRETORIO.toAbsolutePath() + " a partir de " + origem, e);
+        }
+    }
+
+    /**
+     * Remove o dados/ do diretório de trabalho e tudo o que os repositórios criaram nele.
+     */
+    public static void limpar() throws IOException {
+        if (!Files.exists(DIRETORIO)) {
+            return;
+        }
+        try (Stream<Path> caminhos = Files.walk(DIRETORIO)) {
+            for (Path caminho : caminhos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(caminho);
+            }
+        }
+    }
+}
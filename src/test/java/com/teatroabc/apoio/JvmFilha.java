@@ -0,0 +1,31 @@
+package com.teatroabc.apoio;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inicia outra JVM com o mesmo classpath e o mesmo diretório de trabalho (e portanto o mesmo
+ * dados/) do teste, como um segundo terminal do balcão. A saída padrão da filha fica com o
+ * teste; a saída de erro vai para a do teste.
+ */
+public final class JvmFilha {
+
+    private JvmFilha() {}
+
+    public static Process iniciar(Class<?> principal, String... argumentos) throws IOException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        comando.add("-Djava.awt.headless=true");
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(principal.getName());
+        comando.addAll(List.of(argumentos));
+        return new ProcessBuilder(comando)
+                .directory(new File("").getAbsoluteFile())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+}
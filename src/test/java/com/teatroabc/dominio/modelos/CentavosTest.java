@@ -0,0 +1,71 @@
+package com.teatroabc.dominio.modelos;
+
+import com.teatroabc.infraestrutura.persistencia.util.CursorRegistro;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A aritmética em centavos deve dar exatamente o que o cálculo anterior com BigDecimal dava.
+ */
+class CentavosTest {
+
+    private static final int CASOS = 2_000_000;
+
+    @Test
+    void percentualIgualAoBigDecimalComHalfUp() {
+        SplittableRandom aleatorio = new SplittableRandom(17);
+        for (int i = 0; i < CASOS; i++) {
+            long centavos = aleatorio.nextLong(-10_000_000_000L, 10_000_000_000L);
+            int pontosBase = aleatorio.nextInt(Centavos.PONTOS_BASE_POR_INTEIRO + 1);
+            BigDecimal fator = BigDecimal.valueOf(pontosBase, 4);
+            BigDecimal esperado = Centavos.paraBigDecimal(centavos).multiply(fator).setScale(2, RoundingMode.HALF_UP);
+            assertEquals(Centavos.de(esperado), Centavos.percentual(centavos, pontosBase), centavos + " x " + fator);
+        }
+    }
+
+    @Test
+    void metadeArredondaParaLongeDoZero() {
+        assertEquals(1, Centavos.percentual(10, 500));   // 0,005 -> 0,01
+        assertEquals(-1, Centavos.percentual(-10, 500)); // -0,005 -> -0,01
+        assertEquals(0, Centavos.percentual(9, 500));    // 0,0045 -> 0,00
+        assertEquals(2400, Centavos.percentual(48000, 500));
+    }
+
+    @Test
+    void leituraDaLinhaIgualAoSetScaleHalfUp() {
+        SplittableRandom aleatorio = new SplittableRandom(18);
+        CursorRegistro cursor = new CursorRegistro('|');
+        for (int i = 0; i < CASOS; i++) {
+            BigDecimal valor = BigDecimal.valueOf(aleatorio.nextLong(-100_000_000L, 100_000_000L), aleatorio.nextInt(5));
+            String texto = valor.toPlainString();
+            assertEquals(Centavos.de(valor), cursor.sobre(texto).centavos(0), texto);
+        }
+    }
+
+    @Test
+    void formatarIgualAoFormatoAnterior() {
+        SplittableRandom aleatorio = new SplittableRandom(19);
+        for (int i = 0; i < CASOS; i++) {
+            long centavos = aleatorio.nextLong(-1_000_000_000L, 1_000_000_000L);
+            String esperado = String.format(Locale.US, "%.2f", Centavos.paraBigDecimal(centavos));
+            assertEquals(esperado, Centavos.formatar(centavos));
+        }
+        assertEquals("0.00", Centavos.formatar(0));
+        assertEquals("-0.05", Centavos.formatar(-5));
+        assertEquals("76.50", Centavos.formatar(7650));
+    }
+
+    @Test
+    void transbordamentoLancaExcecao() {
+        assertThrows(ArithmeticException.class, () -> Centavos.somar(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Centavos.percentual(Long.MAX_VALUE, 500));
+        assertThrows(ArithmeticException.class, () -> Centavos.pontosBaseDe(new BigDecimal("0.00001")));
+    }
+}
@@ -0,0 +1,135 @@
+package com.teatroabc.infraestrutura.persistencia.implementacao;
+
+import com.teatroabc.apoio.DadosDeTeste;
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Um terminal que já leu um arquivo até certa posição, enquanto outro o reescreve (compactação
+ * ou selagem) e acrescenta linhas até ele passar do tamanho anterior. Continuar a leitura da
+ * posição antiga cairia no meio de outras linhas: os caches devem perceber a reescrita e reler.
+ */
+class LeituraAposCompactacaoTest {
+
+    private static final String CPF_CLIENTE = "10034519505";
+
+    @BeforeAll
+    static void prepararDados() {
+        DadosDeTeste.prepararCopiaDaOrigem();
+    }
+
+    private static String cpfNovo(int i) {
+        return String.format("%011d", 90_000_000_000L + i);
+    }
+
+    @Test
+    void clientesCadastradosDepoisDaCompactacaoSaoEncontrados() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            GerenciadorArquivos.salvarCliente(CPF_CLIENTE + "|DUPLICADO " + i + "|01/01/1990|||PADRAO");
+        }
+        ClienteRepositorio leitor = new ClienteRepositorio();
+        leitor.aquecer();
+        long lidos = GerenciadorArquivos.tamanhoClientes();
+
+        assertEquals(20, GerenciadorArquivos.compactarClientes());
+        List<String> novos = new ArrayList<>();
+        for (int i = 0; GerenciadorArquivos.tamanhoClientes() <= lidos; i++) {
+            GerenciadorArquivos.salvarCliente(cpfNovo(i) + "|NOVO " + i + "|01/01/1990|||GOLD");
+            novos.add(cpfNovo(i));
+        }
+
+        for (int i = 0; i < novos.size(); i++) {
+            Cliente cliente = leitor.buscarPorCpf(novos.get(i)).orElse(null);
+            assertTrue(cliente != null, "Cliente " + novos.get(i) + " não encontrado após a compactação.");
+            assertEquals("NOVO " + i, cliente.getNome());
+        }
+        assertTrue(leitor.buscarPorCpf(CPF_CLIENTE).isPresent());
+    }
+
+    @Test
+    void bilhetesGravadosDepoisDaSelagemSaoEncontrados() throws Exception {
+        ClienteRepositorio clientes = new ClienteRepositorio();
+        PecaRepositorio pecas = new PecaRepositorio();
+        RegistroOcupacaoAssentos ocupacao = new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false);
+        BilheteRepositorio escritor = new BilheteRepositorio(clientes, pecas, ocupacao);
+        Cliente cliente = clientes.buscarPorCpf(CPF_CLIENTE).orElseThrow();
+        Sessao sessao = new Sessao(GeradorIdUtil.gerarNovoId(), pecas.listarTodas().get(0),
+                LocalDate.now().plusDays(10).atTime(20, 0), Turno.NOITE);
+        LocalDateTime mesPassado = LocalDateTime.now().minusMonths(1);
+        for (int i = 0; i < 10; i++) {
+            escritor.salvar(novoBilhete(sessao, cliente, mesPassado, i));
+        }
+        BilheteRepositorio leitor = new BilheteRepositorio(clientes, pecas, ocupacao);
+        leitor.aquecer();
+        long lidos = GerenciadorArquivos.tamanhoBilhetes();
+
+        assertTrue(GerenciadorArquivos.selarBilhetesAnteriores(YearMonth.now()) >= 10);
+        List<Bilhete> novos = new ArrayList<>();
+        for (int i = 0; GerenciadorArquivos.tamanhoBilhetes() <= lidos; i++) {
+            Bilhete bilhete = novoBilhete(sessao, cliente, LocalDateTime.now(), i);
+            escritor.salvar(bilhete);
+            novos.add(bilhete);
+        }
+
+        for (Bilhete bilhete : novos) {
+            assertEquals(bilhete.getId(), leitor.buscarPorCodigoBarras(bilhete.getCodigoBarras()).map(Bilhete::getId).orElse(null),
+                    "Bilhete " + bilhete.getId() + " não encontrado após a selagem.");
+        }
+        List<String> idsDoCliente = leitor.listarPorCpfCliente(CPF_CLIENTE).stream().map(Bilhete::getId).toList();
+        for (Bilhete bilhete : novos) {
+            assertTrue(idsDoCliente.contains(bilhete.getId()));
+        }
+    }
+
+    @Test
+    void vendasGravadasDepoisDaCompactacaoDoLogSaoVistas() throws Exception {
+        List<String> codigos = new ArrayList<>();
+        for (int fileira = 1; fileira <= 4; fileira++) {
+            for (int numero = 1; numero <= 10; numero++) {
+                codigos.add("B" + fileira + "-" + numero);
+            }
+        }
+        String sessaoAnterior = GeradorIdUtil.gerarNovoId();
+        GerenciadorArquivos.marcarAssentosOcupados(sessaoAnterior, codigos.subList(0, 10));
+        RegistroOcupacaoAssentos leitor = new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false);
+        leitor.aquecer();
+        long lidos = GerenciadorArquivos.tamanhoAssentosOcupados();
+
+        GerenciadorArquivos.compactarAssentosOcupados();
+        List<String> sessoesNovas = new ArrayList<>();
+        while (GerenciadorArquivos.tamanhoAssentosOcupados() <= lidos) {
+            String sessaoNova = GeradorIdUtil.gerarNovoId();
+            GerenciadorArquivos.marcarAssentosOcupados(sessaoNova, codigos);
+            sessoesNovas.add(sessaoNova);
+        }
+
+        for (String sessaoNova : sessoesNovas) {
+            BitSet ocupados = leitor.obterOcupacao(sessaoNova);
+            assertEquals(codigos.size(), ocupados.cardinality(), "Vendas da sessão " + sessaoNova + " após a compactação do log.");
+        }
+        assertEquals(10, leitor.obterOcupacao(sessaoAnterior).cardinality());
+    }
+
+    private static Bilhete novoBilhete(Sessao sessao, Cliente cliente, LocalDateTime compra, int i) {
+        return new Bilhete(GeradorIdUtil.gerarNovoId(), GeradorIdUtil.gerarNovoCodigoBarras(), sessao, cliente,
+                List.of(BilheteRepositorio.reconstruirAssento("B1-" + (1 + i % 10))), 5000, 0, 5000, compra);
+    }
+}
@@ -0,0 +1,176 @@
+package com.teatroabc.infraestrutura.persistencia.implementacao;
+
+import com.teatroabc.apoio.DadosDeTeste;
+import com.teatroabc.apoio.JvmFilha;
+import com.teatroabc.aplicacao.dto.ResultadoEntradaDTO;
+import com.teatroabc.aplicacao.servicos.EntradaServico;
+import com.teatroabc.dominio.enums.StatusEntrada;
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dois terminais da portaria (JVMs), com várias portas cada, leem todos os bilhetes de hoje
+ * sobre o mesmo dados/. Cada bilhete deve ser liberado exatamente uma vez, por uma única porta.
+ */
+class PortariaEntreProcessosTest {
+
+    private static final int TERMINAIS = 2;
+    private static final int PORTAS_POR_TERMINAL = 4;
+    private static final int BILHETES = 1_000;
+    private static final Path LARGADA = Paths.get("largada_portaria.sinal");
+    private static final Path CODIGOS = Paths.get("codigos_portaria.txt");
+    private static final String CPF_CLIENTE = "10034519505";
+
+    private static List<Bilhete> bilhetesDeHoje;
+
+    @BeforeAll
+    static void prepararDados() throws Exception {
+        DadosDeTeste.prepararCopiaDaOrigem();
+        Files.deleteIfExists(LARGADA);
+        ClienteRepositorio clienteRepositorio = new ClienteRepositorio();
+        PecaRepositorio pecaRepositorio = new PecaRepositorio();
+        BilheteRepositorio bilhetes = new BilheteRepositorio(clienteRepositorio, pecaRepositorio,
+                new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false));
+        Cliente cliente = clienteRepositorio.buscarPorCpf(CPF_CLIENTE).orElseThrow();
+        Sessao sessao = new Sessao(GeradorIdUtil.gerarNovoId(), pecaRepositorio.listarTodas().get(0),
+                LocalDate.now().atTime(20, 0), Turno.NOITE);
+        bilhetesDeHoje = new ArrayList<>();
+        for (int i = 0; i < BILHETES; i++) {
+            // Os assentos não importam para a portaria; só a sessão e o código de barras.
+            Bilhete bilhete = new Bilhete(GeradorIdUtil.gerarNovoId(), GeradorIdUtil.gerarNovoCodigoBarras(), sessao, cliente,
+                    List.of(BilheteRepositorio.reconstruirAssento("B1-" + (1 + i % 10))), 5000, 0, 5000,
+                    LocalDate.now().minusDays(1).atTime(10, 0));
+            bilhetes.salvar(bilhete);
+            bilhetesDeHoje.add(bilhete);
+        }
+        Files.write(CODIGOS, bilhetesDeHoje.stream().map(Bilhete::getCodigoBarras).toList(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void cadaBilheteEntraUmaUnicaVezEntreTerminais() throws Exception {
+        List<Process> terminais = new ArrayList<>();
+        List<BufferedReader> saidas = new ArrayList<>();
+        for (int t = 0; t < TERMINAIS; t++) {
+            Process terminal = JvmFilha.iniciar(Terminal.class, "Terminal " + t, String.valueOf(PORTAS_POR_TERMINAL));
+            terminais.add(terminal);
+            saidas.add(new BufferedReader(new InputStreamReader(terminal.getInputStream(), StandardCharsets.UTF_8)));
+        }
+        for (BufferedReader saida : saidas) {
+            assertEquals("PRONTO", saida.readLine());
+        }
+        Files.createFile(LARGADA); // Todas as portas começam a ler juntas.
+
+        Map<String, String> liberadoPor = new HashMap<>();
+        List<String> liberacoesDuplicadas = new ArrayList<>();
+        int liberadas = 0;
+        for (int t = 0; t < TERMINAIS; t++) {
+            String linha;
+            while ((linha = saidas.get(t).readLine()) != null) {
+                String[] partes = linha.split("\\|");
+                if (partes[0].equals("LIBERADA")) {
+                    liberadas++;
+                    if (liberadoPor.putIfAbsent(partes[1], partes[2]) != null) {
+                        liberacoesDuplicadas.add(partes[1] + " (" + partes[2] + " e " + liberadoPor.get(partes[1]) + ")");
+                    }
+                }
+            }
+            assertTrue(terminais.get(t).waitFor(2, TimeUnit.MINUTES));
+            assertEquals(0, terminais.get(t).exitValue(), "Terminal " + t + " terminou com erro.");
+        }
+
+        assertTrue(liberacoesDuplicadas.isEmpty(), "Bilhetes liberados mais de uma vez: " + liberacoesDuplicadas);
+        assertEquals(BILHETES, liberadas);
+        assertEquals(BILHETES, liberadoPor.size());
+
+        // Lido de volta de entradas.txt por um processo que não leu nenhum bilhete: uma linha por bilhete.
+        Map<String, Long> linhasPorBilhete = new HashMap<>();
+        for (String linha : Files.readAllLines(DadosDeTeste.DIRETORIO.resolve(GerenciadorArquivos.ARQUIVO_ENTRADAS))) {
+            linhasPorBilhete.merge(linha.substring(0, linha.indexOf('|')), 1L, Long::sum);
+        }
+        EntradaRepositorio entradas = new EntradaRepositorio();
+        for (Bilhete bilhete : bilhetesDeHoje) {
+            assertEquals(1L, linhasPorBilhete.getOrDefault(bilhete.getId(), 0L), "Entradas gravadas do bilhete " + bilhete.getId());
+            assertTrue(entradas.buscarEntrada(bilhete.getId()).isPresent());
+        }
+    }
+
+    /**
+     * Um terminal da portaria em uma JVM própria. Argumentos: nome do terminal e quantidade de
+     * portas. Escreve "PRONTO", espera a largada e então cada porta lê todos os códigos de
+     * {@code CODIGOS}, em ordem própria, escrevendo "LIBERADA|código|porta" a cada liberação.
+     */
+    public static final class Terminal {
+        public static void main(String[] args) throws Exception {
+            String nome = args[0];
+            int portas = Integer.parseInt(args[1]);
+            List<String> codigos = Files.readAllLines(CODIGOS, StandardCharsets.UTF_8);
+
+            ClienteRepositorio clienteRepositorio = new ClienteRepositorio();
+            BilheteRepositorio bilhetes = new BilheteRepositorio(clienteRepositorio, new PecaRepositorio(),
+                    new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false));
+            EntradaRepositorio entradas = new EntradaRepositorio(GerenciadorArquivos.bloqueiosEntreProcessos());
+            bilhetes.aquecer();
+            entradas.aquecer();
+            EntradaServico portaria = new EntradaServico(bilhetes, entradas);
+
+            System.out.println("PRONTO");
+            System.out.flush();
+            while (!Files.exists(LARGADA)) {
+                Thread.sleep(1);
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(portas);
+            List<Future<?>> leituras = new ArrayList<>();
+            for (int p = 0; p < portas; p++) {
+                String porta = nome + " / Porta " + p;
+                List<String> ordem = new ArrayList<>(codigos);
+                Collections.shuffle(ordem);
+                leituras.add(executor.submit(() -> {
+                    for (String codigo : ordem) {
+                        ResultadoEntradaDTO resultado = portaria.validarEntrada(codigo, porta);
+                        if (resultado.getStatus() == StatusEntrada.LIBERADA) {
+                            System.out.println("LIBERADA|" + codigo + "|" + porta);
+                        } else if (resultado.getStatus() != StatusEntrada.JA_UTILIZADO) {
+                            throw new IllegalStateException(codigo + ": " + resultado.getStatus());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> leitura : leituras) {
+                leitura.get(2, TimeUnit.MINUTES);
+            }
+            executor.shutdown();
+            System.out.flush();
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.teatroabc.infraestrutura.persistencia.implementacao;
+
+import com.teatroabc.apoio.DadosDeTeste;
+import com.teatroabc.apoio.JvmFilha;
+import com.teatroabc.aplicacao.excecoes.ReservaInvalidaException;
+import com.teatroabc.aplicacao.servicos.ReservaServico;
+import com.teatroabc.dominio.enums.Turno;
+import com.teatroabc.dominio.modelos.Assento;
+import com.teatroabc.dominio.modelos.Bilhete;
+import com.teatroabc.dominio.modelos.Cliente;
+import com.teatroabc.dominio.modelos.Sessao;
+import com.teatroabc.infraestrutura.config.IndicePlantaAssentos;
+import com.teatroabc.infraestrutura.persistencia.util.GerenciadorArquivos;
+import com.teatroabc.infraestrutura.persistencia.util.RegistroOcupacaoAssentos;
+import com.teatroabc.infraestrutura.utilitarios_comuns.GeradorIdUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vários terminais (JVMs) vendem os mesmos assentos de uma sessão sobre o mesmo dados/.
+ * Os bloqueios entre processos e a revalidação pelo fim do log devem impedir que dois
+ * processos vendam o mesmo assento.
+ */
+class VendaEntreProcessosTest {
+
+    private static final int TERMINAIS = 4;
+    private static final int TENTATIVAS_POR_TERMINAL = 60;
+    private static final Path LARGADA = Paths.get("largada.sinal");
+    private static final String CPF_CLIENTE = "10034519505";
+
+    @BeforeAll
+    static void prepararDados() throws Exception {
+        DadosDeTeste.prepararCopiaDaOrigem();
+        Files.deleteIfExists(LARGADA);
+    }
+
+    @Test
+    void doisTerminaisNaoVendemOMesmoAssento() throws Exception {
+        String idSessao = GeradorIdUtil.gerarNovoId();
+        List<String> disputados = new ArrayList<>();
+        for (int fileira = 1; fileira <= 3; fileira++) {
+            for (int numero = 1; numero <= 10; numero++) {
+                disputados.add("B" + fileira + "-" + numero);
+            }
+        }
+
+        List<Process> terminais = new ArrayList<>();
+        List<BufferedReader> saidas = new ArrayList<>();
+        for (int t = 0; t < TERMINAIS; t++) {
+            Process terminal = JvmFilha.iniciar(Terminal.class, idSessao,
+                    String.valueOf(TENTATIVAS_POR_TERMINAL), String.join(",", disputados));
+            terminais.add(terminal);
+            saidas.add(new BufferedReader(new InputStreamReader(terminal.getInputStream(), StandardCharsets.UTF_8)));
+        }
+        for (BufferedReader saida : saidas) {
+            assertEquals("PRONTO", saida.readLine());
+        }
+        Files.createFile(LARGADA); // Todos os terminais começam a vender juntos.
+
+        Map<String, String> vendidoPara = new HashMap<>();
+        List<String> vendasDuplicadas = new ArrayList<>();
+        int vendas = 0;
+        int recusas = 0;
+        for (int t = 0; t < TERMINAIS; t++) {
+            String linha;
+            while ((linha = saidas.get(t).readLine()) != null) {
+                String[] partes = linha.split(" ");
+                if (partes[0].equals("VENDIDO")) {
+                    vendas++;
+                    for (String codigo : partes[2].split(",")) {
+                        if (vendidoPara.putIfAbsent(codigo, partes[1]) != null) {
+                            vendasDuplicadas.add(codigo + " (terminal " + t + ")");
+                        }
+                    }
+                } else if (partes[0].equals("RECUSADO")) {
+                    recusas++;
+                }
+            }
+            assertTrue(terminais.get(t).waitFor(2, TimeUnit.MINUTES));
+            assertEquals(0, terminais.get(t).exitValue(), "Terminal " + t + " terminou com erro.");
+        }
+
+        assertTrue(vendasDuplicadas.isEmpty(), "Assentos vendidos por mais de um terminal: " + vendasDuplicadas);
+        assertEquals(TERMINAIS * TENTATIVAS_POR_TERMINAL, vendas + recusas);
+        assertTrue(vendas > 0 && recusas > 0, "A disputa deve gerar vendas e recusas.");
+
+        // Lido de volta por um processo que não vendeu nada: cada assento em um único bilhete.
+        ClienteRepositorio clienteRepositorio = new ClienteRepositorio();
+        BilheteRepositorio bilhetes = new BilheteRepositorio(clienteRepositorio, new PecaRepositorio(),
+                new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false));
+        List<Bilhete> daSessao = bilhetes.listarPorCpfCliente(CPF_CLIENTE).stream()
+                .filter(b -> b.getSessao().getId().equals(idSessao))
+                .toList();
+        Map<String, Long> vendasPorCodigo = daSessao.stream()
+                .flatMap(b -> b.getAssentos().stream())
+                .collect(Collectors.groupingBy(Assento::getCodigo, Collectors.counting()));
+        assertEquals(vendas, daSessao.size());
+        assertEquals(vendidoPara.keySet(), vendasPorCodigo.keySet());
+        assertTrue(vendasPorCodigo.values().stream().allMatch(n -> n == 1), "Gravado em dobro: " + vendasPorCodigo);
+    }
+
+    /**
+     * Um terminal de venda em uma JVM própria. Argumentos: ID da sessão, quantidade de tentativas
+     * e os códigos disputados, separados por vírgula. Escreve "PRONTO", espera a largada e então
+     * uma linha por tentativa: "VENDIDO idBilhete códigos" ou "RECUSADO".
+     */
+    public static final class Terminal {
+        public static void main(String[] args) throws Exception {
+            String idSessao = args[0];
+            int tentativas = Integer.parseInt(args[1]);
+            List<String> disputados = Arrays.asList(args[2].split(","));
+
+            RegistroOcupacaoAssentos registroOcupacao = new RegistroOcupacaoAssentos(IndicePlantaAssentos.padrao(), false);
+            PecaRepositorio pecaRepositorio = new PecaRepositorio();
+            ClienteRepositorio clienteRepositorio = new ClienteRepositorio();
+            AssentoRepositorio assentoRepositorio = new AssentoRepositorio(registroOcupacao, GerenciadorArquivos.bloqueiosEntreProcessos());
+            BilheteRepositorio bilheteRepositorio = new BilheteRepositorio(clienteRepositorio, pecaRepositorio, registroOcupacao);
+            ReservaServico reservaServico = new ReservaServico(bilheteRepositorio, assentoRepositorio);
+            Cliente cliente = clienteRepositorio.buscarPorCpf(CPF_CLIENTE).orElseThrow();
+            Sessao sessao = new Sessao(idSessao, pecaRepositorio.listarTodas().get(0),
+                    LocalDate.now().plusDays(1).atTime(20, 0), Turno.NOITE);
+            registroOcupacao.aquecer();
+            bilheteRepositorio.aquecer();
+
+            System.out.println("PRONTO");
+            System.out.flush();
+            while (!Files.exists(LARGADA)) {
+                Thread.sleep(1);
+            }
+
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            for (int i = 0; i < tentativas; i++) {
+                String primeiro = disputados.get(aleatorio.nextInt(disputados.size()));
+                String segundo = disputados.get(aleatorio.nextInt(disputados.size()));
+                List<String> codigos = primeiro.equals(segundo) ? List.of(primeiro) : List.of(primeiro, segundo);
+                List<Assento> assentos = codigos.stream().map(BilheteRepositorio::reconstruirAssento).toList();
+                try {
+                    Bilhete bilhete = reservaServico.criarReserva(sessao, cliente, assentos);
+                    System.out.println("VENDIDO " + bilhete.getId() + " " + String.join(",", codigos));
+                } catch (ReservaInvalidaException e) {
+                    System.out.println("RECUSADO");
+                }
+            }
+            System.out.flush();
+            System.exit(0);
+        }
+    }
+}
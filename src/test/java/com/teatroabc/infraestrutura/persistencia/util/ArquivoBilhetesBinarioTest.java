@@ -0,0 +1,86 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import com.teatroabc.apoio.JvmFilha;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArquivoBilhetesBinarioTest {
+
+    private static final int INDICES_ASSENTOS = 300;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void segundoTerminalNaoAbreOArquivo() throws Exception {
+        Path caminho = diretorio.resolve("bilhetes.bin");
+        try (ArquivoBilhetesBinario arquivo = new ArquivoBilhetesBinario(caminho, INDICES_ASSENTOS)) {
+            Process terminal = JvmFilha.iniciar(Terminal.class, caminho.toString());
+            BufferedReader saida = new BufferedReader(new InputStreamReader(terminal.getInputStream(), StandardCharsets.UTF_8));
+            assertEquals("EM_USO", saida.readLine());
+            assertTrue(terminal.waitFor(1, TimeUnit.MINUTES));
+
+            assertThrows(ArquivoEmUsoException.class, () -> new ArquivoBilhetesBinario(caminho, INDICES_ASSENTOS));
+            assertEquals(0, arquivo.getQuantidade());
+        }
+        // Fechado o arquivo, o bloqueio é liberado.
+        new ArquivoBilhetesBinario(caminho, INDICES_ASSENTOS).close();
+    }
+
+    @Test
+    void registrosNaoContamSeAAcaoAntesDaContabilizacaoFalhar() throws Exception {
+        Path caminho = diretorio.resolve("bilhetes.bin");
+        try (ArquivoBilhetesBinario arquivo = new ArquivoBilhetesBinario(caminho, INDICES_ASSENTOS)) {
+            assertThrows(UncheckedIOException.class, () -> arquivo.acrescentarTodos(List.of(registro("b-1")),
+                    () -> { throw new UncheckedIOException(new IOException("diário indisponível")); }));
+            assertEquals(0, arquivo.getQuantidade());
+            assertEquals(-1, arquivo.buscarId(ArquivoBilhetesBinario.codificar("b-1")));
+
+            arquivo.acrescentarTodos(List.of(registro("b-2")), () -> { });
+            assertEquals(1, arquivo.getQuantidade());
+        }
+        try (ArquivoBilhetesBinario reaberto = new ArquivoBilhetesBinario(caminho, INDICES_ASSENTOS)) {
+            assertEquals(1, reaberto.getQuantidade());
+            assertEquals(-1, reaberto.buscarId(ArquivoBilhetesBinario.codificar("b-1")));
+            assertEquals(0, reaberto.buscarId(ArquivoBilhetesBinario.codificar("b-2")));
+        }
+    }
+
+    private static ArquivoBilhetesBinario.NovoRegistro registro(String id) {
+        BitSet assentos = new BitSet(INDICES_ASSENTOS);
+        assentos.set(7);
+        return new ArquivoBilhetesBinario.NovoRegistro(id, "CB" + id, 10034519505L, "peca-1", "sessao-1",
+                0, 5000L, 0L, 5000L, 1_700_000_000L, 1_700_100_000L, assentos);
+    }
+
+    /**
+     * Tenta abrir o arquivo em uma JVM própria. Argumento: o caminho do arquivo. Escreve
+     * "EM_USO" se a abertura for recusada, ou "ABERTO".
+     */
+    public static final class Terminal {
+        public static void main(String[] args) throws Exception {
+            try (ArquivoBilhetesBinario arquivo = new ArquivoBilhetesBinario(Paths.get(args[0]), INDICES_ASSENTOS)) {
+                System.out.println("ABERTO");
+            } catch (ArquivoEmUsoException e) {
+                System.out.println("EM_USO");
+            }
+            System.out.flush();
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloqueiosEntreProcessosTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void bilheteNaoEsperaPelaSessaoDoMesmoBalde() throws Exception {
+        try (BloqueiosEntreProcessos bloqueios = new BloqueiosEntreProcessos(
+                diretorio.resolve(BloqueiosEntreProcessos.ARQUIVO_BLOQUEIOS), BloqueiosEntreProcessos.BALDES_PADRAO)) {
+            String id = "mesmo-id";
+            CountDownLatch sessaoBloqueada = new CountDownLatch(1);
+            CountDownLatch liberarSessao = new CountDownLatch(1);
+            CompletableFuture<Void> venda = CompletableFuture.runAsync(() -> {
+                try (BloqueiosEntreProcessos.Bloqueio sessao = bloqueios.bloquearSessao(id)) {
+                    sessaoBloqueada.countDown();
+                    liberarSessao.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(sessaoBloqueada.await(5, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+                try (BloqueiosEntreProcessos.Bloqueio bilhete = bloqueios.bloquearBilhete(id)) {
+                    assertFalse(venda.isDone());
+                }
+            });
+
+            liberarSessao.countDown();
+            venda.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void bilhetesDoMesmoBaldeSeExcluem() throws Exception {
+        try (BloqueiosEntreProcessos bloqueios = new BloqueiosEntreProcessos(
+                diretorio.resolve(BloqueiosEntreProcessos.ARQUIVO_BLOQUEIOS), 1)) {
+            int[] dentro = new int[1];
+            int[] maximo = new int[1];
+            CompletableFuture<?>[] portas = new CompletableFuture<?>[8];
+            for (int i = 0; i < portas.length; i++) {
+                String idBilhete = "bilhete-" + i;
+                portas[i] = CompletableFuture.runAsync(() -> {
+                    for (int leitura = 0; leitura < 200; leitura++) {
+                        try (BloqueiosEntreProcessos.Bloqueio bilhete = bloqueios.bloquearBilhete(idBilhete)) {
+                            synchronized (dentro) {
+                                maximo[0] = Math.max(maximo[0], ++dentro[0]);
+                            }
+                            synchronized (dentro) {
+                                dentro[0]--;
+                            }
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+            }
+            CompletableFuture.allOf(portas).get(30, TimeUnit.SECONDS);
+            assertEquals(1, maximo[0]);
+        }
+    }
+
+    @Test
+    void recusaBaldesQueInvademARegiaoDosBilhetes(@TempDir Path outro) {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BloqueiosEntreProcessos(outro.resolve(BloqueiosEntreProcessos.ARQUIVO_BLOQUEIOS), 20_000));
+    }
+}
@@ -0,0 +1,88 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import com.teatroabc.dominio.modelos.Centavos;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O cursor deve ler cada campo exatamente como o caminho anterior: {@code String.split},
+ * {@code BigDecimal} e {@code DateTimeFormatter}.
+ */
+class CursorRegistroTest {
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static String decimalAleatorio(SplittableRandom aleatorio) {
+        StringBuilder texto = new StringBuilder();
+        if (aleatorio.nextInt(10) == 0) {
+            texto.append('-');
+        }
+        texto.append(aleatorio.nextLong(1_000_000L));
+        int casas = aleatorio.nextInt(5); // 0 a 4 casas, com ponto ou vírgula
+        if (casas > 0) {
+            texto.append(aleatorio.nextBoolean() ? '.' : ',');
+            for (int i = 0; i < casas; i++) {
+                texto.append((char) ('0' + aleatorio.nextInt(10)));
+            }
+        }
+        return texto.toString();
+    }
+
+    @Test
+    void camposIguaisAoCaminhoComSplit() {
+        SplittableRandom aleatorio = new SplittableRandom(16);
+        CursorRegistro cursor = new CursorRegistro('|');
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (int i = 0; i < 200_000; i++) {
+            LocalDateTime dataHora = base.plusMinutes(aleatorio.nextInt(60 * 24 * 365 * 10));
+            String decimal = decimalAleatorio(aleatorio);
+            String linha = "id-" + i + "|" + (i % 7 == 0 ? "" : "texto " + i) + "|" + decimal + "|"
+                    + dataHora.format(FORMATO_DATA_HORA) + "|" + dataHora.toLocalDate().format(FORMATO_DATA) + "|" + (i - 50_000);
+            String[] partes = linha.split("\\|", -1);
+
+            cursor.sobre(linha);
+            assertEquals(partes.length, cursor.quantidadeCampos(), linha);
+            for (int campo = 0; campo < partes.length; campo++) {
+                assertEquals(partes[campo], cursor.texto(campo), linha);
+                assertEquals(partes[campo].isEmpty(), cursor.vazio(campo), linha);
+                assertTrue(cursor.campoIgual(campo, partes[campo]), linha);
+            }
+            assertFalse(cursor.campoIgual(0, partes[0] + "x"));
+            BigDecimal esperado = new BigDecimal(partes[2].replace(",", "."));
+            assertEquals(esperado, cursor.decimal(2), linha);
+            assertEquals(Centavos.de(esperado), cursor.centavos(2), linha);
+            assertEquals(LocalDateTime.parse(partes[3], FORMATO_DATA_HORA), cursor.dataHora(3), linha);
+            assertEquals(LocalDate.parse(partes[4], FORMATO_DATA), cursor.data(4), linha);
+            assertEquals(Integer.parseInt(partes[5]), cursor.inteiro(5), linha);
+        }
+    }
+
+    @Test
+    void subFaixaPercorreUmaLista() {
+        CursorRegistro campos = new CursorRegistro('|').sobre("b1|B1-1,B1-2,P3-10|x");
+        CursorRegistro codigos = new CursorRegistro(',').sobre(campos.getRegistro(), campos.inicio(1), campos.fim(1));
+        assertEquals(3, codigos.quantidadeCampos());
+        assertEquals("B1-1", codigos.texto(0));
+        assertEquals("P3-10", codigos.texto(2));
+    }
+
+    @Test
+    void recusaValoresMalFormados() {
+        CursorRegistro cursor = new CursorRegistro('|').sobre("1.2.3|abc|32/13/2025 10:00|01/01/2025");
+        assertThrows(NumberFormatException.class, () -> cursor.centavos(0));
+        assertThrows(NumberFormatException.class, () -> cursor.decimal(1));
+        assertThrows(RuntimeException.class, () -> cursor.dataHora(2));
+        assertThrows(RuntimeException.class, () -> cursor.dataHora(3));
+    }
+}
@@ -0,0 +1,118 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import com.teatroabc.apoio.JvmFilha;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Um terminal (JVM) cai depois de gravar um lote no diário compartilhado, mas antes de
+ * aplicá-lo aos arquivos de dados. O terminal que continua gravando e o terminal que volta
+ * depois não podem sobrescrever as linhas um do outro.
+ */
+class DiarioEscritaEntreProcessosTest {
+
+    private static final String ARQUIVO = "linhas.txt";
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void loteNaoAplicadoDeUmTerminalQueCaiuNaoESobrescrito() throws Exception {
+        try (BloqueiosEntreProcessos bloqueios = abrirBloqueios(diretorio)) {
+            DiarioEscrita diario = new DiarioEscrita(diretorio, bloqueios);
+            diario.confirmar(new DiarioEscrita.Transacao().acrescentar(ARQUIVO, "pai-0"));
+
+            executar(TerminalQueCai.class, "CAIU");
+
+            // As posições destas linhas são escolhidas depois do lote que o outro terminal não aplicou.
+            diario.confirmar(new DiarioEscrita.Transacao().acrescentar(ARQUIVO, "pai-1"));
+            diario.confirmar(new DiarioEscrita.Transacao().acrescentar(ARQUIVO, "pai-2"));
+
+            // O terminal que caiu volta e reaplica o diário antes de gravar.
+            executar(TerminalReiniciado.class, "GRAVOU");
+            diario.confirmar(new DiarioEscrita.Transacao().acrescentar(ARQUIVO, "pai-3"));
+            diario.close();
+        }
+
+        List<String> linhas = Files.readAllLines(diretorio.resolve(ARQUIVO), StandardCharsets.UTF_8);
+        assertEquals(List.of("pai-0", "filha-0", "perdida-1", "perdida-2", "pai-1", "pai-2", "filha-1", "pai-3"), linhas);
+        assertEquals(0L, Files.size(diretorio.resolve("diario_escrita.log")));
+    }
+
+    private void executar(Class<?> terminal, String esperado) throws Exception {
+        Process processo = JvmFilha.iniciar(terminal, diretorio.toString());
+        BufferedReader saida = new BufferedReader(new InputStreamReader(processo.getInputStream(), StandardCharsets.UTF_8));
+        assertEquals(esperado, saida.readLine());
+        assertTrue(processo.waitFor(1, TimeUnit.MINUTES));
+        assertEquals(0, processo.exitValue(), terminal.getSimpleName() + " terminou com erro.");
+    }
+
+    private static BloqueiosEntreProcessos abrirBloqueios(Path diretorio) throws Exception {
+        return new BloqueiosEntreProcessos(diretorio.resolve(BloqueiosEntreProcessos.ARQUIVO_BLOQUEIOS),
+                BloqueiosEntreProcessos.BALDES_PADRAO);
+    }
+
+    /**
+     * Grava "filha-0" normalmente e, com a região de gravação bloqueada, acrescenta ao diário
+     * um lote de duas linhas no fim do arquivo, como a thread escritora o deixaria se o processo
+     * caísse entre o force do diário e a aplicação. Escreve "CAIU" e termina sem encerrar nada.
+     * Argumento: o diretório de dados.
+     */
+    public static final class TerminalQueCai {
+        public static void main(String[] args) throws Exception {
+            Path diretorio = Paths.get(args[0]);
+            BloqueiosEntreProcessos bloqueios = abrirBloqueios(diretorio);
+            DiarioEscrita diario = new DiarioEscrita(diretorio, bloqueios);
+            diario.confirmar(new DiarioEscrita.Transacao().acrescentar(ARQUIVO, "filha-0"));
+
+            BloqueiosEntreProcessos.Bloqueio gravacao = bloqueios.bloquearGravacao();
+            long fim = Files.size(diretorio.resolve(ARQUIVO));
+            String entradas = "E|" + ARQUIVO + "|" + fim + "|perdida-1\n"
+                    + "E|" + ARQUIVO + "|" + (fim + "perdida-1\n".length()) + "|perdida-2\n";
+            CRC32 crc = new CRC32();
+            crc.update(entradas.getBytes(StandardCharsets.UTF_8));
+            byte[] lote = ("T|99|2\n" + entradas + "C|99|" + crc.getValue() + "\n").getBytes(StandardCharsets.UTF_8);
+            try (FileChannel canal = FileChannel.open(diretorio.resolve("diario_escrita.log"), StandardOpenOption.WRITE)) {
+                canal.write(ByteBuffer.wrap(lote), canal.size());
+                canal.force(false);
+            }
+
+            System.out.println("CAIU");
+            System.out.flush();
+            Runtime.getRuntime().halt(0); // Ainda com a região de gravação bloqueada.
+        }
+    }
+
+    /**
+     * Abre o diário (o que reaplica o que ficou nele), grava "filha-1", escreve "GRAVOU" e
+     * encerra normalmente. Argumento: o diretório de dados.
+     */
+    public static final class TerminalReiniciado {
+        public static void main(String[] args) throws Exception {
+            Path diretorio = Paths.get(args[0]);
+            try (BloqueiosEntreProcessos bloqueios = abrirBloqueios(diretorio);
+                 DiarioEscrita diario = new DiarioEscrita(diretorio, bloqueios)) {
+                diario.confirmar(new DiarioEscrita.Transacao().acrescentar(ARQUIVO, "filha-1"));
+            }
+            System.out.println("GRAVOU");
+            System.out.flush();
+            System.exit(0);
+        }
+    }
+}
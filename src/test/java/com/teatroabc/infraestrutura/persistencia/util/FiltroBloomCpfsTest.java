@@ -0,0 +1,98 @@
+package com.teatroabc.infraestrutura.persistencia.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Um CPF fora do filtro é dado como não cadastrado: não pode haver falso negativo, e os
+ * falsos positivos devem ficar perto da taxa escolhida enquanto o filtro não passar da capacidade.
+ */
+class FiltroBloomCpfsTest {
+
+    private static final int CADASTRADOS = 100_000;
+    private static final int NOVOS = 200_000;
+    private static final double TAXA = 0.01;
+
+    @TempDir
+    Path diretorio;
+
+    // CPFs espalhados pelo intervalo de 11 dígitos, sem repetição entre cadastrados e novos.
+    private static long cpf(long i) {
+        return 10_000_000_000L + i * 7_919L;
+    }
+
+    private static FiltroBloomCpfs filtroComCadastrados() {
+        FiltroBloomCpfs filtro = FiltroBloomCpfs.criar(CADASTRADOS, TAXA);
+        for (int i = 0; i < CADASTRADOS; i++) {
+            filtro.adicionar(cpf(i));
+        }
+        return filtro;
+    }
+
+    private static int falsosPositivos(FiltroBloomCpfs filtro) {
+        int falsos = 0;
+        for (int i = 0; i < NOVOS; i++) {
+            if (filtro.podeConter(cpf(CADASTRADOS + i))) {
+                falsos++;
+            }
+        }
+        return falsos;
+    }
+
+    @Test
+    void nenhumFalsoNegativoEFalsosPositivosPertoDaTaxa() {
+        FiltroBloomCpfs filtro = filtroComCadastrados();
+        for (int i = 0; i < CADASTRADOS; i++) {
+            assertTrue(filtro.podeConter(cpf(i)), "Falso negativo: " + cpf(i));
+        }
+        double taxaMedida = (double) falsosPositivos(filtro) / NOVOS;
+        assertTrue(taxaMedida <= TAXA * 1.5, String.format("Taxa de falsos positivos %.4f", taxaMedida));
+        assertFalse(filtro.saturado());
+    }
+
+    @Test
+    void filtroGravadoRespondeIgualAoOriginal() throws Exception {
+        FiltroBloomCpfs filtro = filtroComCadastrados();
+        filtro.cobrirAte(4_800_000L, 0x1234ABCD);
+        Path caminho = diretorio.resolve(FiltroBloomCpfs.ARQUIVO_FILTRO);
+        filtro.gravar(caminho);
+
+        FiltroBloomCpfs carregado = FiltroBloomCpfs.carregar(caminho);
+        assertNotNull(carregado);
+        assertEquals(filtro.getBytesCobertos(), carregado.getBytesCobertos());
+        assertEquals(filtro.getCrcJanela(), carregado.getCrcJanela());
+        assertEquals(filtro.getQuantidade(), carregado.getQuantidade());
+        for (int i = 0; i < CADASTRADOS; i++) {
+            assertTrue(carregado.podeConter(cpf(i)));
+        }
+        assertEquals(falsosPositivos(filtro), falsosPositivos(carregado));
+    }
+
+    @Test
+    void arquivoInvalidoNaoECarregado() throws Exception {
+        assertNull(FiltroBloomCpfs.carregar(diretorio.resolve("inexistente.bloom")));
+        Path truncado = diretorio.resolve("truncado.bloom");
+        filtroComCadastrados().gravar(truncado);
+        byte[] conteudo = Files.readAllBytes(truncado);
+        Files.write(truncado, Arrays.copyOf(conteudo, conteudo.length - 8));
+        assertNull(FiltroBloomCpfs.carregar(truncado));
+    }
+
+    @Test
+    void codificaApenasCpfsDeOnzeDigitos() {
+        assertEquals(10034519505L, FiltroBloomCpfs.codificar("10034519505"));
+        assertEquals(FiltroBloomCpfs.NAO_CODIFICAVEL, FiltroBloomCpfs.codificar("1003451950"));
+        assertEquals(FiltroBloomCpfs.NAO_CODIFICAVEL, FiltroBloomCpfs.codificar("100.345.195-05"));
+        assertEquals(FiltroBloomCpfs.NAO_CODIFICAVEL, FiltroBloomCpfs.codificar(null));
+    }
+}
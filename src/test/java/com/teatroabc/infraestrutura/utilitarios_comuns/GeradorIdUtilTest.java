@@ -0,0 +1,69 @@
+package com.teatroabc.infraestrutura.utilitarios_comuns;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeradorIdUtilTest {
+
+    @Test
+    void codigoDeBarrasTemDigitoVerificadorValido() {
+        for (int i = 0; i < 100_000; i++) {
+            String codigo = GeradorIdUtil.gerarNovoCodigoBarras();
+            assertEquals(GeradorIdUtil.DIGITOS_CODIGO_BARRAS, codigo.length());
+            assertTrue(codigo.chars().allMatch(Character::isDigit), codigo);
+            assertTrue(GeradorIdUtil.digitoVerificadorConfere(codigo), codigo);
+        }
+    }
+
+    @Test
+    void qualquerDigitoTrocadoEhRecusado() {
+        for (int amostra = 0; amostra < 200; amostra++) {
+            char[] codigo = GeradorIdUtil.gerarNovoCodigoBarras().toCharArray();
+            for (int posicao = 0; posicao < codigo.length; posicao++) {
+                char original = codigo[posicao];
+                for (char trocado = '0'; trocado <= '9'; trocado++) {
+                    if (trocado == original) {
+                        continue;
+                    }
+                    codigo[posicao] = trocado;
+                    assertFalse(GeradorIdUtil.digitoVerificadorConfere(new String(codigo)), new String(codigo));
+                }
+                codigo[posicao] = original;
+            }
+        }
+    }
+
+    @Test
+    void codigosEmOutrosFormatosNaoSaoAvaliados() {
+        assertTrue(GeradorIdUtil.digitoVerificadorConfere("749178741408")); // bilhete antigo, 12 dígitos
+        assertTrue(GeradorIdUtil.digitoVerificadorConfere("ABCDEFGHIJKLMNOPQRST"));
+    }
+
+    @Test
+    void idsSaoUnicosEOrdenadosComoTexto() {
+        Set<String> vistos = new HashSet<>();
+        String anterior = "";
+        for (int i = 0; i < 200_000; i++) {
+            String id = GeradorIdUtil.gerarNovoId();
+            assertEquals(16, id.length());
+            assertTrue(vistos.add(id), "ID repetido: " + id);
+            assertTrue(id.compareTo(anterior) > 0, id + " não é maior que " + anterior);
+            anterior = id;
+        }
+    }
+
+    @Test
+    void definirNoMantemOsIdsCrescentes() {
+        String antes = GeradorIdUtil.gerarNovoId();
+        GeradorIdUtil.definirNo((GeradorIdUtil.getNo() + 1) % GeradorSequencialIds.QUANTIDADE_NOS);
+        String depois = GeradorIdUtil.gerarNovoId();
+        assertTrue(depois.compareTo(antes) > 0);
+        assertEquals(GeradorIdUtil.getNo(), GeradorSequencialIds.noDe(Long.parseUnsignedLong(depois, 16)));
+    }
+}
@@ -0,0 +1,125 @@
+package com.teatroabc.infraestrutura.utilitarios_comuns;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeradorSequencialIdsTest {
+
+    private static final int THREADS = 16;
+    private static final int VALORES_POR_THREAD = 250_000;
+
+    /**
+     * Gera os valores em {@code THREADS} threads ao mesmo tempo e devolve os de cada thread,
+     * na ordem em que foram gerados.
+     */
+    private static long[][] gerarEmParalelo(GeradorSequencialIds gerador) throws Exception {
+        long[][] porThread = new long[THREADS][VALORES_POR_THREAD];
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long[] valores = porThread[t];
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < valores.length; i++) {
+                        valores[i] = gerador.proximo();
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return porThread;
+    }
+
+    @Test
+    void valoresSaoUnicosECrescentesSobDisputa() throws Exception {
+        GeradorSequencialIds gerador = new GeradorSequencialIds(7);
+        long inicio = System.nanoTime();
+        long[][] porThread = gerarEmParalelo(gerador);
+        long nanos = System.nanoTime() - inicio;
+
+        long[] todos = new long[THREADS * VALORES_POR_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            long[] valores = porThread[t];
+            for (int i = 1; i < valores.length; i++) {
+                assertTrue(valores[i] > valores[i - 1], "Valores de uma thread fora de ordem na posição " + i);
+            }
+            System.arraycopy(valores, 0, todos, t * VALORES_POR_THREAD, VALORES_POR_THREAD);
+        }
+        Arrays.sort(todos);
+        for (int i = 1; i < todos.length; i++) {
+            assertTrue(todos[i] != todos[i - 1], "Valor repetido: " + todos[i]);
+        }
+        assertTrue(todos[0] > 0);
+        for (long valor : todos) {
+            assertEquals(7, GeradorSequencialIds.noDe(valor));
+        }
+        // 4 milhões de valores: a sequência de 12 bits limita um nó a ~4 milhões por segundo, e o
+        // adiantamento do milissegundo mantém o ritmo em rajadas; o limite aqui só pega um gerador que trava.
+        double porSegundo = todos.length / (nanos / 1e9);
+        assertTrue(porSegundo > 1_000_000, String.format("Apenas %.0f valores por segundo", porSegundo));
+    }
+
+    @Test
+    void terminaisComNosDiferentesNuncaColidem() throws Exception {
+        long[][] terminalA = gerarEmParalelo(new GeradorSequencialIds(1));
+        long[][] terminalB = gerarEmParalelo(new GeradorSequencialIds(2));
+        long[] todos = new long[2 * THREADS * VALORES_POR_THREAD];
+        int posicao = 0;
+        for (long[][] terminal : List.of(terminalA, terminalB)) {
+            for (long[] valores : terminal) {
+                System.arraycopy(valores, 0, todos, posicao, valores.length);
+                posicao += valores.length;
+            }
+        }
+        Arrays.sort(todos);
+        for (int i = 1; i < todos.length; i++) {
+            assertTrue(todos[i] != todos[i - 1], "Valor repetido entre terminais: " + todos[i]);
+        }
+    }
+
+    @Test
+    void instanteDoValorAcompanhaORelogio() {
+        long antes = System.currentTimeMillis();
+        long valor = new GeradorSequencialIds(0).proximo();
+        long depois = System.currentTimeMillis();
+        long instante = GeradorSequencialIds.instanteDe(valor);
+        assertTrue(instante >= antes && instante <= depois, "Instante " + instante + " fora de [" + antes + ", " + depois + "]");
+    }
+
+    @Test
+    void novoGeradorContinuaDepoisDoAnterior() {
+        GeradorSequencialIds anterior = new GeradorSequencialIds(3);
+        long ultimo = 0;
+        for (int i = 0; i < 100_000; i++) {
+            ultimo = anterior.proximo();
+        }
+        GeradorSequencialIds novo = new GeradorSequencialIds(3, anterior.getUltimoTempoSequencia());
+        assertTrue(novo.proximo() > ultimo);
+    }
+
+    @Test
+    void recusaNoForaDoIntervalo() {
+        assertThrows(IllegalArgumentException.class, () -> new GeradorSequencialIds(-1));
+        assertThrows(IllegalArgumentException.class, () -> new GeradorSequencialIds(GeradorSequencialIds.QUANTIDADE_NOS));
+    }
+}